@@ -3,15 +3,15 @@ package org.carlspring.strongbox.io;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * This {@link InputStream} decorates a source {@link InputStream} with ability to replace a target chain of bytes with
  * another specified chain of bytes.<br>
  * 
- * For example it can be used as Mulitpart Stream Adapter to change boundary bytes.
+ * For example it can be used as Mulitpart Stream Adapter to change boundary bytes.<br>
+ * 
+ * The look-ahead window is kept in a fixed size ring buffer, so the stream can be used on the whole request body
+ * without any per byte allocations.
  * 
  * @author Sergey Bespalov
  * 
@@ -20,12 +20,20 @@ public class ReplacingInputStream
         extends BufferedInputStream
 {
 
-    Deque<Integer> inQueue = new LinkedList<Integer>();
-
-    Deque<Integer> outQueue = new LinkedList<Integer>();
+    private static final int EOF = -1;
 
     final byte[] search, replacement;
 
+    private final int[] inQueue;
+
+    private int inHead;
+
+    private int inSize;
+
+    private int outPosition;
+
+    private int outLength;
+
     public ReplacingInputStream(InputStream in,
                                 byte[] search,
                                 byte[] replacement)
@@ -33,14 +41,19 @@ public class ReplacingInputStream
         super(in);
         this.search = search;
         this.replacement = replacement;
+        this.inQueue = new int[Math.max(search.length, 1)];
     }
 
     private boolean isMatchFound()
     {
-        Iterator<Integer> inIter = inQueue.iterator();
+        if (search.length == 0 || inSize < search.length)
+        {
+            return false;
+        }
         for (int i = 0; i < search.length; i++)
         {
-            if (!inIter.hasNext() || search[i] != inIter.next())
+            int next = inQueue[(inHead + i) % inQueue.length];
+            if (next == EOF || search[i] != (byte) next)
             {
                 return false;
             }
@@ -52,51 +65,55 @@ public class ReplacingInputStream
         throws IOException
     {
         // Work up some look-ahead.
-        while (inQueue.size() < search.length)
+        while (inSize < inQueue.length)
         {
             int next = super.read();
-            inQueue.offer(next);
-            if (next == -1)
+            inQueue[(inHead + inSize) % inQueue.length] = next;
+            inSize++;
+            if (next == EOF)
             {
                 break;
             }
         }
     }
 
+    private int poll()
+    {
+        int result = inQueue[inHead];
+        inHead = (inHead + 1) % inQueue.length;
+        inSize--;
+
+        return result;
+    }
+
     @Override
-    public int read()
+    public synchronized int read()
         throws IOException
     {
-
         // Next byte already determined.
-        if (outQueue.isEmpty())
+        if (outPosition < outLength)
         {
+            return replacement[outPosition++] & 0xFF;
+        }
 
-            readAhead();
+        readAhead();
 
-            if (isMatchFound())
-            {
-                for (int i = 0; i < search.length; i++)
-                {
-                    inQueue.remove();
-                }
-
-                for (byte b : replacement)
-                {
-                    outQueue.offer((int) b);
-                }
-            }
-            else
-            {
-                outQueue.add(inQueue.remove());
-            }
+        if (!isMatchFound())
+        {
+            return poll();
         }
 
-        return outQueue.remove();
+        inHead = (inHead + search.length) % inQueue.length;
+        inSize -= search.length;
+
+        outPosition = 0;
+        outLength = replacement.length;
+
+        return read();
     }
 
     /**
-     * Returns false. REFilterInputStream does not support mark() and reset() methods.
+     * Returns false. ReplacingInputStream does not support mark() and reset() methods.
      */
     @Override
     public boolean markSupported()
@@ -108,9 +125,9 @@ public class ReplacingInputStream
      * Reads from the stream into the provided array.
      */
     @Override
-    public int read(byte[] b,
-                    int off,
-                    int len)
+    public synchronized int read(byte[] b,
+                                 int off,
+                                 int len)
         throws IOException
     {
         int i;
@@ -118,9 +135,9 @@ public class ReplacingInputStream
         while (len-- > 0)
         {
             i = read();
-            if (i == -1)
+            if (i == EOF)
             {
-                return (ok == 0) ? -1 : ok;
+                return (ok == 0) ? EOF : ok;
             }
             b[off++] = (byte) i;
             ok++;
@@ -132,7 +149,7 @@ public class ReplacingInputStream
     public int read(byte[] buffer)
         throws IOException
     {
-
         return read(buffer, 0, buffer.length);
     }
+
 }
@@ -0,0 +1,166 @@
+package org.carlspring.strongbox.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the progress of a long running task and lets it be cancelled cooperatively: the loops doing the work check
+ * {@link #isCancelled()} between their units of work and stop, once it's set.
+ * <p>
+ * The task records checkpoints by scope (for example, a repository), each being the key up to which the work of the
+ * scope has been completed. The checkpoints of a previous, unfinished run are passed in as resume checkpoints, which
+ * the loops take, in order to skip the work which has already been done.
+ * <p>
+ * The monitor of the task running on the current thread is available through {@link #current()}, so that the
+ * services, which the task calls, don't need to pass it around.
+ */
+public class ProgressMonitor
+{
+
+    private static final ThreadLocal<ProgressMonitor> CURRENT = new ThreadLocal<>();
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final Map<String, String> resumeCheckpoints = new ConcurrentHashMap<>();
+
+    private final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+
+    private volatile boolean cancelled;
+
+
+    public ProgressMonitor()
+    {
+    }
+
+    public ProgressMonitor(Map<String, String> resumeCheckpoints)
+    {
+        this.resumeCheckpoints.putAll(resumeCheckpoints);
+    }
+
+    /**
+     * @return the monitor bound to the current thread, or a new one, which nobody cancels, if there is none
+     */
+    public static ProgressMonitor current()
+    {
+        ProgressMonitor monitor = CURRENT.get();
+
+        return monitor != null ? monitor : new ProgressMonitor();
+    }
+
+    public static void bind(ProgressMonitor monitor)
+    {
+        CURRENT.set(monitor);
+    }
+
+    public static void unbind()
+    {
+        CURRENT.remove();
+    }
+
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the task has been cancelled
+     */
+    public void checkCancelled()
+    {
+        if (cancelled)
+        {
+            throw new CancellationException("The task has been cancelled.");
+        }
+    }
+
+    /**
+     * Adds to the number of units of work, as they are discovered.
+     */
+    public void addTotal(long count)
+    {
+        total.addAndGet(count);
+    }
+
+    public void processed(long count)
+    {
+        processed.addAndGet(count);
+    }
+
+    public long getTotal()
+    {
+        return total.get();
+    }
+
+    public long getProcessed()
+    {
+        return processed.get();
+    }
+
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * @return the number of units processed per second since the start
+     */
+    public double getThroughput()
+    {
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        return elapsed > 0 ? processed.get() * 1000d / elapsed : 0;
+    }
+
+    /**
+     * Takes the checkpoint, which the previous run has reached in the scope. The checkpoint is carried over to this run,
+     * until it's advanced by {@link #setCheckpoint(String, String)}.
+     *
+     * @return the checkpoint, or null, if the scope hasn't been started by the previous run, or has already been taken
+     */
+    public String takeResumeCheckpoint(String scope)
+    {
+        String checkpoint = resumeCheckpoints.remove(scope);
+        if (checkpoint != null)
+        {
+            checkpoints.putIfAbsent(scope, checkpoint);
+        }
+
+        return checkpoint;
+    }
+
+    public String getCheckpoint(String scope)
+    {
+        return checkpoints.get(scope);
+    }
+
+    public void setCheckpoint(String scope,
+                              String checkpoint)
+    {
+        checkpoints.put(scope, checkpoint);
+    }
+
+    /**
+     * @return the checkpoints reached so far, along with the ones of the previous run, which haven't been taken yet
+     */
+    public Map<String, String> getCheckpoints()
+    {
+        Map<String, String> result = new HashMap<>(resumeCheckpoints);
+        result.putAll(checkpoints);
+
+        return Collections.unmodifiableMap(result);
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ReplacingInputStreamTest
+{
+
+    private static final byte[] SEARCH = "--boundary".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] REPLACEMENT = "--other-boundary".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testPatternStraddlingReadBufferBoundary()
+            throws IOException
+    {
+        // The default buffer of the BufferedInputStream is 8192 bytes long.
+        byte[] head = new byte[8192 - SEARCH.length / 2];
+        Arrays.fill(head, (byte) 'a');
+
+        byte[] source = concat(head, SEARCH, "tail".getBytes(StandardCharsets.US_ASCII));
+        byte[] expected = concat(head, REPLACEMENT, "tail".getBytes(StandardCharsets.US_ASCII));
+
+        // The source hands out a few bytes at a time, so that the pattern is split between the buffer refills too.
+        assertArrayEquals(expected, readFully(new ReplacingInputStream(new ChunkedInputStream(source, 3),
+                                                                       SEARCH,
+                                                                       REPLACEMENT), 7));
+    }
+
+    @Test
+    public void testSingleByteRead()
+            throws IOException
+    {
+        byte[] source = "a--boundaryb--boundary".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = "a--other-boundaryb--other-boundary".getBytes(StandardCharsets.US_ASCII);
+
+        try (InputStream is = new ReplacingInputStream(new ByteArrayInputStream(source), SEARCH, REPLACEMENT))
+        {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            int next;
+            while ((next = is.read()) != -1)
+            {
+                os.write(next);
+            }
+
+            assertArrayEquals(expected, os.toByteArray());
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    public void testHighBytesAreNotTakenForEof()
+            throws IOException
+    {
+        byte[] source = new byte[]{ (byte) 0xFF, (byte) 0x80, 1 };
+
+        try (InputStream is = new ReplacingInputStream(new ByteArrayInputStream(source), SEARCH, REPLACEMENT))
+        {
+            assertEquals(0xFF, is.read());
+            assertEquals(0x80, is.read());
+            assertEquals(1, is.read());
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    public void testNoMatch()
+            throws IOException
+    {
+        byte[] source = "--boundar--boundar-y".getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals(source, readFully(new ReplacingInputStream(new ByteArrayInputStream(source),
+                                                                     SEARCH,
+                                                                     REPLACEMENT), 4));
+    }
+
+    @Test
+    public void testPartialMatchAtEof()
+            throws IOException
+    {
+        byte[] source = "abc--bound".getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals(source, readFully(new ReplacingInputStream(new ByteArrayInputStream(source),
+                                                                     SEARCH,
+                                                                     REPLACEMENT), 1024));
+    }
+
+    @Test
+    public void testMatchAtEof()
+            throws IOException
+    {
+        byte[] source = "abc--boundary".getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals("abc--other-boundary".getBytes(StandardCharsets.US_ASCII),
+                          readFully(new ReplacingInputStream(new ByteArrayInputStream(source), SEARCH, REPLACEMENT),
+                                    5));
+    }
+
+    @Test
+    public void testEmptySource()
+            throws IOException
+    {
+        try (InputStream is = new ReplacingInputStream(new ByteArrayInputStream(new byte[0]), SEARCH, REPLACEMENT))
+        {
+            assertEquals(-1, is.read());
+            assertEquals(-1, is.read(new byte[16]));
+        }
+    }
+
+    private static byte[] readFully(InputStream is,
+                                    int bufferSize)
+            throws IOException
+    {
+        try (InputStream in = is)
+        {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            byte[] buffer = new byte[bufferSize];
+            int len;
+            while ((len = in.read(buffer)) != -1)
+            {
+                os.write(buffer, 0, len);
+            }
+
+            return os.toByteArray();
+        }
+    }
+
+    private static byte[] concat(byte[]... parts)
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        for (byte[] part : parts)
+        {
+            os.write(part, 0, part.length);
+        }
+
+        return os.toByteArray();
+    }
+
+    private static class ChunkedInputStream
+            extends FilterInputStream
+    {
+
+        private final int chunkSize;
+
+        ChunkedInputStream(byte[] source,
+                           int chunkSize)
+        {
+            super(new ByteArrayInputStream(source));
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+                throws IOException
+        {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+
+    }
+
+}
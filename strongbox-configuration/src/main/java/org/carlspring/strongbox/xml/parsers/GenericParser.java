@@ -21,10 +21,14 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,11 +44,19 @@ public class GenericParser<T>
 
     private static final Logger logger = LoggerFactory.getLogger(GenericParser.class);
 
-    private ReentrantLock lock = new ReentrantLock();
+    /**
+     * The maximum number of idle marshallers (and unmarshallers) kept per {@link JAXBContext}.
+     */
+    private static final int POOL_SIZE = 16;
+
+    /**
+     * The {@link JAXBContext}s are expensive to create, so they are shared by all the parsers of the same classes.
+     */
+    private static final Map<Set<Class>, JAXBContextHolder> contexts = new ConcurrentHashMap<>();
 
     private Set<Class> classes = new LinkedHashSet<>();
 
-    private JAXBContext context;
+    private volatile JAXBContextHolder contextHolder;
 
 
     static
@@ -110,21 +122,14 @@ public class GenericParser<T>
     public T parse(InputStream is)
             throws JAXBException
     {
-        T object = null;
+        JAXBContextHolder holder = getContextHolder();
 
-        try
-        {
-            lock.lock();
+        Unmarshaller unmarshaller = holder.borrowUnmarshaller();
 
-            Unmarshaller unmarshaller = getContext().createUnmarshaller();
+        //noinspection unchecked
+        T object = (T) unmarshaller.unmarshal(is);
 
-            //noinspection unchecked
-            object = (T) unmarshaller.unmarshal(is);
-        }
-        finally
-        {
-            lock.unlock();
-        }
+        holder.returnUnmarshaller(unmarshaller);
 
         return object;
     }
@@ -162,21 +167,13 @@ public class GenericParser<T>
                       OutputStream os)
             throws JAXBException
     {
-        try
-        {
-            lock.lock();
+        JAXBContextHolder holder = getContextHolder();
 
-            JAXBContext context = getContext();
+        Marshaller marshaller = holder.borrowMarshaller();
 
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, IS_OUTPUT_FORMATTED);
+        marshaller.marshal(object, os);
 
-            marshaller.marshal(object, os);
-        }
-        finally
-        {
-            lock.unlock();
-        }
+        holder.returnMarshaller(marshaller);
     }
 
     /**
@@ -189,65 +186,160 @@ public class GenericParser<T>
             throws JAXBException
     {
         StringWriter writer = new StringWriter();
-        try
-        {
-            lock.lock();
 
-            JAXBContext context = getContext();
+        JAXBContextHolder holder = getContextHolder();
 
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, IS_OUTPUT_FORMATTED);
+        Marshaller marshaller = holder.borrowMarshaller();
 
-            marshaller.marshal(object, writer);
-            return writer.getBuffer().toString();
-        }
-        finally
-        {
-            lock.unlock();
-        }
+        marshaller.marshal(object, writer);
+
+        holder.returnMarshaller(marshaller);
+
+        return writer.getBuffer().toString();
     }
 
     @SuppressWarnings("unchecked")
     public T deserialize(String input)
             throws JAXBException
     {
-        try
-        {
-            lock.lock();
+        JAXBContextHolder holder = getContextHolder();
 
-            JAXBContext context = getContext();
-            Unmarshaller m = context.createUnmarshaller();
-            return (T) m.unmarshal(new StringReader(input));
-        }
-        finally
-        {
-            lock.unlock();
-        }
+        Unmarshaller unmarshaller = holder.borrowUnmarshaller();
+
+        T object = (T) unmarshaller.unmarshal(new StringReader(input));
+
+        holder.returnUnmarshaller(unmarshaller);
+
+        return object;
     }
 
     public void setContext(Class<?> classType)
             throws JAXBException
     {
-        context = JAXBContext.newInstance(classType);
+        classes = new LinkedHashSet<>();
+        classes.add(classType);
+
+        contextHolder = null;
     }
 
     public JAXBContext getContext()
             throws JAXBException
     {
-        if (context == null)
+        return getContextHolder().context;
+    }
+
+    private JAXBContextHolder getContextHolder()
+    {
+        JAXBContextHolder holder = contextHolder;
+        if (holder == null)
+        {
+            holder = getContextHolder(classes);
+            contextHolder = holder;
+        }
+
+        return holder;
+    }
+
+    /**
+     * Returns the process-wide {@link JAXBContext} for the given classes, creating it on the first call only.
+     */
+    public static JAXBContext getSharedContext(Class<?>... classes)
+    {
+        return getContextHolder(new LinkedHashSet<>(Arrays.asList(classes))).context;
+    }
+
+    /**
+     * Borrows a {@link Marshaller} of the process-wide {@link JAXBContext} for the given classes. It should be
+     * handed back with {@link #returnSharedMarshaller(Marshaller, Class[])} once it has marshalled successfully.
+     */
+    public static Marshaller borrowSharedMarshaller(Class<?>... classes)
+            throws JAXBException
+    {
+        return getContextHolder(new LinkedHashSet<>(Arrays.asList(classes))).borrowMarshaller();
+    }
+
+    public static void returnSharedMarshaller(Marshaller marshaller,
+                                              Class<?>... classes)
+    {
+        getContextHolder(new LinkedHashSet<>(Arrays.asList(classes))).returnMarshaller(marshaller);
+    }
+
+    private static JAXBContextHolder getContextHolder(Set<Class> classes)
+    {
+        return contexts.computeIfAbsent(Collections.unmodifiableSet(new LinkedHashSet<>(classes)), c ->
         {
             try
             {
-                context = JAXBContext.newInstance(classes.toArray(new Class[classes.size()]));
+                return new JAXBContextHolder(JAXBContext.newInstance(c.toArray(new Class[c.size()])));
             }
             catch (Exception e)
             {
                 logger.error(e.getMessage(), e);
                 throw new RuntimeException(e);
             }
+        });
+    }
+
+    /**
+     * A {@link JAXBContext} along with its pooled {@link Marshaller}s and {@link Unmarshaller}s. The context is
+     * thread-safe, while the marshallers and unmarshallers are not, so each of them is only used by one thread at a
+     * time. A marshaller that failed is not returned to the pool, as it may be left in an inconsistent state.
+     */
+    private static class JAXBContextHolder
+    {
+
+        private final JAXBContext context;
+
+        private final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        JAXBContextHolder(JAXBContext context)
+        {
+            this.context = context;
+        }
+
+        Marshaller borrowMarshaller()
+                throws JAXBException
+        {
+            Marshaller marshaller = marshallers.poll();
+            if (marshaller == null)
+            {
+                marshaller = context.createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, IS_OUTPUT_FORMATTED);
+            }
+
+            return marshaller;
+        }
+
+        void returnMarshaller(Marshaller marshaller)
+        {
+            try
+            {
+                // The marshaller may have been borrowed to write a fragment.
+                marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+            }
+            catch (JAXBException e)
+            {
+                return;
+            }
+
+            marshallers.offer(marshaller);
+        }
+
+        Unmarshaller borrowUnmarshaller()
+                throws JAXBException
+        {
+            Unmarshaller unmarshaller = unmarshallers.poll();
+
+            return unmarshaller != null ? unmarshaller : context.createUnmarshaller();
+        }
+
+        void returnUnmarshaller(Unmarshaller unmarshaller)
+        {
+            unmarshallers.offer(unmarshaller);
         }
 
-        return context;
     }
 
 }
@@ -5,7 +5,6 @@ import org.carlspring.strongbox.config.StorageCoreConfig;
 import org.carlspring.strongbox.cron.services.impl.CronTaskExecutor;
 
 import javax.inject.Inject;
-import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -40,7 +39,7 @@ public class CronTasksConfig
     }
 
     @Bean
-    public Executor cronJobTaskExecutor()
+    public CronTaskExecutor cronJobTaskExecutor()
     {
         return new CronTaskExecutor(10, 10, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
     }
@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.cron.domain;
+
+import org.carlspring.strongbox.util.ProgressMonitor;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The progress of a running cron task.
+ */
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.NONE)
+public class CronTaskProgress
+{
+
+    @XmlElement(name = "name")
+    private String name;
+
+    @XmlElement(name = "processed")
+    private long processed;
+
+    @XmlElement(name = "total")
+    private long total;
+
+    /**
+     * The number of units processed per second.
+     */
+    @XmlElement(name = "throughput")
+    private double throughput;
+
+    @XmlElement(name = "start-time")
+    private long startTime;
+
+    @XmlElement(name = "cancelled")
+    private boolean cancelled;
+
+    /**
+     * The checkpoints reached so far, by scope (for example, storage0:releases).
+     */
+    @XmlElement(name = "checkpoints")
+    private Map<String, String> checkpoints = new HashMap<>();
+
+
+    public CronTaskProgress()
+    {
+    }
+
+    public CronTaskProgress(String name,
+                            ProgressMonitor monitor)
+    {
+        this.name = name;
+        this.processed = monitor.getProcessed();
+        this.total = monitor.getTotal();
+        this.throughput = monitor.getThroughput();
+        this.startTime = monitor.getStartTime();
+        this.cancelled = monitor.isCancelled();
+        this.checkpoints = new HashMap<>(monitor.getCheckpoints());
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    public long getProcessed()
+    {
+        return processed;
+    }
+
+    public void setProcessed(long processed)
+    {
+        this.processed = processed;
+    }
+
+    public long getTotal()
+    {
+        return total;
+    }
+
+    public void setTotal(long total)
+    {
+        this.total = total;
+    }
+
+    public double getThroughput()
+    {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput)
+    {
+        this.throughput = throughput;
+    }
+
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime)
+    {
+        this.startTime = startTime;
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    public void setCancelled(boolean cancelled)
+    {
+        this.cancelled = cancelled;
+    }
+
+    public Map<String, String> getCheckpoints()
+    {
+        return checkpoints;
+    }
+
+    public void setCheckpoints(Map<String, String> checkpoints)
+    {
+        this.checkpoints = checkpoints;
+    }
+
+}
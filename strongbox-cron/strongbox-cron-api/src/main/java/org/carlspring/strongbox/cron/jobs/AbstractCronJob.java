@@ -3,10 +3,18 @@ package org.carlspring.strongbox.cron.jobs;
 import org.carlspring.strongbox.cron.CronJobStatusEnum;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
 import org.carlspring.strongbox.cron.services.CronTaskConfigurationService;
+import org.carlspring.strongbox.cron.services.CronTaskDataService;
 import org.carlspring.strongbox.cron.services.JobManager;
 import org.carlspring.strongbox.event.cron.CronTaskEventListenerRegistry;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import javax.inject.Inject;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
 
 import org.quartz.InterruptableJob;
 import org.quartz.JobExecutionContext;
@@ -17,6 +25,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
 /**
+ * Runs a cron task with a {@link ProgressMonitor} bound to the executing thread, through which the task reports its
+ * progress and learns of being interrupted. An interrupted (or failed) execution stores the checkpoints it has reached
+ * in the {@link #PROPERTY_CHECKPOINT} property of the configuration, so that the next execution resumes from them.
+ *
  * @author carlspring
  */
 public abstract class AbstractCronJob
@@ -24,6 +36,11 @@ public abstract class AbstractCronJob
         implements InterruptableJob
 {
 
+    /**
+     * The configuration property holding the checkpoints of an unfinished execution, one scope=checkpoint per line.
+     */
+    public static final String PROPERTY_CHECKPOINT = "checkpoint";
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
     
     private CronTaskConfiguration configuration;
@@ -34,11 +51,16 @@ public abstract class AbstractCronJob
     @Inject
     private CronTaskConfigurationService cronTaskConfigurationService;
 
+    @Inject
+    private CronTaskDataService cronTaskDataService;
+
     @Inject
     private JobManager manager;
 
     private String status = CronJobStatusEnum.SLEEPING.getStatus();
 
+    private volatile ProgressMonitor progressMonitor;
+
 
     public abstract void executeTask(CronTaskConfiguration config)
             throws Throwable;
@@ -61,15 +83,42 @@ public abstract class AbstractCronJob
 
         CronTaskConfiguration config = (CronTaskConfiguration) jobExecutionContext.getMergedJobDataMap().get("config");
 
+        ProgressMonitor monitor = new ProgressMonitor(parseCheckpoints(configuration.getProperty(PROPERTY_CHECKPOINT)));
+        progressMonitor = monitor;
+        manager.addRunningJob(configuration.getName(), monitor);
+        ProgressMonitor.bind(monitor);
+
+        boolean completed = false;
         try
         {
             executeTask(config);
-            logger.info(String.format("Cron job task [%s] execution completed.", configuration.getName()));
+            completed = !monitor.isCancelled();
+            if (completed)
+            {
+                logger.info(String.format("Cron job task [%s] execution completed.", configuration.getName()));
+            }
+        }
+        catch (CancellationException e)
+        {
+            // Reported below.
         }
         catch (Throwable e)
         {
             logger.error(String.format("Failed to execute cron job task [%s].", configuration.getName()), e);
         }
+        finally
+        {
+            ProgressMonitor.unbind();
+            manager.removeRunningJob(configuration.getName());
+        }
+
+        if (monitor.isCancelled())
+        {
+            logger.info(String.format("Cron job task [%s] interrupted after processing %d of %d.",
+                                      configuration.getName(), monitor.getProcessed(), monitor.getTotal()));
+        }
+        saveCheckpoints(completed ? Collections.emptyMap() : monitor.getCheckpoints());
+
         manager.addExecutedJob(config.getName(), true);
 
         cronTaskEventListenerRegistry.dispatchCronTaskExecutedEvent(configuration.getName());
@@ -92,6 +141,68 @@ public abstract class AbstractCronJob
     public void interrupt()
             throws UnableToInterruptJobException
     {
+        ProgressMonitor monitor = progressMonitor;
+        if (monitor != null)
+        {
+            monitor.cancel();
+        }
+    }
+
+    private void saveCheckpoints(Map<String, String> checkpoints)
+    {
+        String checkpoint = checkpoints.isEmpty() ? null : formatCheckpoints(checkpoints);
+        if (checkpoint == null ? !configuration.contains(PROPERTY_CHECKPOINT) :
+            checkpoint.equals(configuration.getProperty(PROPERTY_CHECKPOINT)))
+        {
+            return;
+        }
+
+        if (checkpoint == null)
+        {
+            configuration.removeProperty(PROPERTY_CHECKPOINT);
+        }
+        else
+        {
+            configuration.addProperty(PROPERTY_CHECKPOINT, checkpoint);
+        }
+
+        try
+        {
+            configuration = cronTaskDataService.save(configuration);
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to save the checkpoint of cron job task [%s].",
+                                       configuration.getName()), e);
+        }
+    }
+
+    private static Map<String, String> parseCheckpoints(String checkpoint)
+    {
+        Map<String, String> checkpoints = new LinkedHashMap<>();
+        if (checkpoint == null)
+        {
+            return checkpoints;
+        }
+
+        for (String line : checkpoint.split("\n"))
+        {
+            int index = line.indexOf('=');
+            if (index > 0)
+            {
+                checkpoints.put(line.substring(0, index), line.substring(index + 1));
+            }
+        }
+
+        return checkpoints;
+    }
+
+    private static String formatCheckpoints(Map<String, String> checkpoints)
+    {
+        return new TreeMap<>(checkpoints).entrySet()
+                                         .stream()
+                                         .map(e -> e.getKey() + "=" + e.getValue())
+                                         .collect(Collectors.joining("\n"));
     }
 
     public void beforeScheduleCallback(CronTaskConfiguration config)
@@ -99,6 +210,14 @@ public abstract class AbstractCronJob
     {
     }
 
+    /**
+     * @return the progress monitor of the current (or last) execution, or null, if the job hasn't been executed
+     */
+    public ProgressMonitor getProgressMonitor()
+    {
+        return progressMonitor;
+    }
+
     public CronTaskConfiguration getConfiguration()
     {
         return configuration;
@@ -21,5 +21,13 @@ public interface CronJobSchedulerService
     void deleteJob(CronTaskConfiguration cronTaskConfiguration)
                     throws ClassNotFoundException, SchedulerException, CronTaskNotFoundException;
 
+    /**
+     * Asks the running executions of the job to stop; they record a checkpoint to resume from on their next run.
+     *
+     * @return true, if the job was running
+     */
+    boolean interruptJob(CronTaskConfiguration cronTaskConfiguration)
+            throws SchedulerException;
+
     GroovyScriptNames getGroovyScriptsName();
 }
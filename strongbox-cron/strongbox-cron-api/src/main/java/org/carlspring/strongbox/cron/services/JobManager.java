@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.cron.services;
 
 import org.carlspring.strongbox.cron.config.JobExecutionListener;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import java.util.Map;
 import java.util.Optional;
@@ -31,4 +32,21 @@ public interface JobManager
                                    JobExecutionListener executionListener);
 
     Optional<JobExecutionListener> getJobExecutionListener(String jobName);
+
+    /**
+     * Registers the progress monitor of a running job.
+     *
+     * @param jobName job's name type String
+     * @param monitor the monitor of the job's current execution
+     */
+    void addRunningJob(String jobName,
+                       ProgressMonitor monitor);
+
+    void removeRunningJob(String jobName);
+
+    /**
+     * @param jobName job's name type String
+     * @return the progress monitor of the job, if it's running
+     */
+    Optional<ProgressMonitor> getRunningJob(String jobName);
 }
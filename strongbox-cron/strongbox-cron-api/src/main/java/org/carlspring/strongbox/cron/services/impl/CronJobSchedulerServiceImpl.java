@@ -138,6 +138,19 @@ public class CronJobSchedulerServiceImpl
         logger.debug("Job '" + cronTaskConfiguration.getName() + "' un-scheduled.");
     }
 
+    @Override
+    public boolean interruptJob(CronTaskConfiguration cronTaskConfiguration)
+            throws SchedulerException
+    {
+        Scheduler scheduler = schedulerFactoryBean.getScheduler();
+
+        boolean interrupted = scheduler.interrupt(JobKey.jobKey(cronTaskConfiguration.getName()));
+
+        logger.debug("Job '" + cronTaskConfiguration.getName() + "' " + (interrupted ? "interrupted." : "not running."));
+
+        return interrupted;
+    }
+
     @Override
     public GroovyScriptNames getGroovyScriptsName()
     {
@@ -1,15 +1,32 @@
 package org.carlspring.strongbox.cron.services.impl;
 
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.carlspring.strongbox.log.CronTaskContextFilter;
 import org.carlspring.strongbox.log.LoggingUtils;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ProgressMonitor;
 import org.quartz.Job;
 import org.quartz.JobDetail;
 import org.quartz.core.JobRunShell;
@@ -20,11 +37,35 @@ import org.slf4j.MDC;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.ReflectionUtils;
 
+/**
+ * Runs the cron jobs. The jobs can fan out their per-repository work through
+ * {@link #executeForRepositories(Collection, RepositoryTask)}, which runs it on a separate pool of
+ * {@link #PROPERTY_REPOSITORY_CONCURRENCY} threads, so that the fanned out work never waits for a job thread. The
+ * repositories of the same storage are throttled to {@link #PROPERTY_STORAGE_CONCURRENCY} at a time, as they usually
+ * share a disk: the ones over the limit are queued by storage, rather than submitted to the pool, so they never hold a
+ * thread, which the repositories of the other storages could use.
+ */
 public class CronTaskExecutor extends ThreadPoolExecutor implements DisposableBean
 {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CronTaskExecutor.class);
 
+    /**
+     * The number of repositories processed at the same time, across all the jobs; defaults to 4.
+     */
+    public static final String PROPERTY_REPOSITORY_CONCURRENCY = "strongbox.cron.repository.concurrency";
+
+    /**
+     * The number of repositories of the same storage processed at the same time; defaults to 2.
+     */
+    public static final String PROPERTY_STORAGE_CONCURRENCY = "strongbox.cron.storage.concurrency";
+
+    private final int storageConcurrency = Math.max(Integer.getInteger(PROPERTY_STORAGE_CONCURRENCY, 2), 1);
+
+    private final Map<String, StorageQueue> storageQueues = new ConcurrentHashMap<>();
+
+    private final ExecutorService repositoryExecutor = createRepositoryExecutor();
+
     public CronTaskExecutor(int corePoolSize,
                             int maximumPoolSize,
                             long keepAliveTime,
@@ -70,6 +111,105 @@ public class CronTaskExecutor extends ThreadPoolExecutor implements DisposableBe
         throws Exception
     {
         shutdown();
+        repositoryExecutor.shutdownNow();
+    }
+
+    /**
+     * Executes the task for each of the repositories in parallel and waits for all of them. The repositories not started
+     * yet are skipped, once the {@link ProgressMonitor} of the calling job is cancelled.
+     *
+     * @throws Exception the first exception thrown by the task; the others are added to it as suppressed
+     */
+    public void executeForRepositories(Collection<Repository> repositories,
+                                       RepositoryTask task)
+            throws Exception
+    {
+        ProgressMonitor monitor = ProgressMonitor.current();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Repository repository : repositories)
+        {
+            FutureTask<Void> future = new FutureTask<>(() -> {
+                executeForRepository(repository, task, monitor, context);
+                return null;
+            });
+            futures.add(future);
+
+            storageQueues.computeIfAbsent(repository.getStorage().getId(), id -> new StorageQueue()).submit(future);
+        }
+
+        Exception exception = null;
+        for (Future<?> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (ExecutionException | CancellationException e)
+            {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if (exception == null)
+                {
+                    exception = cause;
+                }
+                else
+                {
+                    exception.addSuppressed(cause);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+
+                throw e;
+            }
+        }
+
+        if (exception != null)
+        {
+            throw exception;
+        }
+    }
+
+    private void executeForRepository(Repository repository,
+                                      RepositoryTask task,
+                                      ProgressMonitor monitor,
+                                      Map<String, String> context)
+            throws Exception
+    {
+        if (monitor.isCancelled())
+        {
+            return;
+        }
+
+        try
+        {
+            if (context != null)
+            {
+                MDC.setContextMap(context);
+            }
+            ProgressMonitor.bind(monitor);
+
+            task.execute(repository);
+        }
+        finally
+        {
+            ProgressMonitor.unbind();
+            MDC.clear();
+        }
+    }
+
+    private static ExecutorService createRepositoryExecutor()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(Math.max(Integer.getInteger(PROPERTY_REPOSITORY_CONCURRENCY, 4), 1), r -> {
+            Thread thread = new Thread(r, "cron-repository-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -133,4 +273,77 @@ public class CronTaskExecutor extends ThreadPoolExecutor implements DisposableBe
         MDC.remove(CronTaskContextFilter.STRONGBOX_CRON_CONTEXT_NAME);
     }
 
+    /**
+     * Runs the repositories of a storage on the repository pool, up to {@link #PROPERTY_STORAGE_CONCURRENCY} at a time;
+     * the others wait here, in order, and are submitted as the running ones complete.
+     */
+    private class StorageQueue
+    {
+
+        private final Queue<FutureTask<?>> pending = new ArrayDeque<>();
+
+        private int running;
+
+
+        synchronized void submit(FutureTask<?> task)
+        {
+            if (running < storageConcurrency)
+            {
+                execute(task);
+            }
+            else
+            {
+                pending.add(task);
+            }
+        }
+
+        private synchronized void completed()
+        {
+            running--;
+
+            FutureTask<?> next;
+            while (running < storageConcurrency && (next = pending.poll()) != null)
+            {
+                execute(next);
+            }
+        }
+
+        private void execute(FutureTask<?> task)
+        {
+            running++;
+            try
+            {
+                repositoryExecutor.execute(() -> {
+                    try
+                    {
+                        task.run();
+                    }
+                    finally
+                    {
+                        completed();
+                    }
+                });
+            }
+            catch (RejectedExecutionException e)
+            {
+                // The executor has been shut down.
+                running--;
+                task.cancel(false);
+            }
+        }
+
+    }
+
+    /**
+     * The work of a cron job for a single repository.
+     */
+    @FunctionalInterface
+    public interface RepositoryTask
+    {
+
+        void execute(Repository repository)
+                throws Exception;
+
+    }
+
 }
@@ -2,10 +2,12 @@ package org.carlspring.strongbox.cron.services.impl;
 
 import org.carlspring.strongbox.cron.config.JobExecutionListener;
 import org.carlspring.strongbox.cron.services.JobManager;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Component;
 
@@ -21,10 +23,13 @@ public class JobManagerImpl
 
     private final Map<String, Boolean> executedJobs;
 
+    private final Map<String, ProgressMonitor> runningJobs;
+
     public JobManagerImpl()
     {
         listenerRegistry = new HashMap<>();
         executedJobs = new HashMap<>();
+        runningJobs = new ConcurrentHashMap<>();
     }
 
     public synchronized void addExecutedJob(String jobName,
@@ -61,4 +66,23 @@ public class JobManagerImpl
         return Optional.ofNullable(listenerRegistry.get(jobName));
     }
 
+    @Override
+    public void addRunningJob(String jobName,
+                              ProgressMonitor monitor)
+    {
+        runningJobs.put(jobName, monitor);
+    }
+
+    @Override
+    public void removeRunningJob(String jobName)
+    {
+        runningJobs.remove(jobName);
+    }
+
+    @Override
+    public Optional<ProgressMonitor> getRunningJob(String jobName)
+    {
+        return Optional.ofNullable(runningJobs.get(jobName));
+    }
+
 }
@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
+import org.carlspring.strongbox.cron.services.CronTaskConfigurationService;
+import org.carlspring.strongbox.cron.services.CronTaskDataService;
+import org.carlspring.strongbox.cron.services.JobManager;
+import org.carlspring.strongbox.event.cron.CronTaskEventListenerRegistry;
+import org.carlspring.strongbox.util.ProgressMonitor;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class AbstractCronJobTest
+{
+
+    private static final String SCOPE = "storage0:releases";
+
+    @Mock
+    private CronTaskEventListenerRegistry cronTaskEventListenerRegistry;
+
+    @Mock
+    private CronTaskConfigurationService cronTaskConfigurationService;
+
+    @Mock
+    private CronTaskDataService cronTaskDataService;
+
+    @Mock
+    private JobManager manager;
+
+    @Mock
+    private JobExecutionContext jobExecutionContext;
+
+    @InjectMocks
+    private CheckpointingCronJob job = new CheckpointingCronJob();
+
+    private CronTaskConfiguration configuration;
+
+    @Before
+    public void setUp()
+    {
+        initMocks(this);
+
+        configuration = new CronTaskConfiguration();
+        configuration.setName("acjt");
+        job.setConfiguration(configuration);
+
+        when(jobExecutionContext.getMergedJobDataMap())
+                .thenReturn(new JobDataMap(Collections.singletonMap("config", configuration)));
+        when(cronTaskDataService.save(any(CronTaskConfiguration.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+    }
+
+    @Test
+    public void testInterruptedExecutionSavesTheCheckpoints()
+            throws Exception
+    {
+        job.checkpoint = "org/carlspring";
+        job.interruptExecution = true;
+
+        job.executeInternal(jobExecutionContext);
+
+        assertEquals(SCOPE + "=org/carlspring", configuration.getProperty(AbstractCronJob.PROPERTY_CHECKPOINT));
+        verify(cronTaskDataService).save(configuration);
+        verify(manager).removeRunningJob("acjt");
+    }
+
+    @Test
+    public void testFailedExecutionSavesTheCheckpoints()
+            throws Exception
+    {
+        configuration.addProperty(AbstractCronJob.PROPERTY_CHECKPOINT, SCOPE + "=org/apache");
+        job.checkpoint = "org/carlspring";
+        job.failExecution = true;
+
+        job.executeInternal(jobExecutionContext);
+
+        assertEquals("org/apache", job.resumeCheckpoint);
+        assertEquals(SCOPE + "=org/carlspring", configuration.getProperty(AbstractCronJob.PROPERTY_CHECKPOINT));
+    }
+
+    @Test
+    public void testCompletedExecutionClearsTheCheckpoints()
+            throws Exception
+    {
+        configuration.addProperty(AbstractCronJob.PROPERTY_CHECKPOINT, SCOPE + "=org/apache");
+        job.checkpoint = "org/carlspring";
+
+        job.executeInternal(jobExecutionContext);
+
+        assertEquals("org/apache", job.resumeCheckpoint);
+        assertFalse(configuration.contains(AbstractCronJob.PROPERTY_CHECKPOINT));
+        verify(cronTaskDataService).save(configuration);
+    }
+
+    @Test
+    public void testCompletedExecutionWithoutCheckpointsIsNotSaved()
+            throws Exception
+    {
+        job.executeInternal(jobExecutionContext);
+
+        assertNull(job.resumeCheckpoint);
+        verify(cronTaskDataService, never()).save(any(CronTaskConfiguration.class));
+    }
+
+    static class CheckpointingCronJob
+            extends JavaCronJob
+    {
+
+        String checkpoint;
+
+        boolean interruptExecution;
+
+        boolean failExecution;
+
+        String resumeCheckpoint;
+
+        @Override
+        public void executeTask(CronTaskConfiguration config)
+                throws Throwable
+        {
+            ProgressMonitor monitor = ProgressMonitor.current();
+            resumeCheckpoint = monitor.takeResumeCheckpoint(SCOPE);
+            if (checkpoint != null)
+            {
+                monitor.setCheckpoint(SCOPE, checkpoint);
+            }
+
+            if (interruptExecution)
+            {
+                interrupt();
+            }
+            if (failExecution)
+            {
+                throw new IOException("The task has failed.");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
+import org.carlspring.strongbox.util.ProgressMonitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a checkpoint and then waits, until it's interrupted (for up to a minute).
+ */
+public class InterruptibleTask
+        extends JavaCronJob
+{
+
+    public static final String CHECKPOINT_SCOPE = "storage0:releases";
+
+    public static final String CHECKPOINT = "org/carlspring";
+
+    @Override
+    public void executeTask(CronTaskConfiguration config)
+            throws Throwable
+    {
+        ProgressMonitor monitor = ProgressMonitor.current();
+        monitor.addTotal(2);
+        monitor.processed(1);
+        monitor.setCheckpoint(CHECKPOINT_SCOPE, CHECKPOINT);
+
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        while (!monitor.isCancelled() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(50);
+        }
+    }
+
+}
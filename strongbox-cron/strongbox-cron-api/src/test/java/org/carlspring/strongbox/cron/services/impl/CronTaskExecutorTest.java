@@ -0,0 +1,146 @@
+package org.carlspring.strongbox.cron.services.impl;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ProgressMonitor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CronTaskExecutorTest
+{
+
+    private CronTaskExecutor executor;
+
+    @Before
+    public void setUp()
+    {
+        executor = new CronTaskExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @After
+    public void tearDown()
+            throws Exception
+    {
+        executor.destroy();
+    }
+
+    @Test
+    public void testRepositoriesOfTheSameStorageAreThrottled()
+            throws Exception
+    {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> executed = ConcurrentHashMap.newKeySet();
+
+        executor.executeForRepositories(createRepositories("storage0", 6), r -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            executed.add(r.getId());
+        });
+
+        assertEquals(6, executed.size());
+        assertTrue("Too many repositories of the same storage at a time: " + maxRunning.get(),
+                   maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testStoragesAreProcessedConcurrently()
+            throws Exception
+    {
+        CountDownLatch otherStorageStarted = new CountDownLatch(1);
+        AtomicInteger timedOut = new AtomicInteger();
+
+        // More repositories of storage0 than there are threads, ahead of the one of storage1.
+        List<Repository> repositories = createRepositories("storage0", 6);
+        repositories.addAll(createRepositories("storage1", 1));
+
+        executor.executeForRepositories(repositories, r -> {
+            if ("storage1".equals(r.getStorage().getId()))
+            {
+                otherStorageStarted.countDown();
+            }
+            else if (!otherStorageStarted.await(10, TimeUnit.SECONDS))
+            {
+                timedOut.incrementAndGet();
+            }
+        });
+
+        assertEquals("The repositories of storage0 have held up storage1!", 0, timedOut.get());
+    }
+
+    @Test
+    public void testFailuresAreRethrown()
+            throws Exception
+    {
+        AtomicInteger executed = new AtomicInteger();
+        try
+        {
+            executor.executeForRepositories(createRepositories("storage0", 3), r -> {
+                executed.incrementAndGet();
+                throw new IOException("Failed " + r.getId());
+            });
+
+            fail("Expected the failure to be rethrown!");
+        }
+        catch (IOException e)
+        {
+            assertEquals(2, e.getSuppressed().length);
+        }
+
+        assertEquals(3, executed.get());
+    }
+
+    @Test
+    public void testRepositoriesAreSkippedWhenCancelled()
+            throws Exception
+    {
+        ProgressMonitor monitor = new ProgressMonitor();
+        monitor.cancel();
+
+        AtomicInteger executed = new AtomicInteger();
+        ProgressMonitor.bind(monitor);
+        try
+        {
+            executor.executeForRepositories(createRepositories("storage0", 3), r -> executed.incrementAndGet());
+        }
+        finally
+        {
+            ProgressMonitor.unbind();
+        }
+
+        assertEquals(0, executed.get());
+    }
+
+    private List<Repository> createRepositories(String storageId,
+                                                int count)
+    {
+        Storage storage = new Storage(storageId);
+
+        List<Repository> repositories = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            Repository repository = new Repository("repository-" + i);
+            repository.setStorage(storage);
+            repositories.add(repository);
+        }
+
+        return repositories;
+    }
+
+}
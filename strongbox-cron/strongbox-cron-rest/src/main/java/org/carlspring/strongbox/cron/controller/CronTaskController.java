@@ -2,11 +2,14 @@ package org.carlspring.strongbox.cron.controller;
 
 import org.carlspring.strongbox.controllers.BaseController;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
+import org.carlspring.strongbox.cron.domain.CronTaskProgress;
 import org.carlspring.strongbox.cron.domain.CronTasksConfiguration;
 import org.carlspring.strongbox.cron.domain.GroovyScriptNames;
 import org.carlspring.strongbox.cron.exceptions.CronTaskException;
 import org.carlspring.strongbox.cron.jobs.GroovyCronJob;
+import org.carlspring.strongbox.cron.services.CronJobSchedulerService;
 import org.carlspring.strongbox.cron.services.CronTaskConfigurationService;
+import org.carlspring.strongbox.cron.services.JobManager;
 import org.carlspring.strongbox.resource.ConfigurationResourceResolver;
 
 import javax.inject.Inject;
@@ -46,6 +49,12 @@ public class CronTaskController
     @Inject
     CronTaskConfigurationService cronTaskConfigurationService;
 
+    @Inject
+    CronJobSchedulerService cronJobSchedulerService;
+
+    @Inject
+    JobManager jobManager;
+
     @ApiOperation(value = "Used to save the configuration", position = 0)
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The configuration was saved successfully."),
                             @ApiResponse(code = 400, message = "An error occurred.") })
@@ -217,6 +226,52 @@ public class CronTaskController
         return ResponseEntity.ok(groovyScriptNames);
     }
 
+    @ApiOperation(value = "Used to get the progress of a running cron task", position = 6)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The progress retrieved successfully."),
+                            @ApiResponse(code = 400, message = "The cron task is not running.") })
+    @RequestMapping(value = "/cron/progress",
+                    method = RequestMethod.GET,
+                    produces = { MediaType.APPLICATION_JSON,
+                                 MediaType.APPLICATION_XML })
+    public ResponseEntity getProgress(@RequestParam("name") String name)
+    {
+        return jobManager.getRunningJob(name)
+                         .<ResponseEntity>map(monitor -> ResponseEntity.ok(new CronTaskProgress(name, monitor)))
+                         .orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                                        .body("Cron task " + name + " is not running!"));
+    }
+
+    @ApiOperation(value = "Used to interrupt a running cron task, which resumes from where it stopped on its next run",
+                  position = 7)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The cron task was interrupted successfully."),
+                            @ApiResponse(code = 400, message = "An error occurred.") })
+    @RequestMapping(value = "/cron/interrupt", method = RequestMethod.POST)
+    public ResponseEntity interrupt(@RequestParam("name") String name)
+    {
+        CronTaskConfiguration config = cronTaskConfigurationService.findOne(name);
+        if (config == null)
+        {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body("Cron task config not found by this name!");
+        }
+
+        try
+        {
+            if (!cronJobSchedulerService.interruptJob(config))
+            {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                     .body("Cron task " + name + " is not running!");
+            }
+
+            return ResponseEntity.ok().body("Cron task " + name + " interrupted");
+        }
+        catch (Exception e)
+        {
+            logger.error(e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     private void storeGroovyCronTask(InputStream is,
                                      String dirPath,
                                      String fileName)
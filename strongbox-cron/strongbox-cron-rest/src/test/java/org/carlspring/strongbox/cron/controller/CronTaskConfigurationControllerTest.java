@@ -3,14 +3,19 @@ package org.carlspring.strongbox.cron.controller;
 import org.carlspring.strongbox.cron.context.CronTaskRestTest;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
 import org.carlspring.strongbox.cron.domain.CronTasksConfiguration;
+import org.carlspring.strongbox.cron.jobs.AbstractCronJob;
+import org.carlspring.strongbox.cron.jobs.InterruptibleTask;
 import org.carlspring.strongbox.cron.jobs.MyTask;
+import org.carlspring.strongbox.cron.services.CronTaskConfigurationService;
 import org.carlspring.strongbox.rest.common.RestAssuredBaseTest;
 
+import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import io.restassured.module.mockmvc.response.MockMvcResponse;
@@ -24,7 +29,9 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.carlspring.strongbox.rest.client.RestAssuredArtifactClient.OK;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Alex Oreshkevich
@@ -39,6 +46,11 @@ public class CronTaskConfigurationControllerTest
 
     private final String cronName2 = "CRJG001";
 
+    private final String cronName3 = "CRJI001";
+
+    @Inject
+    private CronTaskConfigurationService cronTaskConfigurationService;
+
     @Override
     public void init()
             throws Exception
@@ -118,6 +130,47 @@ public class CronTaskConfigurationControllerTest
         deleteConfig(cronName2);
     }
 
+    @Test
+    public void testProgressAndInterruptOfRunningCronTask()
+            throws Exception
+    {
+        assertEquals(HttpStatus.BAD_REQUEST.value(), getProgress(cronName3).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), interrupt(cronName3).getStatusCode());
+
+        CronTaskConfiguration configuration = new CronTaskConfiguration();
+        configuration.setName(cronName3);
+        configuration.addProperty("cronExpression", "0 11 11 11 11 ? 2100");
+        configuration.addProperty("jobClass", InterruptibleTask.class.getName());
+        configuration.setImmediateExecution(true);
+
+        cronTaskConfigurationService.saveConfiguration(configuration);
+        try
+        {
+            // The task records its checkpoint once it has started.
+            assertTrue("The cron task hasn't started!",
+                       await(() -> getProgress(cronName3).getStatusCode() == OK &&
+                                   InterruptibleTask.CHECKPOINT.equals(getCheckpoint(getProgress(cronName3)))));
+
+            MockMvcResponse response = getProgress(cronName3);
+            assertEquals(1, response.jsonPath().getLong("processed"));
+            assertEquals(2, response.jsonPath().getLong("total"));
+            assertFalse(response.jsonPath().getBoolean("cancelled"));
+
+            assertEquals(OK, interrupt(cronName3).getStatusCode());
+
+            // The interrupted execution stores its checkpoints, so that the next one resumes from them.
+            assertTrue("The checkpoints of the interrupted cron task haven't been saved!",
+                       await(() -> (InterruptibleTask.CHECKPOINT_SCOPE + "=" + InterruptibleTask.CHECKPOINT).equals(
+                               cronTaskConfigurationService.findOne(cronName3)
+                                                           .getProperty(AbstractCronJob.PROPERTY_CHECKPOINT))));
+            assertEquals(HttpStatus.BAD_REQUEST.value(), getProgress(cronName3).getStatusCode());
+        }
+        finally
+        {
+            cronTaskConfigurationService.deleteConfiguration(cronTaskConfigurationService.findOne(cronName3));
+        }
+    }
+
     public void saveJavaConfig(String cronExpression)
             throws UnsupportedEncodingException, JAXBException
     {
@@ -221,6 +274,43 @@ public class CronTaskConfigurationControllerTest
                       .delete(getContextBaseUrl() + "/cron").peek();
     }
 
+    private MockMvcResponse getProgress(String name)
+    {
+        return given().accept(MediaType.APPLICATION_JSON_VALUE)
+                      .param("name", name)
+                      .when()
+                      .get(getContextBaseUrl() + "/cron/progress").peek();
+    }
+
+    private Object getCheckpoint(MockMvcResponse progress)
+    {
+        return progress.jsonPath().getMap("checkpoints").get(InterruptibleTask.CHECKPOINT_SCOPE);
+    }
+
+    private MockMvcResponse interrupt(String name)
+    {
+        return given().param("name", name)
+                      .when()
+                      .post(getContextBaseUrl() + "/cron/interrupt").peek();
+    }
+
+    private boolean await(BooleanSupplier condition)
+            throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > deadline)
+            {
+                return false;
+            }
+
+            Thread.sleep(100);
+        }
+
+        return true;
+    }
+
     private MockMvcResponse getCronConfig(String name)
     {
         return given().contentType(MediaType.APPLICATION_JSON_VALUE)
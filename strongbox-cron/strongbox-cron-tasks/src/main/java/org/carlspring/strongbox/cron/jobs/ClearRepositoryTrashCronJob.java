@@ -1,9 +1,15 @@
 package org.carlspring.strongbox.cron.jobs;
 
+import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
+import org.carlspring.strongbox.cron.services.impl.CronTaskExecutor;
 import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author Kate Novik.
@@ -15,6 +21,12 @@ public class ClearRepositoryTrashCronJob
     @Inject
     private RepositoryManagementService repositoryManagementService;
 
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private CronTaskExecutor cronTaskExecutor;
+
     @Override
     public void executeTask(CronTaskConfiguration config)
             throws Throwable
@@ -24,7 +36,19 @@ public class ClearRepositoryTrashCronJob
 
         if (storageId == null && repositoryId == null)
         {
-            repositoryManagementService.deleteTrash();
+            deleteTrash(configurationManager.getConfiguration()
+                                            .getStorages()
+                                            .values()
+                                            .stream()
+                                            .flatMap(s -> s.getRepositories().values().stream())
+                                            .collect(Collectors.toList()));
+        }
+        else if (repositoryId == null)
+        {
+            deleteTrash(configurationManager.getConfiguration()
+                                            .getStorage(storageId)
+                                            .getRepositories()
+                                            .values());
         }
         else
         {
@@ -32,4 +56,19 @@ public class ClearRepositoryTrashCronJob
         }
     }
 
+    /**
+     * Empties the trash of the repositories, which allow deletion, in parallel.
+     */
+    private void deleteTrash(Collection<Repository> repositories)
+            throws Exception
+    {
+        List<Repository> deletableRepositories = repositories.stream()
+                                                             .filter(Repository::allowsDeletion)
+                                                             .collect(Collectors.toList());
+
+        cronTaskExecutor.executeForRepositories(deletableRepositories,
+                                                r -> repositoryManagementService.deleteTrash(r.getStorage().getId(),
+                                                                                             r.getId()));
+    }
+
 }
@@ -2,16 +2,15 @@ package org.carlspring.strongbox.cron.jobs;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
+import org.carlspring.strongbox.cron.services.impl.CronTaskExecutor;
 import org.carlspring.strongbox.services.ChecksumService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
-import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Map;
-
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import java.util.stream.Collectors;
 
 /**
  * @author Kate Novik.
@@ -26,6 +25,9 @@ public class RegenerateChecksumCronJob
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Inject
+    private CronTaskExecutor cronTaskExecutor;
+
     @Override
     public void executeTask(CronTaskConfiguration config)
             throws Throwable
@@ -43,15 +45,15 @@ public class RegenerateChecksumCronJob
 
         if (storageId == null)
         {
-            Map<String, Storage> storages = getStorages();
-            for (String storage : storages.keySet())
-            {
-                regenerateRepositoriesChecksum(storage, forceRegeneration);
-            }
+            regenerateRepositoriesChecksum(getStorages().values()
+                                                        .stream()
+                                                        .flatMap(s -> s.getRepositories().values().stream())
+                                                        .collect(Collectors.toList()),
+                                           forceRegeneration);
         }
         else if (repositoryId == null)
         {
-            regenerateRepositoriesChecksum(storageId, forceRegeneration);
+            regenerateRepositoriesChecksum(getRepositories(storageId).values(), forceRegeneration);
         }
         else
         {
@@ -60,25 +62,22 @@ public class RegenerateChecksumCronJob
     }
 
     /**
-     * To regenerate artifact's checksum in repositories
+     * To regenerate artifact's checksum in repositories, in parallel
      *
-     * @param storageId         path of storage
+     * @param repositories      the repositories
      * @param forceRegeneration true - to re-write existing checksum and to regenerate missing checksum,
      *                          false - to regenerate missing checksum only
-     * @throws NoSuchAlgorithmException
-     * @throws XmlPullParserException
-     * @throws IOException
+     * @throws Exception
      */
-    private void regenerateRepositoriesChecksum(String storageId,
+    private void regenerateRepositoriesChecksum(Collection<Repository> repositories,
                                                 boolean forceRegeneration)
-            throws NoSuchAlgorithmException, XmlPullParserException, IOException
+            throws Exception
     {
-        Map<String, Repository> repositories = getRepositories(storageId);
-
-        for (String repository : repositories.keySet())
-        {
-            checksumService.regenerateChecksum(storageId, repository, null, forceRegeneration);
-        }
+        cronTaskExecutor.executeForRepositories(repositories,
+                                                r -> checksumService.regenerateChecksum(r.getStorage().getId(),
+                                                                                        r.getId(),
+                                                                                        null,
+                                                                                        forceRegeneration));
     }
 
     private Map<String, Storage> getStorages()
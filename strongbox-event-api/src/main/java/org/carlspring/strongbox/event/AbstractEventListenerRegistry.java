@@ -1,21 +1,34 @@
 package org.carlspring.strongbox.event;
 
-import java.util.LinkedList;
+import javax.annotation.PreDestroy;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.core.GenericTypeResolver;
 
 /**
+ * Dispatches the events to the listeners registered for their type. The {@link AsynchronousEventListener}s get the
+ * events through their own queues, unless {@link #PROPERTY_SYNCHRONOUS} is set; all the other listeners handle them on
+ * the dispatching thread.
+ *
  * @author carlspring
  */
 public abstract class AbstractEventListenerRegistry
 {
 
+    /**
+     * Dispatches the events to all the listeners on the dispatching thread; defaults to false.
+     */
+    public static final String PROPERTY_SYNCHRONOUS = "strongbox.event.dispatch.synchronous";
+
     private Map<Class<?>,List<EventListener<?>>> eventListenerMap = new ConcurrentHashMap<>();
 
-    
+    private Map<EventListener<?>, AsynchronousEventDispatcher<?>> dispatchers = new ConcurrentHashMap<>();
+
+
     public <T extends Event> void dispatchEvent(T event)
     {
         Class<? extends Event> eventType = event.getClass();
@@ -26,7 +39,15 @@ public abstract class AbstractEventListenerRegistry
         }
         for (EventListener<?> listener : eventListenerList)
         {
-            ((EventListener<T>) listener).handle(event);
+            AsynchronousEventDispatcher<T> dispatcher = (AsynchronousEventDispatcher<T>) dispatchers.get(listener);
+            if (dispatcher != null)
+            {
+                dispatcher.dispatch(event);
+            }
+            else
+            {
+                ((EventListener<T>) listener).handle(event);
+            }
         }
     }
 
@@ -34,10 +55,16 @@ public abstract class AbstractEventListenerRegistry
     {
         Class<T> eventType = (Class<T>) GenericTypeResolver.resolveTypeArgument(listener.getClass(),
                                                                                 EventListener.class);
+        if (listener instanceof AsynchronousEventListener && !Boolean.getBoolean(PROPERTY_SYNCHRONOUS))
+        {
+            dispatchers.computeIfAbsent(listener,
+                                        l -> new AsynchronousEventDispatcher<>((AsynchronousEventListener<T>) l));
+        }
+
         List<EventListener<?>> eventListenerList = eventListenerMap.get(eventType);
         if (eventListenerList == null)
         {
-            eventListenerMap.putIfAbsent(eventType, new LinkedList<>());
+            eventListenerMap.putIfAbsent(eventType, new CopyOnWriteArrayList<>());
             eventListenerList = eventListenerMap.get(eventType);
         }
         eventListenerList.add(listener);
@@ -48,9 +75,59 @@ public abstract class AbstractEventListenerRegistry
         boolean result = false;
         for (List<EventListener<?>> eventListenerList : eventListenerMap.values())
         {
-            result = result || eventListenerList.remove(listener);
+            result = eventListenerList.remove(listener) || result;
         }
+
+        AsynchronousEventDispatcher<?> dispatcher = dispatchers.remove(listener);
+        if (dispatcher != null)
+        {
+            closeDispatcher(dispatcher);
+        }
+
         return result;
     }
 
+    /**
+     * Waits for the asynchronous listeners to handle the events dispatched so far, without closing them.
+     *
+     * @return false, if the timeout elapsed first
+     */
+    public boolean awaitAsynchronousListeners(long timeout,
+                                              TimeUnit unit)
+            throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (AsynchronousEventDispatcher<?> dispatcher : dispatchers.values())
+        {
+            if (!dispatcher.awaitIdle(deadline))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits for the asynchronous listeners to handle their queued events.
+     */
+    @PreDestroy
+    public void shutdown()
+    {
+        dispatchers.values().forEach(this::closeDispatcher);
+        dispatchers.clear();
+    }
+
+    private void closeDispatcher(AsynchronousEventDispatcher<?> dispatcher)
+    {
+        try
+        {
+            dispatcher.close(30, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 }
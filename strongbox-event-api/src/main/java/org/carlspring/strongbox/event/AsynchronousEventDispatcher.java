@@ -0,0 +1,264 @@
+package org.carlspring.strongbox.event;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the events of an {@link AsynchronousEventListener} and hands them over to the listener on a dedicated thread.
+ */
+class AsynchronousEventDispatcher<T extends Event>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(AsynchronousEventDispatcher.class);
+
+    private final AsynchronousEventListener<T> listener;
+
+    private final int capacity;
+
+    private final EventOverflowPolicy overflowPolicy;
+
+    /**
+     * The queued events by their coalescing keys (or by a unique key, if they aren't coalesced), in dispatch order.
+     */
+    private final Map<Object, T> queue = new LinkedHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Condition idle = lock.newCondition();
+
+    private final ExecutorService executor;
+
+    private boolean closed;
+
+    private boolean handling;
+
+
+    AsynchronousEventDispatcher(AsynchronousEventListener<T> listener)
+    {
+        this.listener = listener;
+        this.capacity = Math.max(listener.getQueueCapacity(), 1);
+        this.overflowPolicy = listener.getOverflowPolicy();
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "event-listener-" + listener.getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::handleEvents);
+    }
+
+    void dispatch(T event)
+    {
+        lock.lock();
+        try
+        {
+            enqueue(event);
+            return;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        // Don't lose the event.
+        handle(event);
+    }
+
+    private void enqueue(T event)
+            throws InterruptedException
+    {
+        Object key = overflowPolicy == EventOverflowPolicy.COALESCE ? listener.getCoalescingKey(event) : null;
+        if (key != null && queue.containsKey(key))
+        {
+            // The event keeps the position of the one it replaces.
+            queue.put(key, event);
+            return;
+        }
+
+        while (queue.size() >= capacity && !closed)
+        {
+            if (overflowPolicy == EventOverflowPolicy.DROP_OLDEST)
+            {
+                Iterator<T> iterator = queue.values().iterator();
+                T dropped = iterator.next();
+                iterator.remove();
+
+                logger.warn("Dropped event of type " + dropped.getType() + " for " +
+                            listener.getClass().getSimpleName() + ", as its queue is full.");
+            }
+            else
+            {
+                notFull.await();
+            }
+        }
+
+        if (closed)
+        {
+            logger.warn("Dropped event of type " + event.getType() + " for the closed listener " +
+                        listener.getClass().getSimpleName() + ".");
+            return;
+        }
+
+        queue.put(key != null ? key : new Object(), event);
+        notEmpty.signal();
+    }
+
+    /**
+     * Stops accepting events and waits for the queued events to be handled.
+     */
+    void close(long timeout,
+               TimeUnit unit)
+            throws InterruptedException
+    {
+        lock.lock();
+        try
+        {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(timeout, unit))
+        {
+            logger.warn("Timed out waiting for " + listener.getClass().getSimpleName() + " to handle " +
+                        size() + " queued events.");
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the queued events and the one being handled to be handled.
+     *
+     * @return false, if the deadline (see {@link System#nanoTime()}) passed first
+     */
+    boolean awaitIdle(long deadline)
+            throws InterruptedException
+    {
+        lock.lock();
+        try
+        {
+            while (!queue.isEmpty() || handling)
+            {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                {
+                    return false;
+                }
+
+                idle.awaitNanos(remaining);
+            }
+
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    int size()
+    {
+        lock.lock();
+        try
+        {
+            return queue.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void handleEvents()
+    {
+        while (true)
+        {
+            T event;
+
+            lock.lock();
+            try
+            {
+                while (queue.isEmpty() && !closed)
+                {
+                    notEmpty.await();
+                }
+
+                if (queue.isEmpty())
+                {
+                    return;
+                }
+
+                Iterator<T> iterator = queue.values().iterator();
+                event = iterator.next();
+                iterator.remove();
+                handling = true;
+
+                notFull.signal();
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            try
+            {
+                handle(event);
+            }
+            finally
+            {
+                lock.lock();
+                try
+                {
+                    handling = false;
+                    if (queue.isEmpty())
+                    {
+                        idle.signalAll();
+                    }
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void handle(T event)
+    {
+        try
+        {
+            listener.handle(event);
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to handle event of type " + event.getType() + " by " +
+                         listener.getClass().getSimpleName() + ".", e);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.carlspring.strongbox.event;
+
+import java.util.Arrays;
+
+/**
+ * A listener, which handles the events on its own thread, instead of the thread dispatching them, so the dispatching
+ * thread doesn't have to wait for it. The events are queued in a bounded queue and handled in the order they were
+ * dispatched in.
+ *
+ * @see AbstractEventListenerRegistry#PROPERTY_SYNCHRONOUS
+ */
+public interface AsynchronousEventListener<T extends Event>
+        extends EventListener<T>
+{
+
+    /**
+     * The default capacity of the queues of the listeners; defaults to 1000.
+     */
+    String PROPERTY_QUEUE_CAPACITY = "strongbox.event.listener.queue.capacity";
+
+    default int getQueueCapacity()
+    {
+        return Integer.getInteger(PROPERTY_QUEUE_CAPACITY, 1000);
+    }
+
+    default EventOverflowPolicy getOverflowPolicy()
+    {
+        return EventOverflowPolicy.BLOCK;
+    }
+
+    /**
+     * @return the key of the events, which are equivalent for this listener, or null, if the event can't be coalesced
+     */
+    default Object getCoalescingKey(T event)
+    {
+        if (event instanceof RepositoryBasedEvent)
+        {
+            return Arrays.asList(event.getType(), ((RepositoryBasedEvent<?>) event).getPath());
+        }
+
+        return null;
+    }
+
+}
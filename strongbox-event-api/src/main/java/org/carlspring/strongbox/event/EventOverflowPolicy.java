@@ -0,0 +1,26 @@
+package org.carlspring.strongbox.event;
+
+/**
+ * What happens to an event, which is dispatched to an {@link AsynchronousEventListener} with a full queue.
+ */
+public enum EventOverflowPolicy
+{
+
+    /**
+     * The dispatching thread waits until the listener has caught up.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued event is dropped.
+     */
+    DROP_OLDEST,
+
+    /**
+     * An event with the same {@link AsynchronousEventListener#getCoalescingKey(Event) coalescing key} as a queued event
+     * replaces the queued event, instead of being queued once more. Otherwise, the dispatching thread waits, like with
+     * {@link #BLOCK}.
+     */
+    COALESCE
+
+}
@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.event.artifact;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the changes of the same directory, which follow each other within {@link #PROPERTY_WINDOW}, into a single
+ * notification, so that a deployment, which stores an artifact along with its POM, its sources and their checksums, is
+ * reported once. The notification is delayed until the directory has been quiet for the window, but no longer than ten
+ * windows after its first change.
+ */
+public class ArtifactDirectoryEventCoalescer
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDirectoryEventCoalescer.class);
+
+    /**
+     * The number of milliseconds the changes of a directory are merged within; defaults to 1000. A value of 0 reports
+     * each change on its own, on the thread making it.
+     */
+    public static final String PROPERTY_WINDOW = "strongbox.event.artifact.coalescing.window";
+
+    private final Consumer<Path> directoryChangedCallback;
+
+    private final long window;
+
+    private final Map<Path, PendingDirectory> pendingDirectories = new HashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+
+    public ArtifactDirectoryEventCoalescer(Consumer<Path> directoryChangedCallback,
+                                           long window)
+    {
+        this.directoryChangedCallback = directoryChangedCallback;
+        this.window = Math.max(window, 0);
+        this.scheduler = this.window > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "artifact-directory-event-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public void directoryChanged(Path directory)
+    {
+        if (scheduler == null)
+        {
+            directoryChangedCallback.accept(directory);
+            return;
+        }
+
+        synchronized (pendingDirectories)
+        {
+            long now = System.currentTimeMillis();
+
+            PendingDirectory pendingDirectory = pendingDirectories.get(directory);
+            if (pendingDirectory == null)
+            {
+                pendingDirectory = new PendingDirectory(now);
+                pendingDirectories.put(directory, pendingDirectory);
+            }
+            else if (now - pendingDirectory.firstChange < 10 * window)
+            {
+                pendingDirectory.notification.cancel(false);
+            }
+            else
+            {
+                // Already scheduled; don't postpone it any further.
+                return;
+            }
+
+            pendingDirectory.notification = scheduler.schedule(() -> notify(directory),
+                                                               window,
+                                                               TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reports the pending changes right away, and waits for the report which may be in progress.
+     */
+    public void flush()
+            throws InterruptedException
+    {
+        if (scheduler == null)
+        {
+            return;
+        }
+
+        reportPendingDirectories();
+
+        try
+        {
+            // The scheduler has a single thread, so this runs once the report in progress is done.
+            scheduler.submit(() -> {}).get();
+        }
+        catch (ExecutionException | RejectedExecutionException e)
+        {
+            // Shut down.
+        }
+    }
+
+    /**
+     * Reports the pending changes right away and stops accepting new ones.
+     */
+    public void shutdown()
+    {
+        if (scheduler == null)
+        {
+            return;
+        }
+
+        scheduler.shutdown();
+        reportPendingDirectories();
+    }
+
+    private void reportPendingDirectories()
+    {
+        List<Path> directories;
+        synchronized (pendingDirectories)
+        {
+            pendingDirectories.values().forEach(p -> p.notification.cancel(false));
+            directories = new ArrayList<>(pendingDirectories.keySet());
+            pendingDirectories.clear();
+        }
+
+        directories.forEach(this::notifySafely);
+    }
+
+    private void notify(Path directory)
+    {
+        synchronized (pendingDirectories)
+        {
+            pendingDirectories.remove(directory);
+        }
+
+        notifySafely(directory);
+    }
+
+    private void notifySafely(Path directory)
+    {
+        try
+        {
+            directoryChangedCallback.accept(directory);
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to report the changes of directory " + directory, e);
+        }
+    }
+
+    private static class PendingDirectory
+    {
+
+        private final long firstChange;
+
+        private ScheduledFuture<?> notification;
+
+
+        PendingDirectory(long firstChange)
+        {
+            this.firstChange = firstChange;
+        }
+
+    }
+
+}
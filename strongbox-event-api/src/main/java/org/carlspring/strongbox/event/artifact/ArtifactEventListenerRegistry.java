@@ -2,8 +2,10 @@ package org.carlspring.strongbox.event.artifact;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.carlspring.strongbox.event.AbstractEventListenerRegistry;
 import org.slf4j.Logger;
@@ -24,9 +26,16 @@ public class ArtifactEventListenerRegistry
     @Autowired(required = false)
     private List<ArtifactEventListener> artifactEventListeners;
 
+    private ArtifactDirectoryEventCoalescer directoryEventCoalescer;
+
     @PostConstruct
     public void init()
     {
+        long window = Boolean.getBoolean(PROPERTY_SYNCHRONOUS) ?
+                      0 : Long.getLong(ArtifactDirectoryEventCoalescer.PROPERTY_WINDOW, 1000);
+        directoryEventCoalescer = new ArtifactDirectoryEventCoalescer(this::dispatchArtifactDirectoryChangedEvent,
+                                                                      window);
+
         if (artifactEventListeners != null)
         {
             artifactEventListeners.forEach(this::addListener);
@@ -282,6 +291,53 @@ public class ArtifactEventListenerRegistry
                       path + "...");
 
         dispatchEvent(event);
+
+        if (directoryEventCoalescer != null && path.getParent() != null)
+        {
+            directoryEventCoalescer.directoryChanged(path.getParent());
+        }
+    }
+
+    public void dispatchArtifactDirectoryChangedEvent(Path path)
+    {
+        ArtifactEvent event = new ArtifactEvent(path,
+                                                ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CHANGED.getType());
+
+        logger.debug("Dispatching ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CHANGED event for " +
+                      path + "...");
+
+        dispatchEvent(event);
+    }
+
+    /**
+     * Reports the pending directory changes first, so the asynchronous listeners are waited for to handle them too.
+     */
+    @Override
+    public boolean awaitAsynchronousListeners(long timeout,
+                                              TimeUnit unit)
+            throws InterruptedException
+    {
+        if (directoryEventCoalescer != null)
+        {
+            directoryEventCoalescer.flush();
+        }
+
+        return super.awaitAsynchronousListeners(timeout, unit);
+    }
+
+    /**
+     * Reports the pending directory changes, before waiting for the asynchronous listeners.
+     */
+    @Override
+    @PreDestroy
+    public void shutdown()
+    {
+        if (directoryEventCoalescer != null)
+        {
+            directoryEventCoalescer.shutdown();
+        }
+
+        super.shutdown();
     }
 
 }
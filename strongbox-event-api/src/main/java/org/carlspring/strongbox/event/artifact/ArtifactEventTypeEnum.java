@@ -121,7 +121,13 @@ public enum ArtifactEventTypeEnum
     /**
      * Occurs when an artifact file has been physically stored.
      */
-    EVENT_ARTIFACT_FILE_STORED(22);
+    EVENT_ARTIFACT_FILE_STORED(22),
+
+    /**
+     * Occurs when the files of an artifact directory have been stored. The changes to the same directory, which follow
+     * each other closely, are reported by a single event for the directory.
+     */
+    EVENT_ARTIFACT_DIRECTORY_CHANGED(23);
 
 
     private int type;
@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.event.artifact.ArtifactDirectoryEventCoalescer;
+import org.junit.Test;
+
+public class ArtifactDirectoryEventCoalescingTest
+{
+
+    private static final Path DIRECTORY = Paths.get("storage0", "releases", "foo/bar/1.2.3");
+
+    private final List<Path> directories = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testChangesOfTheSameDirectoryAreCoalesced()
+            throws Exception
+    {
+        CountDownLatch notified = new CountDownLatch(2);
+        ArtifactDirectoryEventCoalescer coalescer = new ArtifactDirectoryEventCoalescer(d -> {
+            directories.add(d);
+            notified.countDown();
+        }, 200);
+
+        coalescer.directoryChanged(DIRECTORY);
+        coalescer.directoryChanged(DIRECTORY);
+        coalescer.directoryChanged(Paths.get("storage0", "releases", "foo/bar/1.2.4"));
+        coalescer.directoryChanged(DIRECTORY);
+
+        assertTrue("Failed to catch event!", notified.await(10, TimeUnit.SECONDS));
+        coalescer.shutdown();
+
+        assertEquals(2, directories.size());
+        assertTrue(directories.contains(DIRECTORY));
+    }
+
+    @Test
+    public void testPendingChangesAreReportedOnShutdown()
+    {
+        ArtifactDirectoryEventCoalescer coalescer = new ArtifactDirectoryEventCoalescer(directories::add, 60000);
+
+        coalescer.directoryChanged(DIRECTORY);
+        coalescer.directoryChanged(DIRECTORY);
+        assertTrue(directories.isEmpty());
+
+        coalescer.shutdown();
+
+        assertEquals(1, directories.size());
+    }
+
+    @Test
+    public void testChangesAreReportedImmediatelyWithoutWindow()
+    {
+        ArtifactDirectoryEventCoalescer coalescer = new ArtifactDirectoryEventCoalescer(directories::add, 0);
+
+        coalescer.directoryChanged(DIRECTORY);
+        coalescer.directoryChanged(DIRECTORY);
+
+        assertEquals(2, directories.size());
+    }
+
+}
@@ -0,0 +1,187 @@
+package org.carlspring.strongbox.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsynchronousEventHandlingTest
+{
+
+    private static final Path PATH = Paths.get("storage0", "releases", "foo/bar/1.2.3/bar-1.2.3.jar");
+
+    private CommonEventListenerRegistry registry;
+
+    @Before
+    public void setUp()
+    {
+        registry = new CommonEventListenerRegistry();
+    }
+
+    @After
+    public void tearDown()
+    {
+        registry.shutdown();
+    }
+
+    @Test
+    public void testEventsAreHandledOnTheListenerThread()
+            throws Exception
+    {
+        DummyAsynchronousEventListener listener = new DummyAsynchronousEventListener(EventOverflowPolicy.BLOCK, 10);
+        registry.addListener(listener);
+
+        registry.dispatchEvent(new ArtifactEvent<>(PATH, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertTrue("Failed to catch event!", listener.handled.await(10, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), listener.threads.get(0));
+    }
+
+    @Test
+    public void testQueuedEventsAreCoalesced()
+            throws Exception
+    {
+        DummyAsynchronousEventListener listener = new DummyAsynchronousEventListener(EventOverflowPolicy.COALESCE, 10);
+        registry.addListener(listener);
+
+        listener.blocked.countDown();
+        registry.dispatchEvent(new ArtifactEvent<>(Paths.get("first"), 1));
+        assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+
+        // The listener is busy with the first event, so these are queued.
+        for (int i = 0; i < 5; i++)
+        {
+            registry.dispatchEvent(new ArtifactEvent<>(PATH, 1));
+        }
+        registry.dispatchEvent(new ArtifactEvent<>(PATH, 2));
+
+        listener.release.countDown();
+        registry.shutdown();
+
+        assertEquals(3, listener.events.size());
+    }
+
+    @Test
+    public void testOldestEventsAreDropped()
+            throws Exception
+    {
+        DummyAsynchronousEventListener listener = new DummyAsynchronousEventListener(EventOverflowPolicy.DROP_OLDEST,
+                                                                                     2);
+        registry.addListener(listener);
+
+        listener.blocked.countDown();
+        registry.dispatchEvent(new ArtifactEvent<>(Paths.get("first"), 1));
+        assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++)
+        {
+            registry.dispatchEvent(new ArtifactEvent<>(Paths.get("path-" + i), 1));
+        }
+
+        listener.release.countDown();
+        registry.shutdown();
+
+        assertEquals(3, listener.events.size());
+        assertEquals(Paths.get("path-3"), ((ArtifactEvent<?>) listener.events.get(1)).getPath());
+        assertEquals(Paths.get("path-4"), ((ArtifactEvent<?>) listener.events.get(2)).getPath());
+    }
+
+    @Test
+    public void testListenersAreAwaited()
+            throws Exception
+    {
+        DummyAsynchronousEventListener listener = new DummyAsynchronousEventListener(EventOverflowPolicy.BLOCK, 10);
+        registry.addListener(listener);
+
+        listener.blocked.countDown();
+        registry.dispatchEvent(new ArtifactEvent<>(Paths.get("first"), 1));
+        registry.dispatchEvent(new ArtifactEvent<>(PATH, 1));
+        assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+
+        assertFalse(registry.awaitAsynchronousListeners(100, TimeUnit.MILLISECONDS));
+
+        listener.release.countDown();
+
+        assertTrue(registry.awaitAsynchronousListeners(10, TimeUnit.SECONDS));
+        assertEquals(2, listener.events.size());
+    }
+
+    private static class DummyAsynchronousEventListener
+            implements AsynchronousEventListener<ArtifactEvent<Path>>
+    {
+
+        final List<Event> events = new CopyOnWriteArrayList<>();
+
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        final CountDownLatch handled = new CountDownLatch(1);
+
+        /**
+         * Once counted down, the first event blocks the listener until {@link #release} is counted down.
+         */
+        final CountDownLatch blocked = new CountDownLatch(1);
+
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        private final EventOverflowPolicy overflowPolicy;
+
+        private final int queueCapacity;
+
+        DummyAsynchronousEventListener(EventOverflowPolicy overflowPolicy,
+                                       int queueCapacity)
+        {
+            this.overflowPolicy = overflowPolicy;
+            this.queueCapacity = queueCapacity;
+        }
+
+        @Override
+        public void handle(ArtifactEvent<Path> event)
+        {
+            if (events.isEmpty() && blocked.getCount() == 0)
+            {
+                started.countDown();
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            events.add(event);
+            threads.add(Thread.currentThread());
+            handled.countDown();
+        }
+
+        @Override
+        public int getQueueCapacity()
+        {
+            return queueCapacity;
+        }
+
+        @Override
+        public EventOverflowPolicy getOverflowPolicy()
+        {
+            return overflowPolicy;
+        }
+
+    }
+
+}
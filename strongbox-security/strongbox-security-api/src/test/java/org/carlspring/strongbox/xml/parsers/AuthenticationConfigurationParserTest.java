@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -68,4 +69,13 @@ public class AuthenticationConfigurationParserTest
         assertTrue("Failed to store the produced XML!", outputFile.length() > 0);
     }
 
+    @Test
+    public void testContextIsShared()
+            throws JAXBException
+    {
+        GenericParser<AuthenticationConfiguration> anotherParser = new GenericParser<>(AuthenticationConfiguration.class);
+
+        assertSame("The JAXB context was not shared!", parser.getContext(), anotherParser.getContext());
+    }
+
 }
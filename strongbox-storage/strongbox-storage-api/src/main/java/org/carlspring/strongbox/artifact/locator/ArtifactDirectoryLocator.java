@@ -2,15 +2,44 @@ package org.carlspring.strongbox.artifact.locator;
 
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOperation;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Walks the directories below the starting path and executes the {@link ArtifactDirectoryOperation} for each of them.
+ * <p>
+ * The sub-directories of a directory are sorted and executed one after another by the same thread, before any of them
+ * is descended into, so the operation sees the version directories of an artifact in order and can skip the ones it
+ * has already processed along with their artifact directory. The sub-trees themselves are walked in parallel, by a
+ * work-stealing pool of {@link #PROPERTY_PARALLELISM} threads, so the operations have to be thread-safe across
+ * different artifact directories. The pool is shared by all the walks, so the walks of the repositories processed at
+ * the same time don't each start a pool of their own.
+ * <p>
+ * The walk reports its progress to the {@link ProgressMonitor} of the calling thread and stops, once the monitor is
+ * cancelled. It also records, per repository, the last directory (at any depth), up to which all the directories have
+ * been walked in order, as a checkpoint; a walk resuming from a checkpoint skips the directories up to it, apart from
+ * its parents, which are walked again for the directories following it.
+ *
  * @author mtodorov
  */
 public class ArtifactDirectoryLocator
@@ -18,8 +47,21 @@ public class ArtifactDirectoryLocator
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactDirectoryLocator.class);
 
+    /**
+     * The number of threads walking the directories, across all the walks; defaults to the number of available
+     * processors. A value of 1 walks the directories in the calling thread.
+     */
+    public static final String PROPERTY_PARALLELISM = "strongbox.artifact.locator.parallelism";
+
+    private static final int DEFAULT_PARALLELISM =
+            Math.max(Integer.getInteger(PROPERTY_PARALLELISM, Runtime.getRuntime().availableProcessors()), 1);
+
+    private static final ForkJoinPool POOL = createPool();
+
     private ArtifactDirectoryOperation operation;
 
+    private int parallelism = DEFAULT_PARALLELISM;
+
     /**
      * The basedir to start analyzing from. Define this only, if you need to pass null values for operation.storage and
      * operation.repository.
@@ -31,13 +73,24 @@ public class ArtifactDirectoryLocator
     {
         long startTime = System.currentTimeMillis();
 
-        Files.walk(getStartingPath())
-             .filter(Files::isDirectory)
-             // Skip directories which start with a dot (like, for example: .index)
-             .filter(path -> !(path.getNameCount() == 0 ? path.toString() : path.getName(path.getNameCount() - 1)).toString().startsWith("."))
-             // Note: Sorting can be expensive:
-             .sorted()
-             .forEach(this::execute);
+        ProgressMonitor monitor = ProgressMonitor.current();
+
+        RepositoryPath startingPath = getStartingPath();
+        if (isVisible(startingPath))
+        {
+            execute(startingPath);
+        }
+
+        Checkpoint checkpoint = new Checkpoint(startingPath, monitor);
+        DirectoryVisitor visitor = new DirectoryVisitor(startingPath, monitor, checkpoint, null);
+        if (parallelism > 1)
+        {
+            POOL.invoke(visitor);
+        }
+        else
+        {
+            visitor.compute();
+        }
 
         long endTime = System.currentTimeMillis();
 
@@ -47,6 +100,65 @@ public class ArtifactDirectoryLocator
         getOperation().getVisitedRootPaths().clear();
     }
 
+    /**
+     * Executes the operation for the sub-directories of the directory, in order.
+     *
+     * @return the sub-directories to descend into
+     */
+    private List<RepositoryPath> visitDirectories(RepositoryPath directory,
+                                                  ProgressMonitor monitor,
+                                                  Checkpoint checkpoint)
+            throws IOException
+    {
+        List<RepositoryPath> directories;
+        try (Stream<Path> pathStream = Files.list(directory))
+        {
+            directories = pathStream.filter(Files::isDirectory)
+                                    // Skip directories which start with a dot (like, for example: .index)
+                                    .filter(this::isVisible)
+                                    .map(RepositoryPath.class::cast)
+                                    .filter(d -> !checkpoint.isCompleted(d))
+                                    .sorted()
+                                    .collect(Collectors.toList());
+        }
+
+        monitor.addTotal(directories.size());
+        for (RepositoryPath d : directories)
+        {
+            if (monitor.isCancelled())
+            {
+                break;
+            }
+
+            execute(d);
+            monitor.processed(1);
+        }
+
+        // The version directories of this directory have all been visited.
+        getOperation().getVisitedRootPaths().remove(directory);
+        getOperation().getVisitedRootPaths().remove(directory.toAbsolutePath());
+
+        return directories;
+    }
+
+    private boolean isVisible(Path path)
+    {
+        return !(path.getNameCount() == 0 ? path.toString() : path.getName(path.getNameCount() - 1)).toString()
+                                                                                                      .startsWith(".");
+    }
+
+    private static ForkJoinPool createPool()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return new ForkJoinPool(DEFAULT_PARALLELISM, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("artifact-directory-locator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
     public RepositoryPath getStartingPath()
     {
         // The root path
@@ -73,6 +185,20 @@ public class ArtifactDirectoryLocator
         this.operation = operation;
     }
 
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism 1, to walk the directories in the calling thread; any other value walks them in the shared
+     *                    pool of {@link #PROPERTY_PARALLELISM} threads
+     */
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
     public RepositoryPath getBasedir()
     {
         return basedir;
@@ -94,5 +220,226 @@ public class ArtifactDirectoryLocator
             logger.error(String.format("Failed to execute operation [%s]", operation.getClass().getSimpleName()), e);
         }
     }
-    
+
+    private class DirectoryVisitor
+            extends RecursiveAction
+    {
+
+        private final RepositoryPath directory;
+
+        private final ProgressMonitor monitor;
+
+        private final Checkpoint checkpoint;
+
+        /**
+         * The progress of the parent directory, to report the completion of this directory to.
+         */
+        private final Checkpoint.Progress parentProgress;
+
+
+        DirectoryVisitor(RepositoryPath directory,
+                         ProgressMonitor monitor,
+                         Checkpoint checkpoint,
+                         Checkpoint.Progress parentProgress)
+        {
+            this.directory = directory;
+            this.monitor = monitor;
+            this.checkpoint = checkpoint;
+            this.parentProgress = parentProgress;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (monitor.isCancelled())
+            {
+                return;
+            }
+
+            List<RepositoryPath> directories;
+            try
+            {
+                directories = visitDirectories(directory, monitor, checkpoint);
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to list the directories of [%s]", directory), e);
+                return;
+            }
+
+            Checkpoint.Progress progress = checkpoint.start(parentProgress, directory, directories);
+            List<DirectoryVisitor> visitors = directories.stream()
+                                                         .map(d -> new DirectoryVisitor(d, monitor, checkpoint,
+                                                                                        progress))
+                                                         .collect(Collectors.toList());
+            if (parallelism > 1)
+            {
+                invokeAll(visitors);
+            }
+            else
+            {
+                visitors.forEach(DirectoryVisitor::compute);
+            }
+
+            if (!monitor.isCancelled())
+            {
+                checkpoint.completed(progress);
+            }
+        }
+
+    }
+
+    /**
+     * Advances the checkpoint of the repository over the directories, as their sub-trees are completed. The sub-trees
+     * are completed out of order, so the checkpoint is the last directory, up to which all of them are: it's found by
+     * descending into the first incomplete sub-directory of each directory, for as long as it has been started.
+     */
+    private static class Checkpoint
+    {
+
+        private final ProgressMonitor monitor;
+
+        private final String scope;
+
+        private final List<String> resumeCheckpoint;
+
+        private Progress root;
+
+
+        Checkpoint(RepositoryPath startingPath,
+                   ProgressMonitor monitor)
+        {
+            Repository repository = startingPath.getRepository();
+
+            this.monitor = monitor;
+            this.scope = repository.getStorage().getId() + ":" + repository.getId();
+
+            String checkpoint = monitor.takeResumeCheckpoint(scope);
+            this.resumeCheckpoint = checkpoint != null ? Arrays.asList(checkpoint.split("/")) : null;
+        }
+
+        /**
+         * @return true, if the directory comes before the resume checkpoint (or is the checkpoint itself), without
+         *         being one of its parents
+         */
+        boolean isCompleted(RepositoryPath directory)
+        {
+            if (resumeCheckpoint == null)
+            {
+                return false;
+            }
+
+            List<String> names = getNames(directory);
+            for (int i = 0; i < names.size(); i++)
+            {
+                if (i == resumeCheckpoint.size())
+                {
+                    // Below the checkpoint.
+                    return true;
+                }
+
+                int result = names.get(i).compareTo(resumeCheckpoint.get(i));
+                if (result != 0)
+                {
+                    return result < 0;
+                }
+            }
+
+            return names.size() == resumeCheckpoint.size();
+        }
+
+        synchronized Progress start(Progress parent,
+                                    RepositoryPath directory,
+                                    List<RepositoryPath> directories)
+        {
+            Progress progress = new Progress(parent, directory, directories);
+            if (parent != null)
+            {
+                parent.started.put(directory, progress);
+            }
+            else
+            {
+                root = progress;
+            }
+
+            return progress;
+        }
+
+        synchronized void completed(Progress progress)
+        {
+            Progress parent = progress.parent;
+            if (parent == null)
+            {
+                return;
+            }
+
+            parent.started.remove(progress.directory);
+            parent.completedDirectories.add(progress.directory);
+            while (parent.completedCount < parent.directories.size() &&
+                   parent.completedDirectories.remove(parent.directories.get(parent.completedCount)))
+            {
+                parent.completedCount++;
+            }
+
+            RepositoryPath last = null;
+            for (Progress p = root; p != null; )
+            {
+                if (p.completedCount > 0)
+                {
+                    last = p.directories.get(p.completedCount - 1);
+                }
+
+                p = p.completedCount < p.directories.size() ? p.started.get(p.directories.get(p.completedCount)) :
+                    null;
+            }
+
+            if (last != null)
+            {
+                monitor.setCheckpoint(scope, String.join("/", getNames(last)));
+            }
+        }
+
+        private List<String> getNames(RepositoryPath directory)
+        {
+            List<String> names = new ArrayList<>();
+            for (Path name : directory.relativize())
+            {
+                names.add(name.toString());
+            }
+
+            return names;
+        }
+
+        /**
+         * The progress of the walk of a directory, which has been started, but not completed.
+         */
+        static class Progress
+        {
+
+            private final Progress parent;
+
+            private final RepositoryPath directory;
+
+            private final List<RepositoryPath> directories;
+
+            private final Map<RepositoryPath, Progress> started = new HashMap<>();
+
+            private final Set<RepositoryPath> completedDirectories = new HashSet<>();
+
+            private int completedCount;
+
+
+            Progress(Progress parent,
+                     RepositoryPath directory,
+                     List<RepositoryPath> directories)
+            {
+                this.parent = parent;
+                this.directory = directory;
+                this.directories = directories;
+            }
+
+        }
+
+    }
+
 }
@@ -1,8 +1,8 @@
 package org.carlspring.strongbox.artifact.locator.handlers;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
@@ -15,7 +15,7 @@ public interface ArtifactDirectoryOperation
 
     void execute(RepositoryPath path) throws IOException;
 
-    LinkedHashMap<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
+    Map<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
 
     RepositoryPath getBasePath();
     
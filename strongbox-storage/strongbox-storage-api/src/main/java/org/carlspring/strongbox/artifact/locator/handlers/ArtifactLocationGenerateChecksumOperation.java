@@ -24,8 +24,6 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactLocationGenerateChecksumOperation.class);
 
-    private Path previousPath;
-
     private boolean forceRegeneration = false;
 
     public void execute(RepositoryPath path)
@@ -73,18 +71,6 @@ public class ArtifactLocationGenerateChecksumOperation
             System.out.println(parentPath);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !parentPath.startsWith(previousPath))
-        {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = parentPath;
-        }
-
-        if (previousPath == null)
-        {
-            previousPath = parentPath;
-        }
-
         List<RepositoryPath> versionDirectories = getVersionDirectories(parentPath);
         if (versionDirectories == null || versionDirectories.isEmpty())
         {
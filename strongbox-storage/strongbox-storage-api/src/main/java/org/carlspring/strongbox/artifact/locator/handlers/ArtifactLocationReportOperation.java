@@ -20,8 +20,6 @@ public class ArtifactLocationReportOperation
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactLocationReportOperation.class);
 
-    private RepositoryPath previousPath;
-
 
     public ArtifactLocationReportOperation()
     {
@@ -57,18 +55,6 @@ public class ArtifactLocationReportOperation
             System.out.println(parentPath);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !parentPath.startsWith(previousPath))
-        {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = parentPath;
-        }
-
-        if (previousPath == null)
-        {
-            previousPath = parentPath;
-        }
-
         List<RepositoryPath> versionDirectories = getVersionDirectories(parentPath);
         if (versionDirectories != null)
         {
@@ -22,8 +22,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.slf4j.Logger;
@@ -42,6 +49,17 @@ public class StorageBooter
 
     private static final Logger logger = LoggerFactory.getLogger(StorageBooter.class);
 
+    /**
+     * The number of threads to initialize the repositories with; defaults to the number of available processors.
+     */
+    public static final String PROPERTY_THREADS = "strongbox.storage.booter.threads";
+
+    /**
+     * When set, the application context doesn't wait for the repositories to be initialized, so the readiness has to
+     * be checked with {@link #isInitialized()}.
+     */
+    public static final String PROPERTY_ASYNC = "strongbox.storage.booter.async";
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -59,6 +77,18 @@ public class StorageBooter
 
     private Path lockFile = Paths.get(ConfigurationResourceResolver.getVaultDirectory()).resolve("storage-booter.lock");
 
+    private ExecutorService repositoriesInitializationExecutor;
+
+    private volatile CompletableFuture<Void> repositoriesInitialization;
+
+    private volatile int repositoriesTotal;
+
+    private final AtomicInteger repositoriesInitialized = new AtomicInteger();
+
+    private final AtomicInteger repositoriesFailed = new AtomicInteger();
+
+    private final AtomicInteger repositoriesSkipped = new AtomicInteger();
+
     public StorageBooter()
     {
     }
@@ -73,31 +103,164 @@ public class StorageBooter
             createTempDir();
 
             initializeStorages();
-
-            Collection<Repository> repositories = getRepositoriesHierarchy();
-
-            for (Repository repository : repositories)
-            {
-                try
-                {
-                    initializeRepository(repository);
-                }
-                catch (IOException e)
-                {
-                    throw new RuntimeException("Failed to initialize the repository '" + repository + "'.", e);
-                }
-            }
+            initializeRepositories(getRepositoriesHierarchy());
         }
         else
         {
             logger.debug("Failed to initialize the repositories. Another JVM may have already done this.");
+
+            repositoriesInitialization = CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Initializes the repositories on a bounded thread pool. A group repository is only initialized after all of its
+     * member repositories have been, while the unrelated repositories are initialized in parallel.
+     */
+    private void initializeRepositories(Collection<Repository> repositories)
+    {
+        int threads = Integer.getInteger(PROPERTY_THREADS, Runtime.getRuntime().availableProcessors());
+        repositoriesInitializationExecutor = Executors.newFixedThreadPool(Math.max(threads, 1));
+
+        repositoriesTotal = repositories.size();
+
+        Map<String, CompletableFuture<Void>> initializations = new LinkedHashMap<>();
+        for (Repository repository : repositories)
+        {
+            // The repositories come children first, so the members of a group, including the nested groups, have
+            // already been submitted.
+            CompletableFuture<?>[] members = getGroupMembers(repository).stream()
+                                                                        .map(r -> initializations.get(getRepositoryKey(r)))
+                                                                        .filter(Objects::nonNull)
+                                                                        .toArray(CompletableFuture[]::new);
+
+            initializations.put(getRepositoryKey(repository),
+                                CompletableFuture.allOf(members)
+                                                 .handleAsync((r, e) -> initializeRepositoryTracked(repository, e),
+                                                              repositoriesInitializationExecutor));
+        }
+
+        repositoriesInitialization = CompletableFuture.allOf(initializations.values()
+                                                                            .toArray(new CompletableFuture[0]))
+                                                      .whenComplete((r, e) -> repositoriesInitializationExecutor.shutdown());
+
+        if (Boolean.getBoolean(PROPERTY_ASYNC))
+        {
+            logger.info("Initializing {} repositories in the background...", repositoriesTotal);
+            return;
+        }
+
+        try
+        {
+            repositoriesInitialization.join();
+        }
+        catch (CompletionException e)
+        {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
         }
     }
 
+    /**
+     * @param membersFailure the failure of the group members, in which case the group is skipped
+     */
+    private Void initializeRepositoryTracked(Repository repository,
+                                             Throwable membersFailure)
+    {
+        if (membersFailure != null)
+        {
+            repositoriesSkipped.incrementAndGet();
+
+            logger.error(String.format("Skipped the initialization of the group repository [%s], as some of its " +
+                                       "members failed to initialize.", repository.getId()));
+
+            // The enclosing groups are skipped as well.
+            throw membersFailure instanceof CompletionException ? (CompletionException) membersFailure :
+                  new CompletionException(membersFailure);
+        }
+
+        try
+        {
+            initializeRepository(repository);
+
+            repositoriesInitialized.incrementAndGet();
+
+            return null;
+        }
+        catch (IOException | RepositoryManagementStrategyException | RuntimeException e)
+        {
+            repositoriesFailed.incrementAndGet();
+
+            logger.error(String.format("Failed to initialize the repository [%s].", repository.getId()), e);
+
+            throw new RuntimeException("Failed to initialize the repository '" + repository + "'.", e);
+        }
+    }
+
+    private Collection<Repository> getGroupMembers(Repository repository)
+    {
+        if (!repository.isGroupRepository())
+        {
+            return Collections.emptySet();
+        }
+
+        // The direct members only; a nested group is awaited as a whole, as it awaits its own members.
+        return groupRepositorySetCollector.collect(repository, false);
+    }
+
+    private static String getRepositoryKey(Repository repository)
+    {
+        return repository.getStorage().getId() + ":" + repository.getId();
+    }
+
+    /**
+     * @return true once all the repositories have been successfully initialized
+     */
+    public boolean isInitialized()
+    {
+        CompletableFuture<Void> initialization = repositoriesInitialization;
+
+        return initialization != null && initialization.isDone() && !initialization.isCompletedExceptionally();
+    }
+
+    public boolean isInitializationFailed()
+    {
+        CompletableFuture<Void> initialization = repositoriesInitialization;
+
+        return initialization != null && initialization.isCompletedExceptionally();
+    }
+
+    public int getRepositoriesTotal()
+    {
+        return repositoriesTotal;
+    }
+
+    public int getRepositoriesInitialized()
+    {
+        return repositoriesInitialized.get();
+    }
+
+    public int getRepositoriesFailed()
+    {
+        return repositoriesFailed.get();
+    }
+
+    /**
+     * @return the number of the group repositories which haven't been initialized, because some of their members failed
+     */
+    public int getRepositoriesSkipped()
+    {
+        return repositoriesSkipped.get();
+    }
+
     @PreDestroy
     public void removeLock()
             throws IOException
     {
+        if (repositoriesInitializationExecutor != null)
+        {
+            repositoriesInitializationExecutor.shutdownNow();
+        }
+
         Files.deleteIfExists(lockFile);
 
         logger.debug("Removed lock file '" + lockFile.toAbsolutePath().toString() + "'.");
@@ -241,12 +404,12 @@ public class StorageBooter
     {
         if (!repository.isGroupRepository())
         {
-            repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+            repositoriesHierarchy.putIfAbsent(getRepositoryKey(repository), repository);
             return;
         }
-        groupRepositorySetCollector.collect(repository, true).stream().forEach(
+        groupRepositorySetCollector.collect(repository, false).stream().forEach(
                 r -> addRepositoriesByChildrenFirst(repositoriesHierarchy, r));
-        repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+        repositoriesHierarchy.putIfAbsent(getRepositoryKey(repository), repository);
     }
 
     public RepositoryManagementService getRepositoryManagementService()
@@ -10,7 +10,9 @@ import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -48,6 +50,12 @@ public class ArtifactEntry
     
     private Integer downloadCount = Integer.valueOf(0);
 
+    /**
+     * Layout specific artifact metadata (like Nuget package description or hash), which is needed to serve the
+     * artifact listings without reading the artifact files.
+     */
+    private Map<String, String> artifactMetadata;
+
     public ArtifactEntry()
     {
     }
@@ -153,6 +161,16 @@ public class ArtifactEntry
         this.downloadCount = downloadCount;
     }
 
+    public Map<String, String> getArtifactMetadata()
+    {
+        return artifactMetadata = Optional.ofNullable(artifactMetadata).orElse(new HashMap<>());
+    }
+
+    public void setArtifactMetadata(Map<String, String> artifactMetadata)
+    {
+        this.artifactMetadata = artifactMetadata;
+    }
+
     @Override
     public String toString()
     {
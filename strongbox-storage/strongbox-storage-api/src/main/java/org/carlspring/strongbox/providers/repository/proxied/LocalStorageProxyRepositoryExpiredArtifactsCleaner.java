@@ -14,6 +14,7 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -28,12 +29,18 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Deletes the expired artifacts in batches of {@link #BATCH_SIZE}, stopping between the batches, once the
+ * {@link ProgressMonitor} of the calling thread is cancelled. The artifacts left over are found again by the next
+ * cleanup, so it needs no checkpoint.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
 {
 
+    private static final int BATCH_SIZE = 100;
+
     private final Logger logger = LoggerFactory.getLogger(LocalStorageProxyRepositoryExpiredArtifactsCleaner.class);
 
     @Inject
@@ -70,9 +77,20 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
             return;
         }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromDatabase(artifactEntries);
-        deleteFromStorage(artifactEntries);
+        final ProgressMonitor monitor = ProgressMonitor.current();
+        monitor.addTotal(artifactEntries.size());
+
+        for (int i = 0; i < artifactEntries.size() && !monitor.isCancelled(); i += BATCH_SIZE)
+        {
+            final List<ArtifactEntry> batch = artifactEntries.subList(i, Math.min(i + BATCH_SIZE,
+                                                                                  artifactEntries.size()));
+
+            logger.debug("Cleaning artifacts {}", batch);
+            deleteFromDatabase(batch);
+            deleteFromStorage(batch);
+
+            monitor.processed(batch.size());
+        }
     }
 
     private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
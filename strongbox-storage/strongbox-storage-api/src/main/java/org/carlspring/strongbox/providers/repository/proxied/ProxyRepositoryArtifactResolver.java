@@ -16,6 +16,7 @@ import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.health.RemoteRepositoryHealthManager;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
@@ -43,6 +44,9 @@ public abstract class ProxyRepositoryArtifactResolver
     @Inject
     protected RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
+    @Inject
+    protected RemoteRepositoryHealthManager remoteRepositoryHealthManager;
+
     @Inject
     protected LayoutProviderRegistry layoutProviderRegistry;
 
@@ -72,12 +76,20 @@ public abstract class ProxyRepositoryArtifactResolver
             return null;
         }
 
+        if (!remoteRepositoryHealthManager.allowRequest(remoteRepository))
+        {
+            getLogger().debug("Remote repository '" + remoteRepository.getUrl() + "' circuit is open.");
+
+            return null;
+        }
+
         try (final RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository.getUrl(),
                                                                                          remoteRepository.getUsername(),
                                                                                          remoteRepository.getPassword()))
         {
             URI resource = RepositoryFiles.resolveResource(repositoryPath);
-            try (final CloseableRestResponse closeableRestResponse = client.get(resource.toString()))
+
+            try (final CloseableRestResponse closeableRestResponse = get(client, resource, remoteRepository))
             {
                 final Response response = closeableRestResponse.getResponse();
 
@@ -107,6 +119,37 @@ public abstract class ProxyRepositoryArtifactResolver
         }
     }
 
+    private CloseableRestResponse get(final RestArtifactResolver client,
+                                      final URI resource,
+                                      final RemoteRepository remoteRepository)
+    {
+        final long startMillis = System.currentTimeMillis();
+
+        final CloseableRestResponse closeableRestResponse;
+        try
+        {
+            closeableRestResponse = client.get(resource.toString());
+        }
+        catch (RuntimeException e)
+        {
+            remoteRepositoryHealthManager.onFailure(remoteRepository, System.currentTimeMillis() - startMillis);
+
+            throw e;
+        }
+
+        final long durationMillis = System.currentTimeMillis() - startMillis;
+        if (closeableRestResponse.getResponse().getStatus() >= 500)
+        {
+            remoteRepositoryHealthManager.onFailure(remoteRepository, durationMillis);
+        }
+        else
+        {
+            remoteRepositoryHealthManager.onSuccess(remoteRepository, durationMillis);
+        }
+
+        return closeableRestResponse;
+    }
+
     protected InputStream onSuccessfulProxyRepositoryResponse(final InputStream is,
                                                               final RepositoryPath repositoryPath)
             throws IOException
@@ -28,6 +28,15 @@ public interface ArtifactEntryService
 {
 
     <S extends ArtifactEntry> S save(S entity, boolean updateLastVersion);
+
+    /**
+     * Saves all the given entities within a single transaction. If <code>updateLastVersion</code> is set, the
+     * last version tag is only resolved once per artifact (coordinates without version): among the entities tagged
+     * with {@link org.carlspring.strongbox.domain.ArtifactTagEntry#LAST_VERSION}, the one with the greatest
+     * coordinates keeps the tag, the others have it removed.
+     */
+    <S extends ArtifactEntry> List<S> saveAll(Collection<S> entities,
+                                              boolean updateLastVersion);
     
     /**
      * Returns list of artifacts that matches search query defined as {@link ArtifactCoordinates} fields. By default all
@@ -80,6 +89,22 @@ public interface ArtifactEntryService
                                             String repositoryId,
                                             String path);
 
+    /**
+     * Returns those of the given artifact paths, which already have an {@link ArtifactEntry} within the repository.
+     */
+    Set<String> findExistingArtifactPaths(String storageId,
+                                          String repositoryId,
+                                          Collection<String> paths);
+
+    /**
+     * Returns the artifacts under the given base path (or the whole repository, if the path is empty), which version
+     * coordinate matches the given regular expression.
+     */
+    List<ArtifactEntry> findArtifactsByVersionMatching(String storageId,
+                                                       String repositoryId,
+                                                       String basePath,
+                                                       String versionRegex);
+
     int delete(List<ArtifactEntry> artifactEntries);
 
 }
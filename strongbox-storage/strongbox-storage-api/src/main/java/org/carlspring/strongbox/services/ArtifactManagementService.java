@@ -116,10 +116,53 @@ public class ArtifactManagementService
         return store(repositoryPath, is);
     }
 
+    /**
+     * Stores the artifact written by the writer into the temporary path of the repository path, and moves it in place
+     * only once the writer has completed. If the writer fails, neither the artifact nor its entry are kept.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public long validateAndStore(RepositoryPath repositoryPath,
+                                 ArtifactStreamWriter writer)
+            throws IOException,
+                   ProviderImplementationException,
+                   ArtifactCoordinatesValidationException
+    {
+        performRepositoryAcceptanceValidation(repositoryPath);
+
+        RepositoryPath tempPath = RepositoryFiles.temporary(repositoryPath);
+
+        long result;
+        try
+        {
+            result = store(tempPath, writer);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        RepositoryFiles.permanent(repositoryPath);
+
+        return result;
+    }
+
     @Transactional
     public long store(RepositoryPath repositoryPath,
                       InputStream is)
             throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return store(repositoryPath,
+                     os -> artifactByteStreamsCopyStrategyDeterminator.determine(repository)
+                                                                      .copy(is, os, repositoryPath));
+    }
+
+    @Transactional
+    public long store(RepositoryPath repositoryPath,
+                      ArtifactStreamWriter writer)
+            throws IOException
     {
         boolean updatedMetadataFile = false;
         boolean updatedArtifactFile = false;
@@ -147,7 +190,7 @@ public class ArtifactManagementService
         
         try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
         {
-            result = storeArtifact(repositoryPath, is, aos);
+            result = storeArtifact(repositoryPath, writer, aos);
         }
         catch (IOException e)
         {
@@ -191,7 +234,7 @@ public class ArtifactManagementService
     }
 
     private long storeArtifact(RepositoryPath repositoryPath,
-                               InputStream is,
+                               ArtifactStreamWriter writer,
                                OutputStream os)
             throws IOException
     {
@@ -216,8 +259,7 @@ public class ArtifactManagementService
             artifactEventListenerRegistry.dispatchArtifactDownloadingEvent(repositoryPath);
         }
 
-        long totalAmountOfBytes = artifactByteStreamsCopyStrategyDeterminator.determine(repository)
-                                                                             .copy(is, os, repositoryPath);
+        long totalAmountOfBytes = writer.write(os);
 
         URI repositoryPathId = repositoryPath.toUri();
         Map<String, String> digestMap = aos.getDigestMap();
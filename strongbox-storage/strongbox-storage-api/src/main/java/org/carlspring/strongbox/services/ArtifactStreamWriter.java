@@ -0,0 +1,22 @@
+package org.carlspring.strongbox.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the content of an artifact which is produced while it's being stored, rather than read from an
+ * {@link java.io.InputStream}.
+ */
+@FunctionalInterface
+public interface ArtifactStreamWriter
+{
+
+    /**
+     * Writes the artifact content into the given stream, which is closed by the caller.
+     *
+     * @return the number of bytes written
+     */
+    long write(OutputStream os)
+            throws IOException;
+
+}
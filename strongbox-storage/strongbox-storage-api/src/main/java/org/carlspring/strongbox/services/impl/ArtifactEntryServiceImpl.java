@@ -1,11 +1,13 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -17,6 +19,7 @@ import java.util.stream.IntStream;
 import javax.inject.Inject;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
@@ -80,6 +83,74 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return super.save(entity);
     }
 
+    @Override
+    public <S extends ArtifactEntry> List<S> saveAll(Collection<S> entities,
+                                                     boolean updateLastVersion)
+    {
+        Set<S> lastVersionCandidates = updateLastVersion ? selectLastVersionCandidates(entities)
+                                                         : Collections.emptySet();
+
+        List<S> result = new ArrayList<>(entities.size());
+        for (S entity : entities)
+        {
+            result.add(save(entity, lastVersionCandidates.contains(entity)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Picks, per storage, repository and versionless coordinates, the entity with the greatest coordinates among the
+     * ones tagged as last version, so that the last version lookup is only done once per artifact. The tag is
+     * removed from all the other entities of the group.
+     */
+    private <S extends ArtifactEntry> Set<S> selectLastVersionCandidates(Collection<S> entities)
+    {
+        Map<List<Object>, S> candidateMap = new HashMap<>();
+        for (S entity : entities)
+        {
+            ArtifactCoordinates coordinates = entity.getArtifactCoordinates();
+            if (coordinates == null || !hasLastVersionTag(entity))
+            {
+                continue;
+            }
+
+            List<Object> key = Arrays.asList(entity.getStorageId(), entity.getRepositoryId(),
+                                             coordinates.dropVersion());
+            S candidate = candidateMap.get(key);
+            if (candidate == null)
+            {
+                candidateMap.put(key, entity);
+                continue;
+            }
+
+            if (coordinates.compareTo(candidate.getArtifactCoordinates()) > 0)
+            {
+                removeLastVersionTag(candidate);
+                candidateMap.put(key, entity);
+            }
+            else
+            {
+                removeLastVersionTag(entity);
+            }
+        }
+
+        Set<S> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        result.addAll(candidateMap.values());
+
+        return result;
+    }
+
+    private boolean hasLastVersionTag(ArtifactEntry entity)
+    {
+        return entity.getTagSet().stream().anyMatch(t -> ArtifactTagEntry.LAST_VERSION.equals(t.getName()));
+    }
+
+    private void removeLastVersionTag(ArtifactEntry entity)
+    {
+        entity.getTagSet().removeIf(t -> ArtifactTagEntry.LAST_VERSION.equals(t.getName()));
+    }
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -454,6 +525,67 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                          : Optional.of(entityManager.find(ArtifactEntry.class, artifactEntryIdId));
     }
 
+    @Override
+    public Set<String> findExistingArtifactPaths(String storageId,
+                                                 String repositoryId,
+                                                 Collection<String> paths)
+    {
+        if (CollectionUtils.isEmpty(paths))
+        {
+            return Collections.emptySet();
+        }
+
+        String sQuery = String.format("SELECT artifactPath FROM %s WHERE storageId = :storageId AND repositoryId = :repositoryId AND artifactPath in :paths",
+                                      getEntityClass().getSimpleName());
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("paths", new ArrayList<>(paths));
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream()
+                         .map(d -> (String) d.field("artifactPath"))
+                         .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<ArtifactEntry> findArtifactsByVersionMatching(String storageId,
+                                                              String repositoryId,
+                                                              String basePath,
+                                                              String versionRegex)
+    {
+        String pathPrefix = StringUtils.isBlank(basePath) ? null : StringUtils.removeEnd(basePath, "/") + "/";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
+        sb.append(" WHERE storageId = :storageId AND repositoryId = :repositoryId");
+        if (pathPrefix != null)
+        {
+            sb.append(" AND artifactPath LIKE :path");
+        }
+        sb.append(" AND artifactCoordinates.coordinates.version MATCHES :versionRegex");
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+        parameterMap.put("versionRegex", versionRegex);
+        if (pathPrefix != null)
+        {
+            parameterMap.put("path", pathPrefix + "%");
+        }
+
+        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
+        List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
+
+        // The path itself might contain the `LIKE` wildcards.
+        return pathPrefix == null ? entries : entries.stream()
+                                                     .filter(e -> e.getArtifactPath().startsWith(pathPrefix))
+                                                     .collect(Collectors.toList());
+    }
+
     @Override
     public int delete(List<ArtifactEntry> artifactEntries)
     {
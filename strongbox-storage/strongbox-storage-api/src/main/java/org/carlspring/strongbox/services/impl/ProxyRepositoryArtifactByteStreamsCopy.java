@@ -24,12 +24,18 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.services.ArtifactByteStreamsCopyStrategy;
 import org.carlspring.strongbox.services.support.ArtifactByteStreamsCopyException;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.health.RemoteRepositoryHealthManager;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
+ * Copies the remote artifact stream and, if the connection breaks, resumes it from the current offset with a range
+ * request. The attempts are made on the copying thread, which waits for the configured interval between them, but
+ * never past the overall retry timeout, and gives up as soon as it's interrupted. The copy is part of the
+ * synchronous store pipeline, so the request thread which resolved the artifact is held for as long as it waits.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -45,13 +51,13 @@ public class ProxyRepositoryArtifactByteStreamsCopy
     @Inject
     private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
+    @Inject
+    private RemoteRepositoryHealthManager remoteRepositoryHealthManager;
+
     @Inject
     private RestArtifactResolverFactory artifactResolverFactory;
 
     private ArtifactByteStreamsCopyStrategy simpleArtifactByteStreams = SimpleArtifactByteStreamsCopy.INSTANCE;
-    
-    private ThreadLocal<ArtifactCopyContext> artifactCopyContext = new ThreadLocal<>();;
-    
 
     @Override
     public long copy(final InputStream from,
@@ -61,116 +67,192 @@ public class ProxyRepositoryArtifactByteStreamsCopy
     {
         final StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        
-        long result;
-        try (ArtifactCopyContext context = new ArtifactCopyContext())
+
+        try (ArtifactCopyContext ctx = new ArtifactCopyContext(artifactPath, stopWatch))
         {
-            context.setAttempts(1);
-            context.setCurrentOffset(0);
-            context.setStopWatch(stopWatch);
-            artifactCopyContext.set(context);
+            InputStream is = from;
+            while (true)
+            {
+                try
+                {
+                    ctx.setCurrentOffset(ctx.getCurrentOffset() + simpleArtifactByteStreams.copy(is, to, artifactPath));
+                    recordTransferOutcome(ctx, false);
+
+                    return ctx.getCurrentOffset();
+                }
+                catch (ArtifactByteStreamsCopyException ex)
+                {
+                    ctx.setCurrentOffset(ctx.getCurrentOffset() + ex.getOffset());
+                    recordTransferOutcome(ctx, true);
+
+                    is = resume(ctx, ex);
+                }
+            }
+        }
+    }
 
-            copyWithOffset(from, to, artifactPath);
-            
-            result = artifactCopyContext.get().getCurrentOffset();
+    /**
+     * Records the outcome of the range request whose stream has just been copied, which is only known once the
+     * transfer has completed or broken. The outcome of the initial request is recorded by the proxy resolver, which
+     * made it, so a broken initial transfer isn't recorded again.
+     */
+    private void recordTransferOutcome(final ArtifactCopyContext ctx,
+                                       final boolean failure)
+    {
+        Long responseMillis = ctx.getPendingResponseTime();
+        if (responseMillis == null)
+        {
+            return;
         }
+        ctx.setPendingResponseTime(null);
 
-        return result;
+        if (failure)
+        {
+            remoteRepositoryHealthManager.onFailure(ctx.getRemoteRepository(), responseMillis);
+        }
+        else
+        {
+            remoteRepositoryHealthManager.onSuccess(ctx.getRemoteRepository(), responseMillis);
+        }
     }
 
-    private void copyWithOffset(final InputStream from,
-                                final OutputStream to,
-                                final RepositoryPath artifactPath)
+    private InputStream resume(final ArtifactCopyContext ctx,
+                               final IOException lastException)
             throws IOException
     {
-        ArtifactCopyContext ctx = artifactCopyContext.get();
-        
+        while (true)
+        {
+            ctx.setAttempts(ctx.getAttempts() + 1);
+
+            logger.debug("Retrying remote stream copying ... Attempt number = [{}], Current Offset = [{}] Duration Time = [{}]",
+                         ctx.getAttempts(), ctx.getCurrentOffset(),
+                         ctx.getStopWatch());
+
+            finishUnsuccessfullyIfNumberOfAttemptsExceedTheLimit(ctx, lastException);
+            finishUnsuccessfullyIfCircuitIsOpen(ctx, lastException);
+
+            waitBeforeNextAttempt(ctx, lastException);
+
+            InputStream is = tryRangeRequest(ctx, lastException);
+            if (is != null)
+            {
+                return is;
+            }
+        }
+    }
+
+    private void waitBeforeNextAttempt(final ArtifactCopyContext ctx,
+                                       final IOException lastException)
+            throws IOException
+    {
+        long remainingMillis = getRetryTimeoutMillis() - ctx.getStopWatch().getTime();
+        if (remainingMillis <= 0)
+        {
+            throw lastException;
+        }
+
         try
         {
-            long offset = simpleArtifactByteStreams.copy(from, to, artifactPath);
-            ctx.setCurrentOffset(ctx.getCurrentOffset() + offset);
+            Thread.sleep(Math.min(getSleepMillisTimeBeforeNextAttempt(), remainingMillis));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            logger.error(e.getMessage(), e);
+            throw lastException;
         }
-        catch (ArtifactByteStreamsCopyException ex)
+
+        if (ctx.getStopWatch().getTime() >= getRetryTimeoutMillis())
         {
-            ctx.setCurrentOffset(ctx.getCurrentOffset() + ex.getOffset());
-            retryCopyIfPossible(to, artifactPath, ex);
+            throw lastException;
         }
     }
 
-    private void retryCopyIfPossible(final OutputStream to,
-                                     final RepositoryPath artifactPath,
-                                     final IOException lastException)
+    /**
+     * @return the remote stream starting at the current offset, or {@code null} if the remote repository is not
+     * alive and the attempt should be repeated
+     */
+    private InputStream tryRangeRequest(final ArtifactCopyContext ctx,
+                                        final IOException lastException)
             throws IOException
     {
-        ArtifactCopyContext ctx = artifactCopyContext.get();
-        ctx.setAttempts(ctx.getAttempts() + 1);
-        
-        logger.debug("Retrying remote stream copying ... Attempt number = [{}], Current Offset = [{}] Duration Time = [{}]",
-                     ctx.getAttempts(), ctx.getCurrentOffset(),
-                     ctx.getStopWatch());
-        
-        finishUnsuccessfullyIfNumberOfAttemptsExceedTheLimit(lastException);
-        tryToSleepRequestedAmountOfTimeBetweenAttempts(lastException);
-        finishUnsuccessfullyIfTimeoutOccurred(lastException);
-        
-        if (!checkRemoteRepositoryHeartbeat(artifactPath))
-        {
-            retryCopyIfPossible(to, artifactPath, lastException);
-        }
-        
+        if (!checkRemoteRepositoryHeartbeat(ctx))
+        {
+            return null;
+        }
+
         ctx.setRangeRequestSupported(Optional.ofNullable(ctx.getRangeRequestSupported())
-                                             .orElse(BooleanUtils.isTrue(isRangeRequestSupported(artifactPath))));
-        
+                                             .orElse(BooleanUtils.isTrue(isRangeRequestSupported(ctx))));
+
         if (BooleanUtils.isNotTrue(ctx.getRangeRequestSupported()))
         {
             throw new IOException(
                     String.format("IOException occurred and repository of path [%s] does not support range requests.",
-                                  artifactPath),
+                                  ctx.getArtifactPath()),
                     lastException);
         }
 
-        performRangeRequest(to, artifactPath);
+        return performRangeRequest(ctx);
     }
 
-    private void performRangeRequest(final OutputStream to,
-                                     final RepositoryPath artifactPath)
+    private InputStream performRangeRequest(final ArtifactCopyContext ctx)
             throws IOException
     {
-        ArtifactCopyContext ctx = artifactCopyContext.get();
-        
-        RemoteRepository remoteRepository = artifactPath.getFileSystem().getRepository().getRemoteRepository();
-        RestArtifactResolver client = ctx.getClient(remoteRepository);
-        String resourcePath = getRestClientResourcePath(artifactPath);
-        
+        RemoteRepository remoteRepository = ctx.getRemoteRepository();
+        RestArtifactResolver client = ctx.getClient();
+        String resourcePath = getRestClientResourcePath(ctx.getArtifactPath());
+
         ctx.closeConnection();
-        CloseableRestResponse closeableRestResponse = client.get(resourcePath, ctx.getCurrentOffset());
+        ctx.startAttempt();
+
+        CloseableRestResponse closeableRestResponse;
+        try
+        {
+            closeableRestResponse = client.get(resourcePath, ctx.getCurrentOffset());
+        }
+        catch (RuntimeException e)
+        {
+            remoteRepositoryHealthManager.onFailure(remoteRepository, ctx.getAttemptTime());
+            throw new IOException(String.format("Failed to request %s from %s.", resourcePath,
+                                                remoteRepository.getUrl()), e);
+        }
         ctx.setConnection(closeableRestResponse);
-        
+
         Response response = closeableRestResponse.getResponse();
-        if (response.getStatus() != 200 || response.getEntity() == null)
+        int status = response.getStatus();
+        if ((status != 200 && status != 206) || response.getEntity() == null)
         {
+            if (status >= 500)
+            {
+                remoteRepositoryHealthManager.onFailure(remoteRepository, ctx.getAttemptTime());
+            }
+            else
+            {
+                remoteRepositoryHealthManager.onSuccess(remoteRepository, ctx.getAttemptTime());
+            }
+
             throw new IOException(String.format("Unreadable response from %s. Response status is %s",
                                                 remoteRepository.getUrl(), response.getStatus()));
         }
         InputStream is = response.readEntity(InputStream.class);
         if (is == null)
         {
+            remoteRepositoryHealthManager.onFailure(remoteRepository, ctx.getAttemptTime());
             throw new IOException(String.format("Unexpected null as InputStream from response from %s.",
                                                 remoteRepository.getUrl()));
         }
+        // The outcome is recorded once the transfer of this stream has completed or broken.
+        ctx.setPendingResponseTime(ctx.getAttemptTime());
 
-        copyWithOffset(is, to, artifactPath);
+        return is;
     }
 
-    private boolean isRangeRequestSupported(final RepositoryPath artifactPath)
+    private boolean isRangeRequestSupported(final ArtifactCopyContext ctx)
             throws IOException
     {
-        ArtifactCopyContext ctx = artifactCopyContext.get();
-        
-        RemoteRepository remoteRepository = artifactPath.getFileSystem().getRepository().getRemoteRepository();
-        RestArtifactResolver client = ctx.getClient(remoteRepository);
-        
-        final String resourcePath = getRestClientResourcePath(artifactPath);
+        RestArtifactResolver client = ctx.getClient();
+
+        final String resourcePath = getRestClientResourcePath(ctx.getArtifactPath());
         try (final CloseableRestResponse closeableRestResponse = client.head(resourcePath))
         {
             final Response response = closeableRestResponse.getResponse();
@@ -183,44 +265,30 @@ public class ProxyRepositoryArtifactByteStreamsCopy
             final String acceptRangesHeader = response.getHeaderString("Accept-Ranges");
             return StringUtils.isNotBlank(acceptRangesHeader) && !"none".equals(acceptRangesHeader);
         }
-    }    
-    
-    private boolean checkRemoteRepositoryHeartbeat(final RepositoryPath artifactPath)
-    {
-        final RemoteRepository remoteRepository = artifactPath.getFileSystem().getRepository().getRemoteRepository();
-        return remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository);
     }
 
-    private void tryToSleepRequestedAmountOfTimeBetweenAttempts(final IOException ex)
-            throws IOException
+    private boolean checkRemoteRepositoryHeartbeat(final ArtifactCopyContext ctx)
     {
-        try
-        {
-            //TODO: we should use Object.wait() instead
-            Thread.sleep(getSleepMillisTimeBeforeNextAttempt());
-        }
-        catch (final InterruptedException e)
-        {
-            Thread.currentThread().interrupt();
-            logger.error(e.getMessage(), e);
-            throw ex;
-        }
+        return remoteRepositoryAlivenessCacheManager.isAlive(ctx.getRemoteRepository());
     }
 
-    private void finishUnsuccessfullyIfNumberOfAttemptsExceedTheLimit(final IOException ex)
+    private void finishUnsuccessfullyIfNumberOfAttemptsExceedTheLimit(final ArtifactCopyContext ctx,
+                                                                      final IOException ex)
             throws IOException
     {
-        if (artifactCopyContext.get().getAttempts() > getMaxAllowedNumberOfRetryAttempts())
+        if (ctx.getAttempts() > getMaxAllowedNumberOfRetryAttempts())
         {
             throw ex;
         }
     }
 
-    private void finishUnsuccessfullyIfTimeoutOccurred(final IOException ex)
+    private void finishUnsuccessfullyIfCircuitIsOpen(final ArtifactCopyContext ctx,
+                                                     final IOException ex)
             throws IOException
     {
-        if (artifactCopyContext.get().getStopWatch().getTime() > getRetryTimeoutMillis())
+        if (remoteRepositoryHealthManager.isCircuitOpen(ctx.getRemoteRepository()))
         {
+            logger.debug("Remote repository circuit of path [{}] is open, giving up retrying.", ctx.getArtifactPath());
             throw ex;
         }
     }
@@ -271,24 +339,42 @@ public class ProxyRepositoryArtifactByteStreamsCopy
                                    .getRemoteRepositoryRetryArtifactDownloadConfiguration();
     }
 
+    /**
+     * State of a single copy operation.
+     */
     private class ArtifactCopyContext implements Closeable
     {
-        
-        private StopWatch stopWatch;
-        private int attempts;
+
+        private final RepositoryPath artifactPath;
+        private final StopWatch stopWatch;
+        private int attempts = 1;
         private long currentOffset;
         private Boolean rangeRequestSupported;
+        private long attemptStartedAt = System.currentTimeMillis();
+        private Long pendingResponseTime;
         private RestArtifactResolver client;
         private Closeable connection;
 
-        public StopWatch getStopWatch()
+        ArtifactCopyContext(RepositoryPath artifactPath,
+                            StopWatch stopWatch)
         {
-            return stopWatch;
+            this.artifactPath = artifactPath;
+            this.stopWatch = stopWatch;
         }
 
-        public void setStopWatch(StopWatch stopWatch)
+        public RepositoryPath getArtifactPath()
         {
-            this.stopWatch = stopWatch;
+            return artifactPath;
+        }
+
+        public RemoteRepository getRemoteRepository()
+        {
+            return artifactPath.getFileSystem().getRepository().getRemoteRepository();
+        }
+
+        public StopWatch getStopWatch()
+        {
+            return stopWatch;
         }
 
         public int getAttempts()
@@ -311,6 +397,35 @@ public class ProxyRepositoryArtifactByteStreamsCopy
             this.currentOffset = currentOffset;
         }
 
+        /**
+         * Marks the start of a request to the remote repository, which {@link #getAttemptTime()} is measured from.
+         */
+        public void startAttempt()
+        {
+            this.attemptStartedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the milliseconds elapsed since the current attempt started
+         */
+        public long getAttemptTime()
+        {
+            return System.currentTimeMillis() - attemptStartedAt;
+        }
+
+        /**
+         * @return the response time of the range request whose outcome hasn't been recorded yet, or {@code null}
+         */
+        public Long getPendingResponseTime()
+        {
+            return pendingResponseTime;
+        }
+
+        public void setPendingResponseTime(Long pendingResponseTime)
+        {
+            this.pendingResponseTime = pendingResponseTime;
+        }
+
         public Boolean getRangeRequestSupported()
         {
             return rangeRequestSupported;
@@ -321,9 +436,9 @@ public class ProxyRepositoryArtifactByteStreamsCopy
             this.rangeRequestSupported = rangeRequestSupported;
         }
 
-        public RestArtifactResolver getClient(RemoteRepository repository)
+        public RestArtifactResolver getClient()
         {
-            return client = Optional.ofNullable(client).orElse(getRestArtifactResolver(repository));
+            return client = Optional.ofNullable(client).orElseGet(() -> getRestArtifactResolver(getRemoteRepository()));
         }
 
         public void setConnection(Closeable connection)
@@ -336,22 +451,15 @@ public class ProxyRepositoryArtifactByteStreamsCopy
             Optional.ofNullable(connection).ifPresent(c -> IOUtils.closeQuietly(c));
             connection = null;
         }
-        
+
         @Override
         public void close()
-            throws IOException
         {
-            try
-            {
-                Optional.ofNullable(client).ifPresent(c -> IOUtils.closeQuietly(c));
-                client = null;
-            }
-            finally
-            {
-                artifactCopyContext.remove();
-            }
+            closeConnection();
+            Optional.ofNullable(client).ifPresent(c -> IOUtils.closeQuietly(c));
+            client = null;
         }
-        
+
     }
 
 }
@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+/**
+ * @see RemoteRepositoryHealth
+ */
+public enum CircuitBreakerState
+{
+
+    /**
+     * Requests are passed through to the remote repository and their outcome is recorded.
+     */
+    CLOSED,
+
+    /**
+     * The remote repository is considered unhealthy and requests fail fast without reaching it.
+     */
+    OPEN,
+
+    /**
+     * A limited number of trial requests are allowed in order to find out whether the remote repository recovered.
+     */
+    HALF_OPEN
+
+}
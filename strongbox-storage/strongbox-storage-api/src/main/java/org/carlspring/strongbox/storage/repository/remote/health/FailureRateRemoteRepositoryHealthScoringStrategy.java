@@ -0,0 +1,30 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import org.carlspring.strongbox.configuration.RemoteRepositoryCircuitBreakerConfiguration;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Considers a remote repository unhealthy when either its failure rate or its slow call rate reaches the configured
+ * threshold.
+ */
+@Component
+public class FailureRateRemoteRepositoryHealthScoringStrategy
+        implements RemoteRepositoryHealthScoringStrategy
+{
+
+    @Override
+    public boolean isHealthy(RemoteRepositoryHealth health,
+                             RemoteRepositoryCircuitBreakerConfiguration configuration)
+    {
+        if (health.getNumberOfCalls() < configuration.getMinimumNumberOfCalls())
+        {
+            return true;
+        }
+
+        return health.getFailureRate() < configuration.getFailureRateThreshold() &&
+               health.getSlowCallRate(configuration.getSlowCallDurationMillis()) <
+               configuration.getSlowCallRateThreshold();
+    }
+
+}
@@ -0,0 +1,213 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import java.util.Arrays;
+
+/**
+ * Passive health statistics of a single remote repository, collected from the outcome of the real proxy requests
+ * within a sliding window, together with the state of its circuit breaker.
+ */
+public class RemoteRepositoryHealth
+{
+
+    private long[] durations;
+
+    private boolean[] failures;
+
+    private int position;
+
+    private int numberOfCalls;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+
+    private long openedAtMillis;
+
+    private int halfOpenTrialRequests;
+
+    public RemoteRepositoryHealth(int slidingWindowSize)
+    {
+        this.durations = new long[Math.max(1, slidingWindowSize)];
+        this.failures = new boolean[durations.length];
+    }
+
+    public synchronized int getSlidingWindowSize()
+    {
+        return durations.length;
+    }
+
+    /**
+     * Changes the size of the sliding window, keeping the most recent calls which still fit in it.
+     */
+    public synchronized void resize(int slidingWindowSize)
+    {
+        int size = Math.max(1, slidingWindowSize);
+        if (size == durations.length)
+        {
+            return;
+        }
+
+        int kept = Math.min(numberOfCalls, size);
+        long[] resizedDurations = new long[size];
+        boolean[] resizedFailures = new boolean[size];
+        for (int i = 0; i < kept; i++)
+        {
+            // From the oldest of the kept calls to the most recent one.
+            int from = (position - kept + i + durations.length) % durations.length;
+            resizedDurations[i] = durations[from];
+            resizedFailures[i] = failures[from];
+        }
+
+        durations = resizedDurations;
+        failures = resizedFailures;
+        numberOfCalls = kept;
+        position = kept % size;
+    }
+
+    public synchronized void record(boolean failure,
+                                    long durationMillis)
+    {
+        durations[position] = durationMillis;
+        failures[position] = failure;
+        position = (position + 1) % durations.length;
+        numberOfCalls = Math.min(numberOfCalls + 1, durations.length);
+    }
+
+    public synchronized int getNumberOfCalls()
+    {
+        return numberOfCalls;
+    }
+
+    /**
+     * @return the percentage of failed calls within the sliding window
+     */
+    public synchronized float getFailureRate()
+    {
+        if (numberOfCalls == 0)
+        {
+            return 0;
+        }
+
+        int failed = 0;
+        for (int i = 0; i < numberOfCalls; i++)
+        {
+            if (failures[i])
+            {
+                failed++;
+            }
+        }
+
+        return failed * 100f / numberOfCalls;
+    }
+
+    /**
+     * @return the percentage of calls within the sliding window which took at least the given amount of time
+     */
+    public synchronized float getSlowCallRate(long slowCallDurationMillis)
+    {
+        if (numberOfCalls == 0)
+        {
+            return 0;
+        }
+
+        int slow = 0;
+        for (int i = 0; i < numberOfCalls; i++)
+        {
+            if (durations[i] >= slowCallDurationMillis)
+            {
+                slow++;
+            }
+        }
+
+        return slow * 100f / numberOfCalls;
+    }
+
+    /**
+     * @param percentile a value between 0 and 100
+     * @return the call duration at the given percentile within the sliding window
+     */
+    public synchronized long getLatencyPercentile(double percentile)
+    {
+        if (numberOfCalls == 0)
+        {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(durations, numberOfCalls);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100d * sorted.length) - 1;
+
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    /**
+     * @return the median call duration within the sliding window
+     */
+    public long getMedianLatency()
+    {
+        return getLatencyPercentile(50);
+    }
+
+    /**
+     * @return the 99th percentile of the call duration within the sliding window
+     */
+    public long getP99Latency()
+    {
+        return getLatencyPercentile(99);
+    }
+
+    public synchronized CircuitBreakerState getState()
+    {
+        return state;
+    }
+
+    synchronized long getOpenedAtMillis()
+    {
+        return openedAtMillis;
+    }
+
+    synchronized void open(long nowMillis)
+    {
+        state = CircuitBreakerState.OPEN;
+        openedAtMillis = nowMillis;
+        halfOpenTrialRequests = 0;
+    }
+
+    synchronized void halfOpen()
+    {
+        state = CircuitBreakerState.HALF_OPEN;
+        halfOpenTrialRequests = 0;
+    }
+
+    synchronized void close()
+    {
+        state = CircuitBreakerState.CLOSED;
+        halfOpenTrialRequests = 0;
+        position = 0;
+        numberOfCalls = 0;
+    }
+
+    synchronized boolean tryAcquireHalfOpenTrial(int maxTrialRequests)
+    {
+        if (halfOpenTrialRequests >= maxTrialRequests)
+        {
+            return false;
+        }
+
+        halfOpenTrialRequests++;
+
+        return true;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "RemoteRepositoryHealth{" +
+               "state=" + state +
+               ", numberOfCalls=" + numberOfCalls +
+               ", failureRate=" + getFailureRate() +
+               ", p50=" + getMedianLatency() +
+               ", p99=" + getP99Latency() +
+               '}';
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.RemoteRepositoryCircuitBreakerConfiguration;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the health of the remote repositories passively, from the outcome of the real proxy requests, and guards
+ * them with a circuit breaker. Unlike the {@link org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager},
+ * which is only updated by the periodic heartbeat, the state here changes as soon as the remote repository starts
+ * failing, so that the proxy resolution can fail fast instead of blocking request threads on it.
+ */
+@Component
+public class RemoteRepositoryHealthManager
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteRepositoryHealthManager.class);
+
+    private final Map<String, RemoteRepositoryHealth> healths = new ConcurrentHashMap<>();
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RemoteRepositoryHealthScoringStrategy scoringStrategy;
+
+    /**
+     * @return {@code false} if the circuit of the remote repository is open and the request should not be made
+     */
+    public boolean allowRequest(RemoteRepository remoteRepository)
+    {
+        RemoteRepositoryHealth health = getHealth(remoteRepository);
+        RemoteRepositoryCircuitBreakerConfiguration configuration = getConfiguration();
+
+        synchronized (health)
+        {
+            if (health.getState() == CircuitBreakerState.OPEN)
+            {
+                long openStateMillis = configuration.getOpenStateSeconds() * 1000L;
+                if (System.currentTimeMillis() - health.getOpenedAtMillis() < openStateMillis)
+                {
+                    return false;
+                }
+
+                logger.debug("Remote repository [{}] circuit is half-open.", remoteRepository.getUrl());
+
+                health.halfOpen();
+            }
+
+            if (health.getState() == CircuitBreakerState.HALF_OPEN)
+            {
+                return health.tryAcquireHalfOpenTrial(configuration.getHalfOpenTrialRequests());
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks the circuit without changing its state; unlike {@link #allowRequest(RemoteRepository)}, this doesn't move
+     * an expired open circuit to half-open, nor takes a half-open trial.
+     *
+     * @return {@code true} if the circuit of the remote repository is open and its open state hasn't elapsed yet
+     */
+    public boolean isCircuitOpen(RemoteRepository remoteRepository)
+    {
+        RemoteRepositoryHealth health = getHealth(remoteRepository);
+        long openStateMillis = getConfiguration().getOpenStateSeconds() * 1000L;
+
+        synchronized (health)
+        {
+            return health.getState() == CircuitBreakerState.OPEN &&
+                   System.currentTimeMillis() - health.getOpenedAtMillis() < openStateMillis;
+        }
+    }
+
+    public void onSuccess(RemoteRepository remoteRepository,
+                          long durationMillis)
+    {
+        record(remoteRepository, false, durationMillis);
+    }
+
+    public void onFailure(RemoteRepository remoteRepository,
+                          long durationMillis)
+    {
+        record(remoteRepository, true, durationMillis);
+    }
+
+    /**
+     * @return the health of the remote repository, with its sliding window sized after the current configuration
+     */
+    public RemoteRepositoryHealth getHealth(RemoteRepository remoteRepository)
+    {
+        int slidingWindowSize = getConfiguration().getSlidingWindowSize();
+
+        RemoteRepositoryHealth health = healths.computeIfAbsent(remoteRepository.getUrl(),
+                                                                url -> new RemoteRepositoryHealth(slidingWindowSize));
+        health.resize(slidingWindowSize);
+
+        return health;
+    }
+
+    /**
+     * @return the health of every remote repository which has been requested, by the remote repository URL
+     */
+    public Map<String, RemoteRepositoryHealth> getHealths()
+    {
+        return Collections.unmodifiableMap(healths);
+    }
+
+    private void record(RemoteRepository remoteRepository,
+                        boolean failure,
+                        long durationMillis)
+    {
+        RemoteRepositoryHealth health = getHealth(remoteRepository);
+        RemoteRepositoryCircuitBreakerConfiguration configuration = getConfiguration();
+
+        synchronized (health)
+        {
+            if (health.getState() == CircuitBreakerState.HALF_OPEN)
+            {
+                if (failure)
+                {
+                    logger.warn("Remote repository [{}] failed the half-open trial, circuit is open again.",
+                                remoteRepository.getUrl());
+
+                    health.open(System.currentTimeMillis());
+                }
+                else
+                {
+                    logger.info("Remote repository [{}] recovered, circuit is closed.", remoteRepository.getUrl());
+
+                    health.close();
+                }
+
+                return;
+            }
+
+            if (health.getState() == CircuitBreakerState.OPEN)
+            {
+                return;
+            }
+
+            health.record(failure, durationMillis);
+
+            if (!scoringStrategy.isHealthy(health, configuration))
+            {
+                logger.warn("Remote repository [{}] is unhealthy {}, circuit is open.", remoteRepository.getUrl(),
+                            health);
+
+                health.open(System.currentTimeMillis());
+            }
+        }
+    }
+
+    private RemoteRepositoryCircuitBreakerConfiguration getConfiguration()
+    {
+        RemoteRepositoryCircuitBreakerConfiguration configuration = configurationManager.getConfiguration()
+                                                                                        .getRemoteRepositoriesConfiguration()
+                                                                                        .getRemoteRepositoryCircuitBreakerConfiguration();
+
+        return configuration != null ? configuration : RemoteRepositoryCircuitBreakerConfiguration.DEFAULT;
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import org.carlspring.strongbox.configuration.RemoteRepositoryCircuitBreakerConfiguration;
+
+/**
+ * Decides, based on the passively collected statistics, whether a remote repository should still receive requests.
+ * Declare a {@code @Primary} bean of this type in order to plug in a different scoring.
+ */
+public interface RemoteRepositoryHealthScoringStrategy
+{
+
+    boolean isHealthy(RemoteRepositoryHealth health,
+                      RemoteRepositoryCircuitBreakerConfiguration configuration);
+
+}
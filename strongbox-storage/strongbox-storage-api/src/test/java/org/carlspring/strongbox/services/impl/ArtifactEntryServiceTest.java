@@ -8,9 +8,11 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 
 import javax.inject.Inject;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.lang3.time.DateUtils;
 import org.hamcrest.CoreMatchers;
@@ -186,6 +188,28 @@ public class ArtifactEntryServiceTest
         assertThat(artifactEntryService.findAll(), CoreMatchers.not(CoreMatchers.equalTo(Optional.empty())));
     }
 
+    @Test
+    public void findExistingArtifactPathsShouldWork()
+            throws Exception
+    {
+        artifactEntryService.deleteAll();
+        createArtifacts(groupId, artifactId, storageId, repositoryId);
+
+        String existingPath = String.format("%s/%s/%s/%s", groupId, artifactId, "1.2.3", "jar");
+        String missingPath = String.format("%s/%s/%s/%s", groupId, artifactId, "3.2.1", "jar");
+
+        Set<String> result = artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                            Arrays.asList(existingPath, missingPath));
+        assertEquals(1, result.size());
+        assertTrue(result.contains(existingPath));
+
+        result = artifactEntryService.findExistingArtifactPaths(storageId, repositoryId + "-missing",
+                                                                Arrays.asList(existingPath, missingPath));
+        assertTrue(result.isEmpty());
+
+        artifactEntryService.deleteAll();
+    }
+
     @Test
     public void searchByLastUsedAndBySizeShouldWork()
             throws Exception
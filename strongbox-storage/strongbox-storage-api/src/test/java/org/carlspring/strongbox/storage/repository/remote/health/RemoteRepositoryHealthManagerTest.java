@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.RemoteRepositoryCircuitBreakerConfiguration;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RemoteRepositoryHealthManagerTest
+{
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    ConfigurationManager configurationManager;
+
+    @Spy
+    RemoteRepositoryHealthScoringStrategy scoringStrategy = new FailureRateRemoteRepositoryHealthScoringStrategy();
+
+    @InjectMocks
+    RemoteRepositoryHealthManager healthManager;
+
+    RemoteRepositoryCircuitBreakerConfiguration configuration;
+
+    RemoteRepository remoteRepository;
+
+    @Before
+    public void setUp()
+    {
+        initMocks(this);
+
+        configuration = new RemoteRepositoryCircuitBreakerConfiguration();
+        configuration.setSlidingWindowSize(10);
+        configuration.setMinimumNumberOfCalls(1);
+        configuration.setFailureRateThreshold(50);
+        configuration.setOpenStateSeconds(0);
+        configuration.setHalfOpenTrialRequests(1);
+
+        when(configurationManager.getConfiguration()
+                                 .getRemoteRepositoriesConfiguration()
+                                 .getRemoteRepositoryCircuitBreakerConfiguration()).thenReturn(configuration);
+
+        remoteRepository = new RemoteRepository();
+        remoteRepository.setUrl("http://localhost:48080/repository");
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesCircuit()
+    {
+        healthManager.onFailure(remoteRepository, 10);
+
+        assertEquals(CircuitBreakerState.OPEN, healthManager.getHealth(remoteRepository).getState());
+
+        // The open state has elapsed; checking the circuit must neither move it, nor take the trial.
+        assertFalse(healthManager.isCircuitOpen(remoteRepository));
+        assertFalse(healthManager.isCircuitOpen(remoteRepository));
+        assertEquals(CircuitBreakerState.OPEN, healthManager.getHealth(remoteRepository).getState());
+
+        assertTrue(healthManager.allowRequest(remoteRepository));
+        assertEquals(CircuitBreakerState.HALF_OPEN, healthManager.getHealth(remoteRepository).getState());
+        assertFalse(healthManager.allowRequest(remoteRepository));
+
+        healthManager.onSuccess(remoteRepository, 10);
+
+        assertEquals(CircuitBreakerState.CLOSED, healthManager.getHealth(remoteRepository).getState());
+        assertTrue(healthManager.allowRequest(remoteRepository));
+    }
+
+    @Test
+    public void testHalfOpenTrialFailureReopensCircuit()
+    {
+        healthManager.onFailure(remoteRepository, 10);
+
+        assertTrue(healthManager.allowRequest(remoteRepository));
+
+        healthManager.onFailure(remoteRepository, 10);
+
+        assertEquals(CircuitBreakerState.OPEN, healthManager.getHealth(remoteRepository).getState());
+    }
+
+    @Test
+    public void testSlidingWindowFollowsConfiguration()
+    {
+        configuration.setMinimumNumberOfCalls(100);
+
+        healthManager.onSuccess(remoteRepository, 10);
+        healthManager.onFailure(remoteRepository, 20);
+
+        assertEquals(10, healthManager.getHealth(remoteRepository).getSlidingWindowSize());
+
+        configuration.setSlidingWindowSize(1);
+
+        RemoteRepositoryHealth health = healthManager.getHealth(remoteRepository);
+        assertEquals(1, health.getSlidingWindowSize());
+        assertEquals(1, health.getNumberOfCalls());
+        assertEquals(100f, health.getFailureRate(), 0f);
+        assertEquals(health, healthManager.getHealths().get(remoteRepository.getUrl()));
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.carlspring.strongbox.storage.repository.remote.health;
+
+import org.carlspring.strongbox.configuration.RemoteRepositoryCircuitBreakerConfiguration;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RemoteRepositoryHealthTest
+{
+
+    private final RemoteRepositoryHealthScoringStrategy scoringStrategy = new FailureRateRemoteRepositoryHealthScoringStrategy();
+
+    @Test
+    public void testSlidingWindowStatistics()
+    {
+        RemoteRepositoryHealth health = new RemoteRepositoryHealth(4);
+
+        health.record(false, 10);
+        health.record(false, 20);
+        health.record(true, 30);
+        health.record(true, 40);
+
+        assertEquals(4, health.getNumberOfCalls());
+        assertEquals(50f, health.getFailureRate(), 0f);
+        assertEquals(20, health.getLatencyPercentile(50));
+        assertEquals(40, health.getLatencyPercentile(99));
+        assertEquals(25f, health.getSlowCallRate(40), 0f);
+
+        // Overwrites the two oldest successful calls.
+        health.record(true, 50);
+        health.record(true, 60);
+
+        assertEquals(4, health.getNumberOfCalls());
+        assertEquals(100f, health.getFailureRate(), 0f);
+        assertEquals(30, health.getLatencyPercentile(1));
+    }
+
+    @Test
+    public void testResizeKeepsMostRecentCalls()
+    {
+        RemoteRepositoryHealth health = new RemoteRepositoryHealth(4);
+
+        health.record(false, 10);
+        health.record(false, 20);
+        health.record(true, 30);
+        health.record(true, 40);
+        health.record(true, 50);
+
+        health.resize(2);
+
+        assertEquals(2, health.getSlidingWindowSize());
+        assertEquals(2, health.getNumberOfCalls());
+        assertEquals(100f, health.getFailureRate(), 0f);
+        assertEquals(40, health.getMedianLatency());
+        assertEquals(50, health.getP99Latency());
+
+        health.resize(4);
+        health.record(false, 60);
+
+        assertEquals(3, health.getNumberOfCalls());
+        assertEquals(50, health.getMedianLatency());
+        assertEquals(60, health.getP99Latency());
+    }
+
+    @Test
+    public void testScoringRequiresMinimumNumberOfCalls()
+    {
+        RemoteRepositoryCircuitBreakerConfiguration configuration = new RemoteRepositoryCircuitBreakerConfiguration();
+        configuration.setMinimumNumberOfCalls(3);
+        configuration.setFailureRateThreshold(50);
+
+        RemoteRepositoryHealth health = new RemoteRepositoryHealth(10);
+        health.record(true, 10);
+        health.record(true, 10);
+
+        assertTrue(scoringStrategy.isHealthy(health, configuration));
+
+        health.record(false, 10);
+
+        assertFalse(scoringStrategy.isHealthy(health, configuration));
+    }
+
+    @Test
+    public void testSlowCallsMakeRepositoryUnhealthy()
+    {
+        RemoteRepositoryCircuitBreakerConfiguration configuration = new RemoteRepositoryCircuitBreakerConfiguration();
+        configuration.setMinimumNumberOfCalls(2);
+        configuration.setSlowCallDurationMillis(1000);
+        configuration.setSlowCallRateThreshold(50);
+
+        RemoteRepositoryHealth health = new RemoteRepositoryHealth(10);
+        health.record(false, 10);
+        health.record(false, 2000);
+
+        assertFalse(scoringStrategy.isHealthy(health, configuration));
+    }
+
+    @Test
+    public void testHalfOpenTrials()
+    {
+        RemoteRepositoryHealth health = new RemoteRepositoryHealth(10);
+        health.open(System.currentTimeMillis());
+
+        assertEquals(CircuitBreakerState.OPEN, health.getState());
+
+        health.halfOpen();
+
+        assertTrue(health.tryAcquireHalfOpenTrial(1));
+        assertFalse(health.tryAcquireHalfOpenTrial(1));
+
+        health.close();
+
+        assertEquals(CircuitBreakerState.CLOSED, health.getState());
+        assertEquals(0, health.getNumberOfCalls());
+    }
+
+}
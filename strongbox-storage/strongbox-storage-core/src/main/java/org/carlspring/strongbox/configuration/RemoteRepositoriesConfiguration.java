@@ -35,6 +35,9 @@ public class RemoteRepositoriesConfiguration
     @XmlElement(name = "retry-artifact-download-configuration")
     private RemoteRepositoryRetryArtifactDownloadConfiguration remoteRepositoryRetryArtifactDownloadConfiguration = RemoteRepositoryRetryArtifactDownloadConfiguration.DEFAULT;
 
+    @XmlElement(name = "circuit-breaker-configuration")
+    private RemoteRepositoryCircuitBreakerConfiguration remoteRepositoryCircuitBreakerConfiguration = RemoteRepositoryCircuitBreakerConfiguration.DEFAULT;
+
     @XmlAttribute(name = "check-interval-seconds")
     private int checkIntervalSeconds = DEFAULT_HEARTBEAT_INTERVAL_SECONDS;
 
@@ -51,6 +54,16 @@ public class RemoteRepositoriesConfiguration
         this.remoteRepositoryRetryArtifactDownloadConfiguration = remoteRepositoryRetryArtifactDownloadConfiguration;
     }
 
+    public RemoteRepositoryCircuitBreakerConfiguration getRemoteRepositoryCircuitBreakerConfiguration()
+    {
+        return remoteRepositoryCircuitBreakerConfiguration;
+    }
+
+    public void setRemoteRepositoryCircuitBreakerConfiguration(final RemoteRepositoryCircuitBreakerConfiguration remoteRepositoryCircuitBreakerConfiguration)
+    {
+        this.remoteRepositoryCircuitBreakerConfiguration = remoteRepositoryCircuitBreakerConfiguration;
+    }
+
     public int getCheckIntervalSeconds()
     {
         return checkIntervalSeconds;
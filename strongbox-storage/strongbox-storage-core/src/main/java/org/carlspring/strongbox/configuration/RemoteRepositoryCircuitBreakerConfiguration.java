@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.configuration;
+
+import javax.persistence.Embeddable;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+/**
+ * Thresholds of the passive remote repository health tracking, which is fed by the real proxy traffic.
+ */
+@Embeddable
+@XmlRootElement(name = "circuit-breaker-configuration")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class RemoteRepositoryCircuitBreakerConfiguration
+        implements Serializable
+{
+
+    public static final RemoteRepositoryCircuitBreakerConfiguration DEFAULT = new RemoteRepositoryCircuitBreakerConfiguration()
+    {
+        @Override
+        public void setSlidingWindowSize(final int slidingWindowSize)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setMinimumNumberOfCalls(final int minimumNumberOfCalls)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setFailureRateThreshold(final int failureRateThreshold)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setSlowCallDurationMillis(final long slowCallDurationMillis)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setSlowCallRateThreshold(final int slowCallRateThreshold)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setOpenStateSeconds(final int openStateSeconds)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+
+        @Override
+        public void setHalfOpenTrialRequests(final int halfOpenTrialRequests)
+        {
+            throw new UnsupportedOperationException("DEFAULT RemoteRepositoryCircuitBreakerConfiguration is immutable");
+        }
+    };
+
+    /**
+     * Number of the most recent calls taken into account when scoring the remote repository.
+     */
+    @XmlAttribute(name = "sliding-window-size")
+    private int slidingWindowSize = 50;
+
+    /**
+     * Number of recorded calls required before the circuit is allowed to open.
+     */
+    @XmlAttribute(name = "minimum-number-of-calls")
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * Percentage of failed calls at which the circuit opens.
+     */
+    @XmlAttribute(name = "failure-rate-threshold")
+    private int failureRateThreshold = 50;
+
+    @XmlAttribute(name = "slow-call-duration-millis")
+    private long slowCallDurationMillis = 10000;
+
+    /**
+     * Percentage of calls slower than {@link #slowCallDurationMillis} at which the circuit opens.
+     */
+    @XmlAttribute(name = "slow-call-rate-threshold")
+    private int slowCallRateThreshold = 80;
+
+    @XmlAttribute(name = "open-state-seconds")
+    private int openStateSeconds = 30;
+
+    @XmlAttribute(name = "half-open-trial-requests")
+    private int halfOpenTrialRequests = 3;
+
+    public int getSlidingWindowSize()
+    {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(final int slidingWindowSize)
+    {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls()
+    {
+        return minimumNumberOfCalls;
+    }
+
+    public void setMinimumNumberOfCalls(final int minimumNumberOfCalls)
+    {
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    public int getFailureRateThreshold()
+    {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(final int failureRateThreshold)
+    {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public long getSlowCallDurationMillis()
+    {
+        return slowCallDurationMillis;
+    }
+
+    public void setSlowCallDurationMillis(final long slowCallDurationMillis)
+    {
+        this.slowCallDurationMillis = slowCallDurationMillis;
+    }
+
+    public int getSlowCallRateThreshold()
+    {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(final int slowCallRateThreshold)
+    {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public int getOpenStateSeconds()
+    {
+        return openStateSeconds;
+    }
+
+    public void setOpenStateSeconds(final int openStateSeconds)
+    {
+        this.openStateSeconds = openStateSeconds;
+    }
+
+    public int getHalfOpenTrialRequests()
+    {
+        return halfOpenTrialRequests;
+    }
+
+    public void setHalfOpenTrialRequests(final int halfOpenTrialRequests)
+    {
+        this.halfOpenTrialRequests = halfOpenTrialRequests;
+    }
+}
@@ -3,16 +3,15 @@ package org.carlspring.strongbox.cron.jobs;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.cron.domain.CronTaskConfiguration;
 import org.carlspring.strongbox.cron.services.JobManager;
+import org.carlspring.strongbox.cron.services.impl.CronTaskExecutor;
 import org.carlspring.strongbox.services.ArtifactMetadataService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
-import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Map;
-
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import java.util.stream.Collectors;
 
 /**
  * @author Kate Novik
@@ -30,6 +29,9 @@ public class RebuildMavenMetadataCronJob
     @Inject
     private JobManager manager;
 
+    @Inject
+    private CronTaskExecutor cronTaskExecutor;
+
 
     @Override
     public void executeTask(CronTaskConfiguration config)
@@ -41,15 +43,14 @@ public class RebuildMavenMetadataCronJob
 
         if (storageId == null)
         {
-            Map<String, Storage> storages = getStorages();
-            for (String storage : storages.keySet())
-            {
-                rebuildRepositories(storage);
-            }
+            rebuildRepositories(getStorages().values()
+                                             .stream()
+                                             .flatMap(s -> s.getRepositories().values().stream())
+                                             .collect(Collectors.toList()));
         }
         else if (repositoryId == null)
         {
-            rebuildRepositories(storageId);
+            rebuildRepositories(getRepositories(storageId).values());
         }
         else
         {
@@ -58,22 +59,18 @@ public class RebuildMavenMetadataCronJob
     }
 
     /**
-     * To rebuild artifact's metadata in repositories
+     * To rebuild artifact's metadata in repositories, in parallel
      *
-     * @param storageId path of storage
-     * @throws NoSuchAlgorithmException
-     * @throws XmlPullParserException
-     * @throws IOException
+     * @param repositories the repositories
+     * @throws Exception
      */
-    private void rebuildRepositories(String storageId)
-            throws NoSuchAlgorithmException, XmlPullParserException, IOException
+    private void rebuildRepositories(Collection<Repository> repositories)
+            throws Exception
     {
-        Map<String, Repository> repositories = getRepositories(storageId);
-
-        for (String repository : repositories.keySet())
-        {
-            artifactMetadataService.rebuildMetadata(storageId, repository, null);
-        }
+        cronTaskExecutor.executeForRepositories(repositories,
+                                                r -> artifactMetadataService.rebuildMetadata(r.getStorage().getId(),
+                                                                                             r.getId(),
+                                                                                             null));
     }
 
     private Map<String, Storage> getStorages()
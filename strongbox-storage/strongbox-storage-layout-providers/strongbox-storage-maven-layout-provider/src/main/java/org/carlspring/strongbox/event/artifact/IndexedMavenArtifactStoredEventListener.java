@@ -1,6 +1,8 @@
 package org.carlspring.strongbox.event.artifact;
 
 import org.carlspring.strongbox.config.MavenIndexerEnabledCondition;
+import org.carlspring.strongbox.event.AsynchronousEventListener;
+import org.carlspring.strongbox.event.EventOverflowPolicy;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.repository.group.index.MavenIndexGroupRepositoryComponent;
@@ -8,17 +10,23 @@ import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
 /**
+ * Adds the stored artifacts to the indexes of the groups containing the repository. The groups are updated once per
+ * changed artifact directory, rather than once per stored file, and asynchronously, so the upload doesn't wait for
+ * them; the repeated changes of the same directory are coalesced.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 @Conditional(MavenIndexerEnabledCondition.class)
 public class IndexedMavenArtifactStoredEventListener
         extends BaseMavenArtifactEventListener
+        implements AsynchronousEventListener<ArtifactEvent<RepositoryPath>>
 {
 
     @Inject
@@ -34,7 +42,13 @@ public class IndexedMavenArtifactStoredEventListener
             return;
         }
 
-        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CHANGED.getType())
+        {
+            return;
+        }
+
+        // The directory may have been deleted, while the event was queued.
+        if (!Files.isDirectory(event.getPath()))
         {
             return;
         }
@@ -45,7 +59,14 @@ public class IndexedMavenArtifactStoredEventListener
         }
         catch (final IOException e)
         {
-            logger.error("Unable to update parent group repositories indexes of file " + event.getPath(), e);
+            logger.error("Unable to update parent group repositories indexes of directory " + event.getPath(), e);
         }
     }
+
+    @Override
+    public EventOverflowPolicy getOverflowPolicy()
+    {
+        return EventOverflowPolicy.COALESCE;
+    }
+
 }
@@ -0,0 +1,79 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.MavenArtifact;
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Merges the stored artifact into the existing `maven-metadata.xml` files: the version of a stored POM is added to
+ * the artifact level metadata and a stored timestamped snapshot file is added to the snapshot version level metadata.
+ * Only the stored version is merged, so the other versions of the artifact are neither listed nor parsed (the full
+ * rebuild is left to the {@link org.carlspring.strongbox.cron.jobs.RebuildMavenMetadataCronJob}).
+ */
+@Component
+public class MavenArtifactStoredEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    @Override
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        final Repository repository = getRepository(event);
+
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()))
+        {
+            return;
+        }
+
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        final RepositoryPath path = event.getPath();
+        try
+        {
+            if (RepositoryFiles.isTemp(path) || RepositoryFiles.isTrash(path) || !RepositoryFiles.isArtifact(path))
+            {
+                return;
+            }
+
+            updateMetadata(path);
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to update the metadata of file " + path + " of repository " + repository.getId(),
+                         e);
+        }
+    }
+
+    private void updateMetadata(final RepositoryPath path)
+            throws IOException
+    {
+        final RepositoryPath versionBasePath = path.getParent();
+        final RepositoryPath artifactBasePath = versionBasePath.getParent();
+        final String version = versionBasePath.getFileName().toString();
+
+        final MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(RepositoryFiles.stringValue(path));
+        final String extension = artifact.getType();
+
+        if (ArtifactUtils.isSnapshot(version) && !version.equals(artifact.getVersion()))
+        {
+            mavenMetadataManager.addTimestampedSnapshotVersion(artifactBasePath, version, artifact, extension);
+        }
+
+        if ("pom".equals(extension) && artifact.getClassifier() == null)
+        {
+            mavenMetadataManager.addVersion(artifactBasePath, version);
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached copy of a `maven-metadata.xml` file on any event for it (an upload, an update, a download from a
+ * remote repository, or a removal), so that the {@link org.carlspring.strongbox.storage.metadata.MavenMetadataManager}
+ * never hands out metadata which has been rewritten by somebody else.
+ */
+@Component
+public class MavenMetadataCacheEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    @Override
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        final RepositoryPath path = event.getPath();
+        if (path == null || path.getFileName() == null ||
+            !MetadataHelper.MAVEN_METADATA_XML.equals(path.getFileName().toString()))
+        {
+            return;
+        }
+
+        if (!Maven2LayoutProvider.ALIAS.equals(getRepository(event).getLayout()))
+        {
+            return;
+        }
+
+        mavenMetadataManager.evictCachedMetadata(path);
+    }
+
+}
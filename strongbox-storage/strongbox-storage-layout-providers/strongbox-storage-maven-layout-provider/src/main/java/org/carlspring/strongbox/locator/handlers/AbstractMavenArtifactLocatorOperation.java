@@ -24,8 +24,6 @@ public abstract class AbstractMavenArtifactLocatorOperation
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractMavenArtifactLocatorOperation.class);
 
-    private RepositoryPath previousPath;
-
 
     public AbstractMavenArtifactLocatorOperation()
     {
@@ -60,18 +58,6 @@ public abstract class AbstractMavenArtifactLocatorOperation
             System.out.println(parentPath);
         }
 
-        // The current directory is out of the tree
-        if (previousPath != null && !parentPath.startsWith(previousPath))
-        {
-            getVisitedRootPaths().remove(previousPath);
-            previousPath = parentPath;
-        }
-
-        if (previousPath == null)
-        {
-            previousPath = parentPath;
-        }
-
         List<RepositoryPath> versionDirectories = getVersionDirectories(parentPath);
         if (versionDirectories == null)
         {
@@ -25,9 +25,22 @@ public class MavenIndexerManagementOperation
 
     protected ArtifactIndexesService artifactIndexesService;
 
+    private final RepositoryIndexer repositoryIndexer;
+
     public MavenIndexerManagementOperation(ArtifactIndexesService artifactIndexesService)
+    {
+        this(artifactIndexesService, null);
+    }
+
+    /**
+     * @param repositoryIndexer the indexer to add the artifacts to, which is held acquired by the caller during the
+     *                          operation; if null, the indexer of the repository of each artifact is acquired
+     */
+    public MavenIndexerManagementOperation(ArtifactIndexesService artifactIndexesService,
+                                           RepositoryIndexer repositoryIndexer)
     {
         this.artifactIndexesService = artifactIndexesService;
+        this.repositoryIndexer = repositoryIndexer;
     }
 
     @Override
@@ -70,7 +83,7 @@ public class MavenIndexerManagementOperation
 
     protected RepositoryIndexer getRepositoryIndexer()
     {
-        return null;
+        return repositoryIndexer;
     }
 
 }
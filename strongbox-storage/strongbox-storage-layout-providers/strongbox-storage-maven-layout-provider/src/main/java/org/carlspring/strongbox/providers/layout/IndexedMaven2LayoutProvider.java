@@ -63,8 +63,13 @@ public class IndexedMaven2LayoutProvider
             return;
         }
 
-        final RepositoryIndexer indexer = getRepositoryIndexer(path);
-        if (indexer != null)
+        final RepositoryIndexer indexer = repositoryIndexManager.acquireRepositoryIndexer(getContextId(repository));
+        if (indexer == null)
+        {
+            return;
+        }
+
+        try
         {
             MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(RepositoryFiles.stringValue(path));
             MavenArtifactCoordinates coordinates = new MavenArtifactCoordinates(artifact);
@@ -76,6 +81,10 @@ public class IndexedMaven2LayoutProvider
                                                                       coordinates.getClassifier(),
                                                                       coordinates.getExtension())));
         }
+        finally
+        {
+            repositoryIndexManager.releaseRepositoryIndexer(indexer);
+        }
     }
 
     public void closeIndex(String storageId,
@@ -92,30 +101,27 @@ public class IndexedMaven2LayoutProvider
         closeIndex(repositoryPath);
     }
 
+    /**
+     * Closes the indexer of the repository once the in-flight operations have released it, and unregisters it. The
+     * index files are kept.
+     */
     public void closeIndex(RepositoryPath path)
             throws IOException
-    {
-        final RepositoryIndexer indexer = getRepositoryIndexer(path);
-        if (indexer != null)
-        {
-            logger.debug("Closing indexer of path " + path + "...");
-
-            indexer.close();
-        }
-    }
-
-    private RepositoryIndexer getRepositoryIndexer(RepositoryPath path)
     {
         Repository repository = path.getFileSystem().getRepository();
-
         if (!mavenRepositoryFeatures.isIndexingEnabled(repository))
         {
-            return null;
+            return;
         }
 
-        return repositoryIndexManager.getRepositoryIndexer(repository.getStorage().getId() + ":" +
-                                                           repository.getId() + ":" +
-                                                           IndexTypeEnum.LOCAL.getType());
+        logger.debug("Closing indexer of path " + path + "...");
+
+        repositoryIndexManager.closeIndexerKeepingFiles(getContextId(repository));
+    }
+
+    private String getContextId(Repository repository)
+    {
+        return repository.getStorage().getId() + ":" + repository.getId() + ":" + IndexTypeEnum.LOCAL.getType();
     }
 
     @Override
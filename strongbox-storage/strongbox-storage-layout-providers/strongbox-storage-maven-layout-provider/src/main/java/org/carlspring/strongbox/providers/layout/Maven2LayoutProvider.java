@@ -243,6 +243,15 @@ public class Maven2LayoutProvider
                         }
                     }
 
+                    MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(path);
+                    String snapshotVersion = artifactBasePath.getFileName().toString();
+                    if (ArtifactUtils.isSnapshot(snapshotVersion) && !snapshotVersion.equals(artifact.getVersion()))
+                    {
+                        mavenMetadataManager.removeTimestampedSnapshotVersion(artifactIdLevelPath,
+                                                                              snapshotVersion,
+                                                                              artifact,
+                                                                              artifact.getType());
+                    }
                 }
             }
             else
@@ -251,24 +260,12 @@ public class Maven2LayoutProvider
                 artifactIdLevelPath = artifactIdLevelPath.getParent();
             }
 
-            if (Files.exists(artifactIdLevelPath))
+            if (Files.exists(MetadataHelper.getArtifactMetadataPath(artifactIdLevelPath)))
             {
                 // This is at the artifact level
-                try (Stream<Path> pathStream = Files.list(artifactIdLevelPath))
-                {
-                    Path mavenMetadataPath = pathStream.filter(p -> p.getFileName()
-                                                                     .toString()
-                                                                     .endsWith("maven-metadata.xml"))
-                                                       .findFirst()
-                                                       .orElse(null);
-
-                    if (mavenMetadataPath != null)
-                    {
-                        String version = FilenameUtils.getName(artifactBasePath.toString());
+                String version = FilenameUtils.getName(artifactBasePath.toString());
 
-                        deleteMetadataAtArtifactLevel((RepositoryPath) mavenMetadataPath.getParent(), version);
-                    }
-                }
+                deleteMetadataAtArtifactLevel(artifactIdLevelPath, version);
             }
         }
         catch (IOException | XmlPullParserException e)
@@ -306,28 +303,7 @@ public class Maven2LayoutProvider
             throws IOException,
                    XmlPullParserException
     {
-        Metadata metadataVersionLevel = mavenMetadataManager.readMetadata(artifactPath);
-        if (metadataVersionLevel != null && metadataVersionLevel.getVersioning() != null)
-        {
-            metadataVersionLevel.getVersioning().getVersions().remove(version);
-
-            if (version.equals(metadataVersionLevel.getVersioning().getLatest()))
-            {
-                MetadataHelper.setLatest(metadataVersionLevel);
-            }
-
-            if (version.equals(metadataVersionLevel.getVersioning().getRelease()))
-            {
-                MetadataHelper.setRelease(metadataVersionLevel);
-            }
-
-            MetadataHelper.setLastUpdated(metadataVersionLevel.getVersioning());
-
-            mavenMetadataManager.storeMetadata(artifactPath,
-                                               null,
-                                               metadataVersionLevel,
-                                               MetadataType.ARTIFACT_ROOT_LEVEL);
-        }
+        mavenMetadataManager.removeVersion(artifactPath, version);
     }
 
     @Override
@@ -133,14 +133,21 @@ public class MavenIndexerSearchProvider
 
         final String contextId = storageId + ":" + repositoryId + ":" + indexType;
 
-        final RepositoryIndexer repositoryIndexer = repositoryIndexManager.getRepositoryIndexer(contextId);
+        final RepositoryIndexer repositoryIndexer = repositoryIndexManager.acquireRepositoryIndexer(contextId);
         if (repositoryIndexer != null)
         {
-            final Set<SearchResult> sr = repositoryIndexer.search(searchRequest.getQuery());
+            try
+            {
+                final Set<SearchResult> sr = repositoryIndexer.search(searchRequest.getQuery());
 
-            if (CollectionUtils.isNotEmpty(sr))
+                if (CollectionUtils.isNotEmpty(sr))
+                {
+                    searchResults.getResults().addAll(sr);
+                }
+            }
+            finally
             {
-                searchResults.getResults().addAll(sr);
+                repositoryIndexManager.releaseRepositoryIndexer(repositoryIndexer);
             }
         }
     }
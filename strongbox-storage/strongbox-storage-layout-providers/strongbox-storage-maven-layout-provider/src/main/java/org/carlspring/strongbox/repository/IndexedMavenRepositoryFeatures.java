@@ -6,6 +6,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.indexing.IncrementalIndexPacker;
 import org.carlspring.strongbox.storage.indexing.IndexTypeEnum;
 import org.carlspring.strongbox.storage.indexing.ReindexArtifactScanningListener;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
@@ -20,13 +21,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.maven.index.ScanningRequest;
 import org.apache.maven.index.ScanningResult;
 import org.apache.maven.index.context.IndexingContext;
-import org.apache.maven.index.packer.IndexPacker;
-import org.apache.maven.index.packer.IndexPackingRequest;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,7 +51,7 @@ public class IndexedMavenRepositoryFeatures
     private IndexDownloader indexDownloader;
 
     @Inject
-    private IndexPacker indexPacker;
+    private IncrementalIndexPacker incrementalIndexPacker;
 
     @Inject
     private RepositoryIndexManager repositoryIndexManager;
@@ -79,24 +78,22 @@ public class IndexedMavenRepositoryFeatures
         }
 
         // Create a remote index
-        RepositoryIndexer repositoryIndexer;
-        String contextId = storageId + ":" + repositoryId + ":" + IndexTypeEnum.REMOTE.getType();
-        if (repositoryIndexManager.getRepositoryIndexer(contextId) == null)
+        String contextId = getContextId(storageId, repositoryId, IndexTypeEnum.REMOTE.getType());
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.acquireRepositoryIndexer(contextId);
+        if (repositoryIndexer == null)
         {
-            repositoryIndexer = mavenRepositoryManagementStrategy.createRepositoryIndexer(storageId,
-                                                                                          repositoryId,
-                                                                                          IndexTypeEnum.REMOTE.getType(),
-                                                                                          repositoryBasedir);
-        }
-        else
-        {
-            repositoryIndexer = repositoryIndexManager.getRepositoryIndexer(contextId);
-        }
+            mavenRepositoryManagementStrategy.createRepositoryIndexer(storageId,
+                                                                      repositoryId,
+                                                                      IndexTypeEnum.REMOTE.getType(),
+                                                                      repositoryBasedir);
 
-        IndexDownloadRequest request = new IndexDownloadRequest(repository, repositoryIndexer.getIndexer());
+            repositoryIndexer = checkIndexer(contextId, repositoryIndexManager.acquireRepositoryIndexer(contextId));
+        }
 
         try
         {
+            IndexDownloadRequest request = new IndexDownloadRequest(repository, repositoryIndexer.getIndexer());
+
             indexDownloader.download(request);
         }
         catch (IOException | ComponentLookupException e)
@@ -104,6 +101,10 @@ public class IndexedMavenRepositoryFeatures
             throw new ArtifactTransportException("Failed to retrieve remote index for " +
                                                  storageId + ":" + repositoryId + "!", e);
         }
+        finally
+        {
+            releaseIndexer(repositoryIndexer);
+        }
     }
 
     public int reIndex(String storageId,
@@ -114,18 +115,23 @@ public class IndexedMavenRepositoryFeatures
 
         logger.info("Re-indexing " + contextId + (path != null ? ":" + path : "") + "...");
 
-        RepositoryIndexer repositoryIndexer = repositoryIndexManager.getRepositoryIndexer(contextId);
-
-
-        IndexingContext context = repositoryIndexer.getIndexingContext();
+        RepositoryIndexer repositoryIndexer = acquireIndexer(storageId, repositoryId);
+        try
+        {
+            IndexingContext context = repositoryIndexer.getIndexingContext();
 
-        ScanningRequest scanningRequest = new ScanningRequest(context,
-                                                              new ReindexArtifactScanningListener(repositoryIndexer.getIndexer()),
-                                                              path != null ? path : ".");
+            ScanningRequest scanningRequest = new ScanningRequest(context,
+                                                                  new ReindexArtifactScanningListener(repositoryIndexer.getIndexer()),
+                                                                  path != null ? path : ".");
 
-        ScanningResult scan = repositoryIndexer.getScanner().scan(scanningRequest);
+            ScanningResult scan = repositoryIndexer.getScanner().scan(scanningRequest);
 
-        return scan.getTotalFiles();
+            return scan.getTotalFiles();
+        }
+        finally
+        {
+            releaseIndexer(repositoryIndexer);
+        }
     }
 
     public void mergeIndexes(String sourceStorageId,
@@ -134,55 +140,84 @@ public class IndexedMavenRepositoryFeatures
                              String targetRepositoryId)
             throws ArtifactStorageException
     {
-        try
+        String sourceContextId = getContextId(sourceStorageId, sourceRepositoryId, IndexTypeEnum.LOCAL.getType());
+        final RepositoryIndexer sourceIndex = repositoryIndexManager.acquireRepositoryIndexer(sourceContextId);
+        if (sourceIndex == null)
         {
-            String sourceContextId = getContextId(sourceStorageId, sourceRepositoryId, IndexTypeEnum.LOCAL.getType());
-            final RepositoryIndexer sourceIndex = repositoryIndexManager.getRepositoryIndexer(sourceContextId);
-            if (sourceIndex == null)
-            {
-                throw new ArtifactStorageException("Source repository not found!");
-            }
+            throw new ArtifactStorageException("Source repository not found!");
+        }
 
+        try
+        {
             String targetContextId = getContextId(targetStorageId, targetRepositoryId, IndexTypeEnum.LOCAL.getType());
-            final RepositoryIndexer targetIndex = repositoryIndexManager.getRepositoryIndexer(targetContextId);
+            final RepositoryIndexer targetIndex = repositoryIndexManager.acquireRepositoryIndexer(targetContextId);
             if (targetIndex == null)
             {
                 throw new ArtifactStorageException("Target repository not found!");
             }
 
-            targetIndex.getIndexingContext().merge(FSDirectory.open(sourceIndex.getIndexDir()));
+            try (Directory directory = FSDirectory.open(sourceIndex.getIndexDir()))
+            {
+                targetIndex.getIndexingContext().merge(directory);
+            }
+            finally
+            {
+                releaseIndexer(targetIndex);
+            }
         }
         catch (IOException e)
         {
             throw new ArtifactStorageException(e.getMessage(), e);
         }
+        finally
+        {
+            releaseIndexer(sourceIndex);
+        }
     }
 
     public Path pack(String storageId,
                      String repositoryId)
             throws IOException
     {
-        RepositoryIndexer indexer = getIndexer(storageId, repositoryId);
-        IndexingContext context = indexer.getIndexingContext();
-        Path indexPath = resolveIndexPath(storageId, repositoryId, null);
-        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        RepositoryIndexer indexer = acquireIndexer(storageId, repositoryId);
         try
         {
+            indexer.commit();
 
-            IndexPackingRequest request = new IndexPackingRequest(context,
-                                                                  indexSearcher.getIndexReader(),
-                                                                  indexPath.toFile());
-            request.setUseTargetProperties(true);
-            indexPacker.packIndex(request);
+            Path indexPath = incrementalIndexPacker.pack(indexer);
 
             logger.info("Index for " + storageId + ":" + repositoryId + ":" + IndexTypeEnum.LOCAL.getType() +
                         " was packed successfully.");
+
+            return indexPath;
         }
         finally
         {
-            context.releaseIndexSearcher(indexSearcher);
+            releaseIndexer(indexer);
+        }
+    }
+
+    /**
+     * Re-exports the full index, if incremental chunks have been packed since it was last exported (see
+     * {@link IncrementalIndexPacker}). It's done before the full index is served, since a client which downloads it
+     * takes over the chunk counter of the published properties, so a stale export would make it skip the chunks
+     * packed since. Concurrent requests for the same index wait for a single export.
+     */
+    public Path packFullIfStale(String storageId,
+                                String repositoryId)
+            throws IOException
+    {
+        RepositoryIndexer indexer = acquireIndexer(storageId, repositoryId);
+        try
+        {
+            indexer.commit();
+
+            return incrementalIndexPacker.packFullIfStale(indexer);
+        }
+        finally
+        {
+            releaseIndexer(indexer);
         }
-        return indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
     }
 
     public Path resolveIndexPath(String storageId,
@@ -210,7 +245,41 @@ public class IndexedMavenRepositoryFeatures
     {
         String contextId = getContextId(storageId, repositoryId, IndexTypeEnum.LOCAL.getType());
 
-        final RepositoryIndexer indexer = repositoryIndexManager.getRepositoryIndexer(contextId);
+        return checkIndexer(contextId, repositoryIndexManager.getRepositoryIndexer(contextId));
+    }
+
+    /**
+     * The acquired indexer isn't closed until it's released with
+     * {@link RepositoryIndexManager#releaseRepositoryIndexer(RepositoryIndexer)}.
+     */
+    private RepositoryIndexer acquireIndexer(String storageId,
+                                             String repositoryId)
+            throws RepositoryIndexerNotFoundException
+    {
+        String contextId = getContextId(storageId, repositoryId, IndexTypeEnum.LOCAL.getType());
+
+        return checkIndexer(contextId, repositoryIndexManager.acquireRepositoryIndexer(contextId));
+    }
+
+    /**
+     * Releases the indexer, without failing the operation it has been acquired for, if its deferred close fails.
+     */
+    private void releaseIndexer(RepositoryIndexer indexer)
+    {
+        try
+        {
+            repositoryIndexManager.releaseRepositoryIndexer(indexer);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Unable to close the released indexer of [" + indexer.getContextId() + "].", e);
+        }
+    }
+
+    private RepositoryIndexer checkIndexer(String contextId,
+                                           RepositoryIndexer indexer)
+            throws RepositoryIndexerNotFoundException
+    {
         if (indexer == null)
         {
             throw new RepositoryIndexerNotFoundException("Unable to find a repository indexer '" + contextId + "'.\n" +
@@ -1,13 +1,8 @@
 package org.carlspring.strongbox.repository;
 
-import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
 import org.carlspring.strongbox.config.MavenIndexerDisabledCondition;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
-import org.carlspring.strongbox.locator.handlers.RemoveTimestampedSnapshotOperation;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.layout.LayoutProvider;
-import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.MavenSnapshotManager;
@@ -20,6 +15,7 @@ import org.carlspring.strongbox.storage.validation.version.MavenSnapshotVersionV
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -43,9 +39,6 @@ public class MavenRepositoryFeatures
     @Inject
     private ConfigurationManager configurationManager;
 
-    @Inject
-    private LayoutProviderRegistry layoutProviderRegistry;
-
     @Inject
     private MavenSnapshotManager mavenSnapshotManager;
 
@@ -83,17 +76,17 @@ public class MavenRepositoryFeatures
 
         if (repository.getPolicy().equals(RepositoryPolicyEnum.SNAPSHOT.getPolicy()))
         {
-            LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
-            RepositoryPath repositoryPath = layoutProvider.resolve(repository).resolve(artifactPath);
-
-            RemoveTimestampedSnapshotOperation operation = new RemoveTimestampedSnapshotOperation(mavenSnapshotManager);
-            operation.setBasePath(repositoryPath);
-            operation.setNumberToKeep(numberToKeep);
-            operation.setKeepPeriod(keepPeriod);
-
-            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-            locator.setOperation(operation);
-            locator.locateArtifactDirectories();
+            try
+            {
+                mavenSnapshotManager.deleteTimestampedSnapshotArtifacts(repository,
+                                                                        artifactPath,
+                                                                        numberToKeep,
+                                                                        keepPeriod);
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                throw new ArtifactStorageException(e.getMessage(), e);
+            }
         }
         else
         {
@@ -1,8 +1,10 @@
 package org.carlspring.strongbox.repository.group.index;
 
+import org.carlspring.strongbox.artifact.MavenDetachedArtifact;
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
 import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
 import org.carlspring.strongbox.config.MavenIndexerEnabledCondition;
-import org.carlspring.strongbox.locator.handlers.MavenGroupRepositoryIndexerManagementOperation;
+import org.carlspring.strongbox.locator.handlers.MavenIndexerManagementOperation;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.IndexedMaven2LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
@@ -12,15 +14,31 @@ import org.carlspring.strongbox.services.ArtifactIndexesService;
 import org.carlspring.strongbox.storage.indexing.IndexTypeEnum;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexer;
+import org.carlspring.strongbox.storage.indexing.StrongboxIndexingContext;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.util.IndexContextHelper;
+import org.carlspring.strongbox.util.ProgressMonitor;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.IndexingContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -45,30 +63,193 @@ public class MavenIndexGroupRepositoryComponent
         rebuildIndex(groupRepository, null);
     }
 
+    /**
+     * Merges the Lucene indexes of the (non-group) sub-repositories into the index of the group repository, instead of
+     * extracting the artifact contexts from their files again. The artifacts already in the group index (by UINFO) and
+     * the ones denied by the routing rules of the group are skipped, and so are the sub-repositories, whose index hasn't
+     * changed since it was last merged in full into the current group index (the merged timestamps are kept by the group
+     * context and the ones of the former sub-repositories are dropped). The sub-repositories without an index are still
+     * walked.
+     * <p>
+     * Once the {@link ProgressMonitor} of the calling thread is cancelled, the remaining sub-repositories are skipped and
+     * the merge in progress stops taking documents; a sub-repository merged only in part is merged in full next time.
+     */
     public void rebuildIndex(final Repository groupRepository,
                              final String artifactPath)
             throws IOException
     {
-        final Set<Repository> traversedSubRepositories = groupRepositorySetCollector.collect(groupRepository, true);
-        for (final Repository subRepository : traversedSubRepositories)
+        final RepositoryIndexer groupIndexer = acquireRepositoryIndexer(groupRepository);
+        if (groupIndexer == null)
         {
-            if (!subRepository.isGroupRepository())
+            return;
+        }
+
+        try
+        {
+            groupIndexer.commit();
+
+            final Set<Repository> traversedSubRepositories = groupRepositorySetCollector.collect(groupRepository, true);
+
+            // A repository removed from the group and added again is merged in full.
+            final Map<String, Date> mergedTimestamps = getMergedTimestamps(groupIndexer);
+            mergedTimestamps.keySet().retainAll(traversedSubRepositories.stream()
+                                                                        .map(this::getContextId)
+                                                                        .collect(Collectors.toSet()));
+
+            final ProgressMonitor monitor = ProgressMonitor.current();
+            for (final Repository subRepository : traversedSubRepositories)
             {
-                final MavenGroupRepositoryIndexerManagementOperation operation = new MavenGroupRepositoryIndexerManagementOperation(artifactIndexesService,
-                                                                                                                                    repositoryIndexManager,
-                                                                                                                                    groupRepository);
-                RepositoryPath basePath = getRepositoryPath(subRepository);
-                basePath = StringUtils.isEmpty(artifactPath) ? basePath : basePath.resolve(basePath);
-                if (!Files.exists(basePath))
+                if (monitor.isCancelled())
+                {
+                    break;
+                }
+                if (subRepository.isGroupRepository())
                 {
                     continue;
                 }
-                operation.setBasePath(basePath);
-                final ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-                locator.setOperation(operation);
-                locator.locateArtifactDirectories();
+
+                final RepositoryIndexer subRepositoryIndexer = acquireRepositoryIndexer(subRepository);
+                if (subRepositoryIndexer == null)
+                {
+                    walkSubRepository(groupIndexer, subRepository, artifactPath);
+                    continue;
+                }
+
+                try
+                {
+                    mergeSubRepositoryIndex(groupRepository, groupIndexer, subRepository, subRepositoryIndexer,
+                                            artifactPath, monitor);
+                }
+                finally
+                {
+                    repositoryIndexManager.releaseRepositoryIndexer(subRepositoryIndexer);
+                }
             }
         }
+        finally
+        {
+            repositoryIndexManager.releaseRepositoryIndexer(groupIndexer);
+        }
+    }
+
+    private void mergeSubRepositoryIndex(final Repository groupRepository,
+                                         final RepositoryIndexer groupIndexer,
+                                         final Repository subRepository,
+                                         final RepositoryIndexer subRepositoryIndexer,
+                                         final String artifactPath,
+                                         final ProgressMonitor monitor)
+            throws IOException
+    {
+        subRepositoryIndexer.commit();
+
+        final IndexingContext subRepositoryContext = subRepositoryIndexer.getIndexingContext();
+        final Date timestamp = subRepositoryContext.getTimestamp();
+        final Map<String, Date> mergedTimestamps = getMergedTimestamps(groupIndexer);
+        final String mergeKey = subRepositoryIndexer.getContextId();
+        if (StringUtils.isEmpty(artifactPath) && timestamp != null && timestamp.equals(mergedTimestamps.get(mergeKey)))
+        {
+            logger.debug("Skipping the unchanged index of [{}].", subRepositoryIndexer.getContextId());
+            return;
+        }
+
+        final List<Repository> leafRoute = Lists.newArrayList(subRepository);
+        try (Directory directory = FSDirectory.open(subRepositoryIndexer.getIndexDir()))
+        {
+            groupIndexer.getIndexingContext()
+                        .merge(directory,
+                               document -> !monitor.isCancelled() &&
+                                           accept(document, subRepositoryContext, groupRepository, leafRoute,
+                                                  artifactPath));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        if (StringUtils.isEmpty(artifactPath) && timestamp != null && !monitor.isCancelled())
+        {
+            mergedTimestamps.put(mergeKey, timestamp);
+        }
+    }
+
+    /**
+     * Only the artifacts are merged: the deletion markers of a sub-repository are skipped, since the artifact may
+     * still exist in another one (see {@link #cleanupGroupWhenArtifactPathNoLongerExistsInSubTree}).
+     */
+    private boolean accept(final Document document,
+                           final IndexingContext subRepositoryContext,
+                           final Repository groupRepository,
+                           final List<Repository> leafRoute,
+                           final String artifactPath)
+    {
+        if (document.get(ArtifactInfo.UINFO) == null)
+        {
+            return false;
+        }
+
+        final ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(document, subRepositoryContext);
+        if (artifactInfo == null)
+        {
+            return false;
+        }
+
+        final String path = new MavenArtifactCoordinates(new MavenDetachedArtifact(artifactInfo.getGroupId(),
+                                                                                   artifactInfo.getArtifactId(),
+                                                                                   artifactInfo.getVersion(),
+                                                                                   artifactInfo.getFileExtension(),
+                                                                                   artifactInfo.getClassifier())).toPath();
+        if (StringUtils.isNotEmpty(artifactPath) && !path.startsWith(artifactPath))
+        {
+            return false;
+        }
+
+        try
+        {
+            return !isOperationDeniedByRoutingRules(groupRepository, leafRoute, path);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void walkSubRepository(final RepositoryIndexer groupIndexer,
+                                   final Repository subRepository,
+                                   final String artifactPath)
+            throws IOException
+    {
+        final MavenIndexerManagementOperation operation = new MavenIndexerManagementOperation(artifactIndexesService,
+                                                                                              groupIndexer);
+        RepositoryPath basePath = getRepositoryPath(subRepository);
+        basePath = StringUtils.isEmpty(artifactPath) ? basePath : basePath.resolve(artifactPath);
+        if (!Files.exists(basePath))
+        {
+            return;
+        }
+        operation.setBasePath(basePath);
+        final ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setOperation(operation);
+        locator.locateArtifactDirectories();
+    }
+
+    private Map<String, Date> getMergedTimestamps(final RepositoryIndexer groupIndexer)
+    {
+        return ((StrongboxIndexingContext) groupIndexer.getIndexingContext()).getMergedTimestamps();
+    }
+
+    /**
+     * The acquired indexer isn't closed until it's released with
+     * {@link RepositoryIndexManager#releaseRepositoryIndexer(RepositoryIndexer)}.
+     */
+    private RepositoryIndexer acquireRepositoryIndexer(final Repository repository)
+    {
+        return repositoryIndexManager.acquireRepositoryIndexer(getContextId(repository));
+    }
+
+    private String getContextId(final Repository repository)
+    {
+        return IndexContextHelper.getContextId(repository.getStorage().getId(), repository.getId(),
+                                               IndexTypeEnum.LOCAL.getType());
     }
 
     @Override
@@ -94,6 +275,9 @@ public class MavenIndexGroupRepositoryComponent
         return new IndexUpdateCallback(repositoryPath);
     }
 
+    /**
+     * Adds the initiating artifact to the index of each group, or, if it's an artifact directory, all of its files.
+     */
     class IndexUpdateCallback
             implements UpdateCallback
     {
@@ -112,11 +296,50 @@ public class MavenIndexGroupRepositoryComponent
             final RepositoryPath artifactAbsolutePath = initiatorRepositoryPath.toAbsolutePath();
 
             final Repository parent = parentRepositoryArtifactAbsolutePath.getFileSystem().getRepository();
-            final String contextId = IndexContextHelper.getContextId(parent.getStorage().getId(), parent.getId(),
-                                                                     IndexTypeEnum.LOCAL.getType());
-            final RepositoryIndexer indexer = repositoryIndexManager.getRepositoryIndexer(contextId);
+            final RepositoryIndexer indexer = acquireRepositoryIndexer(parent);
+            if (indexer == null)
+            {
+                return;
+            }
+
+            try
+            {
+                addToIndex(artifactAbsolutePath, indexer);
+            }
+            finally
+            {
+                repositoryIndexManager.releaseRepositoryIndexer(indexer);
+            }
+        }
+
+        private void addToIndex(final RepositoryPath artifactAbsolutePath,
+                                final RepositoryIndexer indexer)
+                throws IOException
+        {
+            if (!Files.isDirectory(artifactAbsolutePath))
+            {
+                artifactIndexesService.addArtifactToIndex(artifactAbsolutePath, indexer);
+                return;
+            }
 
-            artifactIndexesService.addArtifactToIndex(artifactAbsolutePath, indexer);
+            try (Stream<Path> pathStream = Files.list(artifactAbsolutePath))
+            {
+                pathStream.filter(Files::isRegularFile)
+                          .forEach(filePath ->
+                                   {
+                                       try
+                                       {
+                                           artifactIndexesService.addArtifactToIndex((RepositoryPath) filePath,
+                                                                                     indexer);
+                                       }
+                                       catch (IOException e)
+                                       {
+                                           logger.error(
+                                                   String.format("Failed to add artifact to index for [%s]", filePath),
+                                                   e);
+                                       }
+                                   });
+            }
         }
     }
 
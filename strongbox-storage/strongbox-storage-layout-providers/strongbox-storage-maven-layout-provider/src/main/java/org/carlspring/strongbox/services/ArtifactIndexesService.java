@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexer;
 
 import java.io.IOException;
@@ -16,7 +17,8 @@ public interface ArtifactIndexesService
 
     /**
      * Alternative method to {@link ArtifactIndexesService#addArtifactToIndex(RepositoryPath)}
-     * which gives additional ability to specify another repositoryIndexer to store the underlying artifact
+     * which gives additional ability to specify another repositoryIndexer to store the underlying artifact;
+     * the caller is expected to hold it acquired (see {@link RepositoryIndexManager#acquireRepositoryIndexer(String)})
      */
     void addArtifactToIndex(RepositoryPath artifactPath, RepositoryIndexer repositoryIndexer)
             throws IOException;
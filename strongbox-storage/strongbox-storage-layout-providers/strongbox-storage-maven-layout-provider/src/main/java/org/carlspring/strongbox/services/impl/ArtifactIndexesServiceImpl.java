@@ -19,6 +19,7 @@ import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexer;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.util.IndexContextHelper;
+import org.carlspring.strongbox.util.ProgressMonitor;
 import org.carlspring.strongbox.xml.configuration.repository.MavenRepositoryConfiguration;
 
 import javax.inject.Inject;
@@ -67,8 +68,20 @@ public class ArtifactIndexesServiceImpl
         String contextId = IndexContextHelper.getContextId(storage.getId(),
                                                            repository.getId(),
                                                            IndexTypeEnum.LOCAL.getType());
-        RepositoryIndexer indexer = repositoryIndexManager.getRepositoryIndexer(contextId);
-        addArtifactToIndex(artifactPath, indexer);
+        RepositoryIndexer indexer = repositoryIndexManager.acquireRepositoryIndexer(contextId);
+        if (indexer == null)
+        {
+            return;
+        }
+
+        try
+        {
+            addArtifactToIndex(artifactPath, indexer);
+        }
+        finally
+        {
+            repositoryIndexManager.releaseRepositoryIndexer(indexer);
+        }
     }
 
     @Override
@@ -106,13 +119,34 @@ public class ArtifactIndexesServiceImpl
         }
         else
         {
-            MavenIndexerManagementOperation operation = new MavenIndexerManagementOperation(this);
-            //noinspection ConstantConditions
-            operation.setBasePath(repositoryPath);
+            String contextId = IndexContextHelper.getContextId(storage.getId(),
+                                                               repository.getId(),
+                                                               IndexTypeEnum.LOCAL.getType());
+            RepositoryIndexer indexer = repositoryIndexManager.acquireRepositoryIndexer(contextId);
+            if (indexer != null)
+            {
+                try
+                {
+                    MavenIndexerManagementOperation operation = new MavenIndexerManagementOperation(this, indexer);
+                    //noinspection ConstantConditions
+                    operation.setBasePath(repositoryPath);
+
+                    ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+                    locator.setOperation(operation);
+                    locator.locateArtifactDirectories();
+                }
+                finally
+                {
+                    repositoryIndexManager.releaseRepositoryIndexer(indexer);
+                }
+            }
+        }
 
-            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-            locator.setOperation(operation);
-            locator.locateArtifactDirectories();
+        if (ProgressMonitor.current().isCancelled())
+        {
+            // The index is exported by the run which completes the walk.
+            logger.debug("Skipping the export of the partially rebuilt index of " + repository.getId());
+            return;
         }
 
         features.pack(storage.getId(), repository.getId());
@@ -126,8 +160,14 @@ public class ArtifactIndexesServiceImpl
 
         logger.debug("Rebuilding indexes for repositories " + repositories.keySet());
 
+        ProgressMonitor monitor = ProgressMonitor.current();
         for (Entry<String, Repository> repositoryEntry : repositories.entrySet())
         {
+            if (monitor.isCancelled())
+            {
+                return;
+            }
+
             Repository repository = repositoryEntry.getValue();
             if (!(repository.getRepositoryConfiguration() instanceof MavenRepositoryConfiguration))
             {
@@ -148,6 +188,11 @@ public class ArtifactIndexesServiceImpl
         Map<String, Storage> storages = getStorages();
         for (String storageId : storages.keySet())
         {
+            if (ProgressMonitor.current().isCancelled())
+            {
+                return;
+            }
+
             rebuildIndexes(storageId);
         }
     }
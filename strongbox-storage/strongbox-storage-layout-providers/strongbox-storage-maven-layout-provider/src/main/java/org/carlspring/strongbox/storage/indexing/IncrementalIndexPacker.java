@@ -0,0 +1,380 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import org.carlspring.strongbox.config.MavenIndexerEnabledCondition;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.Bits;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.packer.IndexPacker;
+import org.apache.maven.index.packer.IndexPackingRequest;
+import org.apache.maven.index.updater.IndexDataWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the index of a repository as incremental chunks (`nexus-maven-repository-index.N.gz`), which only contain
+ * the documents changed since the previously published chunk, so neither the whole index is rewritten on every pack,
+ * nor the clients have to download it again.
+ * <p>
+ * The full export (`nexus-maven-repository-index.gz`) is only produced when nothing has been published yet, or on
+ * demand (see {@link #packFullIfStale(RepositoryIndexer)}), since a client which downloads it takes over the chunk
+ * counter of the published properties. The chunks beyond {@link #PROPERTY_MAX_CHUNKS} are compacted away, so the
+ * clients which are further behind fall back to the full export.
+ */
+@Component
+@Conditional(MavenIndexerEnabledCondition.class)
+public class IncrementalIndexPacker
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalIndexPacker.class);
+
+    /**
+     * The number of incremental chunks kept for the clients; defaults to 30.
+     */
+    public static final String PROPERTY_MAX_CHUNKS = "strongbox.maven.index.max.chunks";
+
+    /**
+     * The chunk counter the full export is up to date with.
+     */
+    private static final String FULL_EXPORT_COUNTER = "strongbox.index.full-export-counter";
+
+    private static final Set<String> LAST_MODIFIED_FIELD = Collections.singleton(ArtifactInfo.LAST_MODIFIED);
+
+    @Inject
+    private IndexPacker indexPacker;
+
+
+    /**
+     * Publishes the documents changed since the last published chunk as a new chunk.
+     *
+     * @return the path of the full export
+     */
+    public Path pack(RepositoryIndexer indexer)
+            throws IOException
+    {
+        synchronized (indexer)
+        {
+            Path indexDir = getIndexDir(indexer);
+            Path fullExport = indexDir.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+
+            Properties properties = loadProperties(indexDir);
+            if (properties == null || !Files.exists(fullExport))
+            {
+                return packFull(indexer);
+            }
+
+            Date timestamp = new Date();
+            int counter = Integer.parseInt(properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER));
+
+            IndexingContext context = indexer.getIndexingContext();
+            IndexSearcher indexSearcher = context.acquireIndexSearcher();
+            try
+            {
+                IndexReader indexReader = indexSearcher.getIndexReader();
+                List<Integer> documents = getChangedDocuments(indexReader, parseTimestamp(properties));
+                if (documents.isEmpty())
+                {
+                    logger.debug("No changes in the index of [{}] since the last published chunk.", context.getId());
+
+                    return fullExport;
+                }
+
+                counter++;
+                writeChunk(context, indexReader, documents, getChunkPath(indexDir, counter));
+
+                logger.info("Published chunk {} of the index of [{}] with {} documents.",
+                            counter, context.getId(), documents.size());
+            }
+            finally
+            {
+                context.releaseIndexSearcher(indexSearcher);
+            }
+
+            addChunk(indexDir, properties, counter);
+            properties.setProperty(IndexingContext.INDEX_CHUNK_COUNTER, String.valueOf(counter));
+            properties.setProperty(IndexingContext.INDEX_TIMESTAMP, formatTimestamp(timestamp));
+            storeProperties(indexDir, properties);
+
+            return fullExport;
+        }
+    }
+
+    /**
+     * Re-exports the full index, if chunks have been published since it was last exported.
+     *
+     * @return the path of the full export
+     */
+    public Path packFullIfStale(RepositoryIndexer indexer)
+            throws IOException
+    {
+        synchronized (indexer)
+        {
+            Path indexDir = getIndexDir(indexer);
+            Path fullExport = indexDir.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+
+            Properties properties = loadProperties(indexDir);
+            if (properties != null && Files.exists(fullExport) &&
+                properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER)
+                          .equals(properties.getProperty(FULL_EXPORT_COUNTER)))
+            {
+                return fullExport;
+            }
+
+            return packFull(indexer);
+        }
+    }
+
+    private Path packFull(RepositoryIndexer indexer)
+            throws IOException
+    {
+        Path indexDir = getIndexDir(indexer);
+
+        IndexingContext context = indexer.getIndexingContext();
+        IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try
+        {
+            IndexPackingRequest request = new IndexPackingRequest(context,
+                                                                  indexSearcher.getIndexReader(),
+                                                                  indexDir.toFile());
+            request.setUseTargetProperties(true);
+            request.setMaxIndexChunks(getMaxChunks());
+
+            indexPacker.packIndex(request);
+
+            logger.info("Exported the full index of [{}].", context.getId());
+        }
+        finally
+        {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        Properties properties = loadProperties(indexDir);
+        if (properties != null)
+        {
+            properties.setProperty(FULL_EXPORT_COUNTER, properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER));
+            storeProperties(indexDir, properties);
+        }
+
+        return indexDir.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+    }
+
+    /**
+     * Mirrors the chunk selection of the DefaultIncrementalHandler: the `LAST_MODIFIED` field is stored, but not
+     * indexed, so it can't be queried.
+     */
+    private List<Integer> getChangedDocuments(IndexReader indexReader,
+                                              Date since)
+            throws IOException
+    {
+        List<Integer> documents = new ArrayList<>();
+
+        Bits liveDocs = MultiFields.getLiveDocs(indexReader);
+        for (int i = 0; i < indexReader.maxDoc(); i++)
+        {
+            if (liveDocs != null && !liveDocs.get(i))
+            {
+                continue;
+            }
+
+            Document document = indexReader.document(i, LAST_MODIFIED_FIELD);
+            String lastModified = document.get(ArtifactInfo.LAST_MODIFIED);
+            if (lastModified != null && Long.parseLong(lastModified) > since.getTime())
+            {
+                documents.add(i);
+            }
+        }
+
+        return documents;
+    }
+
+    private void writeChunk(IndexingContext context,
+                            IndexReader indexReader,
+                            List<Integer> documents,
+                            Path chunk)
+            throws IOException
+    {
+        Path temp = Files.createTempFile(chunk.getParent(), "." + chunk.getFileName(), ".tmp");
+        try
+        {
+            try (OutputStream outputStream = Files.newOutputStream(temp))
+            {
+                new IndexDataWriter(outputStream).write(context, indexReader, documents);
+            }
+
+            moveAtomically(temp, chunk);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Lists the new chunk first, like the DefaultIncrementalHandler does, and drops the chunks beyond the limit.
+     */
+    private void addChunk(Path indexDir,
+                          Properties properties,
+                          int counter)
+            throws IOException
+    {
+        List<String> chunks = new ArrayList<>();
+        chunks.add(String.valueOf(counter));
+        for (int i = 0; properties.containsKey(IndexingContext.INDEX_CHUNK_PREFIX + i); i++)
+        {
+            chunks.add(properties.getProperty(IndexingContext.INDEX_CHUNK_PREFIX + i));
+            properties.remove(IndexingContext.INDEX_CHUNK_PREFIX + i);
+        }
+
+        int maxChunks = getMaxChunks();
+        for (int i = 0; i < chunks.size(); i++)
+        {
+            if (i < maxChunks)
+            {
+                properties.setProperty(IndexingContext.INDEX_CHUNK_PREFIX + i, chunks.get(i));
+            }
+            else
+            {
+                Files.deleteIfExists(getChunkPath(indexDir, Integer.parseInt(chunks.get(i))));
+            }
+        }
+    }
+
+    /**
+     * @return the packer properties, or null, if no chunk chain has been published yet
+     */
+    private Properties loadProperties(Path indexDir)
+            throws IOException
+    {
+        Path propertiesPath = indexDir.resolve(IndexingContext.INDEX_PACKER_PROPERTIES_FILE);
+        if (!Files.exists(propertiesPath))
+        {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(propertiesPath))
+        {
+            properties.load(inputStream);
+        }
+
+        if (properties.getProperty(IndexingContext.INDEX_CHAIN_ID) == null ||
+            properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER) == null ||
+            properties.getProperty(IndexingContext.INDEX_TIMESTAMP) == null)
+        {
+            return null;
+        }
+
+        return properties;
+    }
+
+    /**
+     * Stores the packer properties and publishes them as the remote properties.
+     */
+    private void storeProperties(Path indexDir,
+                                 Properties properties)
+            throws IOException
+    {
+        for (String fileName : new String[]{ IndexingContext.INDEX_PACKER_PROPERTIES_FILE,
+                                             IndexingContext.INDEX_REMOTE_PROPERTIES_FILE })
+        {
+            Path target = indexDir.resolve(fileName);
+            Path temp = Files.createTempFile(indexDir, "." + fileName, ".tmp");
+            try
+            {
+                try (OutputStream outputStream = Files.newOutputStream(temp))
+                {
+                    properties.store(outputStream, null);
+                }
+
+                moveAtomically(temp, target);
+            }
+            finally
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private void moveAtomically(Path source,
+                                Path target)
+            throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Date parseTimestamp(Properties properties)
+            throws IOException
+    {
+        try
+        {
+            return getTimestampFormat().parse(properties.getProperty(IndexingContext.INDEX_TIMESTAMP));
+        }
+        catch (ParseException e)
+        {
+            throw new IOException("Invalid index timestamp " + properties.getProperty(IndexingContext.INDEX_TIMESTAMP),
+                                  e);
+        }
+    }
+
+    private String formatTimestamp(Date timestamp)
+    {
+        return getTimestampFormat().format(timestamp);
+    }
+
+    private SimpleDateFormat getTimestampFormat()
+    {
+        SimpleDateFormat format = new SimpleDateFormat(IndexingContext.INDEX_TIME_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        return format;
+    }
+
+    private Path getChunkPath(Path indexDir,
+                              int counter)
+    {
+        return indexDir.resolve(IndexingContext.INDEX_FILE_PREFIX + "." + counter + ".gz");
+    }
+
+    private Path getIndexDir(RepositoryIndexer indexer)
+    {
+        // The temporary files are created next to the targets, so the plain file system path is used.
+        return indexer.getIndexDir().toFile().toPath();
+    }
+
+    private int getMaxChunks()
+    {
+        return Math.max(Integer.getInteger(PROPERTY_MAX_CHUNKS, 30), 1);
+    }
+
+}
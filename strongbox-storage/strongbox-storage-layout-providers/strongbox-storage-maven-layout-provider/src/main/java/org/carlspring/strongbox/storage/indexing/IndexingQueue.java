@@ -0,0 +1,409 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.IndexingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues the additions to and the deletions from the index of an {@link IndexingContext}. The operations are
+ * de-duplicated in memory (the latest operation of an artifact wins, except that an addition following a deletion
+ * replaces the indexed artifact) and are written as a batch, which only needs a single index query to find the already
+ * indexed artifacts, instead of one query per artifact.
+ * <p>
+ * An operation stays queued until it has been written, so the operations which failed to be written are retried with
+ * the next batch. Once the queue has been closed, no more operations are accepted.
+ * <p>
+ * The pending operations are written to the {@link IndexWriter} as soon as a searcher is acquired from the context (see
+ * {@link StrongboxIndexingContext#acquireIndexSearcher()}), so the near-real-time reader sees them, but they are only
+ * committed once {@link #PROPERTY_BATCH_SIZE} operations are pending or {@link #PROPERTY_COMMIT_INTERVAL} has passed.
+ */
+public class IndexingQueue
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingQueue.class);
+
+    /**
+     * The number of pending operations which triggers a commit; defaults to 500.
+     */
+    public static final String PROPERTY_BATCH_SIZE = "strongbox.maven.indexing.batch.size";
+
+    /**
+     * The maximum number of milliseconds an operation waits to be committed; defaults to 1000.
+     */
+    public static final String PROPERTY_COMMIT_INTERVAL = "strongbox.maven.indexing.commit.interval";
+
+    private static final ScheduledExecutorService commitScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "maven-indexing-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IndexingContext indexingContext;
+
+    private final int batchSize;
+
+    private final long commitInterval;
+
+    private final Map<String, Operation> pending = new LinkedHashMap<>();
+
+    private int uncommitted;
+
+    private ScheduledFuture<?> scheduledCommit;
+
+    private boolean closed;
+
+    private boolean applying;
+
+
+    public IndexingQueue(IndexingContext indexingContext)
+    {
+        this.indexingContext = indexingContext;
+        // All the artifacts of a batch are looked up with a single boolean query.
+        this.batchSize = Math.min(Math.max(Integer.getInteger(PROPERTY_BATCH_SIZE, 500), 1),
+                                  BooleanQuery.getMaxClauseCount());
+        this.commitInterval = Long.getLong(PROPERTY_COMMIT_INTERVAL, 1000L);
+    }
+
+    public synchronized void add(ArtifactContext artifactContext)
+            throws IOException
+    {
+        // Skip the artifacts which don't obey the repository layout, just like the DefaultIndexerEngine does.
+        if (artifactContext.getGav() == null)
+        {
+            return;
+        }
+
+        enqueue(new Operation(artifactContext.getArtifactInfo(), artifactContext));
+    }
+
+    public synchronized void delete(Collection<ArtifactInfo> artifactInfos)
+            throws IOException
+    {
+        for (ArtifactInfo artifactInfo : artifactInfos)
+        {
+            enqueue(new Operation(artifactInfo, null));
+        }
+    }
+
+    /**
+     * Writes the pending operations to the index, without committing them.
+     */
+    public synchronized void apply()
+            throws IOException
+    {
+        // The index searcher used below applies the queue too.
+        if (pending.isEmpty() || closed || applying)
+        {
+            return;
+        }
+
+        applying = true;
+
+        List<Operation> batch = new ArrayList<>(pending.values());
+        int applied = 0;
+        try
+        {
+            Map<String, List<ArtifactInfo>> indexed = findIndexed(batch);
+            IndexWriter indexWriter = indexingContext.getIndexWriter();
+
+            for (Operation operation : batch)
+            {
+                if (apply(operation, indexed, indexWriter))
+                {
+                    applied++;
+                }
+
+                // Only dequeued once written: on failure, the rest of the batch is retried with the next one.
+                pending.remove(operation.getKey());
+            }
+        }
+        finally
+        {
+            applying = false;
+
+            if (applied > 0)
+            {
+                indexingContext.updateTimestamp();
+                uncommitted += applied;
+            }
+        }
+
+        logger.debug("Applied {} of {} queued index operations to [{}].", applied, batch.size(), indexingContext.getId());
+    }
+
+    private boolean apply(Operation operation,
+                          Map<String, List<ArtifactInfo>> indexed,
+                          IndexWriter indexWriter)
+            throws IOException
+    {
+        String uinfo = operation.getArtifactInfo().getUinfo();
+        List<ArtifactInfo> artifactInfos = indexed.computeIfAbsent(uinfo, k -> new ArrayList<>());
+        boolean isIndexed = artifactInfos.stream().anyMatch(operation::matches);
+
+        boolean deleted = false;
+        // preserve extra delete index records
+        if ((operation.isDelete() || operation.isReplace()) && isIndexed)
+        {
+            indexWriter.addDocument(createDeletionMarker(uinfo));
+            indexWriter.deleteDocuments(new Term(ArtifactInfo.UINFO, uinfo));
+            artifactInfos.clear();
+            deleted = true;
+        }
+
+        if (operation.isDelete())
+        {
+            return deleted;
+        }
+
+        // preserve duplicates
+        if (isIndexed && !deleted)
+        {
+            return false;
+        }
+
+        Document document = operation.getArtifactContext().createDocument(indexingContext);
+        if (document == null)
+        {
+            return deleted;
+        }
+
+        indexWriter.addDocument(document);
+        artifactInfos.add(operation.getArtifactInfo());
+
+        return true;
+    }
+
+    /**
+     * Writes the pending operations to the index and commits them.
+     */
+    public synchronized void commit()
+            throws IOException
+    {
+        apply();
+
+        if (uncommitted == 0 || closed)
+        {
+            return;
+        }
+
+        indexingContext.commit();
+        uncommitted = 0;
+    }
+
+    /**
+     * Commits the pending operations, or drops them, if the index is about to be deleted.
+     */
+    public synchronized void close(boolean discard)
+            throws IOException
+    {
+        if (scheduledCommit != null)
+        {
+            scheduledCommit.cancel(false);
+        }
+
+        try
+        {
+            if (discard)
+            {
+                pending.clear();
+            }
+            else
+            {
+                commit();
+            }
+        }
+        finally
+        {
+            closed = true;
+        }
+    }
+
+    private void enqueue(Operation operation)
+            throws IOException
+    {
+        if (closed)
+        {
+            throw new IOException("The indexing queue of [" + indexingContext.getId() + "] has been closed.");
+        }
+
+        // Re-insert the operation, so that the batch keeps the order in which the operations were requested.
+        Operation previous = pending.remove(operation.getKey());
+        if (previous != null && (previous.isDelete() || previous.isReplace()) && !operation.isDelete())
+        {
+            // A deletion followed by an addition (a redeployment) must still remove the indexed artifact.
+            operation = operation.asReplace();
+        }
+
+        pending.put(operation.getKey(), operation);
+
+        if (pending.size() >= batchSize)
+        {
+            commit();
+        }
+        else if (scheduledCommit == null || scheduledCommit.isDone())
+        {
+            scheduledCommit = commitScheduler.schedule(this::commitScheduled, commitInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void commitScheduled()
+    {
+        try
+        {
+            commit();
+        }
+        catch (Exception e) // the operations will be committed along with the next batch, or on close
+        {
+            logger.warn("Unable to commit the queued index operations of [" + indexingContext.getId() + "]", e);
+        }
+    }
+
+    private Map<String, List<ArtifactInfo>> findIndexed(List<Operation> batch)
+            throws IOException
+    {
+        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        batch.stream()
+             .map(operation -> operation.getArtifactInfo().getUinfo())
+             .distinct()
+             .forEach(uinfo -> queryBuilder.add(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), Occur.SHOULD));
+        Query query = queryBuilder.build();
+
+        Map<String, List<ArtifactInfo>> indexed = new HashMap<>();
+
+        IndexSearcher indexSearcher = indexingContext.acquireIndexSearcher();
+        try
+        {
+            TopDocs topDocs = indexSearcher.search(query, batch.size());
+            if (topDocs.totalHits > topDocs.scoreDocs.length)
+            {
+                topDocs = indexSearcher.search(query, topDocs.totalHits);
+            }
+
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs)
+            {
+                Document document = indexSearcher.doc(scoreDoc.doc);
+                ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(document, indexingContext);
+                if (artifactInfo != null)
+                {
+                    indexed.computeIfAbsent(document.get(ArtifactInfo.UINFO), k -> new ArrayList<>())
+                           .add(artifactInfo);
+                }
+            }
+        }
+        finally
+        {
+            indexingContext.releaseIndexSearcher(indexSearcher);
+        }
+
+        return indexed;
+    }
+
+    private Document createDeletionMarker(String uinfo)
+    {
+        Document document = new Document();
+        document.add(new StoredField(ArtifactInfo.DELETED, uinfo));
+        document.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(System.currentTimeMillis())));
+
+        return document;
+    }
+
+    private static class Operation
+    {
+
+        private final ArtifactInfo artifactInfo;
+
+        private final ArtifactContext artifactContext;
+
+        private final boolean replace;
+
+        Operation(ArtifactInfo artifactInfo,
+                  ArtifactContext artifactContext)
+        {
+            this(artifactInfo, artifactContext, false);
+        }
+
+        private Operation(ArtifactInfo artifactInfo,
+                          ArtifactContext artifactContext,
+                          boolean replace)
+        {
+            this.artifactInfo = artifactInfo;
+            this.artifactContext = artifactContext;
+            this.replace = replace;
+        }
+
+        Operation asReplace()
+        {
+            return new Operation(artifactInfo, artifactContext, true);
+        }
+
+        String getKey()
+        {
+            return artifactInfo.getUinfo() + ArtifactInfo.FS + artifactInfo.getFileExtension();
+        }
+
+        ArtifactInfo getArtifactInfo()
+        {
+            return artifactInfo;
+        }
+
+        ArtifactContext getArtifactContext()
+        {
+            return artifactContext;
+        }
+
+        boolean isDelete()
+        {
+            return artifactContext == null;
+        }
+
+        /**
+         * Whether the indexed artifact is to be deleted before this one is added.
+         */
+        boolean isReplace()
+        {
+            return replace;
+        }
+
+        /**
+         * Matches the artifacts the same way {@link RepositoryIndexer#search(ArtifactInfo)} does.
+         */
+        boolean matches(ArtifactInfo indexed)
+        {
+            if (artifactInfo.getFileExtension() == null)
+            {
+                return "jar".equals(indexed.getPackaging());
+            }
+
+            return Objects.equals(artifactInfo.getFileExtension(), indexed.getFileExtension());
+        }
+
+    }
+
+}
@@ -9,8 +9,9 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,8 +31,11 @@ public class RepositoryIndexManager
     /**
      * K: storageId:repositoryId:type[local|remote]
      * V: index
+     *
+     * The indexers are looked up by the request threads, while the repositories are initialized and managed in
+     * parallel, hence the concurrent map.
      */
-    private Map<String, RepositoryIndexer> indexes = new LinkedHashMap<>();
+    private Map<String, RepositoryIndexer> indexes = new ConcurrentHashMap<>();
 
     @Inject
     private ConfigurationManager configurationManager;
@@ -56,11 +60,11 @@ public class RepositoryIndexManager
                         });
 
         indexes.clear();
-        indexes = null;
     }
 
     public void closeIndexersForStorage(String storageId)
     {
+        // The closed indexers are removed while iterating, which the concurrent map allows.
         indexes.keySet()
                .stream()
                .filter(contextId -> contextId.substring(0, contextId.indexOf(':'))
@@ -106,36 +110,65 @@ public class RepositoryIndexManager
         closeIndexer(contextId, repositoryIndexer, true);
     }
 
+    /**
+     * Closes the indexer like {@link #closeIndexer(String)} does, but keeps the index files.
+     */
+    public void closeIndexerKeepingFiles(String contextId)
+            throws IOException
+    {
+        closeIndexer(contextId, indexes.get(contextId), true, false);
+    }
+
     public void closeIndexer(String contextId,
                              RepositoryIndexer repositoryIndexer,
                              boolean remove)
             throws IOException
+    {
+        closeIndexer(contextId, repositoryIndexer, remove, true);
+    }
+
+    /**
+     * Closes the indexer as soon as it's no longer acquired (see {@link #acquireRepositoryIndexer(String)}), so the
+     * in-flight searches are not interrupted. It's removed from the registry first, so it can't be acquired anymore.
+     */
+    private void closeIndexer(String contextId,
+                              RepositoryIndexer repositoryIndexer,
+                              boolean remove,
+                              boolean deleteFiles)
+            throws IOException
     {
         logger.debug("Indexes size:" + indexes.size());
 
+        if (remove)
+        {
+            if (repositoryIndexer != null)
+            {
+                indexes.remove(contextId, repositoryIndexer);
+            }
+            else
+            {
+                indexes.remove(contextId);
+            }
+        }
+
         if (repositoryIndexer != null)
         {
             logger.debug("Closing indexer for " + contextId + "...");
 
-            repositoryIndexer.close(true);
+            repositoryIndexer.closeWhenReleased(deleteFiles);
 
             logger.debug("Closed indexer for " + contextId + ".");
         }
-
-        if (remove)
-        {
-            indexes.remove(contextId);
-        }
     }
 
     public Map<String, RepositoryIndexer> getIndexes()
     {
-        return indexes;
+        return Collections.unmodifiableMap(indexes);
     }
 
     public void setIndexes(Map<String, RepositoryIndexer> indexes)
     {
-        this.indexes = indexes;
+        this.indexes = new ConcurrentHashMap<>(indexes);
     }
 
     public RepositoryIndexer getRepositoryIndexer(String contextId)
@@ -143,6 +176,25 @@ public class RepositoryIndexManager
         return indexes.get(contextId);
     }
 
+    /**
+     * Looks up the indexer and prevents it from being closed, until it's released with
+     * {@link #releaseRepositoryIndexer(RepositoryIndexer)}.
+     *
+     * @return the indexer, or null, if there is none, or if it's being closed
+     */
+    public RepositoryIndexer acquireRepositoryIndexer(String contextId)
+    {
+        RepositoryIndexer repositoryIndexer = indexes.get(contextId);
+
+        return repositoryIndexer != null && repositoryIndexer.acquire() ? repositoryIndexer : null;
+    }
+
+    public void releaseRepositoryIndexer(RepositoryIndexer repositoryIndexer)
+            throws IOException
+    {
+        repositoryIndexer.release();
+    }
+
     public RepositoryIndexer addRepositoryIndexer(String contextId,
                                                   RepositoryIndexer value)
     {
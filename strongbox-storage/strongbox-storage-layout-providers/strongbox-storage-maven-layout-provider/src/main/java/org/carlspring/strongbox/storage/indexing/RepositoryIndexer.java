@@ -8,7 +8,6 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.search.SearchResult;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -16,7 +15,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
@@ -74,6 +72,14 @@ public class RepositoryIndexer
 
     private ApplicationContext applicationContext;
 
+    private final Object referencesLock = new Object();
+
+    private int references;
+
+    private boolean closeRequested;
+
+    private boolean deleteFilesOnClose;
+
 
     public RepositoryIndexer(String contextId)
     {
@@ -94,15 +100,8 @@ public class RepositoryIndexer
             {
                 return;
             }
-            final ArtifactInfo artifactInfo = artifactContext.getArtifactInfo();
 
-            // preserve duplicates
-            if (CollectionUtils.isNotEmpty(
-                    search(artifactInfo)))
-            {
-                return;
-            }
-            getIndexer().addArtifactToIndex(artifactContext, indexingContext);
+            getIndexingQueue().add(artifactContext);
         }
         catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
         {
@@ -113,18 +112,7 @@ public class RepositoryIndexer
     public void delete(final Collection<ArtifactInfo> artifactInfos)
             throws IOException
     {
-        final List<ArtifactContext> delete = new ArrayList<>();
-        for (final ArtifactInfo artifactInfo : artifactInfos)
-        {
-            // preserve extra delete index records
-            if (CollectionUtils.isEmpty(search(artifactInfo)))
-            {
-                continue;
-            }
-            delete.add(new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo, null)));
-        }
-
-        getIndexer().deleteArtifactsFromIndex(delete, indexingContext);
+        getIndexingQueue().delete(artifactInfos);
     }
 
     public Set<SearchResult> search(final ArtifactInfo artifactInfo)
@@ -314,6 +302,73 @@ public class RepositoryIndexer
         return baseUrl + "storages/" + storageId + "/" + repositoryId + "/" + pathToArtifactFile;
     }
 
+    /**
+     * Writes and commits the queued index operations (see {@link IndexingQueue}).
+     */
+    public void commit()
+            throws IOException
+    {
+        getIndexingQueue().commit();
+    }
+
+    /**
+     * @return false, if the indexer is being closed
+     */
+    boolean acquire()
+    {
+        synchronized (referencesLock)
+        {
+            if (closeRequested)
+            {
+                return false;
+            }
+
+            references++;
+
+            return true;
+        }
+    }
+
+    void release()
+            throws IOException
+    {
+        synchronized (referencesLock)
+        {
+            references--;
+            if (references > 0 || !closeRequested)
+            {
+                return;
+            }
+        }
+
+        close(deleteFilesOnClose);
+    }
+
+    /**
+     * Closes the indexer right away, if it's not acquired, or else once it's released by the last user.
+     */
+    void closeWhenReleased(boolean deleteFiles)
+            throws IOException
+    {
+        synchronized (referencesLock)
+        {
+            if (closeRequested)
+            {
+                return;
+            }
+
+            closeRequested = true;
+            deleteFilesOnClose = deleteFiles;
+            if (references > 0)
+            {
+                logger.debug("Deferring the close of [{}] until it's released.", contextId);
+                return;
+            }
+        }
+
+        close(deleteFiles);
+    }
+
     public void close()
             throws IOException
     {
@@ -326,6 +381,11 @@ public class RepositoryIndexer
         indexingContext.close(deleteFiles);
     }
 
+    private IndexingQueue getIndexingQueue()
+    {
+        return ((StrongboxIndexingContext) indexingContext).getIndexingQueue();
+    }
+
     public IndexerConfiguration getIndexerConfiguration()
     {
         return indexerConfiguration;
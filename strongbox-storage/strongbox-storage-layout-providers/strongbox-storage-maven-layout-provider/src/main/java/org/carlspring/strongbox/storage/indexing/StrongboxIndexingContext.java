@@ -2,16 +2,37 @@ package org.carlspring.strongbox.storage.indexing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
 import org.apache.maven.index.context.DefaultIndexingContext;
 import org.apache.maven.index.context.IndexCreator;
 
-@Deprecated
+/**
+ * Holds the {@link IndexingQueue} of the context: the queued operations are written to the index before a searcher is
+ * acquired or the index is committed, and they are committed before the context is closed.
+ * <p>
+ * The queue isn't touched while the context's own lock is held (for example, when the {@link DefaultIndexingContext}
+ * acquires a searcher from within a synchronized method), since the queue, in turn, locks the context while applying
+ * its operations.
+ */
 public class StrongboxIndexingContext
         extends DefaultIndexingContext
 {
 
+    private IndexingQueue indexingQueue;
+
+    /**
+     * The timestamps of the member indexes, as of their last full merge into this (group) index, k - member context id.
+     * They're dropped along with the content of the index, so a purged or replaced index is merged in full again.
+     */
+    private Map<String, Date> mergedTimestamps;
+
     public StrongboxIndexingContext(String id,
                                     String repositoryId,
                                     File repository,
@@ -30,6 +51,97 @@ public class StrongboxIndexingContext
               indexUpdateUrl,
               indexCreators,
               reclaimIndex);
+
+        this.indexingQueue = new IndexingQueue(this);
+        this.mergedTimestamps = new ConcurrentHashMap<>();
+    }
+
+    public IndexingQueue getIndexingQueue()
+    {
+        return indexingQueue;
+    }
+
+    public Map<String, Date> getMergedTimestamps()
+    {
+        return mergedTimestamps;
+    }
+
+    @Override
+    public IndexSearcher acquireIndexSearcher()
+            throws IOException
+    {
+        applyIndexingQueue();
+
+        return super.acquireIndexSearcher();
+    }
+
+    @Override
+    public void commit()
+            throws IOException
+    {
+        applyIndexingQueue();
+
+        super.commit();
+    }
+
+    @Override
+    public void close(boolean deleteFiles)
+            throws IOException
+    {
+        if (indexingQueue != null)
+        {
+            indexingQueue.close(deleteFiles);
+        }
+
+        super.close(deleteFiles);
+    }
+
+    @Override
+    public void purge()
+            throws IOException
+    {
+        clearMergedTimestamps();
+
+        super.purge();
+    }
+
+    @Override
+    public void replace(Directory directory)
+            throws IOException
+    {
+        clearMergedTimestamps();
+
+        super.replace(directory);
+    }
+
+    @Override
+    public void replace(Directory directory,
+                        Set<String> allGroups,
+                        Set<String> rootGroups)
+            throws IOException
+    {
+        clearMergedTimestamps();
+
+        super.replace(directory, allGroups, rootGroups);
+    }
+
+    private void clearMergedTimestamps()
+    {
+        // Like the queue, the timestamps are created once the superclass constructor has returned.
+        if (mergedTimestamps != null)
+        {
+            mergedTimestamps.clear();
+        }
+    }
+
+    private void applyIndexingQueue()
+            throws IOException
+    {
+        // The queue is created once the superclass constructor, which may already use the index, has returned.
+        if (indexingQueue != null && !Thread.holdsLock(this))
+        {
+            indexingQueue.apply();
+        }
     }
 
     @Override
@@ -3,16 +3,37 @@ package org.carlspring.strongbox.storage.indexing.downloader;
 import org.carlspring.strongbox.config.MavenIndexerEnabledCondition;
 import org.carlspring.strongbox.providers.io.RepositoryTempPathResolver;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.indexing.IndexTypeEnum;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexer;
 
 import javax.inject.Inject;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.TimeZone;
+import java.util.concurrent.Semaphore;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.updater.IndexUpdateRequest;
 import org.apache.maven.index.updater.IndexUpdateResult;
 import org.apache.maven.index.updater.IndexUpdater;
+import org.apache.maven.index.updater.ResourceFetcher;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +41,14 @@ import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
 /**
+ * Updates the remote index of a proxy repository from the index published by the remote.
+ * <p>
+ * The update is applied to a staging copy of the remote index, which replaces the remote index only once all the
+ * chunks have been applied, so the searches never see a partially updated index. The committed Lucene files of the
+ * remote index are hard linked into the staging directory (they're never modified), so only the copy back is a full
+ * copy. The index resources are downloaded by a resumable {@link IndexResourceFetcher}. The remote indexes of different
+ * repositories are updated in parallel, up to {@link #PROPERTY_CONCURRENCY} at a time.
+ *
  * @author carlspring
  */
 @Component("indexDownloader")
@@ -29,6 +58,11 @@ public class IndexDownloader
 
     private static final Logger logger = LoggerFactory.getLogger(IndexDownloader.class);
 
+    /**
+     * The number of remote indexes which are downloaded at the same time; defaults to 2.
+     */
+    public static final String PROPERTY_CONCURRENCY = "strongbox.maven.index.download.concurrency";
+
     @Inject
     private IndexUpdater indexUpdater;
 
@@ -44,6 +78,9 @@ public class IndexDownloader
     @Inject
     private RepositoryTempPathResolver repositoryTempPathResolver;
 
+    private final Semaphore downloadPermits = new Semaphore(Math.max(Integer.getInteger(PROPERTY_CONCURRENCY, 2), 1),
+                                                            true);
+
     public IndexDownloader()
     {
     }
@@ -51,10 +88,52 @@ public class IndexDownloader
     public void download(IndexDownloadRequest request)
             throws IOException, ComponentLookupException
     {
-        IndexingContext indexingContext = repositoryIndexManager.getRepositoryIndexer(
-                                                                             request.getStorageId() + ":" +
-                                                                             request.getRepositoryId() + ":" + "remote")
-                                                                .getIndexingContext();
+        String contextId = request.getStorageId() + ":" + request.getRepositoryId() + ":" +
+                           IndexTypeEnum.REMOTE.getType();
+
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.acquireRepositoryIndexer(contextId);
+        if (repositoryIndexer == null)
+        {
+            throw new IOException("Remote index " + contextId + " not found!");
+        }
+
+        try
+        {
+            downloadPermits.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            repositoryIndexManager.releaseRepositoryIndexer(repositoryIndexer);
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting to download the remote index " + contextId);
+        }
+
+        try
+        {
+            // Only one update of the same remote index at a time.
+            synchronized (repositoryIndexer)
+            {
+                update(request, repositoryIndexer);
+            }
+        }
+        finally
+        {
+            downloadPermits.release();
+            repositoryIndexManager.releaseRepositoryIndexer(repositoryIndexer);
+        }
+    }
+
+    private void update(IndexDownloadRequest request,
+                        RepositoryIndexer repositoryIndexer)
+            throws IOException
+    {
+        IndexingContext indexingContext = repositoryIndexer.getIndexingContext();
+
+        // The partial downloads and the staging index live next to the remote index.
+        Path indexDir = repositoryIndexer.getIndexDir().toFile().toPath();
+        Path downloadDir = indexDir.resolveSibling("." + IndexTypeEnum.REMOTE.getType() + "-download");
+        Path stagingDir = indexDir.resolveSibling("." + IndexTypeEnum.REMOTE.getType() + "-staging");
 
         // Update the index (an incremental update will be performed,
         // if this is not the first run and the files are not deleted.
@@ -62,31 +141,195 @@ public class IndexDownloader
         logger.debug("Updating remote index for " + request.getRepositoryId() + "...");
         logger.debug("(This might take a while on first run, so please be patient)!");
 
-        IndexUpdateRequest updateRequest = new IndexUpdateRequest(indexingContext,
-                                                                  resourceFetcherFactory.createIndexResourceFetcher(
-                                                                          request.getRemoteRepositoryURL(),
-                                                                          proxyRepositoryConnectionPoolConfigurationService.getHttpClient()));
+        ResourceFetcher resourceFetcher = resourceFetcherFactory.createIndexResourceFetcher(
+                request.getRemoteRepositoryURL(),
+                proxyRepositoryConnectionPoolConfigurationService.getHttpClient(),
+                downloadDir);
+        try
+        {
+            resourceFetcher.connect(indexingContext.getId(), indexingContext.getIndexUpdateUrl());
+
+            Date contextCurrentTimestamp = indexingContext.getTimestamp();
+            Date remoteTimestamp = getRemoteTimestamp(resourceFetcher);
+            if (contextCurrentTimestamp != null && contextCurrentTimestamp.equals(remoteTimestamp))
+            {
+                logger.debug("No update required for remote index " +
+                             request.getStorageId() + ":" + request.getRepositoryId() + "," +
+                             " as the index is up to date!");
+                return;
+            }
 
-        updateRequest.setIndexTempDir(repositoryTempPathResolver.resolve(request.getRepository()).toFile());
+            IndexingContext stagingContext = createStagingContext(repositoryIndexer, indexDir, stagingDir);
+            try
+            {
+                IndexUpdateRequest updateRequest = new IndexUpdateRequest(stagingContext, resourceFetcher);
+                updateRequest.setIndexTempDir(repositoryTempPathResolver.resolve(request.getRepository()).toFile());
 
-        IndexUpdateResult updateResult = indexUpdater.fetchAndUpdateIndex(updateRequest);
+                IndexUpdateResult updateResult = indexUpdater.fetchAndUpdateIndex(updateRequest);
+                if (updateResult.getTimestamp() == null ||
+                    updateResult.getTimestamp().equals(contextCurrentTimestamp))
+                {
+                    logger.debug("No update required for remote index " +
+                                 request.getStorageId() + ":" + request.getRepositoryId() + "," +
+                                 " as the index is up to date!");
+                    return;
+                }
 
-        Date contextCurrentTimestamp = indexingContext.getTimestamp();
-        if (updateResult.isFullUpdate())
+                stagingContext.commit();
+                indexingContext.replace(stagingContext.getIndexDirectory());
+
+                if (updateResult.isFullUpdate())
+                {
+                    logger.debug("Performed a full index update for " + request.getStorageId() + ":" +
+                                 request.getRepositoryId() + ".");
+                }
+                else
+                {
+                    logger.debug("Performed an incremental update, with changes covering the period between " +
+                                 contextCurrentTimestamp + " - " + updateResult.getTimestamp() + ".");
+                }
+            }
+            finally
+            {
+                stagingContext.close(true);
+                FileUtils.deleteQuietly(stagingDir.toFile());
+            }
+        }
+        finally
         {
-            logger.debug("Performed a full index update for " + request.getStorageId() + ":" +
-                         request.getRepositoryId() + ".");
+            resourceFetcher.disconnect();
         }
-        else if (updateResult.getTimestamp().equals(contextCurrentTimestamp))
+    }
+
+    /**
+     * Creates the context the chunks are applied to: a copy of the remote index, which is only swapped in, once the
+     * whole update has been applied.
+     */
+    private IndexingContext createStagingContext(RepositoryIndexer repositoryIndexer,
+                                                 Path indexDir,
+                                                 Path stagingDir)
+            throws IOException
+    {
+        // Left over by an interrupted update.
+        FileUtils.deleteQuietly(stagingDir.toFile());
+
+        IndexingContext indexingContext = repositoryIndexer.getIndexingContext();
+        if (indexingContext.getTimestamp() != null)
+        {
+            // Start from the current index, so that the remote's chunks can be applied incrementally.
+            indexingContext.commit();
+            copyIndex(indexingContext, indexDir, stagingDir);
+        }
+
+        return repositoryIndexer.getIndexer()
+                                .createIndexingContext(indexingContext.getId() + ":staging",
+                                                       indexingContext.getRepositoryId(),
+                                                       indexingContext.getRepository(),
+                                                       stagingDir.toFile(),
+                                                       indexingContext.getRepositoryUrl(),
+                                                       indexingContext.getIndexUpdateUrl(),
+                                                       false,
+                                                       true,
+                                                       indexingContext.getIndexCreators());
+    }
+
+    /**
+     * Links the files of the last commit of the index, which Lucene never modifies, and copies the files kept next
+     * to the index (the timestamp and the updater properties are rewritten in place). The Lucene files which aren't
+     * part of the commit are left behind.
+     */
+    private void copyIndex(IndexingContext indexingContext,
+                           Path indexDir,
+                           Path stagingDir)
+            throws IOException
+    {
+        List<IndexCommit> commits = DirectoryReader.listCommits(indexingContext.getIndexDirectory());
+        Collection<String> committedFiles = commits.get(commits.size() - 1).getFileNames();
+
+        Files.createDirectories(stagingDir);
+        for (String fileName : indexingContext.getIndexDirectory().listAll())
+        {
+            if (IndexWriter.WRITE_LOCK_NAME.equals(fileName))
+            {
+                continue;
+            }
+
+            Path source = indexDir.resolve(fileName);
+            Path target = stagingDir.resolve(fileName);
+            if (committedFiles.contains(fileName))
+            {
+                if (!link(source, target))
+                {
+                    Files.copy(source, target);
+                }
+            }
+            else if (!isLuceneFile(fileName))
+            {
+                Files.copy(source, target);
+            }
+        }
+    }
+
+    private boolean isLuceneFile(String fileName)
+    {
+        return fileName.startsWith(IndexFileNames.SEGMENTS) ||
+               fileName.startsWith(IndexFileNames.PENDING_SEGMENTS) ||
+               IndexFileNames.CODEC_FILE_PATTERN.matcher(fileName).matches();
+    }
+
+    /**
+     * @return false, if the file system doesn't support hard links
+     */
+    private boolean link(Path source,
+                         Path target)
+            throws IOException
+    {
+        try
+        {
+            Files.createLink(target, source);
+
+            return true;
+        }
+        catch (UnsupportedOperationException | FileSystemException e)
+        {
+            logger.debug("Unable to link " + source + ", copying it instead.", e);
+
+            return false;
+        }
+    }
+
+    /**
+     * @return the timestamp of the index published by the remote, or null, if it can't be determined
+     */
+    private Date getRemoteTimestamp(ResourceFetcher resourceFetcher)
+            throws IOException
+    {
+        Properties properties = new Properties();
+        try (InputStream is = resourceFetcher.retrieve(IndexingContext.INDEX_REMOTE_PROPERTIES_FILE))
+        {
+            properties.load(is);
+        }
+        catch (FileNotFoundException e)
+        {
+            // Let the index updater fall back to the legacy index formats.
+            return null;
+        }
+
+        String timestamp = properties.getProperty(IndexingContext.INDEX_TIMESTAMP);
+        if (timestamp == null)
+        {
+            return null;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(IndexingContext.INDEX_TIME_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try
         {
-            logger.debug("No update required for remote index " +
-                         request.getStorageId() + ":" + request.getRepositoryId() + "," +
-                         " as the index is up to date!");
+            return format.parse(timestamp);
         }
-        else
+        catch (ParseException e)
         {
-            logger.debug("Performed an incremental update, with changes covering the period between " +
-                         contextCurrentTimestamp + " - " + updateResult.getTimestamp() + ".");
+            return null;
         }
     }
 
@@ -1,13 +1,23 @@
 package org.carlspring.strongbox.storage.indexing.downloader;
 
 import java.io.Closeable;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 
 import com.google.common.io.Closeables;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -16,27 +26,45 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Downloads the index resources into a download directory before handing them over to the index updater.
+ * <p>
+ * A resource is first written to a `.part` file, along with the `ETag` (or `Last-Modified`) of the remote resource.
+ * When the transfer breaks, it is resumed with an HTTP `Range` request, which is only honoured by the remote if the
+ * resource hasn't changed since (`If-Range`). The `.part` files are kept between the runs, so a failed download of a
+ * large index is resumed by the next run as well.
+ *
  * @author Przemyslaw Fusik
  */
 public class IndexResourceFetcher
         implements ResourceFetcher, Closeable
 {
 
+    /**
+     * The number of times a broken transfer is resumed within a single retrieval; defaults to 3.
+     */
+    public static final String PROPERTY_RETRIES = "strongbox.maven.index.download.retries";
+
     private static final String INDEX_URI_PATTERN = "{0}/.index/{1}";
 
+    private static final String PART_SUFFIX = ".part";
+
+    private static final String VALIDATOR_SUFFIX = ".validator";
+
     private static final Logger logger = LoggerFactory.getLogger(IndexResourceFetcher.class);
 
     private final String repositoryBaseUrl;
 
     private final CloseableHttpClient client;
 
-    private CloseableHttpResponse response;
+    private final Path downloadDirectory;
 
     public IndexResourceFetcher(String repositoryBaseUrl,
-                                CloseableHttpClient client)
+                                CloseableHttpClient client,
+                                Path downloadDirectory)
     {
         this.repositoryBaseUrl = StringUtils.removeEnd(repositoryBaseUrl, "/");
         this.client = client;
+        this.downloadDirectory = downloadDirectory;
     }
 
     @Override
@@ -44,7 +72,7 @@ public class IndexResourceFetcher
                         String indexUpdateUrl)
             throws IOException
     {
-        // ignored
+        Files.createDirectories(downloadDirectory);
     }
 
     @Override
@@ -60,25 +88,149 @@ public class IndexResourceFetcher
     {
         final String uri = MessageFormat.format(INDEX_URI_PATTERN, repositoryBaseUrl, indexName);
 
-        logger.debug("Getting " + uri + "...");
+        Path resource = downloadDirectory.resolve(indexName);
+        Path part = downloadDirectory.resolve(indexName + PART_SUFFIX);
+
+        int retries = Math.max(Integer.getInteger(PROPERTY_RETRIES, 3), 0);
+        for (int attempt = 0; ; attempt++)
+        {
+            try
+            {
+                download(uri, part);
+                break;
+            }
+            catch (FileNotFoundException e)
+            {
+                throw e;
+            }
+            catch (IOException e)
+            {
+                if (attempt >= retries)
+                {
+                    throw e;
+                }
+
+                logger.warn("Failed to download " + uri + ", resuming from byte " + size(part) + "...", e);
+            }
+        }
+
+        Files.move(part, resource, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(getValidatorPath(part));
+
+        // The index updater only reads the resource once.
+        return Files.newInputStream(resource, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    private void download(String uri,
+                          Path part)
+            throws IOException
+    {
+        Path validatorPath = getValidatorPath(part);
+
+        long offset = size(part);
+        String validator = offset > 0 && Files.exists(validatorPath) ?
+                           new String(Files.readAllBytes(validatorPath), StandardCharsets.UTF_8) : null;
+
+        HttpGet request = new HttpGet(uri);
+        if (validator != null)
+        {
+            request.setHeader(HttpHeaders.RANGE, "bytes=" + offset + "-");
+            request.setHeader(HttpHeaders.IF_RANGE, validator);
+        }
+
+        logger.debug("Getting " + uri + (validator != null ? " from byte " + offset : "") + "...");
+
+        try (CloseableHttpResponse response = client.execute(request))
+        {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == HttpStatus.SC_NOT_FOUND)
+            {
+                throw new FileNotFoundException("Resource not found: " + uri);
+            }
+
+            boolean resumed = statusCode == HttpStatus.SC_PARTIAL_CONTENT && validator != null &&
+                              isContentRangeFrom(response, offset);
+            if (!resumed && statusCode != HttpStatus.SC_OK)
+            {
+                if (statusCode == HttpStatus.SC_PARTIAL_CONTENT ||
+                    statusCode == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+                {
+                    // The range doesn't match the partial download, so it's downloaded again.
+                    Files.deleteIfExists(part);
+                }
+
+                throw new IOException("Failed to download " + uri + ": " + response.getStatusLine());
+            }
+
+            if (!resumed)
+            {
+                storeValidator(response, validatorPath);
+            }
+
+            HttpEntity httpEntity = response.getEntity();
+            try (InputStream is = httpEntity != null ? httpEntity.getContent() : null;
+                 OutputStream os = resumed ?
+                                   Files.newOutputStream(part, StandardOpenOption.APPEND) :
+                                   Files.newOutputStream(part))
+            {
+                if (is != null)
+                {
+                    byte[] buffer = new byte[64 * 1024];
+                    int read;
+                    while ((read = is.read(buffer)) != -1)
+                    {
+                        os.write(buffer, 0, read);
+                    }
+                }
+            }
+        }
+    }
 
-        InputStream result = null;
+    private boolean isContentRangeFrom(CloseableHttpResponse response,
+                                       long offset)
+    {
+        // Content-Range: bytes <first>-<last>/<length>
+        Header contentRange = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
 
-        response = client.execute(new HttpGet(uri));
+        return contentRange != null && contentRange.getValue().startsWith("bytes " + offset + "-");
+    }
+
+    private void storeValidator(CloseableHttpResponse response,
+                                Path validatorPath)
+            throws IOException
+    {
+        Header validator = response.getFirstHeader(HttpHeaders.ETAG);
+        if (validator == null || validator.getValue().startsWith("W/"))
+        {
+            // Weak entity tags can't be used with If-Range.
+            validator = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        }
 
-        HttpEntity httpEntity = response.getEntity();
-        if (httpEntity != null)
+        if (validator == null)
         {
-            result = httpEntity.getContent();
+            // Without a validator the download can't be resumed safely.
+            Files.deleteIfExists(validatorPath);
+            return;
         }
-        return result;
+
+        Files.write(validatorPath, validator.getValue().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path getValidatorPath(Path part)
+    {
+        return part.resolveSibling(part.getFileName() + VALIDATOR_SUFFIX);
+    }
+
+    private long size(Path path)
+            throws IOException
+    {
+        return Files.exists(path) ? Files.size(path) : 0;
     }
 
     @Override
     public void close()
             throws IOException
     {
-        Closeables.close(response, true);
         Closeables.close(client, true);
     }
 }
@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.storage.indexing.downloader;
 
+import java.nio.file.Path;
+
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.maven.index.updater.ResourceFetcher;
 import org.springframework.stereotype.Component;
@@ -12,8 +14,9 @@ public class ResourceFetcherFactory
 {
 
     public ResourceFetcher createIndexResourceFetcher(String repositoryBaseUrl,
-                                                      CloseableHttpClient client)
+                                                      CloseableHttpClient client,
+                                                      Path downloadDirectory)
     {
-        return new IndexResourceFetcher(repositoryBaseUrl, client);
+        return new IndexResourceFetcher(repositoryBaseUrl, client, downloadDirectory);
     }
 }
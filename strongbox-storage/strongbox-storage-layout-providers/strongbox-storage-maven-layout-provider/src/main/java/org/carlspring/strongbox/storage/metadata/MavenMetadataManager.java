@@ -1,6 +1,8 @@
 package org.carlspring.strongbox.storage.metadata;
 
+import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
 import org.carlspring.commons.io.MultipleDigestOutputStream;
+import org.carlspring.maven.commons.util.ArtifactUtils;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
@@ -21,20 +23,32 @@ import javax.inject.Inject;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import com.google.common.base.Throwables;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
 import org.apache.maven.artifact.repository.metadata.Versioning;
@@ -65,8 +79,29 @@ public class MavenMetadataManager
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
 
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final int METADATA_CACHE_MAX_ENTRIES = 1000;
+
+    private static final Set<String> DEFAULT_DIGEST_ALGORITHMS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(EncryptionAlgorithmsEnum.MD5.getAlgorithm(),
+                                              EncryptionAlgorithmsEnum.SHA1.getAlgorithm())));
+
     private ConcurrentHashMap<String, String> metadataSynchronizationContainer = new ConcurrentHashMap<>();
 
+    /**
+     * The recently read metadata, k - `maven-metadata.xml` absolute path.
+     */
+    private final Map<Path, CachedMetadata> metadataCache = Collections.synchronizedMap(
+            new LinkedHashMap<Path, CachedMetadata>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, CachedMetadata> eldest)
+                {
+                    return size() > METADATA_CACHE_MAX_ENTRIES;
+                }
+            });
+
     public MavenMetadataManager()
     {
     }
@@ -109,13 +144,40 @@ public class MavenMetadataManager
             throws IOException, XmlPullParserException
     {
         Path metadataPath = MetadataHelper.getMetadataPath(artifactBasePath);
-        Metadata metadata;
 
-        try (InputStream is = Files.newInputStream(metadataPath))
+        return readMetadataFile(metadataPath);
+    }
+
+    /**
+     * Drops the cached copy of the given `maven-metadata.xml` file. Called for every write to the file, as a rewrite
+     * within the timestamp granularity of the file system may keep both its size and modification time.
+     */
+    public void evictCachedMetadata(Path metadataPath)
+    {
+        metadataCache.remove(getCacheKey(metadataPath));
+    }
+
+    /**
+     * Reads the given `maven-metadata.xml` file, unless it's still cached (that is, it has neither been modified nor
+     * replaced since it was parsed). A copy of the cached {@link Metadata} is returned, so that it can be modified by
+     * the caller.
+     */
+    private Metadata readMetadataFile(Path metadataPath)
+            throws IOException, XmlPullParserException
+    {
+        Path cacheKey = getCacheKey(metadataPath);
+
+        // The attributes are read before the file, so that a concurrent replacement can only invalidate the entry.
+        BasicFileAttributes attributes = Files.readAttributes(metadataPath, BasicFileAttributes.class);
+        CachedMetadata cached = metadataCache.get(cacheKey);
+        if (cached != null && cached.matches(attributes))
         {
-            metadata = readMetadata(is);
+            return cached.metadata.clone();
         }
 
+        Metadata metadata = readMetadata(Files.newInputStream(metadataPath));
+        metadataCache.put(cacheKey, new CachedMetadata(metadata.clone(), attributes));
+
         return metadata;
     }
 
@@ -149,22 +211,15 @@ public class MavenMetadataManager
                      try
                      {
                          Path metadataPath = MetadataHelper.getMetadataPath(metadataBasePath, version, metadataType);
-                         Files.deleteIfExists(metadataPath);
+                         Set<String> digestAlgorithms = getDigestAlgorithms(metadataPath);
 
                          // disable decorating RepositoryPath output stream
                          metadataPath = metadataPath instanceof RepositoryPath ? ((RepositoryPath) metadataPath).getTarget() :
                                         metadataPath;
 
-                         try (OutputStream os = new MultipleDigestOutputStream(metadataPath,
-                                                                               Files.newOutputStream(metadataPath));
-                              Writer writer = WriterFactory.newXmlWriter(os))
-                         {
-
-                             MetadataXpp3Writer mappingWriter = new MetadataXpp3Writer();
-                             mappingWriter.write(writer, metadata);
+                         writeMetadata(metadataPath, metadata, digestAlgorithms);
 
-                             os.flush();
-                         }
+                         evictCachedMetadata(metadataPath);
                      }
                      catch (Exception ex)
                      {
@@ -174,6 +229,93 @@ public class MavenMetadataManager
         );
     }
 
+    /**
+     * Writes the metadata and its checksums into temporary files, which are then renamed over the target ones, so
+     * that the readers never see a partially written `maven-metadata.xml`, nor one with stale checksums computed
+     * separately from another content.
+     */
+    private void writeMetadata(final Path metadataPath,
+                               final Metadata metadata,
+                               final Set<String> digestAlgorithms)
+            throws IOException,
+                   NoSuchAlgorithmException
+    {
+        Path directory = metadataPath.getParent();
+        String fileName = metadataPath.getFileName().toString();
+
+        // k - temporary file, v - target file
+        Map<Path, Path> renames = new LinkedHashMap<>();
+        try
+        {
+            Path tempPath = Files.createTempFile(directory, "." + fileName, TEMP_FILE_SUFFIX);
+            renames.put(tempPath, metadataPath);
+
+            MultipleDigestOutputStream os = new MultipleDigestOutputStream(Files.newOutputStream(tempPath),
+                                                                           digestAlgorithms.toArray(new String[0]));
+            try (Writer writer = WriterFactory.newXmlWriter(os))
+            {
+                MetadataXpp3Writer mappingWriter = new MetadataXpp3Writer();
+                mappingWriter.write(writer, metadata);
+            }
+
+            for (String digestAlgorithm : digestAlgorithms)
+            {
+                // it creates Checksum file extension name form Digest algorithm name: SHA-1->sha1
+                String checksumFileName = fileName + "." + digestAlgorithm.replaceAll("-", "").toLowerCase();
+                String checksum = os.getMessageDigestAsHexadecimalString(digestAlgorithm);
+
+                Path checksumTempPath = Files.createTempFile(directory, "." + checksumFileName, TEMP_FILE_SUFFIX);
+                Files.write(checksumTempPath, checksum.getBytes(StandardCharsets.UTF_8));
+                renames.put(checksumTempPath, directory.resolve(checksumFileName));
+            }
+
+            for (Map.Entry<Path, Path> rename : renames.entrySet())
+            {
+                moveAtomically(rename.getKey(), rename.getValue());
+            }
+        }
+        finally
+        {
+            for (Path tempPath : renames.keySet())
+            {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+    }
+
+    private void moveAtomically(final Path source,
+                                final Path target)
+            throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            logger.debug("Atomic move not supported for [{}], replacing it non-atomically.", target);
+
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Set<String> getDigestAlgorithms(final Path metadataPath)
+    {
+        if (metadataPath instanceof RepositoryPath)
+        {
+            return ((RepositoryPath) metadataPath).getFileSystem().getDigestAlgorithmSet();
+        }
+
+        return DEFAULT_DIGEST_ALGORITHMS;
+    }
+
+    private static Path getCacheKey(final Path metadataPath)
+    {
+        Path path = metadataPath instanceof RepositoryPath ? ((RepositoryPath) metadataPath).getTarget() : metadataPath;
+
+        return path.toAbsolutePath().normalize();
+    }
+
     /**
      * Generate a metadata file for an artifact.
      */
@@ -438,6 +580,184 @@ public class MavenMetadataManager
 
     }
 
+    /**
+     * Adds the given version to the existing artifact level metadata, without collecting the versions of the whole
+     * artifact, as {@link #generateMetadata(Repository, String, VersionCollectionRequest)} does. Nothing is done, if
+     * there is no metadata yet.
+     *
+     * @return whether the metadata has been updated
+     */
+    public boolean addVersion(final Path artifactBasePath,
+                              final String version)
+    {
+        return updateMetadata(artifactBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, metadata ->
+        {
+            if (metadata.getVersioning() == null)
+            {
+                metadata.setVersioning(new Versioning());
+            }
+
+            Versioning versioning = metadata.getVersioning();
+            if (versioning.getVersions().contains(version))
+            {
+                return false;
+            }
+
+            versioning.addVersion(version);
+            setLatestAndRelease(versioning);
+            MetadataHelper.setLastUpdated(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Removes the given version from the existing artifact level metadata.
+     *
+     * @return whether the metadata has been updated
+     */
+    public boolean removeVersion(final Path artifactBasePath,
+                                 final String version)
+    {
+        return updateMetadata(artifactBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, metadata ->
+        {
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null || !versioning.getVersions().remove(version))
+            {
+                return false;
+            }
+
+            setLatestAndRelease(versioning);
+            MetadataHelper.setLastUpdated(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Adds (or refreshes) the timestamped snapshot of the given artifact file within the existing snapshot version
+     * level metadata.
+     *
+     * @return whether the metadata has been updated
+     */
+    public boolean addTimestampedSnapshotVersion(final Path artifactBasePath,
+                                                 final String snapshotVersion,
+                                                 final MavenArtifact artifact,
+                                                 final String extension)
+    {
+        return updateMetadata(artifactBasePath, snapshotVersion, MetadataType.SNAPSHOT_VERSION_LEVEL, metadata ->
+        {
+            if (metadata.getVersioning() == null)
+            {
+                metadata.setVersioning(new Versioning());
+            }
+
+            Versioning versioning = metadata.getVersioning();
+            versioning.getSnapshotVersions().removeIf(v -> isSameSnapshotVersion(v, artifact.getVersion(),
+                                                                                 artifact.getClassifier(),
+                                                                                 extension));
+            versioning.addSnapshotVersion(MetadataHelper.createSnapshotVersion(artifact, extension));
+            versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+
+            MetadataHelper.setupSnapshotVersioning(versioning);
+            MetadataHelper.setLastUpdated(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Removes the timestamped snapshot of the given artifact file from the existing snapshot version level metadata.
+     *
+     * @return whether the metadata has been updated
+     */
+    public boolean removeTimestampedSnapshotVersion(final Path artifactBasePath,
+                                                    final String snapshotVersion,
+                                                    final MavenArtifact artifact,
+                                                    final String extension)
+    {
+        return updateMetadata(artifactBasePath, snapshotVersion, MetadataType.SNAPSHOT_VERSION_LEVEL, metadata ->
+        {
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null ||
+                !versioning.getSnapshotVersions().removeIf(v -> isSameSnapshotVersion(v, artifact.getVersion(),
+                                                                                      artifact.getClassifier(),
+                                                                                      extension)))
+            {
+                return false;
+            }
+
+            MetadataHelper.setupSnapshotVersioning(versioning);
+            MetadataHelper.setLastUpdated(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Reads, updates and stores the existing metadata within the lock of the artifact base path, so that the
+     * concurrent updates of the same metadata don't overwrite each other.
+     *
+     * @return whether the metadata has been updated, which is never the case if there is no metadata yet
+     */
+    private boolean updateMetadata(final Path artifactBasePath,
+                                   final String version,
+                                   final MetadataType metadataType,
+                                   final Predicate<Metadata> update)
+    {
+        MutableBoolean updated = new MutableBoolean();
+
+        doInLock(artifactBasePath, path ->
+        {
+            Path metadataPath = MetadataHelper.getMetadataPath(artifactBasePath, version, metadataType);
+            if (!Files.exists(metadataPath))
+            {
+                return;
+            }
+
+            Metadata metadata;
+            try
+            {
+                metadata = readMetadataFile(metadataPath);
+            }
+            catch (IOException | XmlPullParserException e)
+            {
+                throw Throwables.propagate(e);
+            }
+
+            if (update.test(metadata))
+            {
+                storeMetadata(artifactBasePath, version, metadata, metadataType);
+                updated.setTrue();
+            }
+        });
+
+        return updated.booleanValue();
+    }
+
+    private static void setLatestAndRelease(Versioning versioning)
+    {
+        List<String> versions = versioning.getVersions();
+        versions.sort(new VersionComparator());
+
+        versioning.setLatest(versions.isEmpty() ? null : versions.get(versions.size() - 1));
+        versioning.setRelease(versions.stream()
+                                      .filter(v -> !ArtifactUtils.isSnapshot(v))
+                                      .reduce((first, second) -> second)
+                                      .orElse(null));
+    }
+
+    private static boolean isSameSnapshotVersion(SnapshotVersion snapshotVersion,
+                                                 String version,
+                                                 String classifier,
+                                                 String extension)
+    {
+        return Objects.equals(snapshotVersion.getVersion(), version) &&
+               Objects.equals(StringUtils.defaultString(snapshotVersion.getClassifier()),
+                              StringUtils.defaultString(classifier)) &&
+               Objects.equals(snapshotVersion.getExtension(), extension);
+    }
+
     private void doInLock(final Path metadataBasePath,
                           final Consumer<Path> operation)
     {
@@ -455,4 +775,41 @@ public class MavenMetadataManager
         return metadataSynchronizationContainer.get(normalizedPath);
     }
 
+    private static class CachedMetadata
+    {
+
+        private final Metadata metadata;
+
+        private final long lastModified;
+
+        private final long created;
+
+        private final long size;
+
+        /**
+         * Identifies the file itself (the device and inode on Unix), so that a replacement by rename is noticed even
+         * if it keeps the timestamps and the size; `null` where the file system doesn't provide it.
+         */
+        private final Object fileKey;
+
+        CachedMetadata(Metadata metadata,
+                       BasicFileAttributes attributes)
+        {
+            this.metadata = metadata;
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.created = attributes.creationTime().toMillis();
+            this.size = attributes.size();
+            this.fileKey = attributes.fileKey();
+        }
+
+        boolean matches(BasicFileAttributes attributes)
+        {
+            return lastModified == attributes.lastModifiedTime().toMillis() &&
+                   created == attributes.creationTime().toMillis() &&
+                   size == attributes.size() &&
+                   Objects.equals(fileKey, attributes.fileKey());
+        }
+
+    }
+
 }
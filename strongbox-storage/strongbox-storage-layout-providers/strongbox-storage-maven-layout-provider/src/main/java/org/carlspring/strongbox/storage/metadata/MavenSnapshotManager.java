@@ -3,29 +3,25 @@ package org.carlspring.strongbox.storage.metadata;
 import org.carlspring.maven.commons.util.ArtifactUtils;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
-import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.datastore.StorageProviderRegistry;
 import org.carlspring.strongbox.providers.io.RootRepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.providers.search.SearchException;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Collectors;
 
-import org.apache.maven.artifact.repository.metadata.Metadata;
-import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -38,7 +34,12 @@ import static org.carlspring.strongbox.providers.layout.LayoutProviderRegistry.g
 public class MavenSnapshotManager
 {
 
-    private static final String TIMESTAMP_FORMAT = "yyyyMMdd.HHmmss";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd.HHmmss");
+
+    /**
+     * Matches the timestamped snapshot versions, such as `1.0-20180101.123456-1`.
+     */
+    private static final String TIMESTAMPED_VERSION_REGEX = ".*-[0-9]{8}\\.[0-9]{6}-[0-9]+";
 
     private static final Logger logger = LoggerFactory.getLogger(MavenSnapshotManager.class);
 
@@ -51,182 +52,125 @@ public class MavenSnapshotManager
     @Inject
     private MavenMetadataManager mavenMetadataManager;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
 
     public MavenSnapshotManager()
     {
     }
 
+    /**
+     * Removes the expired timestamped snapshots of all the artifacts under the given base path. The snapshots are
+     * looked up with a single query over the {@link ArtifactEntry}s of the repository, instead of reading the metadata
+     * of every version directory, and the expired ones are removed in a batch per version directory, after which the
+     * snapshot metadata of the directory is regenerated.
+     */
     public void deleteTimestampedSnapshotArtifacts(Repository repository,
-                                                   String artifactPath,
-                                                   VersionCollectionRequest request,
+                                                   String basePath,
                                                    int numberToKeep,
                                                    int keepPeriod)
             throws IOException,
-                   ProviderImplementationException,
-                   NoSuchAlgorithmException,
-                   ParseException,
-                   XmlPullParserException
+                   NoSuchAlgorithmException
     {
-        LayoutProvider layoutProvider = getLayoutProvider(repository, layoutProviderRegistry);
-        if (layoutProvider.containsPath(repository, artifactPath))
-        {
-            logger.debug("Removal of timestamped Maven snapshot artifact " + artifactPath +
-                         " in '" + repository.getStorage()
-                                             .getId() + ":" + repository.getId() + "'.");
-
-            Versioning versioning = request.getVersioning();
-            MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(artifactPath);
-
-            if (!versioning.getVersions()
-                           .isEmpty())
-            {
-                for (String version : versioning.getVersions())
-                {
-
-                    Path versionBasePath = Paths.get(request.getArtifactBasePath()
-                                                            .toString(),
-                                                     ArtifactUtils.getSnapshotBaseVersion(version));
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
 
-                    if (removeTimestampedSnapshot(versionBasePath.toString(), repository, numberToKeep, keepPeriod))
-                    {
+        logger.debug("Removal of timestamped Maven snapshot artifacts under " + basePath +
+                     " in '" + storageId + ":" + repositoryId + "'.");
 
-                        logger.debug("Generate snapshot versioning metadata for " + versionBasePath + ".");
-
-                        mavenMetadataManager.generateSnapshotVersioningMetadata(versionBasePath,
-                                                                                artifact,
-                                                                                version,
-                                                                                true);
-                    }
-                }
-            }
-
-        }
-        else
-        {
-            logger.error("Removal of timestamped Maven snapshot artifact: " + artifactPath + ".");
-        }
-    }
+        List<ArtifactEntry> artifactEntries = artifactEntryService.findArtifactsByVersionMatching(storageId,
+                                                                                                  repositoryId,
+                                                                                                  basePath,
+                                                                                                  TIMESTAMPED_VERSION_REGEX);
 
-    private boolean removeTimestampedSnapshot(String basePath,
-                                              Repository repository,
-                                              int numberToKeep,
-                                              int keepPeriod)
-            throws ProviderImplementationException,
-                   IOException,
-                   XmlPullParserException,
-                   ParseException
-    {
-        String storageId = repository.getStorage()
-                                     .getId();
-        Path base = Paths.get(basePath);
+        // k - version directory, v - the timestamped snapshot artifacts within it
+        Map<String, List<ArtifactEntry>> directories = artifactEntries.stream()
+                                                                      .collect(Collectors.groupingBy(
+                                                                              e -> getParentPath(e.getArtifactPath()),
+                                                                              TreeMap::new,
+                                                                              Collectors.toList()));
 
         LayoutProvider layoutProvider = getLayoutProvider(repository, layoutProviderRegistry);
+        RootRepositoryPath rootRepositoryPath = layoutProvider.resolve(repository);
 
-        Metadata metadata = mavenMetadataManager.readMetadata(base);
-
-        if (metadata != null && metadata.getVersioning() != null)
+        for (Map.Entry<String, List<ArtifactEntry>> directory : directories.entrySet())
         {
-            /**
-             * map of snapshots for removing
-             * k - number of the build, v - version of the snapshot
-             */
-            Map<Integer, String> mapToRemove = getRemovableTimestampedSnapshots(metadata, numberToKeep, keepPeriod);
-
-            if (!mapToRemove.isEmpty())
+            // k - version of the snapshot, v - artifacts of the snapshot
+            Map<String, List<ArtifactEntry>> snapshotArtifacts = directory.getValue()
+                                                                          .stream()
+                                                                          .collect(Collectors.groupingBy(
+                                                                                  e -> e.getArtifactCoordinates()
+                                                                                        .getVersion()));
+
+            // k - number of the build, v - version of the snapshot
+            SortedMap<Integer, String> snapshots = new TreeMap<>();
+            snapshotArtifacts.keySet()
+                             .forEach(v -> snapshots.put(Integer.parseInt(ArtifactUtils.getSnapshotBuildNumber(v)), v));
+
+            Map<Integer, String> mapToRemove = getExpiredTimestampedSnapshots(snapshots, numberToKeep, keepPeriod);
+            if (mapToRemove.isEmpty())
             {
-                List<String> removingSnapshots = new ArrayList<>();
+                continue;
+            }
 
-                new ArrayList<>(mapToRemove.values()).forEach(e -> removingSnapshots.add(metadata.getArtifactId()
-                                                                                                 .concat("-")
-                                                                                                 .concat(e)
-                                                                                                 .concat(".jar")));
+            List<ArtifactEntry> removableEntries = mapToRemove.values()
+                                                              .stream()
+                                                              .flatMap(v -> snapshotArtifacts.get(v).stream())
+                                                              .collect(Collectors.toList());
 
-                final RootRepositoryPath rootRepositoryPath = layoutProvider.resolve(repository);
+            // Only the entries of the files, which have actually been removed, are deleted, so that a file, which failed to
+            // be removed, is still found by the next run.
+            List<ArtifactEntry> removedEntries = new ArrayList<>();
+            for (ArtifactEntry artifactEntry : removableEntries)
+            {
+                try
+                {
+                    layoutProvider.delete(storageId, repositoryId, artifactEntry.getArtifactPath(), true);
 
-                try (final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(base))
+                    removedEntries.add(artifactEntry);
+                }
+                catch (IOException | SearchException ex)
                 {
-                    for (Path path : directoryStream)
-                    {
-                        if (Files.isRegularFile(path))
-                        {
-                            final String filename = path.getFileName().toString();
-                            if (ArtifactUtils.isArtifact(path.toString()) && removingSnapshots.contains(filename))
-                            {
-                                try
-                                {
-
-                                    layoutProvider.delete(storageId,
-                                                          repository.getId(),
-                                                          rootRepositoryPath.getTarget().relativize(path).toString(),
-                                                          true);
-
-                                    String artifactName = filename;
-                                    artifactName = artifactName.substring(0, artifactName.lastIndexOf('.'));
-                                    Path pomPath = Paths.get(path.getParent().toString(), artifactName, ".pom");
-
-                                    layoutProvider.delete(storageId,
-                                                          repository.getId(),
-                                                          rootRepositoryPath.getTarget().relativize(pomPath).toString(),
-                                                          true);
-                                }
-                                catch (IOException ex)
-                                {
-                                    logger.error(ex.getMessage(), ex);
-                                }
-                                catch (SearchException ex)
-                                {
-                                    logger.error(ex.getMessage(), ex);
-                                }
-                            }
-                        }
-                    }
+                    logger.error(ex.getMessage(), ex);
                 }
-                return true;
             }
-        }
 
-        return false;
+            artifactEntryService.delete(removedEntries);
+
+            String versionPath = directory.getKey();
+            MavenArtifact artifact = MavenArtifactUtils.convertPathToArtifact(removableEntries.get(0)
+                                                                                             .getArtifactPath());
+            String version = versionPath.substring(versionPath.lastIndexOf('/') + 1);
+
+            logger.debug("Generate snapshot versioning metadata for " + versionPath + ".");
+
+            mavenMetadataManager.generateSnapshotVersioningMetadata(rootRepositoryPath.resolve(versionPath),
+                                                                    artifact,
+                                                                    version,
+                                                                    true);
+        }
     }
 
     /**
-     * To get map of removable timestamped snapshots
+     * To get map of the expired timestamped snapshots: the ones with the lowest build numbers, above
+     * <code>numberToKeep</code>, or, if <code>numberToKeep</code> is 0, the ones older than <code>keepPeriod</code>
+     * days
      *
-     * @param metadata     type Metadata
+     * @param snapshots    type SortedMap<Integer, String>, k - number of the build, v - version of the snapshot
      * @param numberToKeep type int
      * @param keepPeriod   type int
      * @return type Map<Integer, String>
-     * @throws IOException
-     * @throws XmlPullParserException
      */
-    private Map<Integer, String> getRemovableTimestampedSnapshots(Metadata metadata,
-                                                                  int numberToKeep,
-                                                                  int keepPeriod)
-            throws IOException,
-                   XmlPullParserException
+    private Map<Integer, String> getExpiredTimestampedSnapshots(SortedMap<Integer, String> snapshots,
+                                                                int numberToKeep,
+                                                                int keepPeriod)
     {
-        /**
-         * map of the snapshots in metadata file
-         * k - number of the build, v - version of the snapshot
-         */
-        Map<Integer, String> snapshots = new HashMap<>();
         /**
          * map of snapshots for removing
          * k - number of the build, v - version of the snapshot
          */
-        Map<Integer, String> mapToRemove = new HashMap<>();
-
-        metadata.getVersioning()
-                .getSnapshotVersions()
-                .forEach(e ->
-                         {
-
-                             if ("jar".equals(e.getExtension()))
-                             {
-                                 String version = e.getVersion();
-                                 snapshots.put(Integer.parseInt(ArtifactUtils.getSnapshotBuildNumber(version)),
-                                               version);
-                             }
-                         });
+        Map<Integer, String> mapToRemove = new TreeMap<>();
 
         if (numberToKeep != 0 && snapshots.size() > numberToKeep)
         {
@@ -249,7 +193,7 @@ public class MavenSnapshotManager
                                            mapToRemove.put(k, v);
                                        }
                                    }
-                                   catch (ParseException e)
+                                   catch (DateTimeParseException e)
                                    {
                                        logger.error(e.getMessage(), e);
                                    }
@@ -262,23 +206,18 @@ public class MavenSnapshotManager
     /**
      * To get day's number of keeping timestamp snapshot
      * @param buildTimestamp type String
-     * @return days type int
-     * @throws ParseException
+     * @return days type long
      */
-    private int getDifferenceDays(String buildTimestamp)
-            throws ParseException
+    private long getDifferenceDays(String buildTimestamp)
     {
-        DateFormat formatter = new SimpleDateFormat(TIMESTAMP_FORMAT);
-        Calendar calendar = Calendar.getInstance();
-
-        String currentDate = formatter.format(calendar.getTime());
-
-        Date d2 = formatter.parse(currentDate);
-        Date d1 = formatter.parse(buildTimestamp);
+        return ChronoUnit.DAYS.between(LocalDateTime.parse(buildTimestamp, TIMESTAMP_FORMATTER), LocalDateTime.now());
+    }
 
-        long diff = d2.getTime() - d1.getTime();
+    private static String getParentPath(String path)
+    {
+        int index = path.lastIndexOf('/');
 
-        return (int) diff / (24 * 60 * 60 * 1000);
+        return index < 0 ? "" : path.substring(0, index);
     }
 
 }
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.artifact.locator;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
 import java.io.ByteArrayOutputStream;
@@ -8,6 +9,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.regex.Matcher;
 
 import javax.inject.Inject;
@@ -22,6 +24,7 @@ import org.carlspring.strongbox.resource.ConfigurationResourceResolver;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
+import org.carlspring.strongbox.util.ProgressMonitor;
 import org.carlspring.strongbox.util.TestFileUtils;
 
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
@@ -198,6 +201,136 @@ public class ArtifactDirectoryLocatorTest
         // System.out.println(output);
     }
 
+    @Test
+    public void testLocateDirectoriesSequentially()
+            throws IOException
+    {
+        Storage storage = storageProviderRegistry.getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+        LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
+        RepositoryPath repositoryPath = layoutProvider.resolve(repository);
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setBasedir(repositoryPath);
+        locator.setParallelism(1);
+        locator.setOperation(new ArtifactLocationReportOperation());
+        locator.locateArtifactDirectories();
+
+        os.flush();
+
+        String output = new String(os.toByteArray());
+
+        assertTrue(output.contains(normalize("org/apache/maven/location-utils")));
+        assertTrue(output.contains(normalize("org/carlspring/maven/locator-testing")));
+        assertTrue(output.contains(normalize("org/carlspring/strongbox/locator/foo-locator")));
+        assertTrue(output.contains(normalize("org/carlspring/strongbox/locator/utils")));
+        assertTrue(output.indexOf(normalize("org/apache/maven/location-utils")) <
+                   output.indexOf(normalize("org/carlspring/maven/locator-testing")));
+        assertTrue(locator.getOperation().getVisitedRootPaths().isEmpty());
+    }
+
+    @Test
+    public void testLocateDirectoriesFromCheckpoint()
+            throws IOException
+    {
+        Storage storage = storageProviderRegistry.getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+        LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
+        RepositoryPath repositoryPath = layoutProvider.resolve(repository);
+
+        ProgressMonitor monitor = new ProgressMonitor(Collections.singletonMap(STORAGE0 + ":releases", "org/apache"));
+        ProgressMonitor.bind(monitor);
+        try
+        {
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setBasedir(repositoryPath.resolve("org"));
+            locator.setOperation(new ArtifactLocationReportOperation());
+            locator.locateArtifactDirectories();
+        }
+        finally
+        {
+            ProgressMonitor.unbind();
+        }
+
+        os.flush();
+
+        String output = new String(os.toByteArray());
+
+        assertFalse(output.contains(normalize("org/apache/maven/location-utils")));
+        assertTrue(output.contains(normalize("org/carlspring/maven/locator-testing")));
+        assertTrue(output.contains(normalize("org/carlspring/strongbox/locator/utils")));
+        assertTrue(monitor.getCheckpoint(STORAGE0 + ":releases").compareTo("org/carlspring") >= 0);
+        assertTrue(monitor.getProcessed() > 0);
+    }
+
+    @Test
+    public void testLocateDirectoriesFromNestedCheckpoint()
+            throws IOException
+    {
+        Storage storage = storageProviderRegistry.getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+        LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
+        RepositoryPath repositoryPath = layoutProvider.resolve(repository);
+
+        ProgressMonitor monitor = new ProgressMonitor(Collections.singletonMap(STORAGE0 + ":releases",
+                                                                               "org/carlspring/maven"));
+        ProgressMonitor.bind(monitor);
+        try
+        {
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setBasedir(repositoryPath);
+            locator.setOperation(new ArtifactLocationReportOperation());
+            locator.locateArtifactDirectories();
+        }
+        finally
+        {
+            ProgressMonitor.unbind();
+        }
+
+        os.flush();
+
+        String output = new String(os.toByteArray());
+
+        // Everything up to the checkpoint is skipped, but its parents are walked for the directories following it.
+        assertFalse(output.contains(normalize("com/carlspring/strongbox/foo")));
+        assertFalse(output.contains(normalize("org/apache/maven/location-utils")));
+        assertFalse(output.contains(normalize("org/carlspring/maven/locator-testing")));
+        assertTrue(output.contains(normalize("org/carlspring/strongbox/locator/utils")));
+        assertTrue(monitor.getCheckpoint(STORAGE0 + ":releases").compareTo("org") >= 0);
+    }
+
+    @Test
+    public void testLocateDirectoriesWhenCancelled()
+            throws IOException
+    {
+        Storage storage = storageProviderRegistry.getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+        LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
+        RepositoryPath repositoryPath = layoutProvider.resolve(repository);
+
+        ProgressMonitor monitor = new ProgressMonitor();
+        monitor.cancel();
+        ProgressMonitor.bind(monitor);
+        try
+        {
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setBasedir(repositoryPath);
+            locator.setOperation(new ArtifactLocationReportOperation());
+            locator.locateArtifactDirectories();
+        }
+        finally
+        {
+            ProgressMonitor.unbind();
+        }
+
+        os.flush();
+
+        String output = new String(os.toByteArray());
+
+        assertFalse(output.contains(normalize("org/apache/maven/location-utils")));
+        assertEquals(0, monitor.getProcessed());
+    }
+
     @Test
     public void testLocateDirectoriesWithBasePath()
             throws IOException
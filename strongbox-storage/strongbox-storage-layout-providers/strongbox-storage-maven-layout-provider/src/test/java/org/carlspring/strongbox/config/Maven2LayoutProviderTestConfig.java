@@ -9,6 +9,7 @@ import org.carlspring.strongbox.storage.indexing.downloader.ResourceFetcherFacto
 
 import javax.xml.bind.JAXBException;
 import java.io.IOException;
+import java.nio.file.Path;
 
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.maven.index.updater.ResourceFetcher;
@@ -54,7 +55,8 @@ public class Maven2LayoutProviderTestConfig
         final ResourceFetcherFactory resourceFetcherFactory = Mockito.mock(ResourceFetcherFactory.class);
 
         Mockito.when(resourceFetcherFactory.createIndexResourceFetcher(Matchers.anyString(),
-                                                                       Matchers.any(CloseableHttpClient.class)))
+                                                                       Matchers.any(CloseableHttpClient.class),
+                                                                       Matchers.any(Path.class)))
                .thenReturn(resourceFetcher);
 
         return resourceFetcherFactory;
@@ -41,6 +41,8 @@ public class MavenIndexGroupRepositoryComponentTest
 {
     private static final String REPOSITORY_GROUP = "migrc-group";
 
+    private static final String REPOSITORY_GROUP_INCREMENTAL = "migrc-group-incremental";
+
     @Inject
     private Optional<ArtifactIndexesService> artifactIndexesService;
 
@@ -119,10 +121,45 @@ public class MavenIndexGroupRepositoryComponentTest
 
     }
 
+    @Test
+    public void groupIndexShouldBeMergedInFullAgainOnceItHasBeenPurged()
+            throws Exception
+    {
+        Repository repository = createGroup(REPOSITORY_GROUP_INCREMENTAL, REPOSITORY_GROUP_C, REPOSITORY_LEAF_D,
+                                            REPOSITORY_LEAF_L);
+
+        LayoutProvider provider = layoutProviderRegistry.getProvider(Maven2LayoutProvider.ALIAS);
+        RootRepositoryPath repositoryPath = provider.resolve(repository);
+
+        SearchRequest request = new SearchRequest(STORAGE0, REPOSITORY_GROUP_INCREMENTAL,
+                                                  "+g:com.artifacts.to.delete.releases +a:delete-group",
+                                                  MavenIndexerSearchProvider.ALIAS);
+
+        artifactIndexesService.get().rebuildIndex(repositoryPath);
+        assertThat(artifactSearchService.search(request).getResults().size(), Matchers.equalTo(4));
+
+        // The unchanged sub-repository indexes are skipped.
+        artifactIndexesService.get().rebuildIndex(repositoryPath);
+        assertThat(artifactSearchService.search(request).getResults().size(), Matchers.equalTo(4));
+
+        String contextId = IndexContextHelper.getContextId(STORAGE0,
+                                                           REPOSITORY_GROUP_INCREMENTAL,
+                                                           IndexTypeEnum.LOCAL.getType());
+        RepositoryIndexer indexer = repositoryIndexManager.get().getRepositoryIndexer(contextId);
+        indexer.getIndexingContext().purge();
+
+        assertThat(artifactSearchService.search(request).getResults().size(), Matchers.equalTo(0));
+
+        // The sub-repository indexes are still unchanged, but they're no longer merged into the group index.
+        artifactIndexesService.get().rebuildIndex(repositoryPath);
+        assertThat(artifactSearchService.search(request).getResults().size(), Matchers.equalTo(4));
+    }
+
     @Override
     protected void addRepositoriesToClean(final Set<Repository> repositories)
     {
         repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_GROUP));
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_GROUP_INCREMENTAL));
     }
 
 }
@@ -0,0 +1,114 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+public class ArtifactEntryServiceVersionMatchingTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "aesvmt-snapshots";
+
+    private static final String TIMESTAMPED_VERSION_REGEX = ".*-[0-9]{8}\\.[0-9]{6}-[0-9]+";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+
+    @Before
+    public void setUp()
+    {
+        removeEntries();
+
+        createArtifactEntry("matching", "1.0-SNAPSHOT");
+        createArtifactEntry("matching", "1.0-20180101.123456-1");
+        createArtifactEntry("matching", "1.0-20180101.123457-2");
+        createArtifactEntry("matching-extra", "1.0-20180101.123456-1");
+        createArtifactEntry("matching", "1.0");
+    }
+
+    @After
+    public void tearDown()
+    {
+        removeEntries();
+    }
+
+    @Test
+    public void testFindArtifactsByVersionMatchingUnderBasePath()
+    {
+        List<ArtifactEntry> entries = artifactEntryService.findArtifactsByVersionMatching(STORAGE_ID,
+                                                                                          REPOSITORY_ID,
+                                                                                          "org/carlspring/strongbox/matching",
+                                                                                          TIMESTAMPED_VERSION_REGEX);
+
+        Set<String> versions = entries.stream()
+                                      .map(e -> e.getArtifactCoordinates().getVersion())
+                                      .collect(Collectors.toSet());
+
+        assertEquals(2, entries.size());
+        assertTrue(versions.contains("1.0-20180101.123456-1"));
+        assertTrue(versions.contains("1.0-20180101.123457-2"));
+
+        // The trailing slash is optional.
+        assertEquals(2, artifactEntryService.findArtifactsByVersionMatching(STORAGE_ID,
+                                                                            REPOSITORY_ID,
+                                                                            "org/carlspring/strongbox/matching/",
+                                                                            TIMESTAMPED_VERSION_REGEX).size());
+    }
+
+    @Test
+    public void testFindArtifactsByVersionMatchingInRepository()
+    {
+        assertEquals(3, artifactEntryService.findArtifactsByVersionMatching(STORAGE_ID,
+                                                                            REPOSITORY_ID,
+                                                                            null,
+                                                                            TIMESTAMPED_VERSION_REGEX).size());
+
+        assertTrue(artifactEntryService.findArtifactsByVersionMatching(STORAGE_ID,
+                                                                       REPOSITORY_ID + "-missing",
+                                                                       null,
+                                                                       TIMESTAMPED_VERSION_REGEX).isEmpty());
+    }
+
+    private void createArtifactEntry(String artifactId,
+                                     String version)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setArtifactCoordinates(new MavenArtifactCoordinates("org.carlspring.strongbox",
+                                                                          artifactId,
+                                                                          version,
+                                                                          null,
+                                                                          "jar"));
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+
+        artifactEntryService.save(artifactEntry);
+    }
+
+    private void removeEntries()
+    {
+        artifactEntryService.delete(artifactEntryService.findArtifactsByVersionMatching(STORAGE_ID,
+                                                                                        REPOSITORY_ID,
+                                                                                        null,
+                                                                                        ".*"));
+    }
+
+}
@@ -121,6 +121,8 @@ public class ArtifactManagementServiceImplTest
     public void removeRepositories()
             throws IOException, JAXBException
     {
+        waitForArtifactEventListeners();
+
         removeRepositories(getRepositoriesToClean());
     }
 
@@ -10,10 +10,13 @@ import org.carlspring.strongbox.storage.metadata.MetadataType;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
 import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -176,6 +179,55 @@ public class ArtifactMetadataServiceReleasesTest
         assertEquals("Unexpected set of versions!", "1.4", metadataAfter.getVersioning().getRelease());
     }
 
+    @Test
+    public void testStoredVersionIsMergedIntoMetadata()
+            throws IOException, XmlPullParserException, NoSuchAlgorithmException
+    {
+        createRelease("org.carlspring.strongbox:stored:1.0:jar");
+        createRelease("org.carlspring.strongbox:stored:1.1:jar");
+
+        String artifactPath = "org/carlspring/strongbox/stored";
+
+        artifactMetadataService.rebuildMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        Metadata metadataBefore = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        assertNotNull(metadataBefore);
+        assertFalse("Unexpected set of versions!", MetadataHelper.containsVersion(metadataBefore, "1.10"));
+
+        createRelease("org.carlspring.strongbox:stored:1.10:jar");
+
+        Metadata metadataAfter = artifactMetadataService.getMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        assertNotNull(metadataAfter);
+        assertEquals("Unexpected set of versions!", 3, metadataAfter.getVersioning().getVersions().size());
+        assertEquals("Unexpected set of versions!", "1.10", metadataAfter.getVersioning().getLatest());
+        assertEquals("Unexpected set of versions!", "1.10", metadataAfter.getVersioning().getRelease());
+    }
+
+    @Test
+    public void testStoredMetadataChecksums()
+            throws Exception
+    {
+        String artifactPath = "org/carlspring/strongbox/metadata/strongbox-metadata";
+
+        artifactMetadataService.rebuildMetadata(STORAGE0, REPOSITORY_RELEASES, artifactPath);
+
+        File metadataFile = new File(REPOSITORY_BASEDIR, artifactPath + "/maven-metadata.xml");
+        byte[] metadataBytes = Files.readAllBytes(metadataFile.toPath());
+
+        String sha1 = MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("SHA-1")
+                                                                                 .digest(metadataBytes));
+        String md5 = MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("MD5")
+                                                                                .digest(metadataBytes));
+
+        assertEquals(sha1, MessageDigestUtils.readChecksumFile(metadataFile.getAbsolutePath() + ".sha1"));
+        assertEquals(md5, MessageDigestUtils.readChecksumFile(metadataFile.getAbsolutePath() + ".md5"));
+
+        String[] tempFiles = metadataFile.getParentFile().list((dir, name) -> name.endsWith(".tmp"));
+        assertEquals("Temporary metadata files left behind!", 0, tempFiles.length);
+    }
+
     @Test
     public void testDeleteVersionFromMetadata()
             throws IOException, XmlPullParserException, NoSuchAlgorithmException
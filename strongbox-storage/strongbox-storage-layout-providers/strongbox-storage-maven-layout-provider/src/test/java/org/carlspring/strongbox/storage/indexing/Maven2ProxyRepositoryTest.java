@@ -1,9 +1,12 @@
 package org.carlspring.strongbox.storage.indexing;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -110,4 +113,40 @@ public class Maven2ProxyRepositoryTest
                    indexPropertiesUpdaterFile.exists());
     }
 
+    @Test
+    public void testRemoteIndexIsUpdatedIncrementally()
+            throws Exception
+    {
+        Assume.assumeTrue(repositoryIndexManager.isPresent());
+
+        IndexedMavenRepositoryFeatures features = (IndexedMavenRepositoryFeatures) getFeatures();
+
+        Path exportDir = features.pack(STORAGE0, REPOSITORY_RELEASES).getParent();
+        features.downloadRemoteIndex(STORAGE0, REPOSITORY_PROXY);
+
+        // Anything indexed from now on goes into the next chunk.
+        backdatePackerTimestamp(exportDir);
+        Repository repositoryReleases = configurationManager.getRepository(STORAGE0, REPOSITORY_RELEASES);
+        generateArtifact(repositoryReleases.getBasedir(), "org.carlspring.strongbox:strongbox-search-test", "1.3");
+        features.reIndex(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/strongbox-search-test/1.3");
+        features.pack(STORAGE0, REPOSITORY_RELEASES);
+
+        features.downloadRemoteIndex(STORAGE0, REPOSITORY_PROXY);
+
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.get()
+                                                                    .getRepositoryIndexer(STORAGE0 + ":" +
+                                                                                          REPOSITORY_PROXY + ":" +
+                                                                                          IndexTypeEnum.REMOTE.getType());
+
+        // The chunk has been applied on top of the index downloaded before.
+        assertEquals(1, repositoryIndexer.search("org.carlspring.strongbox", "strongbox-search-test", "1.3", "jar",
+                                                 null).size());
+        assertEquals(1, repositoryIndexer.search("org.carlspring.strongbox", "strongbox-search-test", "1.0", "jar",
+                                                 null).size());
+
+        Repository repositoryProxiedReleases = configurationManager.getRepository(STORAGE0, REPOSITORY_PROXY);
+        assertFalse("The staging index should have been removed!",
+                    new File(repositoryProxiedReleases.getBasedir(), ".index/.remote-staging").exists());
+    }
+
 }
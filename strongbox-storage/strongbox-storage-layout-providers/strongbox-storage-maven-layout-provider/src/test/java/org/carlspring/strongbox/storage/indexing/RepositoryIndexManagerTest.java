@@ -0,0 +1,65 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.apache.maven.index.context.IndexingContext;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RepositoryIndexManagerTest
+{
+
+    private static final String CONTEXT_ID = "storage0:releases:local";
+
+    private RepositoryIndexManager repositoryIndexManager;
+
+    private IndexingContext indexingContext;
+
+    private RepositoryIndexer repositoryIndexer;
+
+    @Before
+    public void setUp()
+    {
+        indexingContext = mock(IndexingContext.class);
+
+        repositoryIndexer = new RepositoryIndexer(CONTEXT_ID);
+        repositoryIndexer.setIndexingContext(indexingContext);
+
+        repositoryIndexManager = new RepositoryIndexManager();
+        repositoryIndexManager.addRepositoryIndexer(CONTEXT_ID, repositoryIndexer);
+    }
+
+    @Test
+    public void testCloseIsDeferredUntilReleased()
+            throws Exception
+    {
+        RepositoryIndexer acquired = repositoryIndexManager.acquireRepositoryIndexer(CONTEXT_ID);
+        assertSame(repositoryIndexer, acquired);
+
+        repositoryIndexManager.closeIndexer(CONTEXT_ID);
+
+        verify(indexingContext, never()).close(true);
+        assertNull("A closed indexer should not be found!", repositoryIndexManager.getRepositoryIndexer(CONTEXT_ID));
+        assertFalse("A closing indexer should not be acquired!", acquired.acquire());
+
+        repositoryIndexManager.releaseRepositoryIndexer(acquired);
+
+        verify(indexingContext).close(true);
+    }
+
+    @Test
+    public void testCloseWhenNotAcquired()
+            throws Exception
+    {
+        repositoryIndexManager.closeIndexer(CONTEXT_ID);
+
+        verify(indexingContext).close(true);
+        assertNull(repositoryIndexManager.acquireRepositoryIndexer(CONTEXT_ID));
+    }
+
+}
@@ -5,15 +5,23 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Properties;
 import java.util.Set;
 
 import javax.xml.bind.JAXBException;
 
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexingContext;
 import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.repository.IndexedMavenRepositoryFeatures;
 import org.carlspring.strongbox.repository.MavenRepositoryFeatures;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -121,6 +129,133 @@ public class RepositoryIndexerTest
         assertEquals("org.carlspring.strongbox:strongbox-commons:1.0 should have been deleted!", 0, search.size());
     }
 
+    @Test
+    public void testQueuedArtifactsAreSearchableAndDeduplicated()
+            throws Exception
+    {
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.get()
+                                                                    .getRepositoryIndexer(STORAGE0 + ":" +
+                                                                                          REPOSITORY_RELEASES + ":" +
+                                                                                          IndexTypeEnum.LOCAL.getType());
+
+        Repository repository = getConfiguration().getStorage(STORAGE0).getRepository(REPOSITORY_RELEASES);
+        RepositoryPath artifactPath = layoutProviderRegistry.getProvider(repository.getLayout())
+                                                            .resolve(repository)
+                                                            .resolve("org/carlspring/strongbox/strongbox-commons/1.1/" +
+                                                                     "strongbox-commons-1.1.jar");
+
+        // Both additions are queued, but only one document is expected, and without an explicit commit.
+        repositoryIndexer.addArtifactToIndex(artifactPath);
+        repositoryIndexer.addArtifactToIndex(artifactPath);
+
+        Set<SearchResult> search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.1", "jar",
+                                                            null);
+        assertEquals("Only one org.carlspring.strongbox:strongbox-commons:1.1 artifact was expected!", 1, search.size());
+
+        repositoryIndexer.delete(asArtifactInfo(search));
+        repositoryIndexer.commit();
+
+        search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.1", "jar", null);
+        assertEquals("org.carlspring.strongbox:strongbox-commons:1.1 should have been deleted!", 0, search.size());
+    }
+
+    @Test
+    public void testQueuedRedeploymentReplacesIndexedArtifact()
+            throws Exception
+    {
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.get()
+                                                                    .getRepositoryIndexer(STORAGE0 + ":" +
+                                                                                          REPOSITORY_RELEASES + ":" +
+                                                                                          IndexTypeEnum.LOCAL.getType());
+
+        Repository repository = getConfiguration().getStorage(STORAGE0).getRepository(REPOSITORY_RELEASES);
+        RepositoryPath artifactPath = layoutProviderRegistry.getProvider(repository.getLayout())
+                                                            .resolve(repository)
+                                                            .resolve("org/carlspring/strongbox/strongbox-commons/1.2/" +
+                                                                     "strongbox-commons-1.2.jar");
+
+        repositoryIndexer.addArtifactToIndex(artifactPath);
+        repositoryIndexer.commit();
+
+        int documents = getNumberOfDocuments(repositoryIndexer);
+        Set<SearchResult> search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.2", "jar",
+                                                            null);
+
+        // The deletion and the addition are queued together, which must not leave the previous document in place.
+        repositoryIndexer.delete(asArtifactInfo(search));
+        repositoryIndexer.addArtifactToIndex(artifactPath);
+
+        search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.2", "jar", null);
+        assertEquals("Only one org.carlspring.strongbox:strongbox-commons:1.2 artifact was expected!", 1, search.size());
+
+        // The document has been replaced and the deletion marker has been added.
+        assertEquals(documents + 1, getNumberOfDocuments(repositoryIndexer));
+    }
+
+    @Test
+    public void testIncrementalPack()
+            throws Exception
+    {
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.get()
+                                                                    .getRepositoryIndexer(STORAGE0 + ":" +
+                                                                                          REPOSITORY_RELEASES + ":" +
+                                                                                          IndexTypeEnum.LOCAL.getType());
+
+        IndexedMavenRepositoryFeatures features = (IndexedMavenRepositoryFeatures) getFeatures();
+        features.reIndex(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/strongbox-commons");
+
+        Path fullExport = features.pack(STORAGE0, REPOSITORY_RELEASES);
+        FileTime fullExportModified = Files.getLastModifiedTime(fullExport);
+        int counter = getChunkCounter(fullExport.getParent());
+
+        // The export is back-dated, so the deletion markers are newer, even if written within the same millisecond.
+        backdatePackerTimestamp(fullExport.getParent());
+        Set<SearchResult> search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.0", null,
+                                                            null);
+        repositoryIndexer.delete(asArtifactInfo(search));
+
+        features.pack(STORAGE0, REPOSITORY_RELEASES);
+
+        assertEquals("A new chunk was expected!", counter + 1, getChunkCounter(fullExport.getParent()));
+        assertTrue("Failed to pack the chunk!",
+                   Files.exists(fullExport.resolveSibling(IndexingContext.INDEX_FILE_PREFIX + "." + (counter + 1) +
+                                                          ".gz")));
+        assertEquals("The full index should not have been exported!",
+                     fullExportModified, Files.getLastModifiedTime(fullExport));
+
+        // Nothing has changed since the last chunk.
+        features.pack(STORAGE0, REPOSITORY_RELEASES);
+        assertEquals("No new chunk was expected!", counter + 1, getChunkCounter(fullExport.getParent()));
+    }
+
+    private int getNumberOfDocuments(RepositoryIndexer repositoryIndexer)
+            throws IOException
+    {
+        IndexingContext indexingContext = repositoryIndexer.getIndexingContext();
+        IndexSearcher indexSearcher = indexingContext.acquireIndexSearcher();
+        try
+        {
+            return indexSearcher.getIndexReader().numDocs();
+        }
+        finally
+        {
+            indexingContext.releaseIndexSearcher(indexSearcher);
+        }
+    }
+
+    private int getChunkCounter(Path indexDir)
+            throws IOException
+    {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(
+                indexDir.resolve(IndexingContext.INDEX_PACKER_PROPERTIES_FILE)))
+        {
+            properties.load(inputStream);
+        }
+
+        return Integer.parseInt(properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER));
+    }
+
     private Collection<ArtifactInfo> asArtifactInfo(Set<SearchResult> results)
     {
         Collection<ArtifactInfo> artifactInfos = new LinkedHashSet<>();
@@ -0,0 +1,358 @@
+package org.carlspring.strongbox.storage.indexing.downloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class IndexResourceFetcherTest
+{
+
+    private static final String INDEX_NAME = "nexus-maven-repository-index.properties";
+
+    private static final String CONTENT = "0123456789";
+
+    private static final String ETAG = "\"irft-1\"";
+
+    private Path downloadDirectory;
+
+    private StubHttpClient client;
+
+    private IndexResourceFetcher fetcher;
+
+    @Before
+    public void setUp()
+            throws IOException
+    {
+        downloadDirectory = Files.createTempDirectory("irft");
+        client = new StubHttpClient();
+        fetcher = new IndexResourceFetcher("http://localhost/irft/", client, downloadDirectory);
+        fetcher.connect("irft", null);
+    }
+
+    @After
+    public void tearDown()
+            throws IOException
+    {
+        fetcher.disconnect();
+        FileUtils.deleteDirectory(downloadDirectory.toFile());
+    }
+
+    @Test
+    public void testBrokenTransferIsResumedWithRange()
+            throws IOException
+    {
+        client.respond(response(HttpStatus.SC_OK, CONTENT, 4).withHeader(HttpHeaders.ETAG, ETAG));
+        client.respond(response(HttpStatus.SC_PARTIAL_CONTENT, CONTENT.substring(4), -1)
+                               .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 4-9/10"));
+
+        assertEquals(CONTENT, retrieve());
+
+        assertEquals(2, client.requests.size());
+        assertNull(client.requests.get(0).getFirstHeader(HttpHeaders.RANGE));
+        assertEquals("bytes=4-", client.requests.get(1).getFirstHeader(HttpHeaders.RANGE).getValue());
+        assertEquals(ETAG, client.requests.get(1).getFirstHeader(HttpHeaders.IF_RANGE).getValue());
+
+        assertDownloadDirectoryIsEmpty();
+    }
+
+    @Test
+    public void testPartialDownloadIsResumedByTheNextRetrieval()
+            throws IOException
+    {
+        System.setProperty(IndexResourceFetcher.PROPERTY_RETRIES, "0");
+        try
+        {
+            client.respond(response(HttpStatus.SC_OK, CONTENT, 6).withHeader(HttpHeaders.ETAG, ETAG));
+
+            retrieveAndExpectFailure();
+
+            // The .part file and its validator are kept for the next run.
+            assertEquals(6, Files.size(downloadDirectory.resolve(INDEX_NAME + ".part")));
+            assertEquals(ETAG, new String(Files.readAllBytes(downloadDirectory.resolve(INDEX_NAME + ".part.validator")),
+                                          StandardCharsets.UTF_8));
+        }
+        finally
+        {
+            System.clearProperty(IndexResourceFetcher.PROPERTY_RETRIES);
+        }
+
+        client.respond(response(HttpStatus.SC_PARTIAL_CONTENT, CONTENT.substring(6), -1)
+                               .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 6-9/10"));
+
+        assertEquals(CONTENT, retrieve());
+        assertEquals("bytes=6-", client.requests.get(1).getFirstHeader(HttpHeaders.RANGE).getValue());
+
+        assertDownloadDirectoryIsEmpty();
+    }
+
+    @Test
+    public void testChangedResourceIsDownloadedAgain()
+            throws IOException
+    {
+        client.respond(response(HttpStatus.SC_OK, CONTENT, 4).withHeader(HttpHeaders.ETAG, ETAG));
+        // If-Range doesn't match any more, so the remote sends the whole new resource.
+        client.respond(response(HttpStatus.SC_OK, "abcdefghij", -1).withHeader(HttpHeaders.ETAG, "\"irft-2\""));
+
+        assertEquals("abcdefghij", retrieve());
+        assertDownloadDirectoryIsEmpty();
+    }
+
+    @Test
+    public void testMismatchingContentRangeRestartsTheDownload()
+            throws IOException
+    {
+        client.respond(response(HttpStatus.SC_OK, CONTENT, 4).withHeader(HttpHeaders.ETAG, ETAG));
+        client.respond(response(HttpStatus.SC_PARTIAL_CONTENT, CONTENT.substring(2), -1)
+                               .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 2-9/10"));
+        client.respond(response(HttpStatus.SC_OK, CONTENT, -1).withHeader(HttpHeaders.ETAG, ETAG));
+
+        assertEquals(CONTENT, retrieve());
+
+        assertEquals(3, client.requests.size());
+        assertNull(client.requests.get(2).getFirstHeader(HttpHeaders.RANGE));
+        assertDownloadDirectoryIsEmpty();
+    }
+
+    @Test
+    public void testWeakEntityTagFallsBackToLastModified()
+            throws IOException
+    {
+        String lastModified = "Sat, 01 Sep 2018 10:00:00 GMT";
+
+        client.respond(response(HttpStatus.SC_OK, CONTENT, 4).withHeader(HttpHeaders.ETAG, "W/" + ETAG)
+                                                             .withHeader(HttpHeaders.LAST_MODIFIED, lastModified));
+        client.respond(response(HttpStatus.SC_PARTIAL_CONTENT, CONTENT.substring(4), -1)
+                               .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 4-9/10"));
+
+        assertEquals(CONTENT, retrieve());
+        assertEquals(lastModified, client.requests.get(1).getFirstHeader(HttpHeaders.IF_RANGE).getValue());
+    }
+
+    @Test
+    public void testDownloadWithoutValidatorIsNotResumed()
+            throws IOException
+    {
+        client.respond(response(HttpStatus.SC_OK, CONTENT, 4));
+        client.respond(response(HttpStatus.SC_OK, CONTENT, -1));
+
+        assertEquals(CONTENT, retrieve());
+        assertNull(client.requests.get(1).getFirstHeader(HttpHeaders.RANGE));
+    }
+
+    @Test
+    public void testRetriesAreLimited()
+            throws IOException
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            client.respond(response(HttpStatus.SC_SERVICE_UNAVAILABLE, "", -1));
+        }
+
+        retrieveAndExpectFailure();
+
+        // The first attempt and the default 3 retries.
+        assertEquals(4, client.requests.size());
+    }
+
+    @Test
+    public void testMissingResourceIsNotRetried()
+            throws IOException
+    {
+        client.respond(response(HttpStatus.SC_NOT_FOUND, "", -1));
+        client.respond(response(HttpStatus.SC_OK, CONTENT, -1));
+
+        try
+        {
+            fetcher.retrieve(INDEX_NAME);
+            fail("The missing resource should have been reported.");
+        }
+        catch (FileNotFoundException e)
+        {
+            // Expected
+        }
+
+        assertEquals(1, client.requests.size());
+    }
+
+    private String retrieve()
+            throws IOException
+    {
+        try (InputStream is = fetcher.retrieve(INDEX_NAME))
+        {
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void retrieveAndExpectFailure()
+    {
+        try
+        {
+            retrieve();
+            fail("The download should have failed.");
+        }
+        catch (IOException e)
+        {
+            assertFalse(e instanceof FileNotFoundException);
+        }
+    }
+
+    private void assertDownloadDirectoryIsEmpty()
+            throws IOException
+    {
+        try (Stream<Path> files = Files.list(downloadDirectory))
+        {
+            assertFalse(files.findAny().isPresent());
+        }
+    }
+
+    /**
+     * @param failAfter the number of bytes after which the transfer breaks, or -1 for a complete transfer
+     */
+    private static StubHttpResponse response(int statusCode,
+                                             String content,
+                                             int failAfter)
+    {
+        StubHttpResponse response = new StubHttpResponse(statusCode);
+
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        InputStream is = failAfter < 0 ? new ByteArrayInputStream(bytes) : new BrokenInputStream(bytes, failAfter);
+        response.setEntity(new InputStreamEntity(is, bytes.length));
+
+        return response;
+    }
+
+    private static class StubHttpResponse
+            extends BasicHttpResponse
+            implements CloseableHttpResponse
+    {
+
+        StubHttpResponse(int statusCode)
+        {
+            super(HttpVersion.HTTP_1_1, statusCode, null);
+        }
+
+        StubHttpResponse withHeader(String name,
+                                    String value)
+        {
+            addHeader(name, value);
+
+            return this;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+    }
+
+    private static class BrokenInputStream
+            extends FilterInputStream
+    {
+
+        private final int failAfter;
+
+        private int position;
+
+        BrokenInputStream(byte[] bytes,
+                          int failAfter)
+        {
+            super(new ByteArrayInputStream(bytes));
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+                throws IOException
+        {
+            if (position >= failAfter)
+            {
+                throw new IOException("Connection reset");
+            }
+
+            int read = super.read(b, off, Math.min(len, failAfter - position));
+            position += Math.max(read, 0);
+
+            return read;
+        }
+
+    }
+
+    private static class StubHttpClient
+            extends CloseableHttpClient
+    {
+
+        private final Deque<CloseableHttpResponse> responses = new LinkedList<>();
+
+        private final List<HttpRequest> requests = new ArrayList<>();
+
+        void respond(CloseableHttpResponse response)
+        {
+            responses.add(response);
+        }
+
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target,
+                                                  HttpRequest request,
+                                                  HttpContext context)
+        {
+            requests.add(request);
+
+            return responses.remove();
+        }
+
+        @Override
+        public HttpParams getParams()
+        {
+            return new BasicHttpParams();
+        }
+
+        @Override
+        public ClientConnectionManager getConnectionManager()
+        {
+            return null;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class MavenMetadataManagerCacheTest
+{
+
+    private final MavenMetadataManager mavenMetadataManager = new MavenMetadataManager();
+
+    private Path artifactBasePath;
+
+    private Path metadataPath;
+
+    private FileTime lastModified;
+
+    @Before
+    public void setUp()
+            throws IOException
+    {
+        artifactBasePath = Files.createTempDirectory("mmmct");
+        metadataPath = artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML);
+
+        writeMetadata(metadataPath, "1.0");
+        lastModified = Files.getLastModifiedTime(metadataPath);
+    }
+
+    @After
+    public void tearDown()
+            throws IOException
+    {
+        FileUtils.deleteDirectory(artifactBasePath.toFile());
+    }
+
+    @Test
+    public void testCachedMetadataIsCopied()
+            throws Exception
+    {
+        Metadata metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        metadata.getVersioning().addVersion("2.0");
+
+        assertEquals(1, mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getVersions().size());
+    }
+
+    @Test
+    public void testModifiedMetadataIsReRead()
+            throws Exception
+    {
+        assertEquals("1.0", mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+
+        writeMetadata(metadataPath, "1.1-with-a-longer-version");
+
+        assertEquals("1.1-with-a-longer-version",
+                     mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+    }
+
+    @Test
+    public void testReplacementWithSameSizeAndTimestampIsReRead()
+            throws Exception
+    {
+        Assume.assumeNotNull(Files.readAttributes(metadataPath, BasicFileAttributes.class).fileKey());
+
+        assertEquals("1.0", mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+
+        // Same length, same modification time, but a different file moved into place.
+        Path replacement = artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML + ".tmp");
+        writeMetadata(replacement, "2.0");
+        Files.setLastModifiedTime(replacement, lastModified);
+        Files.move(replacement, metadataPath, StandardCopyOption.REPLACE_EXISTING);
+
+        assertEquals("2.0", mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+    }
+
+    @Test
+    public void testEvictedMetadataIsReRead()
+            throws Exception
+    {
+        assertEquals("1.0", mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+
+        // Rewritten in place within the timestamp granularity: nothing but the eviction can tell.
+        writeMetadata(metadataPath, "3.0");
+        Files.setLastModifiedTime(metadataPath, lastModified);
+
+        mavenMetadataManager.evictCachedMetadata(metadataPath);
+
+        assertEquals("3.0", mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getLatest());
+    }
+
+    private static void writeMetadata(Path path,
+                                      String version)
+            throws IOException
+    {
+        String xml = "<metadata>" +
+                     "<groupId>org.carlspring.strongbox</groupId>" +
+                     "<artifactId>mmmct</artifactId>" +
+                     "<versioning>" +
+                     "<latest>" + version + "</latest>" +
+                     "<versions><version>" + version + "</version></versions>" +
+                     "</versioning>" +
+                     "</metadata>";
+
+        Files.write(path, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
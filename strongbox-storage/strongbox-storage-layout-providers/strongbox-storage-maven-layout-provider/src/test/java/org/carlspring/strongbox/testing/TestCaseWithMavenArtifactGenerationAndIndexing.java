@@ -37,15 +37,23 @@ import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.io.ByteStreams;
 import org.apache.commons.io.FileUtils;
@@ -65,6 +73,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author carlspring
@@ -289,6 +298,34 @@ public abstract class TestCaseWithMavenArtifactGenerationAndIndexing
         }
     }
 
+    /**
+     * Back-dates the timestamp of the last export of the index, so that whatever is indexed next is newer and ends up
+     * in the next chunk, even if it's written within the same millisecond.
+     */
+    protected void backdatePackerTimestamp(Path indexDir)
+            throws IOException, ParseException
+    {
+        Path propertiesPath = indexDir.resolve(IndexingContext.INDEX_PACKER_PROPERTIES_FILE);
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(propertiesPath))
+        {
+            properties.load(inputStream);
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(IndexingContext.INDEX_TIME_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        Date timestamp = format.parse(properties.getProperty(IndexingContext.INDEX_TIMESTAMP));
+        properties.setProperty(IndexingContext.INDEX_TIMESTAMP,
+                               format.format(new Date(timestamp.getTime() - TimeUnit.SECONDS.toMillis(1))));
+
+        try (OutputStream outputStream = Files.newOutputStream(propertiesPath))
+        {
+            properties.store(outputStream, null);
+        }
+    }
+
     public void createRoutingRuleSet(String storageId,
                                      String groupRepositoryId,
                                      String[] repositoryIds,
@@ -456,12 +493,33 @@ public abstract class TestCaseWithMavenArtifactGenerationAndIndexing
         return artifactSearchService.contains(request);
     }
 
+    /**
+     * Waits for the asynchronous artifact event listeners, such as the group index updates, to handle the artifacts
+     * stored so far.
+     */
+    protected void waitForArtifactEventListeners()
+    {
+        try
+        {
+            assertTrue("Timed out waiting for the artifact event listeners.",
+                       artifactEventListenerRegistry.awaitAsynchronousListeners(30, TimeUnit.SECONDS));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            fail("Interrupted while waiting for the artifact event listeners.");
+        }
+    }
+
     protected void closeIndexersForRepository(String storageId,
                                               String repositoryId)
             throws IOException
     {
         if (repositoryIndexManager.isPresent())
         {
+            // The group indexes may still be updated with the stored artifacts.
+            waitForArtifactEventListeners();
+
             repositoryIndexManager.get().closeIndexersForRepository(storageId, repositoryId);
         }
     }
@@ -471,6 +529,8 @@ public abstract class TestCaseWithMavenArtifactGenerationAndIndexing
     {
         if (repositoryIndexManager.isPresent())
         {
+            waitForArtifactEventListeners();
+
             repositoryIndexManager.get().closeIndexer(contextId);
         }
     }
@@ -0,0 +1,99 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.storage.metadata.NpmPackumentManager;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the npm packuments up to date as the package versions are stored and deleted.
+ *
+ * @see NpmPackumentManager
+ */
+@Component
+public class NpmPackumentEventListener
+        implements ArtifactEventListener<RepositoryPath>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackumentEventListener.class);
+
+    /**
+     * Number of path elements of a {@code {group}/{name}/{version}} directory.
+     */
+    private static final int VERSION_PATH_DEPTH = 3;
+
+    @Inject
+    private NpmPackumentManager npmPackumentManager;
+
+    @Override
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        final RepositoryPath path = event.getPath();
+        if (!NpmLayoutProvider.ALIAS.equals(path.getRepository().getLayout()))
+        {
+            return;
+        }
+
+        try
+        {
+            if (RepositoryFiles.isTemp(path) || RepositoryFiles.isTrash(path))
+            {
+                return;
+            }
+
+            if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+            {
+                handleStored(path);
+            }
+            else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+            {
+                handleDeleted(path);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to update packument for [%s].", path), e);
+        }
+    }
+
+    private void handleStored(final RepositoryPath path)
+            throws IOException
+    {
+        if (path.relativize().getNameCount() != VERSION_PATH_DEPTH + 1)
+        {
+            return;
+        }
+
+        String fileName = path.getFileName().toString();
+        if (fileName.equals("package.json") || fileName.endsWith(".tgz.sha1"))
+        {
+            npmPackumentManager.addVersion(path.getParent());
+        }
+    }
+
+    private void handleDeleted(final RepositoryPath path)
+            throws IOException
+    {
+        int depth = path.relativize().getNameCount();
+        if (depth == VERSION_PATH_DEPTH)
+        {
+            npmPackumentManager.removeVersion(path);
+        }
+        else if (depth == VERSION_PATH_DEPTH + 1)
+        {
+            String fileName = path.getFileName().toString();
+            if (fileName.equals("package.json") || fileName.endsWith(".tgz"))
+            {
+                npmPackumentManager.removeVersion(path.getParent());
+            }
+        }
+    }
+
+}
@@ -1,16 +1,23 @@
 package org.carlspring.strongbox.providers.layout;
 
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystem;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures;
 import org.carlspring.strongbox.repository.NpmRepositoryManagementStrategy;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategy;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.metadata.NpmPackumentManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,6 +40,11 @@ public class NpmLayoutProvider
 
     public static final String ALIAS = "npm";
 
+    /**
+     * Number of path elements of a {@code {group}/{name}} package directory.
+     */
+    private static final int PACKAGE_PATH_DEPTH = 2;
+
     @Inject
     private NpmRepositoryManagementStrategy npmRepositoryManagementStrategy;
 
@@ -42,6 +54,9 @@ public class NpmLayoutProvider
     @Inject
     private NpmRepositoryFeatures npmRepositoryFeatures;
 
+    @Inject
+    private NpmPackumentManager npmPackumentManager;
+
 
     @Override
     @PostConstruct
@@ -72,12 +87,50 @@ public class NpmLayoutProvider
 
     }
 
+    /**
+     * Regenerates the packuments of every package found under the given base path, which may point to the
+     * repository root, a package group (scope) or a single package.
+     */
     @Override
     public void rebuildMetadata(String storageId,
                                 String repositoryId,
                                 String basePath)
+            throws IOException
     {
-
+        Repository repository = getRepository(storageId, repositoryId);
+        RepositoryPath rootPath = resolve(repository);
+        RepositoryPath startPath = basePath == null ? rootPath : rootPath.resolve(basePath);
+        if (!Files.isDirectory(startPath))
+        {
+            return;
+        }
+
+        Path rootTarget = rootPath.getTarget();
+        String startPathValue = rootTarget.relativize(startPath.getTarget()).toString();
+        int depth = PACKAGE_PATH_DEPTH - (startPathValue.isEmpty() ? 0 : Paths.get(startPathValue).getNameCount());
+        if (depth < 0)
+        {
+            return;
+        }
+
+        List<RepositoryPath> packagePaths;
+        try (Stream<Path> paths = Files.walk(startPath.getTarget(), depth))
+        {
+            packagePaths = paths.filter(p -> Files.isDirectory(p))
+                                .map(p -> rootTarget.relativize(p))
+                                .filter(p -> p.getNameCount() == PACKAGE_PATH_DEPTH)
+                                .filter(p -> !p.startsWith(RepositoryFileSystem.TRASH))
+                                .filter(p -> !p.startsWith(RepositoryFileSystem.TEMP))
+                                .map(p -> rootPath.resolve(p.toString()))
+                                .collect(Collectors.toList());
+        }
+
+        for (RepositoryPath packagePath : packagePaths)
+        {
+            logger.debug("Rebuilding packument of [{}]...", packagePath);
+
+            npmPackumentManager.rebuild(packagePath);
+        }
     }
 
     @Override
@@ -93,7 +146,7 @@ public class NpmLayoutProvider
     public boolean isMetadata(String path)
     {
         return path.endsWith("package.json") || path.endsWith("package-lock.json")
-                || path.endsWith("npm-shrinkwrap.json");
+                || path.endsWith("npm-shrinkwrap.json") || npmPackumentManager.isPackument(path);
     }
 
     @Override
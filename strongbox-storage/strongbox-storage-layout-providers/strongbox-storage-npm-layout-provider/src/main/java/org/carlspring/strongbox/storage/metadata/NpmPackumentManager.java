@@ -0,0 +1,402 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.semver.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the npm package metadata documents (packuments), which list every version of a package and which the npm
+ * clients fetch first on every install. The documents are stored beside the package versions, in both the full and
+ * the abbreviated ({@value #ABBREVIATED_PACKUMENT_MEDIA_TYPE}) form, and are updated incrementally as the package
+ * versions are stored and deleted, so that serving them is a single static read.
+ */
+@Component
+public class NpmPackumentManager
+{
+
+    public static final String PACKUMENT_FILE_NAME = "packument.json";
+
+    public static final String ABBREVIATED_PACKUMENT_FILE_NAME = "packument.install-v1.json";
+
+    public static final String ABBREVIATED_PACKUMENT_MEDIA_TYPE = "application/vnd.npm.install-v1+json";
+
+    private static final String PACKAGE_JSON_FILE_NAME = "package.json";
+
+    /**
+     * The version fields, which are kept in the abbreviated packument.
+     */
+    private static final Set<String> ABBREVIATED_VERSION_FIELDS = new HashSet<>(
+            Arrays.asList("name", "version", "deprecated", "dependencies", "optionalDependencies",
+                          "devDependencies", "bundleDependencies", "peerDependencies", "bin", "directories",
+                          "dist", "engines", "_hasShrinkwrap"));
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackumentManager.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    @Qualifier("npmJackasonMapper")
+    private ObjectMapper npmJackasonMapper;
+
+    public boolean isPackument(String path)
+    {
+        return path.endsWith(PACKUMENT_FILE_NAME) || path.endsWith(ABBREVIATED_PACKUMENT_FILE_NAME);
+    }
+
+    /**
+     * @param packageBasePath the {@code {group}/{name}} directory of the package
+     */
+    public RepositoryPath resolvePackument(RepositoryPath packageBasePath,
+                                           boolean abbreviated)
+    {
+        return packageBasePath.resolve(abbreviated ? ABBREVIATED_PACKUMENT_FILE_NAME : PACKUMENT_FILE_NAME);
+    }
+
+    /**
+     * Merges a single package version into the packuments of its package.
+     *
+     * @param versionPath the {@code {group}/{name}/{version}} directory of the package version
+     */
+    public void addVersion(RepositoryPath versionPath)
+            throws IOException
+    {
+        RepositoryPath packageBasePath = versionPath.getParent();
+        String version = versionPath.getFileName().toString();
+
+        ObjectNode versionNode = readVersion(versionPath);
+        if (versionNode == null)
+        {
+            logger.debug(String.format("No [%s] found for [%s], skipping packument update.", PACKAGE_JSON_FILE_NAME,
+                                       versionPath));
+            return;
+        }
+
+        RepositoryPath packumentPath = resolvePackument(packageBasePath, false);
+        repositoryPathLock.lock(packumentPath);
+        try
+        {
+            ObjectNode packument = readPackument(packumentPath);
+            if (packument == null)
+            {
+                packument = createPackument(versionNode.path("name").asText());
+            }
+
+            ((ObjectNode) packument.get("versions")).set(version, versionNode);
+
+            // The version is merged again as each of its files is stored, which mustn't move its publish time.
+            ObjectNode time = (ObjectNode) packument.get("time");
+            if (!time.has(version))
+            {
+                time.put(version, now());
+            }
+
+            writePackuments(packageBasePath, packument);
+        }
+        finally
+        {
+            repositoryPathLock.unlock(packumentPath);
+        }
+    }
+
+    /**
+     * Removes a single package version from the packuments of its package.
+     *
+     * @param versionPath the {@code {group}/{name}/{version}} directory of the package version
+     */
+    public void removeVersion(RepositoryPath versionPath)
+            throws IOException
+    {
+        RepositoryPath packageBasePath = versionPath.getParent();
+        String version = versionPath.getFileName().toString();
+
+        RepositoryPath packumentPath = resolvePackument(packageBasePath, false);
+        repositoryPathLock.lock(packumentPath);
+        try
+        {
+            ObjectNode packument = readPackument(packumentPath);
+            if (packument == null || !packument.get("versions").has(version))
+            {
+                return;
+            }
+
+            ((ObjectNode) packument.get("versions")).remove(version);
+            ((ObjectNode) packument.get("time")).remove(version);
+
+            if (packument.get("versions").size() == 0)
+            {
+                Files.deleteIfExists(packumentPath.getTarget());
+                Files.deleteIfExists(resolvePackument(packageBasePath, true).getTarget());
+
+                return;
+            }
+
+            writePackuments(packageBasePath, packument);
+        }
+        finally
+        {
+            repositoryPathLock.unlock(packumentPath);
+        }
+    }
+
+    /**
+     * Regenerates the packuments of a package from scratch, out of all its version directories.
+     *
+     * @param packageBasePath the {@code {group}/{name}} directory of the package
+     */
+    public void rebuild(RepositoryPath packageBasePath)
+            throws IOException
+    {
+        List<RepositoryPath> versionPaths;
+        try (Stream<Path> children = Files.list(packageBasePath))
+        {
+            versionPaths = children.map(p -> packageBasePath.resolve(p.getFileName().toString()))
+                                   .filter(p -> Files.exists(p.resolve(PACKAGE_JSON_FILE_NAME)))
+                                   .collect(Collectors.toList());
+        }
+
+        RepositoryPath packumentPath = resolvePackument(packageBasePath, false);
+        repositoryPathLock.lock(packumentPath);
+        try
+        {
+            ObjectNode packument = null;
+            for (RepositoryPath versionPath : versionPaths)
+            {
+                ObjectNode versionNode = readVersion(versionPath);
+                if (versionNode == null)
+                {
+                    continue;
+                }
+                if (packument == null)
+                {
+                    packument = createPackument(versionNode.path("name").asText());
+                }
+
+                String version = versionPath.getFileName().toString();
+                ((ObjectNode) packument.get("versions")).set(version, versionNode);
+                ((ObjectNode) packument.get("time")).put(version,
+                                                         Files.getLastModifiedTime(versionPath.getTarget())
+                                                              .toInstant()
+                                                              .toString());
+            }
+
+            if (packument == null)
+            {
+                Files.deleteIfExists(packumentPath.getTarget());
+                Files.deleteIfExists(resolvePackument(packageBasePath, true).getTarget());
+
+                return;
+            }
+
+            writePackuments(packageBasePath, packument);
+        }
+        finally
+        {
+            repositoryPathLock.unlock(packumentPath);
+        }
+    }
+
+    private ObjectNode readVersion(RepositoryPath versionPath)
+            throws IOException
+    {
+        RepositoryPath packageJsonPath = versionPath.resolve(PACKAGE_JSON_FILE_NAME);
+        if (!Files.exists(packageJsonPath))
+        {
+            return null;
+        }
+
+        JsonNode packageJson = npmJackasonMapper.readTree(Files.readAllBytes(packageJsonPath.getTarget()));
+        if (!packageJson.isObject() || !packageJson.hasNonNull("name") || !packageJson.hasNonNull("version"))
+        {
+            logger.warn(String.format("Invalid [%s] found for [%s].", PACKAGE_JSON_FILE_NAME, versionPath));
+            return null;
+        }
+
+        ObjectNode versionNode = (ObjectNode) packageJson;
+        String name = versionNode.get("name").asText();
+        String version = versionNode.get("version").asText();
+        versionNode.put("_id", name + "@" + version);
+
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, version);
+        RepositoryPath tarballPath = versionPath.resolve(coordinates.getArtifactFileName());
+
+        ObjectNode dist = versionNode.putObject("dist");
+        dist.put("tarball", getTarballUrl(versionPath.getRepository(), coordinates));
+
+        RepositoryPath shasumPath = versionPath.resolve(coordinates.getArtifactFileName() + ".sha1");
+        if (Files.exists(shasumPath))
+        {
+            dist.put("shasum", new String(Files.readAllBytes(shasumPath.getTarget()), StandardCharsets.UTF_8).trim());
+        }
+        else if (!Files.exists(tarballPath))
+        {
+            logger.warn(String.format("Package tarball not found for [%s].", versionPath));
+        }
+
+        return versionNode;
+    }
+
+    private ObjectNode readPackument(RepositoryPath packumentPath)
+            throws IOException
+    {
+        if (!Files.exists(packumentPath))
+        {
+            return null;
+        }
+
+        return (ObjectNode) npmJackasonMapper.readTree(Files.readAllBytes(packumentPath.getTarget()));
+    }
+
+    private ObjectNode createPackument(String name)
+    {
+        ObjectNode packument = npmJackasonMapper.createObjectNode();
+        packument.put("_id", name);
+        packument.put("name", name);
+        packument.putObject("dist-tags");
+        packument.putObject("versions");
+        packument.putObject("time").put("created", now());
+
+        return packument;
+    }
+
+    private void writePackuments(RepositoryPath packageBasePath,
+                                 ObjectNode packument)
+            throws IOException
+    {
+        String modified = now();
+        ObjectNode versions = (ObjectNode) packument.get("versions");
+        ObjectNode time = (ObjectNode) packument.get("time");
+        time.put("modified", modified);
+
+        String latest = findLatestVersion(versions);
+        ((ObjectNode) packument.get("dist-tags")).put("latest", latest);
+
+        JsonNode latestVersion = versions.get(latest);
+        if (latestVersion.hasNonNull("description"))
+        {
+            packument.set("description", latestVersion.get("description"));
+        }
+
+        ObjectNode abbreviated = npmJackasonMapper.createObjectNode();
+        abbreviated.set("name", packument.get("name"));
+        abbreviated.put("modified", modified);
+        abbreviated.set("dist-tags", packument.get("dist-tags"));
+        ObjectNode abbreviatedVersions = abbreviated.putObject("versions");
+        for (Iterator<Map.Entry<String, JsonNode>> i = versions.fields(); i.hasNext(); )
+        {
+            Map.Entry<String, JsonNode> entry = i.next();
+
+            ObjectNode abbreviatedVersion = abbreviatedVersions.putObject(entry.getKey());
+            for (Iterator<Map.Entry<String, JsonNode>> j = entry.getValue().fields(); j.hasNext(); )
+            {
+                Map.Entry<String, JsonNode> field = j.next();
+                if (ABBREVIATED_VERSION_FIELDS.contains(field.getKey()))
+                {
+                    abbreviatedVersion.set(field.getKey(), field.getValue());
+                }
+            }
+        }
+
+        write(resolvePackument(packageBasePath, false), packument);
+        write(resolvePackument(packageBasePath, true), abbreviated);
+    }
+
+    /**
+     * Writes into a sibling temporary file first and then moves it over the target, so that readers never see a
+     * partially written packument.
+     */
+    private void write(RepositoryPath packumentPath,
+                       JsonNode packument)
+            throws IOException
+    {
+        Path target = packumentPath.getTarget();
+        Path tmp = target.resolveSibling("." + target.getFileName() + ".tmp");
+
+        try (OutputStream os = Files.newOutputStream(tmp))
+        {
+            npmJackasonMapper.writeValue(os, packument);
+        }
+
+        try
+        {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private String findLatestVersion(ObjectNode versions)
+    {
+        List<String> versionList = new ArrayList<>();
+        versions.fieldNames().forEachRemaining(versionList::add);
+
+        return versionList.stream()
+                          .max(Comparator.comparing(NpmPackumentManager::parseVersion,
+                                                    Comparator.nullsFirst(Comparator.naturalOrder())))
+                          .orElse(null);
+    }
+
+    private static Version parseVersion(String version)
+    {
+        try
+        {
+            return Version.parse(version);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    private String getTarballUrl(Repository repository,
+                                 NpmArtifactCoordinates coordinates)
+    {
+        String baseUrl = StringUtils.removeEnd(configurationManager.getConfiguration().getBaseUrl(), "/");
+
+        return String.format("%s/storages/%s/%s/%s", baseUrl, repository.getStorage().getId(), repository.getId(),
+                             coordinates.toPath());
+    }
+
+    private static String now()
+    {
+        return Instant.now().toString();
+    }
+
+}
@@ -2,16 +2,13 @@ package org.carlspring.strongbox.artifact.coordinates;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
 import java.nio.file.Files;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Map;
 
+import org.carlspring.strongbox.nuget.NugetPackageMetadata;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +20,6 @@ import ru.aristar.jnuget.files.Hash;
 import ru.aristar.jnuget.files.NugetFormatException;
 import ru.aristar.jnuget.files.Nupkg;
 import ru.aristar.jnuget.files.nuspec.NuspecFile;
-import ru.aristar.jnuget.files.nuspec.NuspecFile.Metadata;
 
 public class PathNupkg implements Nupkg
 {
@@ -34,20 +30,27 @@ public class PathNupkg implements Nupkg
     private NuspecFile nuspecFile;
     private Hash hash;
     private NugetArtifactCoordinates artifactCoordinates;
-    private boolean exists;
+    private EnumSet<Framework> targetFramework;
 
     public PathNupkg(RepositoryPath path)
-        throws NugetFormatException,
-        UnsupportedEncodingException,
-        IOException
+        throws NugetFormatException
     {
         Assert.notNull(path);
         Assert.notNull(path.getArtifactEntry());
         
         this.path = path;
         this.artifactCoordinates = (NugetArtifactCoordinates) path.getArtifactEntry().getArtifactCoordinates();
-        this.nuspecFile = createNuspecFile();
-        this.hash = createHash();
+
+        // The `.nuspec` fields and the hash are copied onto the artifact entry, so the package files aren't read here.
+        Map<String, String> artifactMetadata = path.getArtifactEntry().getArtifactMetadata();
+        this.nuspecFile = NugetPackageMetadata.readNuspec(artifactCoordinates, artifactMetadata);
+        this.hash = NugetPackageMetadata.readHash(artifactMetadata);
+        if (hash == null)
+        {
+            logger.trace(String.format("The hash of [%s] hasn't been stored yet", path));
+            this.hash = new Hash(new byte[] {});
+        }
+        this.targetFramework = NugetPackageMetadata.readTargetFrameworks(artifactMetadata);
     }
 
     public RepositoryPath getPath()
@@ -69,32 +72,6 @@ public class PathNupkg implements Nupkg
         return hash;
     }
 
-    private Hash createHash()
-        throws IOException,
-        UnsupportedEncodingException
-    {
-        Map<String, RepositoryPath> checksumPathMap = path.getFileSystem().provider().resolveChecksumPathMap(path);
-        if (checksumPathMap.isEmpty())
-        {
-            return null;
-        }
-        // Nuget package should have only one checksum digest algorithm.
-        RepositoryPath checkSumPath = checksumPathMap.values().iterator().next();
-        if (!Files.exists(checkSumPath))
-        {
-            logger.trace(String.format("Failed to resolve checksum file for [%s]", path));
-            return new Hash(new byte[] {});
-        }
-        List<String> checkSumContents = Files.readAllLines(checkSumPath);
-        if (checkSumContents.isEmpty() || checkSumContents.size() > 1)
-        {
-            logger.error(String.format("Found illegal checksum contents for [%s]", path));
-            return null;
-        }
-        String checkSumStr = checkSumContents.iterator().next();
-        return new Hash(Base64.getDecoder().decode(checkSumStr.getBytes("UTF-8")));
-    }
-
     @Override
     public NuspecFile getNuspecFile()
         throws NugetFormatException
@@ -102,32 +79,6 @@ public class PathNupkg implements Nupkg
         return nuspecFile;
     }
 
-    private NuspecFile createNuspecFile()
-        throws NugetFormatException
-    {
-        RepositoryPath nuspecPath = path.resolveSibling(artifactCoordinates.getId() + ".nuspec");
-        if (!Files.exists(nuspecPath))
-        {
-            logger.trace(String.format("Failed to resolve .nuspec file for [%s]", path));
-            NuspecFile result = new NuspecFile();
-            Metadata metadata = result.getMetadata();
-            metadata.id = artifactCoordinates.getId();
-            metadata.version = Version.parse(artifactCoordinates.getVersion());
-            metadata.title = metadata.id;
-            return result;
-        }
-        exists = true;
-        try
-        {
-            return NuspecFile.Parse(Files.newInputStream(nuspecPath));
-        }
-        catch (IOException e)
-        {
-            logger.error(String.format("Failed to read .nuspec file for [%s]", path), e);
-            return null;
-        }
-    }
-
     @Override
     public Long getSize()
     {
@@ -170,8 +121,7 @@ public class PathNupkg implements Nupkg
     @Override
     public EnumSet<Framework> getTargetFramework()
     {
-        // TODO: add framework into RepositoryPath attributes for nuget packages.
-        return EnumSet.allOf(Framework.class);
+        return targetFramework;
     }
 
     @Override
@@ -0,0 +1,152 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.nuget.NugetPackageMetadata;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import javax.inject.Inject;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
+
+/**
+ * Copies the `.nuspec` fields and the package hash onto the `.nupkg` artifact entry, as soon as these files are stored.
+ *
+ * @see NugetPackageMetadata
+ */
+@Component
+public class NugetPackageMetadataEventListener
+        implements ArtifactEventListener<RepositoryPath>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetPackageMetadataEventListener.class);
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Override
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        final RepositoryPath path = event.getPath();
+        if (!NugetLayoutProvider.ALIAS.equals(path.getRepository().getLayout()))
+        {
+            return;
+        }
+
+        try
+        {
+            if (RepositoryFiles.isTemp(path) || RepositoryFiles.isTrash(path))
+            {
+                return;
+            }
+
+            String fileName = path.getFileName().toString();
+            if (fileName.endsWith(".nuspec"))
+            {
+                handleNuspecStored(path);
+            }
+            else if (fileName.endsWith(".nupkg.sha512"))
+            {
+                handleHashStored(path);
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to update Nuget package metadata for [%s].", path), e);
+        }
+    }
+
+    private void handleNuspecStored(RepositoryPath path)
+        throws Exception
+    {
+        NuspecFile nuspecFile;
+        try (InputStream is = Files.newInputStream(path))
+        {
+            nuspecFile = NuspecFile.Parse(is);
+        }
+
+        updatePackageEntry(path, artifactMetadata -> NugetPackageMetadata.writeNuspec(nuspecFile, artifactMetadata));
+    }
+
+    private void handleHashStored(RepositoryPath path)
+        throws Exception
+    {
+        List<String> hashContents = Files.readAllLines(path);
+        if (hashContents.size() != 1)
+        {
+            logger.error(String.format("Found illegal checksum contents for [%s]", path));
+            return;
+        }
+
+        String hash = hashContents.iterator().next();
+        updatePackageEntry(path, artifactMetadata -> NugetPackageMetadata.writeHash(hash, artifactMetadata));
+    }
+
+    /**
+     * Both the `{id}/{version}/{id}.nuspec` and the `{id}/{version}/{id}.{version}.nupkg.sha512` files are siblings
+     * of the `{id}/{version}/{id}.{version}.nupkg` package. They update the same artifact entry, so the package path is
+     * locked while the entry is read, updated and saved, otherwise one update could overwrite the other.
+     */
+    private void updatePackageEntry(RepositoryPath path,
+                                    Consumer<Map<String, String>> update)
+    {
+        Path versionPath = path.relativize().getParent();
+        if (versionPath == null || versionPath.getParent() == null)
+        {
+            return;
+        }
+
+        String packageId = versionPath.getParent().getFileName().toString();
+        String packageVersion = versionPath.getFileName().toString();
+        NugetArtifactCoordinates coordinates = new NugetArtifactCoordinates(packageId, packageVersion, "nupkg");
+
+        String storageId = path.getRepository().getStorage().getId();
+        String repositoryId = path.getRepository().getId();
+
+        RepositoryPath packagePath = path.resolveSibling(Paths.get(coordinates.toPath()).getFileName().toString());
+        repositoryPathLock.lock(packagePath);
+        try
+        {
+            Optional<ArtifactEntry> packageEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                        repositoryId,
+                                                                                        coordinates.toPath());
+            if (!packageEntry.isPresent())
+            {
+                return;
+            }
+
+            ArtifactEntry artifactEntry = packageEntry.get();
+            update.accept(artifactEntry.getArtifactMetadata());
+
+            artifactEntryService.save(artifactEntry);
+        }
+        finally
+        {
+            repositoryPathLock.unlock(packagePath);
+        }
+    }
+
+}
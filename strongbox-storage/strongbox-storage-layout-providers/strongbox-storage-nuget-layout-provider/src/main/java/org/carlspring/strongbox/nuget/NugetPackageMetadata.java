@@ -0,0 +1,266 @@
+package org.carlspring.strongbox.nuget;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import ru.aristar.jnuget.Version;
+import ru.aristar.jnuget.files.Framework;
+import ru.aristar.jnuget.files.Hash;
+import ru.aristar.jnuget.files.NugetFormatException;
+import ru.aristar.jnuget.files.nuspec.Dependencies;
+import ru.aristar.jnuget.files.nuspec.DependenciesGroup;
+import ru.aristar.jnuget.files.nuspec.Dependency;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
+import ru.aristar.jnuget.files.nuspec.NuspecFile.Metadata;
+import ru.aristar.jnuget.rss.EntryProperties;
+import ru.aristar.jnuget.rss.PackageEntry;
+
+/**
+ * Maps the Nuget package `.nuspec` fields and hash to and from the
+ * {@link org.carlspring.strongbox.domain.ArtifactEntry#getArtifactMetadata()}, so that the package feeds can be served
+ * without reading the `.nuspec` and `.sha512` files.
+ */
+public class NugetPackageMetadata
+{
+
+    public static final String TITLE = "nuget.title";
+
+    public static final String DESCRIPTION = "nuget.description";
+
+    public static final String AUTHORS = "nuget.authors";
+
+    public static final String OWNERS = "nuget.owners";
+
+    public static final String LICENSE_URL = "nuget.licenseUrl";
+
+    public static final String DEPENDENCIES = "nuget.dependencies";
+
+    /**
+     * The dependencies grouped by the target frameworks, as `{framework},{framework}={dependency}|{dependency}`
+     * separated by `;`.
+     */
+    public static final String DEPENDENCY_GROUPS = "nuget.dependencyGroups";
+
+    /**
+     * The frameworks targeted by the dependency groups, separated by `,`. Absent when the package targets all of them.
+     */
+    public static final String TARGET_FRAMEWORKS = "nuget.targetFrameworks";
+
+    public static final String HASH = "nuget.hash";
+
+    /**
+     * Set once the fields have been read from the `.nuspec` file itself, as opposed to the partial ones, which are
+     * known from the remote feed only.
+     */
+    public static final String NUSPEC = "nuget.nuspec";
+
+    private static final String DEPENDENCY_SEPARATOR = "|";
+
+    private static final String GROUP_SEPARATOR = ";";
+
+    private static final String GROUP_FRAMEWORK_SEPARATOR = "=";
+
+    private static final String FRAMEWORK_SEPARATOR = ",";
+
+    private NugetPackageMetadata()
+    {
+    }
+
+    public static boolean hasNuspec(Map<String, String> artifactMetadata)
+    {
+        return Boolean.parseBoolean(artifactMetadata.get(NUSPEC));
+    }
+
+    public static void writeNuspec(NuspecFile nuspecFile,
+                                   Map<String, String> artifactMetadata)
+    {
+        Metadata metadata = nuspecFile.getMetadata();
+
+        put(artifactMetadata, TITLE, metadata.title == null ? metadata.id : metadata.title);
+        put(artifactMetadata, DESCRIPTION, metadata.description);
+        put(artifactMetadata, AUTHORS, metadata.authors);
+        put(artifactMetadata, OWNERS, metadata.owners);
+        put(artifactMetadata, LICENSE_URL, metadata.licenseUrl);
+        put(artifactMetadata, NUSPEC, Boolean.TRUE.toString());
+
+        Dependencies dependencies = metadata.dependencies;
+        put(artifactMetadata, DEPENDENCIES,
+            dependencies == null || dependencies.dependencies == null ? null : joinDependencies(dependencies.dependencies));
+
+        if (dependencies == null || dependencies.groups == null || dependencies.groups.isEmpty())
+        {
+            artifactMetadata.remove(DEPENDENCY_GROUPS);
+            artifactMetadata.remove(TARGET_FRAMEWORKS);
+            return;
+        }
+
+        EnumSet<Framework> targetFrameworks = EnumSet.noneOf(Framework.class);
+        // A group without frameworks applies to all of them.
+        boolean anyFramework = false;
+        List<String> groups = new ArrayList<>();
+        for (DependenciesGroup group : dependencies.groups)
+        {
+            EnumSet<Framework> groupFrameworks = group.getTargetFramework() == null ?
+                                                 EnumSet.noneOf(Framework.class) : group.getTargetFramework();
+            targetFrameworks.addAll(groupFrameworks);
+            anyFramework |= groupFrameworks.isEmpty();
+
+            List<Dependency> groupDependencies = group.getDependencies();
+            groups.add(joinFrameworks(groupFrameworks) + GROUP_FRAMEWORK_SEPARATOR +
+                       (groupDependencies == null ? "" : joinDependencies(groupDependencies)));
+        }
+
+        put(artifactMetadata, DEPENDENCY_GROUPS, String.join(GROUP_SEPARATOR, groups));
+        put(artifactMetadata, TARGET_FRAMEWORKS, anyFramework ? null : joinFrameworks(targetFrameworks));
+    }
+
+    /**
+     * Used for the remote packages, which are known from the remote feed only. The feed doesn't provide all the
+     * `.nuspec` fields, so this doesn't mark the metadata as read from the `.nuspec`.
+     */
+    public static void writePackageEntry(PackageEntry packageEntry,
+                                         Map<String, String> artifactMetadata)
+    {
+        EntryProperties properties = packageEntry.getProperties();
+
+        put(artifactMetadata, TITLE, packageEntry.getTitle());
+        put(artifactMetadata, DESCRIPTION, properties.getDescription());
+        writeHash(properties.getPackageHash(), artifactMetadata);
+    }
+
+    public static NuspecFile readNuspec(NugetArtifactCoordinates coordinates,
+                                        Map<String, String> artifactMetadata)
+        throws NugetFormatException
+    {
+        NuspecFile result = new NuspecFile();
+
+        Metadata metadata = result.getMetadata();
+        metadata.id = coordinates.getId();
+        metadata.version = Version.parse(coordinates.getVersion());
+        metadata.title = artifactMetadata.getOrDefault(TITLE, metadata.id);
+        metadata.description = artifactMetadata.get(DESCRIPTION);
+        metadata.authors = artifactMetadata.get(AUTHORS);
+        metadata.owners = artifactMetadata.get(OWNERS);
+        metadata.licenseUrl = artifactMetadata.get(LICENSE_URL);
+
+        String dependencies = artifactMetadata.get(DEPENDENCIES);
+        String groups = artifactMetadata.get(DEPENDENCY_GROUPS);
+        if ((dependencies == null || dependencies.isEmpty()) && (groups == null || groups.isEmpty()))
+        {
+            return result;
+        }
+
+        metadata.dependencies = new Dependencies();
+        metadata.dependencies.dependencies = splitDependencies(dependencies);
+        if (groups == null || groups.isEmpty())
+        {
+            return result;
+        }
+
+        metadata.dependencies.groups = new ArrayList<>();
+        for (String group : groups.split(GROUP_SEPARATOR))
+        {
+            int frameworksEnd = group.indexOf(GROUP_FRAMEWORK_SEPARATOR);
+
+            DependenciesGroup dependenciesGroup = new DependenciesGroup();
+            dependenciesGroup.setTargetFramework(splitFrameworks(group.substring(0, frameworksEnd)));
+            dependenciesGroup.setDependencies(splitDependencies(group.substring(frameworksEnd + 1)));
+
+            metadata.dependencies.groups.add(dependenciesGroup);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the frameworks targeted by the package, which are all of them unless its `.nuspec` says otherwise
+     */
+    public static EnumSet<Framework> readTargetFrameworks(Map<String, String> artifactMetadata)
+    {
+        String targetFrameworks = artifactMetadata.get(TARGET_FRAMEWORKS);
+
+        return targetFrameworks == null ? EnumSet.allOf(Framework.class) : splitFrameworks(targetFrameworks);
+    }
+
+    public static void writeHash(byte[] hash,
+                                 Map<String, String> artifactMetadata)
+    {
+        writeHash(Base64.getEncoder().encodeToString(hash), artifactMetadata);
+    }
+
+    public static void writeHash(String base64Hash,
+                                 Map<String, String> artifactMetadata)
+    {
+        put(artifactMetadata, HASH, base64Hash == null ? null : base64Hash.trim());
+    }
+
+    public static Hash readHash(Map<String, String> artifactMetadata)
+    {
+        String hash = artifactMetadata.get(HASH);
+
+        return hash == null ? null : new Hash(Base64.getDecoder().decode(hash));
+    }
+
+    private static String joinDependencies(List<Dependency> dependencies)
+    {
+        return dependencies.stream().map(Dependency::toString).collect(Collectors.joining(DEPENDENCY_SEPARATOR));
+    }
+
+    private static List<Dependency> splitDependencies(String dependencies)
+        throws NugetFormatException
+    {
+        List<Dependency> result = new ArrayList<>();
+        if (dependencies == null || dependencies.isEmpty())
+        {
+            return result;
+        }
+
+        for (String dependency : dependencies.split("\\" + DEPENDENCY_SEPARATOR))
+        {
+            result.add(Dependency.parseString(dependency));
+        }
+
+        return result;
+    }
+
+    private static String joinFrameworks(EnumSet<Framework> frameworks)
+    {
+        return frameworks.stream().map(Framework::name).collect(Collectors.joining(FRAMEWORK_SEPARATOR));
+    }
+
+    private static EnumSet<Framework> splitFrameworks(String frameworks)
+    {
+        EnumSet<Framework> result = EnumSet.noneOf(Framework.class);
+        if (frameworks.isEmpty())
+        {
+            return result;
+        }
+
+        for (String framework : frameworks.split(FRAMEWORK_SEPARATOR))
+        {
+            result.add(Framework.valueOf(framework));
+        }
+
+        return result;
+    }
+
+    private static void put(Map<String, String> artifactMetadata,
+                            String key,
+                            String value)
+    {
+        if (value == null)
+        {
+            artifactMetadata.remove(key);
+            return;
+        }
+
+        artifactMetadata.put(key, value);
+    }
+
+}
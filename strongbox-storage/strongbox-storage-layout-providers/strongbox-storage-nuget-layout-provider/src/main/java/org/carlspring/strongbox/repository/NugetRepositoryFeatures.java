@@ -10,10 +10,10 @@ import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Selector;
-import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.event.CommonEventListener;
+import org.carlspring.strongbox.nuget.NugetPackageMetadata;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
@@ -31,17 +31,28 @@ import org.carlspring.strongbox.storage.validation.deployment.RedeploymentValida
 import org.carlspring.strongbox.xml.configuration.repository.NugetRepositoryConfiguration;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +74,17 @@ public class NugetRepositoryFeatures
 
     private static final int REMOTE_FEED_PAGE_SIZE = 1000;
 
+    /**
+     * The number of threads prefetching the remote feed pages, which is also the number of pages each feed download
+     * fetches ahead of the one being persisted; defaults to 4.
+     */
+    public static final String PROPERTY_REMOTE_FEED_PREFETCH_THREADS = "strongbox.nuget.remote.feed.prefetch.threads";
+
+    /**
+     * The number of remote feed page fetches, which may wait for a prefetching thread; defaults to 16.
+     */
+    public static final String PROPERTY_REMOTE_FEED_PREFETCH_QUEUE_SIZE = "strongbox.nuget.remote.feed.prefetch.queue.size";
+
     private static final Logger logger = LoggerFactory.getLogger(NugetRepositoryFeatures.class);
 
     @Inject
@@ -97,14 +119,39 @@ public class NugetRepositoryFeatures
 
     private Set<String> defaultMavenArtifactCoordinateValidators;
 
+    private ThreadPoolExecutor remoteFeedExecutor;
+
     @PostConstruct
     public void init()
     {
+        int threads = Math.max(Integer.getInteger(PROPERTY_REMOTE_FEED_PREFETCH_THREADS, 4), 1);
+        int queueSize = Math.max(Integer.getInteger(PROPERTY_REMOTE_FEED_PREFETCH_QUEUE_SIZE, 16), 1);
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // Once the queue is full, the page is fetched by the thread downloading the feed, which slows the downloads
+        // down instead of dropping a fetch, which the download would then wait for forever.
+        remoteFeedExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                    new ArrayBlockingQueue<>(queueSize),
+                                                    r -> {
+                                                        Thread thread = new Thread(r, "nuget-remote-feed-" +
+                                                                                      threadNumber.incrementAndGet());
+                                                        thread.setDaemon(true);
+                                                        return thread;
+                                                    },
+                                                    new ThreadPoolExecutor.CallerRunsPolicy());
+        remoteFeedExecutor.allowCoreThreadTimeOut(true);
+
         defaultMavenArtifactCoordinateValidators = new LinkedHashSet<>(Arrays.asList(redeploymentValidator.getAlias(),
                                                                                      genericReleaseVersionValidator.getAlias(),
                                                                                      genericSnapshotVersionValidator.getAlias()));
     }
 
+    @PreDestroy
+    public void destroy()
+    {
+        remoteFeedExecutor.shutdownNow();
+    }
+
     public void downloadRemoteFeed(String storageId,
                                    String repositoryId)
             throws ArtifactTransportException
@@ -123,14 +170,46 @@ public class NugetRepositoryFeatures
         Optional<NugetRepositoryConfiguration> repositoryConfiguration = Optional.ofNullable((NugetRepositoryConfiguration) repository.getRepositoryConfiguration());
         Integer remoteFeedPageSize = repositoryConfiguration.map(c -> c.getRemoteFeedPageSize())
                                                             .orElse(REMOTE_FEED_PAGE_SIZE);
-        for (int i = 0; true; i++)
+
+        // As many pages as there are prefetching threads are being fetched while the current one is persisted.
+        int prefetchedPages = remoteFeedExecutor.getMaximumPoolSize();
+        Deque<CompletableFuture<PackageFeed>> pages = new ArrayDeque<>(prefetchedPages);
+        int skip = 0;
+        for (int i = 0; i < prefetchedPages; i++, skip += remoteFeedPageSize)
+        {
+            pages.add(fetchRemoteFeedAsync(repository, nugetSearchRequest, skip, remoteFeedPageSize));
+        }
+
+        try
         {
-            if (!downloadRemoteFeed(storageId, repositoryId, nugetSearchRequest, i * remoteFeedPageSize,
-                                    remoteFeedPageSize))
+            while (true)
             {
-                break;
+                PackageFeed packageFeed = pages.remove().join();
+                if (isEmpty(packageFeed))
+                {
+                    break;
+                }
+
+                boolean lastPage = packageFeed.getEntries().size() < remoteFeedPageSize;
+                if (!lastPage)
+                {
+                    pages.add(fetchRemoteFeedAsync(repository, nugetSearchRequest, skip, remoteFeedPageSize));
+                    skip += remoteFeedPageSize;
+                }
+
+                parseFeed(repository, packageFeed);
+
+                if (lastPage)
+                {
+                    break;
+                }
             }
         }
+        finally
+        {
+            // The pages fetched past the end of the feed are empty, so they're just dropped.
+            pages.forEach(page -> page.cancel(false));
+        }
     }
 
     public boolean downloadRemoteFeed(String storageId,
@@ -143,10 +222,35 @@ public class NugetRepositoryFeatures
         Storage storage = getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
 
+        PackageFeed packageFeed = fetchRemoteFeed(repository, nugetSearchRequest, skip, top);
+        if (isEmpty(packageFeed))
+        {
+            return false;
+        }
+
+        parseFeed(repository, packageFeed);
+
+        return true;
+    }
+
+    private CompletableFuture<PackageFeed> fetchRemoteFeedAsync(Repository repository,
+                                                                NugetSearchRequest nugetSearchRequest,
+                                                                int skip,
+                                                                int top)
+    {
+        return CompletableFuture.supplyAsync(() -> fetchRemoteFeed(repository, nugetSearchRequest, skip, top),
+                                             remoteFeedExecutor);
+    }
+
+    private PackageFeed fetchRemoteFeed(Repository repository,
+                                        NugetSearchRequest nugetSearchRequest,
+                                        int skip,
+                                        int top)
+    {
         RemoteRepository remoteRepository = repository.getRemoteRepository();
         if (remoteRepository == null)
         {
-            return false;
+            return null;
         }
         String remoteRepositoryUrl = remoteRepository.getUrl();
 
@@ -158,35 +262,37 @@ public class NugetRepositoryFeatures
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
-            logger.debug(String.format("Downloading remote feed for [%s].", remoteRepositoryUrl));
+            logger.debug(String.format("Downloading remote feed for [%s], skip [%s].", remoteRepositoryUrl, skip));
 
             WebTarget service = restClient.target(remoteRepository.getUrl());
             packageFeed = queryParams(service.path("Search()"), nugetSearchRequest, paginator).request()
                                                                                               .buildGet()
                                                                                               .invoke(PackageFeed.class);
             
-            logger.debug(String.format("Downloaded remote feed for [%s], size [%s].",
+            logger.debug(String.format("Downloaded remote feed for [%s], skip [%s], size [%s].",
                                        remoteRepository.getUrl(),
-                                       Optional.of(packageFeed).map(f -> f.getEntries().size()).orElse(0)));
+                                       skip,
+                                       Optional.ofNullable(packageFeed)
+                                               .map(f -> f.getEntries())
+                                               .map(e -> e.size())
+                                               .orElse(0)));
 
         }
         catch (Exception e)
         {
             logger.error(String.format("Failed to fetch Nuget remote feed [%s]", remoteRepositoryUrl), e);
-            return false;
+            return null;
         } finally
         {
             restClient.close();
         }
 
-        if (packageFeed == null || packageFeed.getEntries() == null || packageFeed.getEntries().size() == 0)
-        {
-            return false;
-        }
-
-        parseFeed(repository, packageFeed);
+        return packageFeed;
+    }
 
-        return true;
+    private boolean isEmpty(PackageFeed packageFeed)
+    {
+        return packageFeed == null || packageFeed.getEntries() == null || packageFeed.getEntries().isEmpty();
     }
 
     private void parseFeed(Repository repository,
@@ -195,59 +301,102 @@ public class NugetRepositoryFeatures
         String repositoryId = repository.getId();
         String storageId = repository.getStorage().getId();
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
-
-        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
+        Map<String, PackageEntry> packageEntryMap = new LinkedHashMap<>();
         for (PackageEntry packageEntry : packageFeed.getEntries())
         {
-            String packageId = packageEntry.getProperties().getId();
-            packageId = packageId == null ? packageEntry.getTitle() : packageId;
-            String packageVersion = packageEntry.getProperties().getVersion().toString();
+            packageEntryMap.putIfAbsent(toCoordinates(packageEntry).toPath(), packageEntry);
+        }
 
-            NugetArtifactCoordinates c = new NugetArtifactCoordinates(packageId, packageVersion, "nupkg");
-            if (artifactEntryService.artifactExists(storageId, repositoryId, c.toPath()))
-            {
-                continue;
-            }
+        // One query per page, instead of one per package entry.
+        Set<String> existingPaths = artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                                   packageEntryMap.keySet());
+        packageEntryMap.keySet().removeAll(existingPaths);
+        if (packageEntryMap.isEmpty())
+        {
+            return;
+        }
 
-            RemoteArtifactEntry remoteArtifactEntry = new RemoteArtifactEntry();
-            remoteArtifactEntry.setStorageId(storageId);
-            remoteArtifactEntry.setRepositoryId(repositoryId);
-            remoteArtifactEntry.setArtifactCoordinates(c);
-            remoteArtifactEntry.setLastUsed(new Date());
-            remoteArtifactEntry.setLastUpdated(new Date());
-            remoteArtifactEntry.setDownloadCount(0);
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
-            remoteArtifactEntry.setSizeInBytes(packageEntry.getProperties().getPackageSize());
+        List<RemoteArtifactEntry> artifactToSaveList = packageEntryMap.values()
+                                                                      .stream()
+                                                                      .map(e -> toRemoteArtifactEntry(repository,
+                                                                                                      e,
+                                                                                                      lastVersionTag))
+                                                                      .collect(Collectors.toList());
+        try
+        {
+            artifactEntryService.saveAll(artifactToSaveList, true);
+        }
+        catch (Exception e)
+        {
+            // Most likely some of the entries have been stored concurrently, so we fall back to the entry by entry
+            // import, which checks every entry for existence under the path lock.
+            logger.warn(String.format("Failed to save Nuget remote feed page for [%s]:[%s], retrying entry by entry.",
+                                      storageId, repositoryId),
+                        e);
+
+            packageEntryMap.values()
+                           .stream()
+                           .map(p -> toRemoteArtifactEntry(repository, p, lastVersionTag))
+                           .forEach(a -> saveRemoteArtifactEntry(repository, a, lastVersionTag));
+        }
+    }
 
-            if (Boolean.TRUE.equals(packageEntry.getProperties().getIsLatestVersion()))
+    private void saveRemoteArtifactEntry(Repository repository,
+                                         RemoteArtifactEntry remoteArtifactEntry,
+                                         ArtifactTag lastVersionTag)
+    {
+        RepositoryPath repositoryPath = nugetLayoutProvider.resolve(repository,
+                                                                    remoteArtifactEntry.getArtifactCoordinates());
+        repositoryPathLock.lock(repositoryPath);
+        try
+        {
+            if (artifactEntryService.artifactExists(remoteArtifactEntry.getStorageId(),
+                                                    remoteArtifactEntry.getRepositoryId(),
+                                                    remoteArtifactEntry.getArtifactCoordinates().toPath()))
             {
-                remoteArtifactEntry.getTagSet().add(lastVersionTag);
+                return;
             }
 
-            artifactToSaveSet.add(remoteArtifactEntry);
+            artifactEntryService.save(remoteArtifactEntry, remoteArtifactEntry.getTagSet().contains(lastVersionTag));
+        }
+        finally
+        {
+            repositoryPathLock.unlock(repositoryPath);
         }
+    }
+
+    private NugetArtifactCoordinates toCoordinates(PackageEntry packageEntry)
+    {
+        String packageId = packageEntry.getProperties().getId();
+        packageId = packageId == null ? packageEntry.getTitle() : packageId;
+        String packageVersion = packageEntry.getProperties().getVersion().toString();
+
+        return new NugetArtifactCoordinates(packageId, packageVersion, "nupkg");
+    }
 
-        for (ArtifactEntry e : artifactToSaveSet)
+    private RemoteArtifactEntry toRemoteArtifactEntry(Repository repository,
+                                                      PackageEntry packageEntry,
+                                                      ArtifactTag lastVersionTag)
+    {
+        RemoteArtifactEntry remoteArtifactEntry = new RemoteArtifactEntry();
+        remoteArtifactEntry.setStorageId(repository.getStorage().getId());
+        remoteArtifactEntry.setRepositoryId(repository.getId());
+        remoteArtifactEntry.setArtifactCoordinates(toCoordinates(packageEntry));
+        remoteArtifactEntry.setLastUsed(new Date());
+        remoteArtifactEntry.setLastUpdated(new Date());
+        remoteArtifactEntry.setDownloadCount(0);
+
+        remoteArtifactEntry.setSizeInBytes(packageEntry.getProperties().getPackageSize());
+        NugetPackageMetadata.writePackageEntry(packageEntry, remoteArtifactEntry.getArtifactMetadata());
+
+        if (Boolean.TRUE.equals(packageEntry.getProperties().getIsLatestVersion()))
         {
-            RepositoryPath repositoryPath = nugetLayoutProvider.resolve(repository, e.getArtifactCoordinates());
-            repositoryPathLock.lock(repositoryPath);
-            try
-            {
-                if (e.getTagSet().contains(lastVersionTag))
-                {
-                    artifactEntryService.save(e, true);
-                }
-                else
-                {
-                    artifactEntryService.save(e, false);
-                }
-            }
-            finally
-            {
-                repositoryPathLock.unlock(repositoryPath);
-            }
+            remoteArtifactEntry.getTagSet().add(lastVersionTag);
         }
+
+        return remoteArtifactEntry;
     }
 
     protected Configuration getConfiguration()
@@ -340,6 +489,11 @@ public class NugetRepositoryFeatures
                 restClient.close();
             }
 
+            if (isEmpty(feed))
+            {
+                return;
+            }
+
             parseFeed(repository, feed);
         }
 
@@ -0,0 +1,132 @@
+package org.carlspring.strongbox.nuget;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import ru.aristar.jnuget.Version;
+import ru.aristar.jnuget.files.Framework;
+import ru.aristar.jnuget.files.nuspec.Dependencies;
+import ru.aristar.jnuget.files.nuspec.DependenciesGroup;
+import ru.aristar.jnuget.files.nuspec.Dependency;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NugetPackageMetadataTest
+{
+
+    @Test
+    public void testNuspecRoundTrip()
+        throws Exception
+    {
+        NuspecFile nuspecFile = new NuspecFile();
+        NuspecFile.Metadata metadata = nuspecFile.getMetadata();
+        metadata.id = "Org.Carlspring.Strongbox.Metadata";
+        metadata.version = Version.parse("1.0.0");
+        metadata.authors = "carlspring";
+        metadata.description = "Strongbox Nuget package for tests";
+        metadata.dependencies = new Dependencies();
+        metadata.dependencies.dependencies = new ArrayList<>();
+        metadata.dependencies.dependencies.add(Dependency.parseString("Org.Carlspring.Strongbox.A:1.0.0"));
+        metadata.dependencies.dependencies.add(Dependency.parseString("Org.Carlspring.Strongbox.B:2.0.0"));
+
+        Map<String, String> artifactMetadata = new HashMap<>();
+        assertFalse(NugetPackageMetadata.hasNuspec(artifactMetadata));
+
+        NugetPackageMetadata.writeNuspec(nuspecFile, artifactMetadata);
+        assertTrue(NugetPackageMetadata.hasNuspec(artifactMetadata));
+
+        NuspecFile result = NugetPackageMetadata.readNuspec(new NugetArtifactCoordinates(metadata.id, "1.0.0", "nupkg"),
+                                                            artifactMetadata);
+
+        assertEquals(metadata.id, result.getMetadata().id);
+        assertEquals(metadata.id, result.getMetadata().title);
+        assertEquals(metadata.version, result.getMetadata().version);
+        assertEquals(metadata.authors, result.getMetadata().authors);
+        assertEquals(metadata.description, result.getMetadata().description);
+        assertNull(result.getMetadata().owners);
+        assertEquals(2, result.getMetadata().dependencies.dependencies.size());
+        assertEquals(metadata.dependencies.dependencies.get(1).toString(),
+                     result.getMetadata().dependencies.dependencies.get(1).toString());
+    }
+
+    @Test
+    public void testDependencyGroupsRoundTrip()
+        throws Exception
+    {
+        NuspecFile nuspecFile = new NuspecFile();
+        NuspecFile.Metadata metadata = nuspecFile.getMetadata();
+        metadata.id = "Org.Carlspring.Strongbox.Metadata";
+        metadata.version = Version.parse("1.0.0");
+        metadata.dependencies = new Dependencies();
+        metadata.dependencies.groups = new ArrayList<>();
+
+        DependenciesGroup net40 = new DependenciesGroup();
+        net40.setTargetFramework(EnumSet.of(Framework.net40));
+        net40.setDependencies(new ArrayList<>());
+        net40.getDependencies().add(Dependency.parseString("Org.Carlspring.Strongbox.A:1.0.0"));
+        metadata.dependencies.groups.add(net40);
+
+        DependenciesGroup net45 = new DependenciesGroup();
+        net45.setTargetFramework(EnumSet.of(Framework.net45));
+        net45.setDependencies(new ArrayList<>());
+        metadata.dependencies.groups.add(net45);
+
+        Map<String, String> artifactMetadata = new HashMap<>();
+        assertEquals(EnumSet.allOf(Framework.class), NugetPackageMetadata.readTargetFrameworks(artifactMetadata));
+
+        NugetPackageMetadata.writeNuspec(nuspecFile, artifactMetadata);
+
+        assertEquals(EnumSet.of(Framework.net40, Framework.net45),
+                     NugetPackageMetadata.readTargetFrameworks(artifactMetadata));
+
+        NuspecFile result = NugetPackageMetadata.readNuspec(new NugetArtifactCoordinates(metadata.id, "1.0.0", "nupkg"),
+                                                            artifactMetadata);
+
+        assertEquals(2, result.getMetadata().dependencies.groups.size());
+        assertEquals(EnumSet.of(Framework.net40), result.getMetadata().dependencies.groups.get(0).getTargetFramework());
+        assertEquals(net40.getDependencies().get(0).toString(),
+                     result.getMetadata().dependencies.groups.get(0).getDependencies().get(0).toString());
+        assertEquals(EnumSet.of(Framework.net45), result.getMetadata().dependencies.groups.get(1).getTargetFramework());
+        assertTrue(result.getMetadata().dependencies.groups.get(1).getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testPartialMetadataIsNotTakenForNuspec()
+    {
+        // The fields known from the remote feed only.
+        Map<String, String> artifactMetadata = new HashMap<>();
+        artifactMetadata.put(NugetPackageMetadata.TITLE, "Org.Carlspring.Strongbox.Metadata");
+        artifactMetadata.put(NugetPackageMetadata.DESCRIPTION, "Strongbox Nuget package for tests");
+
+        assertFalse(NugetPackageMetadata.hasNuspec(artifactMetadata));
+    }
+
+    @Test
+    public void testHashRoundTrip()
+        throws Exception
+    {
+        Map<String, String> artifactMetadata = new HashMap<>();
+        assertNull(NugetPackageMetadata.readHash(artifactMetadata));
+
+        byte[] hash = new byte[]{ 1, 2, 3, 4 };
+        NugetPackageMetadata.writeHash(hash, artifactMetadata);
+
+        // The hash is saved in the same Base64 form as the `.sha512` files.
+        ByteArrayOutputStream hashOutputStream = new ByteArrayOutputStream();
+        NugetPackageMetadata.readHash(artifactMetadata).saveTo(hashOutputStream);
+
+        assertArrayEquals(hash, Base64.getDecoder().decode(hashOutputStream.toString("UTF-8").trim()));
+    }
+
+}
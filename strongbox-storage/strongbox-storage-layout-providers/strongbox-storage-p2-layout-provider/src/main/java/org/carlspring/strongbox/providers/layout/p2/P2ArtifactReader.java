@@ -4,9 +4,15 @@ import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 import org.carlspring.strongbox.xml.parsers.GenericParser;
 
 import javax.xml.bind.JAXBException;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +26,11 @@ public class P2ArtifactReader
 
     private static final Logger logger = LoggerFactory.getLogger(P2ArtifactReader.class);
 
+    /**
+     * The parsed `artifacts.xml` files, by their absolute path.
+     */
+    private static final Map<Path, P2RepositoryMetadata> repositoryMetadataCache = new ConcurrentHashMap<>();
+
     /**
      * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
      *
@@ -31,25 +42,25 @@ public class P2ArtifactReader
                                                     String bundle)
             throws IOException
     {
-        GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
         try
         {
-            P2Repository p2Repository = repositoryParser.parse(createPath(repositoryBaseDir).toUri().toURL());
+            P2RepositoryMetadata repositoryMetadata = getRepositoryMetadata(createPath(repositoryBaseDir));
+
             final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
-            for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
+            P2Artifact p2Artifact = repositoryMetadata.artifacts.get(artifactToFind);
+            if (p2Artifact == null)
             {
-                P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
-                                                                                p2Artifact.getVersion(),
-                                                                                p2Artifact.getClassifier());
-                if (foundArtifact.equals(artifactToFind))
-                {
-                    addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
-                    String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository.getMappings(),
-                                                                                foundArtifact);
-                    foundArtifact.setFilename(bundleFilename);
-                    return foundArtifact;
-                }
+                return null;
             }
+
+            P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                            p2Artifact.getVersion(),
+                                                                            p2Artifact.getClassifier());
+            addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
+            String bundleFilename = P2ArtifactRuleProcessor.getFilename(repositoryMetadata.rules, foundArtifact);
+            foundArtifact.setFilename(bundleFilename);
+
+            return foundArtifact;
         }
         catch (JAXBException e)
         {
@@ -59,6 +70,34 @@ public class P2ArtifactReader
         return null;
     }
 
+    /**
+     * Returns the parsed `artifacts.xml`, which is only parsed again once the file has been modified.
+     */
+    private static P2RepositoryMetadata getRepositoryMetadata(Path artifactsPath)
+            throws IOException, JAXBException
+    {
+        Path key = artifactsPath.toAbsolutePath().normalize();
+        if (!Files.isRegularFile(key))
+        {
+            repositoryMetadataCache.remove(key);
+            throw new FileNotFoundException(key.toString());
+        }
+
+        long lastModified = Files.getLastModifiedTime(key).toMillis();
+
+        P2RepositoryMetadata repositoryMetadata = repositoryMetadataCache.get(key);
+        if (repositoryMetadata != null && repositoryMetadata.lastModified == lastModified)
+        {
+            return repositoryMetadata;
+        }
+
+        GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
+        repositoryMetadata = new P2RepositoryMetadata(repositoryParser.parse(key.toUri().toURL()), lastModified);
+        repositoryMetadataCache.put(key, repositoryMetadata);
+
+        return repositoryMetadata;
+    }
+
     private static void addProperties(P2ArtifactCoordinates foundArtifact,
                                       P2Artifact p2Artifact,
                                       String baseDir)
@@ -85,4 +124,36 @@ public class P2ArtifactReader
 
         return Paths.get(repositoryBaseDir).resolve(artifactsFilename);
     }
+
+    /**
+     * The artifacts of a P2 repository, indexed by their {id}/{version}/{classifier}, along with the compiled mapping
+     * rules.
+     */
+    private static class P2RepositoryMetadata
+    {
+
+        private final long lastModified;
+
+        private final Map<P2ArtifactCoordinates, P2Artifact> artifacts = new HashMap<>();
+
+        private final List<P2ArtifactRuleProcessor> rules;
+
+        P2RepositoryMetadata(P2Repository p2Repository,
+                             long lastModified)
+        {
+            this.lastModified = lastModified;
+
+            for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
+            {
+                artifacts.putIfAbsent(new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                p2Artifact.getVersion(),
+                                                                p2Artifact.getClassifier()),
+                                      p2Artifact);
+            }
+
+            rules = P2ArtifactRuleProcessor.compile(p2Repository.getMappings());
+        }
+
+    }
+
 }
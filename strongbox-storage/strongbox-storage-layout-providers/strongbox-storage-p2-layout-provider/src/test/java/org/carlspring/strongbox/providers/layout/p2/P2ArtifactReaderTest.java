@@ -6,6 +6,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -107,6 +112,41 @@ public class P2ArtifactReaderTest
         Assert.assertEquals(expectedFilename, foundArtifact.getFilename());
     }
 
+    @Test
+    public void testModifiedRepositoryIsReloaded()
+            throws URISyntaxException, IOException
+    {
+        Path repoDir = Files.createTempDirectory("p2-repository");
+        Path artifactsXml = repoDir.resolve("artifacts.xml");
+        Files.copy(Paths.get(getClass().getResource("artifacts.xml").toURI()), artifactsXml);
+
+        final String updatedVersion = "1.0.2";
+        final String updatedPath = String.format("%s/%s/%s", ID, updatedVersion, CLASSIFIER);
+        try
+        {
+            Assert.assertNotNull(P2ArtifactReader.getArtifact(repoDir.toString(), PATH));
+            Assert.assertNull(P2ArtifactReader.getArtifact(repoDir.toString(), updatedPath));
+
+            String content = new String(Files.readAllBytes(artifactsXml), StandardCharsets.UTF_8);
+            Files.write(artifactsXml,
+                        content.replace("id='com.carlspring.bundle' version='" + VERSION + "'",
+                                        "id='com.carlspring.bundle' version='" + updatedVersion + "'")
+                               .getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(artifactsXml,
+                                      FileTime.fromMillis(Files.getLastModifiedTime(artifactsXml).toMillis() + 1000));
+
+            Assert.assertNull(P2ArtifactReader.getArtifact(repoDir.toString(), PATH));
+            P2ArtifactCoordinates foundArtifact = P2ArtifactReader.getArtifact(repoDir.toString(), updatedPath);
+            Assert.assertNotNull(foundArtifact);
+            Assert.assertEquals(updatedVersion, foundArtifact.getVersion());
+        }
+        finally
+        {
+            Files.delete(artifactsXml);
+            Files.delete(repoDir);
+        }
+    }
+
     private P2ArtifactCoordinates getArtifact()
             throws URISyntaxException, IOException
     {
@@ -7,9 +7,11 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.DirectoryListingCache;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,6 +34,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * REST API for browsing storage/repository/filesystem structures.
@@ -48,12 +51,19 @@ public class BrowseController extends BaseArtifactController
     // must be the same as @RequestMapping value on the class definition
     public final static String ROOT_CONTEXT = "/api/browse";
 
+    static final String DEFAULT_LIMIT = "1000";
+
+    static final int MAX_LIMIT = 10000;
+
     @Inject
     private ObjectMapper objectMapper;
 
     @Inject
     private ArtifactResolutionService artifactResolutionService;
 
+    @Inject
+    private DirectoryListingCache directoryListingCache;
+
     @ApiOperation(value = "List configured storages.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The list was returned."),
                             @ApiResponse(code = 500, message = "An error occurred.") })
@@ -146,7 +156,12 @@ public class BrowseController extends BaseArtifactController
                                     @PathVariable("repositoryId") String repositoryId,
                                     @ApiParam(value = "The repository path", required = false)
                                     @PathVariable("path") String rawPath,
+                                    @ApiParam(value = "The cursor of the page to list, as returned with the previous page")
+                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                    @ApiParam(value = "The maximum number of entries to list")
+                                    @RequestParam(name = "limit", required = false, defaultValue = DEFAULT_LIMIT) int limit,
                                     HttpServletRequest request,
+                                    HttpServletResponse response,
                                     ModelMap model,
                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader)
     {
@@ -182,12 +197,22 @@ public class BrowseController extends BaseArtifactController
                 return getNotFoundResponseEntity("Requested repository doesn't allow browsing.", acceptHeader);
             }
 
+            if (limit <= 0)
+            {
+                return getBadRequestResponseEntity("The limit must be a positive number.", acceptHeader);
+            }
+
             Path vaultPath = Paths.get(PropertyUtils.getVaultDirectory());
-            DirectoryListing directoryListing = DirectoryListing.fromPath(vaultPath, repositoryPath);
+            DirectoryListing directoryListing = directoryListingCache.get(vaultPath, repositoryPath)
+                                                                     .page(cursor, Math.min(limit, MAX_LIMIT));
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
-                return ResponseEntity.ok(objectMapper.writer().writeValueAsString(directoryListing));
+                // The page is serialized right into the response, rather than into an intermediate String.
+                response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+                objectMapper.writer().writeValue(response.getOutputStream(), directoryListing);
+
+                return new ResponseEntity<>(HttpStatus.OK);
             }
 
             String currentUrl = StringUtils.chomp(request.getRequestURI(), "/");
@@ -197,9 +222,22 @@ public class BrowseController extends BaseArtifactController
             model.addAttribute("downloadBaseUrl", downloadBaseUrl);
             model.addAttribute("directories", directoryListing.getDirectories());
             model.addAttribute("files", directoryListing.getFiles());
+            if (directoryListing.getNextCursor() != null)
+            {
+                model.addAttribute("nextPageUrl", UriComponentsBuilder.fromPath(currentUrl + "/")
+                                                                      .queryParam("cursor", directoryListing.getNextCursor())
+                                                                      .queryParam("limit", limit)
+                                                                      .build()
+                                                                      .encode()
+                                                                      .toUriString());
+            }
 
             return new ModelAndView("directoryListing", model);
         }
+        catch (IllegalArgumentException e)
+        {
+            return getBadRequestResponseEntity(e.getMessage(), acceptHeader);
+        }
         catch (Exception e)
         {
             String message = "Failed to generate repository directory listing.";
@@ -0,0 +1,66 @@
+package org.carlspring.strongbox.controllers.environment;
+
+import org.carlspring.strongbox.booters.StorageBooter;
+import org.carlspring.strongbox.controllers.BaseController;
+
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports whether the repositories have been initialized, so that the traffic can be held back until they are (see
+ * {@link StorageBooter#PROPERTY_ASYNC}).
+ */
+@RestController
+@RequestMapping("/api/ready")
+@Api("/api/ready")
+public class ReadinessController
+        extends BaseController
+{
+
+    @Inject
+    private StorageBooter storageBooter;
+
+    @ApiOperation(value = "Report the progress of the repositories initialization.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "All the repositories have been initialized."),
+                            @ApiResponse(code = 503, message = "The repositories are still being initialized."),
+                            @ApiResponse(code = 500, message = "The repositories initialization failed.") })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getReadiness()
+    {
+        Map<String, Object> readiness = new LinkedHashMap<>();
+        readiness.put("ready", storageBooter.isInitialized());
+        readiness.put("repositories", storageBooter.getRepositoriesTotal());
+        readiness.put("initialized", storageBooter.getRepositoriesInitialized());
+        readiness.put("failed", storageBooter.getRepositoriesFailed());
+        readiness.put("skipped", storageBooter.getRepositoriesSkipped());
+
+        HttpStatus status;
+        if (storageBooter.isInitialized())
+        {
+            status = HttpStatus.OK;
+        }
+        else if (storageBooter.isInitializationFailed())
+        {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        else
+        {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        }
+
+        return ResponseEntity.status(status).body(readiness);
+    }
+
+}
@@ -2,19 +2,23 @@ package org.carlspring.strongbox.controllers.maven;
 
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.repository.IndexedMavenRepositoryFeatures;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Optional;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.apache.maven.index.context.IndexingContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -48,6 +52,11 @@ public class MavenArtifactController
     // must be the same as @RequestMapping value on the class definition
     public final static String ROOT_CONTEXT = "/storages";
 
+    private static final String FULL_INDEX_PATH = ".index/local/" + IndexingContext.INDEX_FILE_PREFIX + ".gz";
+
+    @Inject
+    private Optional<IndexedMavenRepositoryFeatures> indexedMavenRepositoryFeatures;
+
     @PreAuthorize("authenticated")
     @RequestMapping(value = "greet", method = RequestMethod.GET)
     public ResponseEntity greet()
@@ -272,6 +281,14 @@ public class MavenArtifactController
             throws Exception
     {
         String path = correctIndexPathIfNecessary(requestedPath);
+        if (FULL_INDEX_PATH.equals(path) && indexedMavenRepositoryFeatures.isPresent() &&
+            indexedMavenRepositoryFeatures.get().isIndexingEnabled(repository))
+        {
+            // Only the incremental chunks are packed as the index changes, so the full index is caught up on demand.
+            indexedMavenRepositoryFeatures.get().packFullIfStale(repository.getStorage().getId(),
+                                                                 repository.getId());
+        }
+
         return super.provideArtifactDownloadResponse(request, response, httpHeaders, repository, path);
     }
 
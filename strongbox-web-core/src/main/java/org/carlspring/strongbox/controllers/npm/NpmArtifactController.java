@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.controllers.npm;
 
+import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.npm.metadata.Package;
@@ -8,28 +9,31 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.ArtifactStreamWriter;
+import org.carlspring.strongbox.storage.metadata.NpmPackumentManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.net.URI;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -37,15 +41,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.io.IOUtils;
-import org.javatuples.Pair;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.javatuples.Triplet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.Assert;
@@ -76,12 +78,20 @@ public class NpmArtifactController extends BaseArtifactController
 
     public final static String ROOT_CONTEXT = "/storages";
 
+    /**
+     * Matches the {@code [@scope/]name} requests for the package metadata, as opposed to the package file requests.
+     */
+    private static final Pattern PACKAGE_NAME_PATTERN = Pattern.compile("(@[^/@]+/)?[^/@.][^/]*");
+
     @Inject
     private ArtifactManagementService npmArtifactManagementService;
 
     @Inject
     private NpmLayoutProvider npmLayoutProvider;
 
+    @Inject
+    private NpmPackumentManager npmPackumentManager;
+
     @Inject
     @Qualifier("npmJackasonMapper")
     private ObjectMapper npmJackasonMapper;
@@ -97,11 +107,89 @@ public class NpmArtifactController extends BaseArtifactController
         throws Exception
     {
         Repository repository = getRepository(storageId, repositoryId);
+
+        String packageName = resource.replace("%2f", "/").replace("%2F", "/");
+        if (PACKAGE_NAME_PATTERN.matcher(packageName).matches())
+        {
+            providePackumentResponse(repository, packageName, httpHeaders, request, response);
+
+            return;
+        }
+
         RepositoryPath path = npmLayoutProvider.resolve(repository, URI.create(resource));
         
         provideArtifactDownloadResponse(request, response, httpHeaders, repository, RepositoryFiles.stringValue(path));
     }
 
+    /**
+     * Serves the pre-rendered packument of the package, the abbreviated one if the client asks for it.
+     */
+    private void providePackumentResponse(Repository repository,
+                                          String packageName,
+                                          HttpHeaders httpHeaders,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response)
+        throws IOException
+    {
+        String packageBasePath = packageName.contains("/") ? packageName : packageName + "/" + packageName;
+        boolean abbreviated = httpHeaders.getAccept()
+                                         .stream()
+                                         .anyMatch(m -> NpmPackumentManager.ABBREVIATED_PACKUMENT_MEDIA_TYPE.equals(
+                                                 m.getType() + "/" + m.getSubtype()));
+
+        RepositoryPath packumentPath = npmPackumentManager.resolvePackument(npmLayoutProvider.resolve(repository)
+                                                                                             .resolve(packageBasePath),
+                                                                            abbreviated);
+        if (!Files.exists(packumentPath))
+        {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(packumentPath.getTarget(), BasicFileAttributes.class);
+        String etag = String.format("\"%x-%x%s\"", attributes.lastModifiedTime().toMillis(), attributes.size(),
+                                    abbreviated ? "-install-v1" : "");
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, "Accept, Accept-Encoding");
+        response.setContentType(abbreviated ? NpmPackumentManager.ABBREVIATED_PACKUMENT_MEDIA_TYPE :
+                                MediaType.APPLICATION_JSON);
+        response.setCharacterEncoding("UTF-8");
+
+        if (httpHeaders.getIfNoneMatch().contains(etag))
+        {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+
+            return;
+        }
+
+        boolean gzip = Optional.ofNullable(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                               .map(e -> e.contains("gzip"))
+                               .orElse(false);
+        if (!gzip)
+        {
+            response.setContentLengthLong(attributes.size());
+        }
+        if (request.getMethod().equals(RequestMethod.HEAD.name()))
+        {
+            return;
+        }
+
+        if (gzip)
+        {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (OutputStream os = new GZIPOutputStream(response.getOutputStream()))
+            {
+                Files.copy(packumentPath.getTarget(), os);
+            }
+
+            return;
+        }
+
+        Files.copy(packumentPath.getTarget(), response.getOutputStream());
+    }
+
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     @RequestMapping(path = "{storageId}/{repositoryId}/{name:.+}", method = RequestMethod.PUT, consumes = MediaType.APPLICATION_JSON)
     public ResponseEntity publish(@PathVariable(name = "storageId") String storageId,
@@ -112,33 +200,31 @@ public class NpmArtifactController extends BaseArtifactController
     {
         logger.info(String.format("npm publish request for [%s]/[%s]/[%s]", storageId,
                                   repositoryId, name));
-        Pair<Package, Path> packageEntry;
+        Repository repository = getRepository(storageId, repositoryId);
+
+        Triplet<Package, byte[], String> packageEntry;
         try
         {
-            packageEntry = extractPackage(storageId, repositoryId, name,
-                                          request.getInputStream());
+            packageEntry = extractPackage(repository, name, request.getInputStream());
         }
-        catch (IllegalArgumentException e)
+        catch (IllegalArgumentException | InvalidPackageException e)
         {
             logger.error("Failed to extract npm package data", e);
             return ResponseEntity.badRequest().build();
         }
 
         Package packageJson = packageEntry.getValue0();
-        Path packageTgz = packageEntry.getValue1();
-
-        Repository repository = getRepository(storageId, repositoryId);
         NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, packageJson.getVersion());
 
-        storeNpmPackage(repository, coordinates, packageJson, packageTgz);
+        storePackageFiles(repository, coordinates, packageEntry.getValue1(), packageEntry.getValue2());
 
         return ResponseEntity.ok("");
     }
 
-    private void storeNpmPackage(Repository repository,
-                                 NpmArtifactCoordinates coordinates,
-                                 Package packageDef,
-                                 Path packageTgzTmp)
+    private void storePackageFiles(Repository repository,
+                                   NpmArtifactCoordinates coordinates,
+                                   byte[] packageJsonSource,
+                                   String packageShasum)
             throws IOException,
                    ProviderImplementationException,
                    NoSuchAlgorithmException,
@@ -146,56 +232,44 @@ public class NpmArtifactController extends BaseArtifactController
     {
         RepositoryPath repositoryPath = npmLayoutProvider.resolve(repository, coordinates);
 
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
+        if (packageJsonSource != null)
         {
-            npmArtifactManagementService.validateAndStore(repository.getStorage().getId(), repository.getId(),
-                                                          coordinates.toPath(), is);
-        }
-
-        Path packageJsonTmp = extractPackageJson(packageTgzTmp);
-        String packageJsonPath = repositoryPath.resolveSibling("package.json")
-                                               .relativize()
-                                               .toString();
+            String packageJsonPath = repositoryPath.resolveSibling("package.json")
+                                                   .relativize()
+                                                   .toString();
 
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
-        {
             npmArtifactManagementService.validateAndStore(repository.getStorage().getId(), repository.getId(),
-                                                          packageJsonPath, is);
-        }
-
-        String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
-        if (shasum == null)
-        {
-            logger.warn(String.format("No checksum provided for package [%s]", packageDef.getName()));
-            return;
+                                                          packageJsonPath, new ByteArrayInputStream(packageJsonSource));
         }
 
         String packageFileName = repositoryPath.getFileName().toString();
         RepositoryPath checksumPath = repositoryPath.resolveSibling(packageFileName + ".sha1");
         npmArtifactManagementService.validateAndStore(repository.getStorage().getId(), repository.getId(),
                                                       checksumPath.relativize().toString(),
-                                                      new ByteArrayInputStream(shasum.getBytes("UTF-8")));
-
-        Files.delete(packageTgzTmp);
-        Files.delete(packageJsonTmp);
+                                                      new ByteArrayInputStream(packageShasum.getBytes("UTF-8")));
     }
 
-    private Pair<Package, Path> extractPackage(String storageId,
-                                               String repositoryId,
-                                               String packageName,
-                                               ServletInputStream in)
-        throws IOException
+    /**
+     * Parses the publish request body in a single pass: the package attachment is base64-decoded straight into the
+     * temporary path of the package in the repository, while its SHA-1 is computed and its package.json is picked out
+     * of the tarball. The version has to precede the attachment, as it does in the requests of the npm client, so that
+     * the package path is known when the attachment is reached.
+     *
+     * @return the package.json of the version, the package.json source of the tarball and the SHA-1 of the tarball
+     */
+    private Triplet<Package, byte[], String> extractPackage(Repository repository,
+                                                            String packageName,
+                                                            ServletInputStream in)
+        throws IOException,
+               ProviderImplementationException,
+               ArtifactCoordinatesValidationException
     {
-        Path packageSourceTmp = Files.createTempFile("package", "source");
-        Files.copy(in, packageSourceTmp, StandardCopyOption.REPLACE_EXISTING);
-
         Package packageJson = null;
-        Path packageTgzPath = null;
+        PackageAttachmentWriter packageTgz = null;
 
         JsonFactory jfactory = new JsonFactory();
-        try (InputStream tmpIn = new BufferedInputStream(Files.newInputStream(packageSourceTmp)))
+        try (JsonParser jp = jfactory.createParser(in))
         {
-            JsonParser jp = jfactory.createParser(tmpIn);
             jp.setCodec(npmJackasonMapper);
 
             Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm package source should be JSON object.");
@@ -216,10 +290,13 @@ public class NpmArtifactController extends BaseArtifactController
                         Assert.isTrue(node.size() == 1, "npm package source should contain only one version.");
 
                         JsonNode packageJsonNode = node.iterator().next();
-                        packageJson = extractPackageJson(packageName, packageJsonNode.toString());
+                        packageJson = extractPackageJson(packageName, packageJsonNode);
 
                         break;
                     case FIELD_NAME_ATTACHMENTS:
+                        Assert.notNull(packageJson,
+                                       String.format("Failed to parse npm package source for [%s], the version " +
+                                                     "should precede the attachment.", packageName));
                         Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT,
                                       String.format(
                                               "Failed to parse npm package source for illegal type [%s] of attachment.",
@@ -229,7 +306,15 @@ public class NpmArtifactController extends BaseArtifactController
                         logger.info(String.format("Found npm package attachment [%s]", packageAttachmentName));
 
                         moveToAttachment(jp, packageAttachmentName);
-                        packageTgzPath = extractPackage(jp);
+
+                        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(packageName,
+                                                                                       packageJson.getVersion());
+                        RepositoryPath repositoryPath = npmLayoutProvider.resolve(repository, coordinates);
+                        try (PackageAttachmentWriter writer = new PackageAttachmentWriter(jp, packageJson))
+                        {
+                            npmArtifactManagementService.validateAndStore(repositoryPath, writer);
+                            packageTgz = writer;
+                        }
 
                         jp.nextToken();
                         jp.nextToken();
@@ -239,50 +324,13 @@ public class NpmArtifactController extends BaseArtifactController
             }
         }
 
-        Files.delete(packageSourceTmp);
-
-        if (packageJson == null || packageTgzPath == null)
+        if (packageJson == null || packageTgz == null)
         {
             throw new IllegalArgumentException(
                     String.format("Failed to parse npm package source for [%s], attachment not found", packageName));
         }
 
-        return Pair.with(packageJson, packageTgzPath);
-    }
-
-    private Path extractPackage(JsonParser jp)
-        throws IOException
-    {
-        Path packageTgzTmp = Files.createTempFile("package", "tgz");
-        try (OutputStream packageTgzOut = new BufferedOutputStream(Files.newOutputStream(packageTgzTmp,
-                                                                                         StandardOpenOption.TRUNCATE_EXISTING)))
-        {
-            jp.readBinaryValue(packageTgzOut);
-        }
-
-        long packageSize = Files.size(packageTgzTmp);
-
-        Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
-        jp.nextToken();
-
-        Assert.isTrue(packageSize == jp.getLongValue(), "Invalid package content length.");
-        jp.nextToken();
-
-        return packageTgzTmp;
-    }
-
-    private Path extractPackageJson(Path packageTgzTmp)
-        throws IOException
-    {
-        String packageJsonSource;
-        try (InputStream packageTgzIn = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
-        {
-            packageJsonSource = extrectPackageJson(packageTgzIn);
-        }
-        Path packageJsonTmp = Files.createTempFile("package", "json");
-        Files.write(packageJsonTmp, packageJsonSource.getBytes("UTF-8"), StandardOpenOption.TRUNCATE_EXISTING);
-
-        return packageJsonTmp;
+        return Triplet.with(packageJson, packageTgz.getPackageJsonSource(), packageTgz.getShasum());
     }
 
     private void moveToAttachment(JsonParser jp,
@@ -308,13 +356,13 @@ public class NpmArtifactController extends BaseArtifactController
     }
 
     private Package extractPackageJson(String packageName,
-                                       String packageJsonSource)
+                                       JsonNode packageJsonNode)
         throws IOException
     {
         Package packageJson;
         try
         {
-            packageJson = npmJackasonMapper.readValue(packageJsonSource, Package.class);
+            packageJson = npmJackasonMapper.treeToValue(packageJsonNode, Package.class);
         }
         catch (JsonProcessingException e)
         {
@@ -327,25 +375,102 @@ public class NpmArtifactController extends BaseArtifactController
         return packageJson;
     }
 
-    private String extrectPackageJson(InputStream in)
-        throws IOException
+    /**
+     * Writes the base64-decoded package attachment, computing its SHA-1 and picking its package.json on the way, and
+     * rejects it if it doesn't match the length given in the request or the shasum of the published version.
+     */
+    private static class PackageAttachmentWriter
+            implements ArtifactStreamWriter, Closeable
     {
-        GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(in);
-        try (TarArchiveInputStream tarIn = new TarArchiveInputStream(gzipIn))
+
+        private final JsonParser jp;
+
+        private final Package packageJson;
+
+        private final PackageJsonExtractingOutputStream packageJsonOut = new PackageJsonExtractingOutputStream();
+
+        private String shasum;
+
+        PackageAttachmentWriter(JsonParser jp,
+                                Package packageJson)
         {
-            TarArchiveEntry entry;
+            this.jp = jp;
+            this.packageJson = packageJson;
+        }
 
-            while ((entry = (TarArchiveEntry) tarIn.getNextEntry()) != null)
+        @Override
+        public long write(OutputStream os)
+            throws IOException
+        {
+            MessageDigest sha1Digest;
+            try
             {
-                if (!entry.getName().endsWith("package.json"))
-                {
-                    continue;
-                }
-                StringWriter writer = new StringWriter();
-                IOUtils.copy(tarIn, writer, "UTF-8");
-                return writer.toString();
+                sha1Digest = MessageDigest.getInstance(EncryptionAlgorithmsEnum.SHA1.getAlgorithm());
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                throw new IOException(e);
+            }
+
+            OutputStream packageTgzOut = new BufferedOutputStream(
+                    new DigestOutputStream(new TeeOutputStream(os, packageJsonOut), sha1Digest));
+            long packageSize = jp.readBinaryValue(packageTgzOut);
+            packageTgzOut.flush();
+
+            shasum = MessageDigestUtils.convertToHexadecimalString(sha1Digest);
+
+            if (!FIELD_NAME_LENGTH.equals(jp.nextFieldName()))
+            {
+                throw new InvalidPackageException("Failed to validate package content length.");
             }
-            return null;
+            jp.nextToken();
+
+            if (packageSize != jp.getLongValue())
+            {
+                throw new InvalidPackageException("Invalid package content length.");
+            }
+            jp.nextToken();
+
+            String expectedShasum = Optional.ofNullable(packageJson.getDist()).map(p -> p.getShasum()).orElse(null);
+            if (expectedShasum != null && !expectedShasum.equalsIgnoreCase(shasum))
+            {
+                throw new InvalidPackageException(String.format("Checksum [%s] provided for package [%s] does not match [%s]",
+                                                                expectedShasum, packageJson.getName(), shasum));
+            }
+
+            return packageSize;
         }
+
+        public byte[] getPackageJsonSource()
+        {
+            return packageJsonOut.getPackageJson();
+        }
+
+        public String getShasum()
+        {
+            return shasum;
+        }
+
+        @Override
+        public void close()
+        {
+            packageJsonOut.close();
+        }
+
+    }
+
+    /**
+     * The package attachment doesn't match its description in the publish request.
+     */
+    private static class InvalidPackageException
+            extends IOException
+    {
+
+        InvalidPackageException(String message)
+        {
+            super(message);
+        }
+
     }
+
 }
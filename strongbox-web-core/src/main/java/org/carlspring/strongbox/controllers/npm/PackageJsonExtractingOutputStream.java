@@ -0,0 +1,330 @@
+package org.carlspring.strongbox.controllers.npm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Picks the top level {@code package.json} out of an npm package tarball which is written through it, so that it's
+ * available as soon as the tarball has been written, without reading the tarball again. The gzip stream is inflated
+ * and the tar entries are walked as the bytes arrive; the rest of the tarball is ignored once the {@code package.json}
+ * has been read.
+ */
+class PackageJsonExtractingOutputStream
+        extends OutputStream
+{
+
+    private static final String PACKAGE_JSON = "package.json";
+
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    private static final int GZIP_HEADER_SIZE = 10;
+
+    private static final int GZIP_FHCRC = 2;
+
+    private static final int GZIP_FEXTRA = 4;
+
+    private static final int GZIP_FNAME = 8;
+
+    private static final int GZIP_FCOMMENT = 16;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] inflated = new byte[8192];
+
+    private ByteArrayOutputStream gzipHeader = new ByteArrayOutputStream();
+
+    private final byte[] tarHeader = new byte[TAR_BLOCK_SIZE];
+
+    private int tarHeaderLength;
+
+    private long entryRemaining;
+
+    private long paddingRemaining;
+
+    private ByteArrayOutputStream packageJson;
+
+    private byte[] packageJsonSource;
+
+    private boolean done;
+
+    /**
+     * @return the {@code package.json} source, or {@code null} if the tarball has none
+     */
+    public byte[] getPackageJson()
+    {
+        return packageJsonSource;
+    }
+
+    @Override
+    public void write(int b)
+            throws IOException
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+            throws IOException
+    {
+        if (done || len == 0)
+        {
+            return;
+        }
+
+        if (gzipHeader != null)
+        {
+            gzipHeader.write(b, off, len);
+
+            byte[] header = gzipHeader.toByteArray();
+            int headerLength = readGzipHeaderLength(header);
+            if (headerLength < 0)
+            {
+                return;
+            }
+            gzipHeader = null;
+
+            inflate(header, headerLength, header.length - headerLength);
+
+            return;
+        }
+
+        inflate(b, off, len);
+    }
+
+    @Override
+    public void close()
+    {
+        inflater.end();
+    }
+
+    private void inflate(byte[] b,
+                         int off,
+                         int len)
+            throws IOException
+    {
+        inflater.setInput(b, off, len);
+        try
+        {
+            int inflatedLength;
+            while (!done && (inflatedLength = inflater.inflate(inflated)) > 0)
+            {
+                untar(inflated, inflatedLength);
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Failed to inflate the npm package tarball.", e);
+        }
+
+        done |= inflater.finished();
+    }
+
+    private void untar(byte[] b,
+                       int len)
+    {
+        int pos = 0;
+        while (pos < len && !done)
+        {
+            int remaining = len - pos;
+            if (entryRemaining > 0)
+            {
+                int n = (int) Math.min(entryRemaining, remaining);
+                if (packageJson != null)
+                {
+                    packageJson.write(b, pos, n);
+                }
+                entryRemaining -= n;
+                pos += n;
+
+                if (entryRemaining == 0 && packageJson != null)
+                {
+                    packageJsonSource = packageJson.toByteArray();
+                    done = true;
+                }
+            }
+            else if (paddingRemaining > 0)
+            {
+                int n = (int) Math.min(paddingRemaining, remaining);
+                paddingRemaining -= n;
+                pos += n;
+            }
+            else
+            {
+                int n = Math.min(TAR_BLOCK_SIZE - tarHeaderLength, remaining);
+                System.arraycopy(b, pos, tarHeader, tarHeaderLength, n);
+                tarHeaderLength += n;
+                pos += n;
+
+                if (tarHeaderLength == TAR_BLOCK_SIZE)
+                {
+                    tarHeaderLength = 0;
+                    readTarHeader();
+                }
+            }
+        }
+    }
+
+    private void readTarHeader()
+    {
+        if (tarHeader[0] == 0)
+        {
+            // The end of the archive.
+            done = true;
+            return;
+        }
+
+        long size = readTarSize();
+        entryRemaining = size;
+        paddingRemaining = (TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+
+        byte type = tarHeader[156];
+        if ((type != '0' && type != 0) || !isPackageJson(readTarName()))
+        {
+            return;
+        }
+
+        if (size == 0)
+        {
+            packageJsonSource = new byte[0];
+            done = true;
+            return;
+        }
+        packageJson = new ByteArrayOutputStream((int) Math.min(size, Integer.MAX_VALUE));
+    }
+
+    private String readTarName()
+    {
+        String name = readTarString(0, 100);
+        if ("ustar".equals(readTarString(257, 5)))
+        {
+            String prefix = readTarString(345, 155);
+            if (!prefix.isEmpty())
+            {
+                name = prefix + "/" + name;
+            }
+        }
+
+        return name;
+    }
+
+    private String readTarString(int offset,
+                                 int length)
+    {
+        int end = offset;
+        while (end < offset + length && tarHeader[end] != 0)
+        {
+            end++;
+        }
+
+        return new String(tarHeader, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private long readTarSize()
+    {
+        int offset = 124;
+        int length = 12;
+
+        long size = 0;
+        if ((tarHeader[offset] & 0x80) != 0)
+        {
+            // The base-256 encoding of the sizes which don't fit in the octal field.
+            for (int i = offset + 1; i < offset + length; i++)
+            {
+                size = (size << 8) | (tarHeader[i] & 0xff);
+            }
+
+            return size;
+        }
+
+        for (int i = offset; i < offset + length; i++)
+        {
+            byte digit = tarHeader[i];
+            if (digit >= '0' && digit <= '7')
+            {
+                size = (size << 3) + (digit - '0');
+            }
+            else if (digit != ' ' || size > 0)
+            {
+                break;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * The package content is usually kept in a single top level directory, named {@code package}.
+     */
+    private static boolean isPackageJson(String name)
+    {
+        if (name.startsWith("./"))
+        {
+            name = name.substring(2);
+        }
+
+        return PACKAGE_JSON.equals(name.substring(name.indexOf('/') + 1));
+    }
+
+    /**
+     * @return the length of the gzip header, or -1 if it hasn't been written completely yet
+     */
+    private static int readGzipHeaderLength(byte[] header)
+            throws IOException
+    {
+        if (header.length < GZIP_HEADER_SIZE)
+        {
+            return -1;
+        }
+        if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != Deflater.DEFLATED)
+        {
+            throw new IOException("The npm package is not in the gzip format.");
+        }
+
+        int flags = header[3] & 0xff;
+        int pos = GZIP_HEADER_SIZE;
+        if ((flags & GZIP_FEXTRA) != 0)
+        {
+            if (header.length < pos + 2)
+            {
+                return -1;
+            }
+            pos += 2 + ((header[pos] & 0xff) | ((header[pos + 1] & 0xff) << 8));
+        }
+        if ((flags & GZIP_FNAME) != 0)
+        {
+            pos = skipZeroTerminated(header, pos);
+        }
+        if (pos >= 0 && (flags & GZIP_FCOMMENT) != 0)
+        {
+            pos = skipZeroTerminated(header, pos);
+        }
+        if (pos >= 0 && (flags & GZIP_FHCRC) != 0)
+        {
+            pos += 2;
+        }
+
+        return pos >= 0 && pos <= header.length ? pos : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] header,
+                                          int pos)
+    {
+        for (int i = pos; i < header.length; i++)
+        {
+            if (header[i] == 0)
+            {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+}
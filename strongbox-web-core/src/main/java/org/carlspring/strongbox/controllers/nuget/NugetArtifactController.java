@@ -24,36 +24,48 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.fileupload.MultipartStream;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.RequestContext;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,9 +83,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.aristar.jnuget.files.Hash;
 import ru.aristar.jnuget.files.NugetFormatException;
-import ru.aristar.jnuget.files.Nupkg;
-import ru.aristar.jnuget.files.TempNupkgFile;
+import ru.aristar.jnuget.files.nuspec.NuspecFile;
 import ru.aristar.jnuget.rss.EntryProperties;
 import ru.aristar.jnuget.rss.PackageDownloadCountComparator;
 import ru.aristar.jnuget.rss.PackageEntry;
@@ -97,6 +109,20 @@ public class NugetArtifactController extends BaseArtifactController
 
     public final static String ROOT_CONTEXT = "/storages";
 
+    private static final byte[] BOUNDARY_PREFIX_TO_FIX = { 0x00, 0x0A, 0x2D, 0x2D };
+
+    private static final byte[] BOUNDARY_PREFIX_TARGET = { 0x00, 0x0D, 0x0A, 0x2D, 0x2D };
+
+    /**
+     * The amount of the package bytes, preceding the `.nuspec` entry, which are kept in memory during push.
+     */
+    private static final int PACKAGE_HEAD_THRESHOLD = 1024 * 1024;
+
+    /**
+     * The amount of the feed entries, which are fetched from the database at once.
+     */
+    private static final int FEED_PAGE_SIZE = 100;
+
     @Inject
     private ArtifactManagementService nugetArtifactManagementService;
 
@@ -191,60 +217,63 @@ public class NugetArtifactController extends BaseArtifactController
                                    storageId,
                                    repositoryId);
 
-        Collection<? extends Nupkg> files;
-        try
-        {
-            files = getPackages(storageId,
-                                repositoryId,
-                                filter,
-                                orderBy,
-                                normalizedSearchTerm,
-                                targetFramework,
-                                skip,
-                                top);
-        }
-        catch (NugetFormatException e)
-        {
-            return ResponseEntity.badRequest().build();
-        }
+        Repository repository = getRepository(storageId, repositoryId);
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
-        PackageFeed feed = transform(feedId, files);
+        Paginator paginator = new Paginator();
+        paginator.setSkip(skip);
+        paginator.setOrderBy(orderBy);
 
-        response.setHeader("content-type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        Predicate predicate = createSearchPredicate(filter, normalizedSearchTerm);
+
+        writeFeed(response, feedId,
+                  new PackageEntryPageIterator(feedId, storageId, repositoryId, provider, paginator, predicate,
+                                               getFeedLimit(top)));
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
-    
-    private PackageFeed transform(String feedId,
-                                  Collection<? extends Nupkg> files)
+
+    /**
+     * @return the number of the feed entries requested by {@code $top}, which is capped at
+     * {@link Paginator#MAX_LIMIT}; {@code $top=0} requests no entries at all
+     */
+    static int getFeedLimit(Integer top)
+    {
+        if (top == null || top < 0)
+        {
+            return Paginator.MAX_LIMIT;
+        }
+
+        return Math.min(top, Paginator.MAX_LIMIT);
+    }
+
+    private void writeFeed(HttpServletResponse response,
+                           String feedId,
+                           PackageEntryPageIterator pages)
+        throws JAXBException,
+               IOException
     {
         PackageFeed feed = new PackageFeed();
-        // feed.setId(getContext().getRootUri().toString());
         feed.setId(feedId);
         feed.setUpdated(new Date());
         feed.setTitle("Packages");
-        List<PackageEntry> packageEntrys = new ArrayList<>();
-        for (Nupkg nupkg : files)
+
+        response.setHeader("content-type", MediaType.APPLICATION_XML);
+        try
         {
-            try
-            {
-                PackageEntry entry = createPackageEntry(feedId, (PathNupkg) nupkg);
-                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties());
-                packageEntrys.add(entry);
-            }
-            catch (NoSuchAlgorithmException | IOException | NugetFormatException e)
-            {
-                logger.error("Failed to parse package " + nupkg, e);
-            }
+            new PackageFeedWriter(pages).write(feed, response.getOutputStream());
+        }
+        catch (XMLStreamException e)
+        {
+            throw new IOException(e);
         }
-        logger.debug("Got {} packages", new Object[] { packageEntrys.size() });
-        feed.setEntries(packageEntrys);
-        return feed;
-    }
 
+        logger.debug("Got {} packages", new Object[] { pages.getCount() });
+    }
+    
     private void calculateFeedEntryProperties(PathNupkg nupkg,
-                                              EntryProperties properties)
+                                              EntryProperties properties,
+                                              ArtifactTag lastVersionTag)
     {
         RepositoryPath path = nupkg.getPath();
         ArtifactEntry artifactEntry = path.getArtifactEntry();
@@ -262,7 +291,6 @@ public class NugetArtifactController extends BaseArtifactController
         properties.setRating(Double.valueOf(0));
         properties.setVersionRating(Double.valueOf(0));
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         if (artifactEntry.getTagSet().contains(lastVersionTag))
         {
             properties.setIsLatestVersion(true);
@@ -326,63 +354,46 @@ public class NugetArtifactController extends BaseArtifactController
 
         Predicate predicate = Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.id", normalisedPackageId));
 
-        Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
-
         String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
                                    storageId,
                                    repositoryId);
 
-        PackageFeed feed = transform(feedId, files);
-
-        response.setHeader("Content-Type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        // All the versions of the package are listed, however many there are.
+        writeFeed(response, feedId,
+                  new PackageEntryPageIterator(feedId, storageId, repositoryId, provider, paginator, predicate,
+                                               Integer.MAX_VALUE));
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    public Collection<? extends Nupkg> getPackages(String storageId,
-                                                   String repositoryId,
-                                                   String filter,
-                                                   String orderBy,
-                                                   String searchTerm,
-                                                   String targetFramework,
-                                                   Integer skip,
-                                                   Integer top)
-        throws NugetFormatException
+    private PathNupkg toPathNupkg(Path path)
     {
-        Repository repository = getRepository(storageId, repositoryId);
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
-        
-        Paginator paginator = new Paginator();
-        paginator.setSkip(skip);
-        paginator.setLimit(top);
-        paginator.setOrderBy(orderBy);
-        
-        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
-        
-        return searchNupkg(storageId, repositoryId, provider, paginator, rootPredicate);
+        try
+        {
+            return new PathNupkg((RepositoryPath) path);
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to resolve Nuget package path [%s]", path), e);
+            return null;
+        }
     }
 
-    private List<PathNupkg> searchNupkg(String storageId,
-                                        String repositoryId,
-                                        RepositoryProvider provider,
-                                        Paginator paginator,
-                                        Predicate predicate)
+    private PackageEntry toPackageEntry(String feedId,
+                                        PathNupkg nupkg,
+                                        ArtifactTag lastVersionTag)
     {
-        return provider.search(storageId, repositoryId, predicate, paginator)
-                       .stream()
-                       .map(p -> {
-                           try
-                           {
-                               return new PathNupkg((RepositoryPath) p);
-                           }
-                           catch (Exception e)
-                           {
-                               logger.error(String.format("Failed to resolve Nuget package path [%s]", p), e);
-                               return null;
-                           }
-                       })
-                       .collect(Collectors.toList());
+        try
+        {
+            PackageEntry entry = createPackageEntry(feedId, nupkg);
+            calculateFeedEntryProperties(nupkg, entry.getProperties(), lastVersionTag);
+            return entry;
+        }
+        catch (NoSuchAlgorithmException | IOException | NugetFormatException e)
+        {
+            logger.error("Failed to parse package " + nupkg, e);
+            return null;
+        }
     }
 
     private Predicate createSearchPredicate(String filter,
@@ -456,11 +467,19 @@ public class NugetArtifactController extends BaseArtifactController
         logger.info(String.format("Nuget push request: storageId-[%s]; repositoryId-[%s]", storageId, repositoryId));
         String contentType = request.getHeader("content-type");
 
+        if (StringUtils.isEmpty(extractBoundary(contentType)))
+        {
+            logger.error(String.format("Failed to extract Nuget package from request: [%s]:[%s]",
+                                       storageId,
+                                       repositoryId));
+
+            return ResponseEntity.badRequest().build();
+        }
+
         URI resourceUri;
         try
         {
-            ServletInputStream is = request.getInputStream();
-            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), is);
+            InputStream packagePartInputStream = extractPackageMultipartStream(request);
 
             if (packagePartInputStream == null)
             {
@@ -471,7 +490,14 @@ public class NugetArtifactController extends BaseArtifactController
                 return ResponseEntity.badRequest().build();
             }
 
-            resourceUri = storePackage(storageId, repositoryId, packagePartInputStream);
+            try
+            {
+                resourceUri = storePackage(storageId, repositoryId, packagePartInputStream);
+            }
+            finally
+            {
+                packagePartInputStream.close();
+            }
         }
         catch (Exception e)
         {
@@ -594,127 +620,259 @@ public class NugetArtifactController extends BaseArtifactController
         return boundaryString;
     }
 
-    private InputStream extractPackageMultipartStream(String boundaryString,
-                                                      ServletInputStream is)
-            throws IOException
+    /**
+     * Returns the stream of the package multipart, which is parsed straight from the request body, so that the package
+     * is not copied anywhere until it is stored into the repository.
+     */
+    private InputStream extractPackageMultipartStream(HttpServletRequest request)
+            throws IOException,
+                   FileUploadException
     {
-        if (StringUtils.isEmpty(boundaryString))
-        {
-            return null;
-        }
+        // According to the specification, the final Boundary of MultipartStream should be prefixed with
+        // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
+        // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
+        // NuGet `push` implementation.
+        InputStream is = new ReplacingInputStream(request.getInputStream(), BOUNDARY_PREFIX_TO_FIX,
+                                                  BOUNDARY_PREFIX_TARGET);
 
-        final Path packagePartFile = Files.createTempFile("nupkg", "part");
-        try (OutputStream packagePartOutputStream = new BufferedOutputStream(Files.newOutputStream(packagePartFile)))
+        FileItemIterator itemIterator = new FileUpload().getItemIterator(new RequestContext()
         {
 
-            writePackagePart(boundaryString, is, packagePartOutputStream);
-        }
+            @Override
+            public String getCharacterEncoding()
+            {
+                return request.getCharacterEncoding();
+            }
 
-        return new BufferedInputStream(Files.newInputStream(packagePartFile));
-    }
+            @Override
+            public String getContentType()
+            {
+                return request.getContentType();
+            }
 
-    private void writePackagePart(String boundaryString,
-                                  InputStream is,
-                                  OutputStream packagePartOutputStream)
-        throws IOException
-    {
-        // According to the specification, the final Boundary of MultipartStream should be prefixed with
-        // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
-        // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
-        // NuGet `push` implementation.
-        byte[] boundary = boundaryString.getBytes();
-        byte[] boundaryPrefixToFix = {0x00, 0x0A, 0x2D, 0x2D};
-        byte[] boundaryPrefixTarget = {0x00, 0x0D, 0x0A, 0x2D, 0x2D};
-        
-        byte[] replacementPattern = new byte[boundary.length + 4];
-        byte[] replacementTarget = new byte[boundary.length + 5];
+            @Override
+            @Deprecated
+            public int getContentLength()
+            {
+                // The body length is changed by the boundary fix above.
+                return -1;
+            }
 
-        System.arraycopy(boundaryPrefixToFix, 0, replacementPattern, 0, 4);
-        System.arraycopy(boundaryPrefixTarget, 0, replacementTarget, 0, 5);
-        
-        System.arraycopy(boundary, 0, replacementPattern, 4, boundary.length);
-        System.arraycopy(boundary, 0, replacementTarget, 4, boundary.length);
-        
-        Path streamContentPath = Files.createTempFile("boundaryString", "nupkg");
-        ReplacingInputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
-        long len = Files.copy(replacingIs, streamContentPath,
-                   StandardCopyOption.REPLACE_EXISTING);
-        System.out.println(len);
-
-        try (InputStream streamContentIs = new BufferedInputStream(Files.newInputStream(streamContentPath)))
-        {
-            MultipartStream multipartStream = new MultipartStream(streamContentIs, boundary);
-            multipartStream.skipPreamble();
-            String header = multipartStream.readHeaders();
-
-            // Package Multipart Header should be like follows:
-            // Content-Disposition: form-data; name="package";
-            // filename="package"
-            // Content-Type: application/octet-stream
-            if (!header.contains("package"))
+            @Override
+            public InputStream getInputStream()
             {
-                logger.error("Invalid package multipart format");
-                return;
+                return is;
             }
 
-            int contentLength = multipartStream.readBodyData(packagePartOutputStream);
-            logger.info(String.format("NuGet package content length [%s]", contentLength));
+        });
+
+        if (!itemIterator.hasNext())
+        {
+            return null;
+        }
+
+        // Package Multipart Header should be like follows:
+        // Content-Disposition: form-data; name="package";
+        // filename="package"
+        // Content-Type: application/octet-stream
+        FileItemStream packageItem = itemIterator.next();
+        if (!"package".equals(packageItem.getFieldName()) && !"package".equals(packageItem.getName()))
+        {
+            logger.error("Invalid package multipart format");
+            return null;
         }
+
+        return packageItem.openStream();
     }
 
+    /**
+     * Stores the package within a single pass over the request body: the package head is kept aside (in memory, or
+     * in a temporary file for the packages with the `.nuspec` far from the beginning) until the `.nuspec` is found,
+     * then the head and the rest of the request body are streamed into the repository and the SHA-512 is calculated
+     * along the way.
+     */
     private URI storePackage(String storageId,
                              String repositoryId,
                              InputStream is)
         throws Exception
     {
-        try (TempNupkgFile nupkgFile = new TempNupkgFile(is))
+        DeferredFileOutputStream packageHead = new DeferredFileOutputStream(PACKAGE_HEAD_THRESHOLD, "nupkg", "head",
+                                                                            null);
+        try
         {
-            if (nupkgFile.getNuspecFile() == null)
+            NuspecFile nuspecFile;
+            try
+            {
+                nuspecFile = readNuspecFile(new TeeInputStream(is, packageHead));
+            }
+            finally
+            {
+                packageHead.close();
+            }
+
+            if (nuspecFile == null)
             {
                 return null;
             }
 
-            String path = String.format("%s/%s/%s.%s.nupkg",
-                                        nupkgFile.getId(),
-                                        nupkgFile.getVersion(),
-                                        nupkgFile.getId(),
-                                        nupkgFile.getVersion());
+            String packageId = nuspecFile.getMetadata().id;
+            String packageVersion = nuspecFile.getMetadata().version.toString();
 
-            nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path, nupkgFile.getStream());
+            String path = String.format("%s/%s/%s.%s.nupkg", packageId, packageVersion, packageId, packageVersion);
 
-            Path nuspecFile = Files.createTempFile(nupkgFile.getId(), "nuspec");
-            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(nuspecFile)))
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-512");
+            try (InputStream packageInputStream = new DigestInputStream(new SequenceInputStream(toInputStream(packageHead),
+                                                                                               is),
+                                                                        messageDigest))
             {
-                nupkgFile.getNuspecFile().saveTo(outputStream);
+                nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path, packageInputStream);
             }
-            path = String.format("%s/%s/%s.nuspec", nupkgFile.getId(), nupkgFile.getVersion(), nupkgFile.getId());
 
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(nuspecFile)))
+            ByteArrayOutputStream nuspecOutputStream = new ByteArrayOutputStream();
+            nuspecFile.saveTo(nuspecOutputStream);
+
+            path = String.format("%s/%s/%s.nuspec", packageId, packageVersion, packageId);
+            nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path,
+                                                            new ByteArrayInputStream(nuspecOutputStream.toByteArray()));
+
+            ByteArrayOutputStream hashOutputStream = new ByteArrayOutputStream();
+            new Hash(messageDigest.digest()).saveTo(hashOutputStream);
+
+            path = String.format("%s/%s/%s.%s.nupkg.sha512", packageId, packageVersion, packageId, packageVersion);
+            nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path,
+                                                            new ByteArrayInputStream(hashOutputStream.toByteArray()));
+        }
+        finally
+        {
+            if (packageHead.getFile() != null)
             {
-                nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path, bis);
+                Files.deleteIfExists(packageHead.getFile().toPath());
             }
+        }
 
-            Path hashFile = Files.createTempFile(String.format("%s.%s", nupkgFile.getId(), nupkgFile.getVersion()),
-                                                "nupkg.sha512");
+        return new URI("");
+    }
 
-            try (OutputStream bos = new BufferedOutputStream(Files.newOutputStream(hashFile)))
+    private NuspecFile readNuspecFile(InputStream is)
+        throws IOException,
+               NugetFormatException
+    {
+        // The stream should not be closed here, as the rest of the package still needs to be stored.
+        ZipInputStream zipInputStream = new ZipInputStream(is);
+        for (ZipEntry zipEntry = zipInputStream.getNextEntry(); zipEntry != null; zipEntry = zipInputStream.getNextEntry())
+        {
+            if (!zipEntry.isDirectory() && zipEntry.getName().endsWith(".nuspec"))
             {
-                nupkgFile.getHash().saveTo(bos);
+                return NuspecFile.Parse(new ByteArrayInputStream(IOUtils.toByteArray(zipInputStream)));
             }
+        }
+
+        return null;
+    }
+
+    private InputStream toInputStream(DeferredFileOutputStream packageHead)
+        throws IOException
+    {
+        if (packageHead.isInMemory())
+        {
+            return new ByteArrayInputStream(packageHead.getData());
+        }
+
+        return new BufferedInputStream(Files.newInputStream(packageHead.getFile().toPath()));
+    }
+
+    /**
+     * Pulls the requested range of the feed entries from the database in pages of {@link #FEED_PAGE_SIZE}, as the
+     * feed is being written, until the given limit is reached.
+     */
+    private class PackageEntryPageIterator
+            implements Iterator<List<PackageEntry>>
+    {
+
+        private final String feedId;
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final RepositoryProvider provider;
+
+        private final Predicate predicate;
 
-            path = String.format("%s/%s/%s.%s.nupkg.sha512",
-                                 nupkgFile.getId(),
-                                 nupkgFile.getVersion(),
-                                 nupkgFile.getId(),
-                                 nupkgFile.getVersion());
+        private final String orderBy;
 
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(hashFile)))
+        private final ArtifactTag lastVersionTag;
+
+        private int skip;
+
+        private int remaining;
+
+        private boolean exhausted;
+
+        private int count;
+
+        PackageEntryPageIterator(String feedId,
+                                 String storageId,
+                                 String repositoryId,
+                                 RepositoryProvider provider,
+                                 Paginator paginator,
+                                 Predicate predicate,
+                                 int limit)
+        {
+            this.feedId = feedId;
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+            this.provider = provider;
+            this.predicate = predicate;
+            this.orderBy = paginator.getOrderBy();
+            this.skip = paginator.getSkip();
+            this.remaining = limit;
+            this.lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return !exhausted && remaining > 0;
+        }
+
+        @Override
+        public List<PackageEntry> next()
+        {
+            if (!hasNext())
             {
-                nugetArtifactManagementService.validateAndStore(storageId, repositoryId, path, bis);
+                throw new NoSuchElementException();
             }
+
+            int limit = Math.min(remaining, FEED_PAGE_SIZE);
+
+            Paginator paginator = new Paginator();
+            paginator.setSkip(skip);
+            paginator.setLimit(limit);
+            paginator.setOrderBy(orderBy);
+
+            List<Path> page = provider.search(storageId, repositoryId, predicate, paginator);
+
+            skip += page.size();
+            remaining -= page.size();
+            exhausted = page.size() < limit;
+
+            List<PackageEntry> result = page.stream()
+                                            .map(p -> toPathNupkg(p))
+                                            .filter(Objects::nonNull)
+                                            .map(n -> toPackageEntry(feedId, n, lastVersionTag))
+                                            .filter(Objects::nonNull)
+                                            .collect(Collectors.toList());
+            count += result.size();
+
+            return result;
+        }
+
+        public int getCount()
+        {
+            return count;
         }
 
-        return new URI("");
     }
 
     private String normaliseSearchTerm(String sourceValue)
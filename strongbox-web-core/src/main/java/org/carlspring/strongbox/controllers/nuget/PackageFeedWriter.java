@@ -0,0 +1,366 @@
+package org.carlspring.strongbox.controllers.nuget;
+
+import org.carlspring.strongbox.xml.parsers.GenericParser;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import ru.aristar.jnuget.rss.PackageEntry;
+import ru.aristar.jnuget.rss.PackageFeed;
+
+/**
+ * Writes the Nuget OData {@link PackageFeed} as a stream: the feed header is marshalled by JAXB as usual, while the
+ * `entry` elements are marshalled one by one, right before the closing `feed` element, as the pages of
+ * {@link PackageEntry}s are being pulled from the database. So neither the whole feed nor the whole result set is held
+ * in memory, and the first entries are sent before the last ones are queried.
+ */
+class PackageFeedWriter
+{
+
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+    private static final QName ENTRY_ELEMENT = new QName(ATOM_NAMESPACE, "entry");
+
+    private static final Class<?>[] FEED_CLASSES = { PackageFeed.class, PackageEntry.class };
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final Iterator<? extends List<? extends PackageEntry>> pages;
+
+    /**
+     * @param pages
+     *            the {@link PackageEntry} pages, which are expected to be fetched lazily
+     */
+    PackageFeedWriter(Iterator<? extends List<? extends PackageEntry>> pages)
+    {
+        this.pages = pages;
+    }
+
+    void write(PackageFeed feed,
+               OutputStream outputStream)
+        throws JAXBException,
+               XMLStreamException
+    {
+        feed.setEntries(new ArrayList<>());
+
+        XMLStreamWriter xmlStreamWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+        try
+        {
+            Marshaller feedMarshaller = GenericParser.borrowSharedMarshaller(FEED_CLASSES);
+            feedMarshaller.marshal(feed, new EntriesAppendingXMLStreamWriter(xmlStreamWriter));
+            GenericParser.returnSharedMarshaller(feedMarshaller, FEED_CLASSES);
+        }
+        finally
+        {
+            xmlStreamWriter.close();
+        }
+    }
+
+    private void writeEntries(XMLStreamWriter xmlStreamWriter)
+        throws JAXBException,
+               XMLStreamException
+    {
+        // The feed marshaller is still busy with the enclosing feed element, so another one is borrowed.
+        Marshaller entryMarshaller = GenericParser.borrowSharedMarshaller(FEED_CLASSES);
+        entryMarshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+        while (pages.hasNext())
+        {
+            for (PackageEntry packageEntry : pages.next())
+            {
+                entryMarshaller.marshal(new JAXBElement<>(ENTRY_ELEMENT, PackageEntry.class, packageEntry),
+                                        xmlStreamWriter);
+            }
+
+            xmlStreamWriter.flush();
+        }
+
+        GenericParser.returnSharedMarshaller(entryMarshaller, FEED_CLASSES);
+    }
+
+    /**
+     * Delegates everything to the target {@link XMLStreamWriter}, but writes the feed entries just before the root
+     * element is closed.
+     */
+    private class EntriesAppendingXMLStreamWriter
+            implements XMLStreamWriter
+    {
+
+        private final XMLStreamWriter target;
+
+        private int depth;
+
+        EntriesAppendingXMLStreamWriter(XMLStreamWriter target)
+        {
+            this.target = target;
+        }
+
+        @Override
+        public void writeStartElement(String localName)
+            throws XMLStreamException
+        {
+            depth++;
+            target.writeStartElement(localName);
+        }
+
+        @Override
+        public void writeStartElement(String namespaceURI,
+                                      String localName)
+            throws XMLStreamException
+        {
+            depth++;
+            target.writeStartElement(namespaceURI, localName);
+        }
+
+        @Override
+        public void writeStartElement(String prefix,
+                                      String localName,
+                                      String namespaceURI)
+            throws XMLStreamException
+        {
+            depth++;
+            target.writeStartElement(prefix, localName, namespaceURI);
+        }
+
+        @Override
+        public void writeEndElement()
+            throws XMLStreamException
+        {
+            if (depth == 1)
+            {
+                try
+                {
+                    writeEntries(target);
+                }
+                catch (JAXBException e)
+                {
+                    throw new XMLStreamException(e);
+                }
+            }
+
+            depth--;
+            target.writeEndElement();
+        }
+
+        @Override
+        public void writeEmptyElement(String namespaceURI,
+                                      String localName)
+            throws XMLStreamException
+        {
+            target.writeEmptyElement(namespaceURI, localName);
+        }
+
+        @Override
+        public void writeEmptyElement(String prefix,
+                                      String localName,
+                                      String namespaceURI)
+            throws XMLStreamException
+        {
+            target.writeEmptyElement(prefix, localName, namespaceURI);
+        }
+
+        @Override
+        public void writeEmptyElement(String localName)
+            throws XMLStreamException
+        {
+            target.writeEmptyElement(localName);
+        }
+
+        @Override
+        public void writeEndDocument()
+            throws XMLStreamException
+        {
+            target.writeEndDocument();
+        }
+
+        @Override
+        public void close()
+            throws XMLStreamException
+        {
+            target.close();
+        }
+
+        @Override
+        public void flush()
+            throws XMLStreamException
+        {
+            target.flush();
+        }
+
+        @Override
+        public void writeAttribute(String localName,
+                                   String value)
+            throws XMLStreamException
+        {
+            target.writeAttribute(localName, value);
+        }
+
+        @Override
+        public void writeAttribute(String prefix,
+                                   String namespaceURI,
+                                   String localName,
+                                   String value)
+            throws XMLStreamException
+        {
+            target.writeAttribute(prefix, namespaceURI, localName, value);
+        }
+
+        @Override
+        public void writeAttribute(String namespaceURI,
+                                   String localName,
+                                   String value)
+            throws XMLStreamException
+        {
+            target.writeAttribute(namespaceURI, localName, value);
+        }
+
+        @Override
+        public void writeNamespace(String prefix,
+                                   String namespaceURI)
+            throws XMLStreamException
+        {
+            target.writeNamespace(prefix, namespaceURI);
+        }
+
+        @Override
+        public void writeDefaultNamespace(String namespaceURI)
+            throws XMLStreamException
+        {
+            target.writeDefaultNamespace(namespaceURI);
+        }
+
+        @Override
+        public void writeComment(String data)
+            throws XMLStreamException
+        {
+            target.writeComment(data);
+        }
+
+        @Override
+        public void writeProcessingInstruction(String target)
+            throws XMLStreamException
+        {
+            this.target.writeProcessingInstruction(target);
+        }
+
+        @Override
+        public void writeProcessingInstruction(String target,
+                                               String data)
+            throws XMLStreamException
+        {
+            this.target.writeProcessingInstruction(target, data);
+        }
+
+        @Override
+        public void writeCData(String data)
+            throws XMLStreamException
+        {
+            target.writeCData(data);
+        }
+
+        @Override
+        public void writeDTD(String dtd)
+            throws XMLStreamException
+        {
+            target.writeDTD(dtd);
+        }
+
+        @Override
+        public void writeEntityRef(String name)
+            throws XMLStreamException
+        {
+            target.writeEntityRef(name);
+        }
+
+        @Override
+        public void writeStartDocument()
+            throws XMLStreamException
+        {
+            target.writeStartDocument();
+        }
+
+        @Override
+        public void writeStartDocument(String version)
+            throws XMLStreamException
+        {
+            target.writeStartDocument(version);
+        }
+
+        @Override
+        public void writeStartDocument(String encoding,
+                                       String version)
+            throws XMLStreamException
+        {
+            target.writeStartDocument(encoding, version);
+        }
+
+        @Override
+        public void writeCharacters(String text)
+            throws XMLStreamException
+        {
+            target.writeCharacters(text);
+        }
+
+        @Override
+        public void writeCharacters(char[] text,
+                                    int start,
+                                    int len)
+            throws XMLStreamException
+        {
+            target.writeCharacters(text, start, len);
+        }
+
+        @Override
+        public String getPrefix(String uri)
+            throws XMLStreamException
+        {
+            return target.getPrefix(uri);
+        }
+
+        @Override
+        public void setPrefix(String prefix,
+                              String uri)
+            throws XMLStreamException
+        {
+            target.setPrefix(prefix, uri);
+        }
+
+        @Override
+        public void setDefaultNamespace(String uri)
+            throws XMLStreamException
+        {
+            target.setDefaultNamespace(uri);
+        }
+
+        @Override
+        public void setNamespaceContext(NamespaceContext context)
+            throws XMLStreamException
+        {
+            target.setNamespaceContext(context);
+        }
+
+        @Override
+        public NamespaceContext getNamespaceContext()
+        {
+            return target.getNamespaceContext();
+        }
+
+        @Override
+        public Object getProperty(String name)
+        {
+            return target.getProperty(name);
+        }
+
+    }
+
+}
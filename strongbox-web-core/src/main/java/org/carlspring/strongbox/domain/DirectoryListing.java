@@ -4,11 +4,11 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,10 +18,18 @@ public class DirectoryListing
 
     private static final Logger logger = LoggerFactory.getLogger(DirectoryListing.class);
 
+    private static final String CURSOR_DIRECTORY = "d:";
+
+    private static final String CURSOR_FILE = "f:";
+
+    private static final Comparator<FileContent> BY_NAME = Comparator.comparing(FileContent::getName);
+
     private List<FileContent> directories;
 
     private List<FileContent> files;
 
+    private String nextCursor;
+
     public static DirectoryListing fromStorages(Map<String, Storage> storages)
     {
         DirectoryListing directoryListing = new DirectoryListing();
@@ -88,41 +96,41 @@ public class DirectoryListing
         List<FileContent> directories = new ArrayList<>();
         List<FileContent> files = new ArrayList<>();
 
-        List<Path> contentPaths = Files.list(path)
-                                       .filter(p -> !p.toFile().getName().startsWith("."))
-                                       .filter(p -> {
-                                           try
-                                           {
-                                               return !Files.isHidden(p);
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.debug("Error accessing path {}", p);
-                                               return false;
-                                           }
-                                       })
-                                       .sorted()
-                                       .collect(Collectors.toList());
-
-        for (Path contentPath : contentPaths)
+        try (DirectoryStream<Path> contentPaths = Files.newDirectoryStream(path, DirectoryListing::isVisible))
         {
-            FileContent file = new FileContent(contentPath.toFile().getName());
-
-            if (Files.isDirectory(contentPath))
+            for (Path contentPath : contentPaths)
             {
-                directories.add(file);
-            }
-            else
-            {
-                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
-
-                file.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
-                file.setSize(attributes.size());
-
-                files.add(file);
+                BasicFileAttributes attributes;
+                try
+                {
+                    attributes = Files.readAttributes(contentPath, BasicFileAttributes.class);
+                }
+                catch (IOException e)
+                {
+                    // The entry might have been removed since the directory was read.
+                    logger.debug("Error accessing path {}", contentPath);
+                    continue;
+                }
+
+                FileContent file = new FileContent(contentPath.getFileName().toString());
+
+                if (attributes.isDirectory())
+                {
+                    directories.add(file);
+                }
+                else
+                {
+                    file.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
+                    file.setSize(attributes.size());
+
+                    files.add(file);
+                }
             }
         }
 
+        directories.sort(BY_NAME);
+        files.sort(BY_NAME);
+
         Map<String, List<FileContent>> listing = new HashMap<>();
         listing.put("directories", directories);
         listing.put("files", files);
@@ -130,6 +138,93 @@ public class DirectoryListing
         return listing;
     }
 
+    private static boolean isVisible(Path path)
+    {
+        if (path.getFileName().toString().startsWith("."))
+        {
+            return false;
+        }
+
+        try
+        {
+            return !Files.isHidden(path);
+        }
+        catch (IOException e)
+        {
+            logger.debug("Error accessing path {}", path);
+            return false;
+        }
+    }
+
+    /**
+     * Returns a page of this listing: the directories come first, followed by the files, each of them sorted by name,
+     * so the order is stable across requests.
+     *
+     * @param cursor The {@link #getNextCursor()} of the previous page, or null for the first page.
+     * @param limit  The maximum number of entries of the page.
+     * @return DirectoryListing
+     */
+    public DirectoryListing page(String cursor,
+                                 int limit)
+    {
+        List<FileContent> directories = getDirectories();
+        List<FileContent> files = getFiles();
+
+        int total = directories.size() + files.size();
+        int from = Math.min(cursorToIndex(cursor), total);
+        int to = (int) Math.min((long) from + limit, total);
+
+        DirectoryListing page = new DirectoryListing();
+        if (from < directories.size())
+        {
+            page.setDirectories(new ArrayList<>(directories.subList(from, Math.min(to, directories.size()))));
+        }
+        if (to > directories.size())
+        {
+            page.setFiles(new ArrayList<>(files.subList(Math.max(from - directories.size(), 0),
+                                                        to - directories.size())));
+        }
+
+        if (to < total)
+        {
+            page.setNextCursor(to > directories.size() ?
+                               CURSOR_FILE + files.get(to - directories.size() - 1).getName() :
+                               CURSOR_DIRECTORY + directories.get(to - 1).getName());
+        }
+
+        return page;
+    }
+
+    /**
+     * The cursor refers to the last entry of the previous page by name, rather than by position, so the pages stay
+     * consistent when entries are added or removed in between the requests.
+     */
+    private int cursorToIndex(String cursor)
+    {
+        if (cursor == null || cursor.isEmpty())
+        {
+            return 0;
+        }
+
+        if (cursor.startsWith(CURSOR_DIRECTORY))
+        {
+            return indexAfter(getDirectories(), cursor.substring(CURSOR_DIRECTORY.length()));
+        }
+        else if (cursor.startsWith(CURSOR_FILE))
+        {
+            return getDirectories().size() + indexAfter(getFiles(), cursor.substring(CURSOR_FILE.length()));
+        }
+
+        throw new IllegalArgumentException(String.format("Invalid directory listing cursor [%s].", cursor));
+    }
+
+    private static int indexAfter(List<FileContent> contents,
+                                  String name)
+    {
+        int index = Collections.binarySearch(contents, new FileContent(name), BY_NAME);
+
+        return index >= 0 ? index + 1 : -index - 1;
+    }
 
     public List<FileContent> getDirectories()
     {
@@ -161,4 +256,17 @@ public class DirectoryListing
         this.files = files;
     }
 
+    /**
+     * @return The cursor of the next page, or null if this is the last one.
+     */
+    public String getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
+
 }
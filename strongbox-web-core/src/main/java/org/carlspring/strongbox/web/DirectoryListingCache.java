@@ -0,0 +1,115 @@
+package org.carlspring.strongbox.web;
+
+import org.carlspring.strongbox.domain.DirectoryListing;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListener;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the recently browsed repository directory listings, so that paging through a large directory doesn't list and
+ * stat the whole directory on every request.
+ *
+ * A listing is evicted as soon as an artifact is stored into, or deleted from, its directory. On top of that, every
+ * cached listing is checked against the modification time of its directory, which also covers the directories created
+ * or removed further down the tree.
+ */
+@Component
+public class DirectoryListingCache
+        implements ArtifactEventListener<RepositoryPath>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryListingCache.class);
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Map<String, CachedDirectoryListing> listings = Collections.synchronizedMap(
+            new LinkedHashMap<String, CachedDirectoryListing>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedDirectoryListing> eldest)
+                {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /**
+     * @see DirectoryListing#fromPath(Path, Path)
+     */
+    public DirectoryListing get(Path rootPath,
+                                Path path)
+            throws IOException
+    {
+        String key = toKey(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        CachedDirectoryListing cached = listings.get(key);
+        if (cached != null && cached.lastModified == lastModified)
+        {
+            return cached.directoryListing;
+        }
+
+        DirectoryListing directoryListing = DirectoryListing.fromPath(rootPath, path);
+        listings.put(key, new CachedDirectoryListing(directoryListing, lastModified));
+
+        return directoryListing;
+    }
+
+    public void evict(Path path)
+    {
+        listings.remove(toKey(path));
+    }
+
+    @Override
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() &&
+            event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath path = event.getPath();
+        logger.debug("Evicting directory listing of [{}].", path.getParent());
+
+        evict(path.getParent());
+        if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            // The deleted path might have been a directory itself.
+            evict(path);
+        }
+    }
+
+    private String toKey(Path path)
+    {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    private static class CachedDirectoryListing
+    {
+
+        private final DirectoryListing directoryListing;
+
+        private final long lastModified;
+
+        CachedDirectoryListing(DirectoryListing directoryListing,
+                               long lastModified)
+        {
+            this.directoryListing = directoryListing;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+}
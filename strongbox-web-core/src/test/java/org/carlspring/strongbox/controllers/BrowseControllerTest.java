@@ -2,6 +2,7 @@ package org.carlspring.strongbox.controllers;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static junit.framework.TestCase.assertNotNull;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -10,8 +11,11 @@ import com.google.common.base.Throwables;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.domain.DirectoryListing;
@@ -217,6 +221,48 @@ public class BrowseControllerTest
 
     }
 
+    @Test
+    public void testRepositoryContentsPagination()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + BrowseController.ROOT_CONTEXT + "/" + STORAGE0 + "/" + REPOSITORY
+                     + "/org/carlspring/strongbox/browsing/test-browsing/1.1";
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do
+        {
+            String jsonResponse = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                         .param("limit", 4)
+                                         .param("cursor", cursor != null ? cursor : "")
+                                         .when()
+                                         .get(url)
+                                         .prettyPeek()
+                                         .then()
+                                         .statusCode(200)
+                                         .extract()
+                                         .asString();
+
+            DirectoryListing returned = new ObjectMapper().readValue(jsonResponse, DirectoryListing.class);
+
+            assertTrue("Page exceeds the limit", returned.getDirectories().size() + returned.getFiles().size() <= 4);
+            returned.getFiles().forEach(f -> names.add(f.getName()));
+
+            cursor = returned.getNextCursor();
+        }
+        while (cursor != null);
+
+        assertEquals("Invalid files returned", 6, names.size());
+        assertEquals("Files are not sorted", names.stream().sorted().collect(Collectors.toList()), names);
+
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .param("cursor", "foo")
+               .when()
+               .get(url)
+               .then()
+               .statusCode(400);
+    }
+
     @Test
     public void testRepositoryContentsWithRepositoryNotFound()
     {
@@ -0,0 +1,33 @@
+package org.carlspring.strongbox.controllers.environment;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.rest.common.RestAssuredBaseTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.Matchers.equalTo;
+
+@IntegrationTest
+@RunWith(SpringRunner.class)
+public class ReadinessControllerTestIT
+        extends RestAssuredBaseTest
+{
+
+    @Test
+    public void testRepositoriesAreInitialized()
+    {
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get("/api/ready")
+               .prettyPeek()
+               .then()
+               .statusCode(200)
+               .body("ready", equalTo(true))
+               .body("failed", equalTo(0))
+               .body("skipped", equalTo(0));
+    }
+
+}
@@ -18,6 +18,8 @@ import org.carlspring.strongbox.storage.repository.NpmRepositoryFactory;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
 import org.carlspring.strongbox.testing.TestCaseWithRepositoryManagement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -101,4 +103,36 @@ public class NpmArtifactControllerTest extends TestCaseWithRepositoryManagement
                .header("Content-Length", equalTo(String.valueOf(Files.size(packagePath))));
     }
 
+    @Test
+    public void testPublishWithMismatchedShasumIsRejected()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-shasum", "1.0.0");
+        NpmPackageGenerator packageGenerator = NpmPackageGenerator.newInstance();
+        Path publishJsonPath = packageGenerator.of(coordinates).buildPublishJson();
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode publishJson = (ObjectNode) mapper.readTree(publishJsonPath.toFile());
+        ObjectNode versionJson = (ObjectNode) publishJson.get("versions").get(coordinates.getVersion());
+        versionJson.putObject("dist").put("shasum", "0000000000000000000000000000000000000000");
+
+        given().header("User-Agent", "npm/*")
+               .header("Content-Type", "application/json")
+               .body(mapper.writeValueAsBytes(publishJson))
+               .when()
+               .put(contextBaseUrl + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 + "/"
+                       + coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(contextBaseUrl + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 + "/"
+                       + coordinates.toResource())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
 }
@@ -0,0 +1,92 @@
+package org.carlspring.strongbox.controllers.npm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PackageJsonExtractingOutputStreamTest
+{
+
+    private static final String PACKAGE_JSON = "{\"name\":\"npm-test\",\"version\":\"1.0.0\"}";
+
+    @Test
+    public void testPackageJsonIsExtractedFromChunks()
+            throws IOException
+    {
+        byte[] tarball = tarball("package/index.js", randomContent(100000),
+                                 "package/lib/package.json", "{\"nested\":true}".getBytes(StandardCharsets.UTF_8),
+                                 "package/package.json", PACKAGE_JSON.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(PACKAGE_JSON, extract(tarball, 1));
+        assertEquals(PACKAGE_JSON, extract(tarball, 777));
+        assertEquals(PACKAGE_JSON, extract(tarball, tarball.length));
+    }
+
+    @Test
+    public void testTarballWithoutPackageJson()
+            throws IOException
+    {
+        byte[] tarball = tarball("package/index.js", randomContent(1000));
+
+        assertNull(extract(tarball, 512));
+    }
+
+    private static String extract(byte[] tarball,
+                                  int chunkSize)
+            throws IOException
+    {
+        try (PackageJsonExtractingOutputStream out = new PackageJsonExtractingOutputStream())
+        {
+            for (int off = 0; off < tarball.length; off += chunkSize)
+            {
+                out.write(tarball, off, Math.min(chunkSize, tarball.length - off));
+            }
+
+            byte[] packageJson = out.getPackageJson();
+
+            return packageJson != null ? new String(packageJson, StandardCharsets.UTF_8) : null;
+        }
+    }
+
+    private static byte[] randomContent(int size)
+    {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+
+        return content;
+    }
+
+    /**
+     * @param entries the entry names, each followed by its content
+     */
+    private static byte[] tarball(Object... entries)
+            throws IOException
+    {
+        ByteArrayOutputStream tarball = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new GzipCompressorOutputStream(tarball)))
+        {
+            for (int i = 0; i < entries.length; i += 2)
+            {
+                byte[] content = (byte[]) entries[i + 1];
+
+                TarArchiveEntry entry = new TarArchiveEntry((String) entries[i]);
+                entry.setSize(content.length);
+
+                tarOut.putArchiveEntry(entry);
+                tarOut.write(content);
+                tarOut.closeArchiveEntry();
+            }
+        }
+
+        return tarball.toByteArray();
+    }
+
+}
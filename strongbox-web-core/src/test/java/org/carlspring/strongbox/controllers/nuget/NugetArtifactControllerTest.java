@@ -3,6 +3,7 @@ package org.carlspring.strongbox.controllers.nuget;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.rest.common.NugetRestAssuredBaseTest;
@@ -382,6 +383,69 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].properties.Version", equalTo(packageVersion));
     }
     
+    @Test
+    public void testPackageSearchPaging()
+        throws Exception
+    {
+        String packageId = "Org.Carlspring.Strongbox.Nuget.Test.Paging";
+        for (String packageVersion : Arrays.asList("1.0.0", "1.1.0", "1.2.0"))
+        {
+            byte[] packageContent = readPackageContent(generatePackageFile(packageId, packageVersion));
+
+            createPushRequest(packageContent).when()
+                                             .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                                  REPOSITORY_RELEASES_1 + "/")
+                                             .peek()
+                                             .then()
+                                             .statusCode(HttpStatus.CREATED.value());
+        }
+
+        // `$top=0` asks for no entries at all.
+        given().header("User-Agent", "NuGet/*")
+               .when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                    String.format("/Search()?$skip=%s&$top=%s&searchTerm=%s&targetFramework=",
+                                  0, 0, "Test.Paging"))
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .and()
+               .assertThat()
+               .body("feed.title", equalTo("Packages"))
+               .body("feed.entry.size()", equalTo(0));
+
+        given().header("User-Agent", "NuGet/*")
+               .when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                    String.format("/Search()?$skip=%s&$top=%s&searchTerm=%s&targetFramework=",
+                                  1, 1, "Test.Paging"))
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .and()
+               .assertThat()
+               .body("feed.entry.size()", equalTo(1));
+
+        // FindPackagesById() lists every version.
+        given().header("User-Agent", "NuGet/*")
+               .when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                    "/FindPackagesById()?id='" + packageId + "'")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .and()
+               .assertThat()
+               .body("feed.entry.size()", equalTo(3));
+    }
+
+    @Test
+    public void testFeedLimit()
+    {
+        assertEquals(0, NugetArtifactController.getFeedLimit(0));
+        assertEquals(30, NugetArtifactController.getFeedLimit(30));
+        assertEquals(Paginator.MAX_LIMIT.intValue(), NugetArtifactController.getFeedLimit(null));
+        assertEquals(Paginator.MAX_LIMIT.intValue(), NugetArtifactController.getFeedLimit(-1));
+        assertEquals(Paginator.MAX_LIMIT.intValue(), NugetArtifactController.getFeedLimit(Paginator.MAX_LIMIT + 1));
+    }
+
     public MockMvcRequestSpecification createPushRequest(byte[] packageContent)
     {
         return given().header("User-Agent", "NuGet/*")
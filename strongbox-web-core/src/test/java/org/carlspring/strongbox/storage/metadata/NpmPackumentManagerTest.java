@@ -0,0 +1,213 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.NpmPackageGenerator;
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.NpmRepositoryFactory;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.testing.TestCaseWithRepositoryManagement;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@IntegrationTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class NpmPackumentManagerTest extends TestCaseWithRepositoryManagement
+{
+
+    private static final String STORAGE_ID = "storage-npm-packument";
+
+    private static final String REPOSITORY_RELEASES = "npm-packument-releases";
+
+    @Inject
+    private NpmRepositoryFactory npmRepositoryFactory;
+
+    @Inject
+    private NpmLayoutProvider npmLayoutProvider;
+
+    @Inject
+    private NpmPackumentManager npmPackumentManager;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    @Qualifier("npmJackasonMapper")
+    private ObjectMapper npmJackasonMapper;
+
+    private Repository repository;
+
+    @BeforeClass
+    public static void cleanUp()
+        throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    public static Set<Repository> getRepositoriesToClean()
+    {
+        Set<Repository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE_ID, REPOSITORY_RELEASES));
+
+        return repositories;
+    }
+
+    @Before
+    public void init()
+        throws Exception
+    {
+        createStorage(STORAGE_ID);
+
+        Repository repository1 = npmRepositoryFactory.createRepository(STORAGE_ID, REPOSITORY_RELEASES);
+        repository1.setPolicy(RepositoryPolicyEnum.RELEASE.getPolicy());
+
+        createRepository(repository1);
+
+        repository = getConfiguration().getStorage(STORAGE_ID).getRepository(REPOSITORY_RELEASES);
+    }
+
+    @Test
+    public void testPackumentIsMergedOnPublish()
+        throws Exception
+    {
+        String packageName = "@carlspring/npm-test-packument-publish";
+        RepositoryPath packageBasePath = deploy(packageName, "1.0.0").getParent();
+        deploy(packageName, "1.1.0");
+
+        JsonNode packument = readPackument(packageBasePath, false);
+        assertEquals(packageName, packument.get("name").asText());
+        assertEquals("1.1.0", packument.get("dist-tags").get("latest").asText());
+        assertTrue(packument.get("versions").has("1.0.0"));
+        assertTrue(packument.get("versions").has("1.1.0"));
+        assertTrue(packument.get("time").has("1.0.0"));
+        assertEquals("sha1-1.0.0", packument.get("versions").get("1.0.0").get("dist").get("shasum").asText());
+
+        // Storing a file of the version again merges it again, but keeps its publish time.
+        String published = packument.get("time").get("1.0.0").asText();
+        RepositoryPath packagePath = npmLayoutProvider.resolve(repository,
+                                                               NpmArtifactCoordinates.of(packageName, "1.0.0"));
+        store(packagePath.resolveSibling(packagePath.getFileName() + ".sha1"),
+              new ByteArrayInputStream("sha1-1.0.0".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(published, readPackument(packageBasePath, false).get("time").get("1.0.0").asText());
+
+        JsonNode abbreviated = readPackument(packageBasePath, true);
+        assertEquals("1.1.0", abbreviated.get("dist-tags").get("latest").asText());
+        assertEquals(2, abbreviated.get("versions").size());
+        assertFalse(abbreviated.get("versions").get("1.0.0").has("_id"));
+        assertTrue(abbreviated.get("versions").get("1.0.0").has("dist"));
+    }
+
+    @Test
+    public void testPackumentIsUpdatedOnUnpublish()
+        throws Exception
+    {
+        String packageName = "@carlspring/npm-test-packument-unpublish";
+        RepositoryPath versionPath = deploy(packageName, "2.0.0");
+        RepositoryPath packageBasePath = versionPath.getParent();
+        RepositoryPath previousVersionPath = deploy(packageName, "1.0.0");
+
+        artifactManagementService.delete(versionPath, true);
+
+        JsonNode packument = readPackument(packageBasePath, false);
+        assertFalse(packument.get("versions").has("2.0.0"));
+        assertFalse(packument.get("time").has("2.0.0"));
+        assertEquals("1.0.0", packument.get("dist-tags").get("latest").asText());
+
+        artifactManagementService.delete(previousVersionPath, true);
+
+        assertFalse(Files.exists(npmPackumentManager.resolvePackument(packageBasePath, false)));
+        assertFalse(Files.exists(npmPackumentManager.resolvePackument(packageBasePath, true)));
+    }
+
+    @Test
+    public void testRebuildMetadata()
+        throws Exception
+    {
+        String packageName = "@carlspring/npm-test-packument-rebuild";
+        RepositoryPath packageBasePath = deploy(packageName, "1.0.0").getParent();
+        deploy(packageName, "1.0.1");
+
+        Files.delete(npmPackumentManager.resolvePackument(packageBasePath, false).getTarget());
+        Files.delete(npmPackumentManager.resolvePackument(packageBasePath, true).getTarget());
+
+        npmLayoutProvider.rebuildMetadata(STORAGE_ID, REPOSITORY_RELEASES, null);
+
+        JsonNode packument = readPackument(packageBasePath, false);
+        assertEquals(2, packument.get("versions").size());
+        assertEquals("1.0.1", packument.get("dist-tags").get("latest").asText());
+        assertEquals("sha1-1.0.1", packument.get("versions").get("1.0.1").get("dist").get("shasum").asText());
+
+        assertEquals(2, readPackument(packageBasePath, true).get("versions").size());
+    }
+
+    /**
+     * Stores the package files the way the npm publish endpoint does.
+     *
+     * @return the version directory of the package
+     */
+    private RepositoryPath deploy(String packageName,
+                                  String version)
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(packageName, version);
+        NpmPackageGenerator packageGenerator = NpmPackageGenerator.newInstance().of(coordinates);
+        packageGenerator.buildPackage();
+
+        RepositoryPath packagePath = npmLayoutProvider.resolve(repository, coordinates);
+
+        try (InputStream is = Files.newInputStream(packageGenerator.getPackagePath()))
+        {
+            store(packagePath, is);
+        }
+        try (InputStream is = Files.newInputStream(packageGenerator.getPackagePath().resolveSibling("package.json")))
+        {
+            store(packagePath.resolveSibling("package.json"), is);
+        }
+        store(packagePath.resolveSibling(packagePath.getFileName() + ".sha1"),
+              new ByteArrayInputStream(("sha1-" + version).getBytes(StandardCharsets.UTF_8)));
+
+        return packagePath.getParent();
+    }
+
+    private void store(RepositoryPath path,
+                       InputStream is)
+        throws Exception
+    {
+        artifactManagementService.validateAndStore(STORAGE_ID, REPOSITORY_RELEASES, path.relativize().toString(), is);
+    }
+
+    private JsonNode readPackument(RepositoryPath packageBasePath,
+                                   boolean abbreviated)
+        throws Exception
+    {
+        RepositoryPath packumentPath = npmPackumentManager.resolvePackument(packageBasePath, abbreviated);
+        assertTrue("Packument not found: " + packumentPath, Files.exists(packumentPath));
+
+        return npmJackasonMapper.readTree(Files.readAllBytes(packumentPath.getTarget()));
+    }
+
+}